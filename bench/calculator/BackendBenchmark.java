@@ -0,0 +1,79 @@
+package calculator;
+
+import java.math.MathContext;
+
+/**
+ * This Class measures the throughput of every NumericBackend on the same mix of
+ * operands, so the cheapest backend that is precise enough can be chosen. The
+ * PreciseBackend and BigDecimal are then measured on operands too large for a
+ * long, where the PreciseBackend escalates to BigDecimal.
+ * 
+ * @author Andrew Sand
+ */
+public class BackendBenchmark {
+	/**
+	 * Member variable that stores the operands used by every benchmark
+	 */
+	private static final String[] OPERANDS = { "1", "3", "1.5", "3.63", "172", "7", "17.6", "5.69", "63.354", "8.31",
+			"987.5", "4", "96.35", "64.6", "-8.25", "0.3" };
+
+	/**
+	 * Member variable that stores operands of more than 18 digits
+	 */
+	private static final String[] LARGE = { "123456789012345678901.25", "98765432109876543210", "-5000000000000000000000",
+			"31415926535897932384.626", "2718281828459045235360", "0.0000000000000000000001", "77777777777777777777777",
+			"10000000000000000000000.5" };
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		NumericBackend[] backends = { new FloatBackend(), new DoubleBackend(), new BigDecimalBackend(),
+				new BigDecimalBackend(MathContext.DECIMAL64), new RationalBackend(), new PreciseBackend() };
+		String[] names = { "float", "double", "BigDecimal(DECIMAL128)", "BigDecimal(DECIMAL64)", "Rational",
+				"Precise" };
+
+		for (int i = 0; i < backends.length; i++) {
+			NumericBackend b = backends[i];
+			Bench.run(names[i] + " add", ops -> {
+				for (int j = 0; j < ops; j++) {
+					Bench.consume(b.add(OPERANDS[j & 15], OPERANDS[(j + 1) & 15]));
+				}
+			});
+			Bench.run(names[i] + " multiply", ops -> {
+				for (int j = 0; j < ops; j++) {
+					Bench.consume(b.multiply(OPERANDS[j & 15], OPERANDS[(j + 1) & 15]));
+				}
+			});
+			Bench.run(names[i] + " divide", ops -> {
+				for (int j = 0; j < ops; j++) {
+					Bench.consume(b.divide(OPERANDS[j & 15], OPERANDS[(j + 1) & 15]));
+				}
+			});
+			Bench.run(names[i] + " square_root", ops -> {
+				for (int j = 0; j < ops; j++) {
+					Bench.consume(b.square_root(OPERANDS[j & 7]));
+				}
+			});
+		}
+
+		// Operands too large for a long
+		NumericBackend[] large = { new BigDecimalBackend(), new PreciseBackend() };
+		String[] largeNames = { "BigDecimal(DECIMAL128)", "Precise" };
+		for (int i = 0; i < large.length; i++) {
+			NumericBackend b = large[i];
+			Bench.run(largeNames[i] + " add (large)", ops -> {
+				for (int j = 0; j < ops; j++) {
+					Bench.consume(b.add(LARGE[j & 7], LARGE[(j + 1) & 7]));
+				}
+			});
+			Bench.run(largeNames[i] + " multiply (large)", ops -> {
+				for (int j = 0; j < ops; j++) {
+					Bench.consume(b.multiply(LARGE[j & 7], LARGE[(j + 1) & 7]));
+				}
+			});
+		}
+	}
+}
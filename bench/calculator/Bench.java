@@ -0,0 +1,268 @@
+package calculator;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+/**
+ * This Class is a small benchmark harness used by the benchmark classes in the
+ * "bench" directory. Each benchmark is run for a number of warm-up iterations,
+ * so that the JIT compiler has compiled the code being measured, followed by a
+ * number of measured iterations. The throughput of every measured iteration is
+ * reported as operations per second, together with its mean and error. The
+ * bytes allocated by the measuring thread are also reported, both per operation
+ * and as an allocation rate, like the gc profiler of JMH does. A benchmark can
+ * also be run on several threads at once to measure how it scales.
+ * 
+ * The iteration counts and times can be changed with the bench.warmup,
+ * bench.iterations and bench.time (milliseconds) system properties.
+ * 
+ * @author Andrew Sand
+ */
+final class Bench {
+	/**
+	 * The code being measured. It must carry out the passed in number of
+	 * operations and pass its results to consume() so they are not optimised
+	 * away.
+	 */
+	interface Body {
+		void run(int ops) throws Exception;
+	}
+
+	/**
+	 * Member variables that store the iteration settings
+	 */
+	private static final int WARMUP = Integer.getInteger("bench.warmup", 5);
+	private static final int ITERATIONS = Integer.getInteger("bench.iterations", 5);
+	private static final long TIME = Long.getLong("bench.time", 1000) * 1000000L;
+
+	/**
+	 * Member variable that stores the bean used to read allocated bytes
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	/**
+	 * Member variables that store the operations and bytes allocated by the
+	 * measured iterations
+	 */
+	private static long measuredOps, measuredBytes, measuredNanos;
+
+	/**
+	 * Member variable used to stop the JIT compiler from removing unused results
+	 */
+	private static volatile long sink;
+
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private Bench() {
+	}
+
+	/**
+	 * Consumes a result so that the code that produced it is not removed.
+	 * 
+	 * @param x - the result to consume
+	 */
+	static void consume(long x) {
+		if (x == 0x5eed) {
+			sink = x;
+		}
+	}
+
+	/**
+	 * @param x - the result to consume
+	 */
+	static void consume(float x) {
+		consume((long) Float.floatToRawIntBits(x));
+	}
+
+	/**
+	 * @param o - the result to consume
+	 */
+	static void consume(Object o) {
+		consume((long) System.identityHashCode(o));
+	}
+
+	/**
+	 * Runs a benchmark and prints its throughput.
+	 * 
+	 * @param name - the name of the benchmark
+	 * @param body - the code being measured
+	 * @return - the mean throughput in operations per second
+	 */
+	static double run(String name, Body body) throws Exception {
+		// Running once so that class loading is not counted by the calibration
+		body.run(1);
+		int batch = calibrate(body);
+
+		// Warming up
+		for (int i = 0; i < WARMUP; i++) {
+			iteration(body, batch);
+		}
+
+		// Measuring
+		measuredOps = measuredBytes = measuredNanos = 0;
+		double[] scores = new double[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			scores[i] = iteration(body, batch);
+		}
+		return report(name, scores);
+	}
+
+	/**
+	 * Runs a benchmark on several threads at once, like the Threads annotation of
+	 * JMH, and prints the total throughput of all of the threads. Each thread has
+	 * its own Body, so that the state it works on can be its own.
+	 * 
+	 * @param name    - the name of the benchmark
+	 * @param threads - the number of threads
+	 * @param bodies  - creates the code measured by each thread
+	 * @return - the mean total throughput in operations per second
+	 */
+	static double run(String name, int threads, IntFunction<Body> bodies) throws Exception {
+		// Creating each thread's body, and calibrating using the first
+		Body[] body = new Body[threads];
+		for (int t = 0; t < threads; t++) {
+			body[t] = bodies.apply(t);
+			body[t].run(1);
+		}
+		int batch = calibrate(body[0]);
+
+		// Running every iteration on all of the threads, which wait for each other
+		// before starting each one
+		int rounds = WARMUP + ITERATIONS;
+		long[][] ops = new long[rounds][threads], bytes = new long[rounds][threads], nanos = new long[rounds][threads];
+		CyclicBarrier barrier = new CyclicBarrier(threads);
+		AtomicReference<Exception> failure = new AtomicReference<>();
+		Thread[] workers = new Thread[threads];
+		for (int t = 0; t < threads; t++) {
+			int id = t;
+			workers[t] = new Thread(() -> {
+				try {
+					for (int r = 0; r < rounds; r++) {
+						barrier.await();
+						long[] result = measure(body[id], batch);
+						ops[r][id] = result[0];
+						bytes[r][id] = result[1];
+						nanos[r][id] = result[2];
+					}
+				} catch (Exception e) {
+					failure.compareAndSet(null, e);
+					barrier.reset();
+				}
+			}, name + " #" + t);
+			workers[t].start();
+		}
+		for (Thread w : workers) {
+			w.join();
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+
+		// Adding up the measured iterations
+		measuredOps = measuredBytes = measuredNanos = 0;
+		double[] scores = new double[ITERATIONS];
+		for (int i = 0; i < ITERATIONS; i++) {
+			int r = WARMUP + i;
+			long longest = 0;
+			for (int t = 0; t < threads; t++) {
+				scores[i] += ops[r][t] * 1e9 / nanos[r][t];
+				measuredOps += ops[r][t];
+				measuredBytes += bytes[r][t];
+				longest = Math.max(longest, nanos[r][t]);
+			}
+			measuredNanos += longest;
+		}
+		return report(name + " (" + threads + " threads)", scores);
+	}
+
+	/**
+	 * Helper Method that finds how many operations take roughly a tenth of an
+	 * iteration.
+	 * 
+	 * @param body - the code being measured
+	 * @return - the number of operations per call to the body
+	 */
+	private static int calibrate(Body body) throws Exception {
+		int batch = 1;
+		while (true) {
+			long start = System.nanoTime();
+			body.run(batch);
+			long elapsed = System.nanoTime() - start;
+			if (elapsed > TIME / 10 || batch >= (1 << 30)) {
+				return batch;
+			}
+			batch *= 2;
+		}
+	}
+
+	/**
+	 * Helper Method that prints the mean and standard deviation of the measured
+	 * iterations, along with the allocations.
+	 * 
+	 * @param name   - the name of the benchmark
+	 * @param scores - the throughput of each measured iteration
+	 * @return - the mean throughput in operations per second
+	 */
+	private static double report(String name, double[] scores) {
+		double mean = 0;
+		for (double s : scores) {
+			mean += s;
+		}
+		mean /= scores.length;
+		double var = 0;
+		for (double s : scores) {
+			var += (s - mean) * (s - mean);
+		}
+		double error = scores.length > 1 ? Math.sqrt(var / (scores.length - 1)) : 0;
+		double bytesPerOp = (double) measuredBytes / measuredOps;
+		double rate = measuredBytes * 1e9 / measuredNanos / (1 << 20);
+		System.out.println(String.format(Locale.ROOT, "%-50s %16.1f +- %12.1f ops/s %10.1f B/op %10.1f MB/s", name,
+				mean, error, bytesPerOp, rate));
+		return mean;
+	}
+
+	/**
+	 * Helper Method that runs one iteration of a benchmark.
+	 * 
+	 * @param body  - the code being measured
+	 * @param batch - the number of operations per call to the body
+	 * @return - the throughput of the iteration in operations per second
+	 */
+	private static double iteration(Bench.Body body, int batch) throws Exception {
+		long[] result = measure(body, batch);
+
+		// Adding to the totals of the measured iterations
+		measuredOps += result[0];
+		measuredBytes += result[1];
+		measuredNanos += result[2];
+		return result[0] * 1e9 / result[2];
+	}
+
+	/**
+	 * Helper Method that runs the body on the current thread for one iteration.
+	 * 
+	 * @param body  - the code being measured
+	 * @param batch - the number of operations per call to the body
+	 * @return - the operations carried out, the bytes allocated by the thread and
+	 *         the nanoseconds taken
+	 */
+	private static long[] measure(Bench.Body body, int batch) throws Exception {
+		long ops = 0;
+		long thread = Thread.currentThread().getId();
+		long bytes = THREADS.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		long elapsed;
+		do {
+			body.run(batch);
+			ops += batch;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < TIME);
+		bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+		return new long[] { ops, bytes, elapsed };
+	}
+}
@@ -0,0 +1,303 @@
+package calculator;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+
+/**
+ * This Class measures the calculator's hot paths: each arithmetic Method of the
+ * Calculator Class, the formatting of results, the actionPerformed(ActionEvent
+ * e) state machine fed with synthetic button presses, and the delivery of
+ * display updates to the GUI, the last two also measured by Metrics, and the
+ * live preview of results as numbers are typed. The GUI's panel is created
+ * without a window, so the benchmarks run headless
+ * (-Djava.awt.headless=true).
+ * 
+ * @author Andrew Sand
+ */
+public class CalculatorBenchmark {
+	/**
+	 * A listener that only keeps the last event it was given, used to measure the
+	 * cost of notifying without any Swing work
+	 */
+	static class StubListener implements EventBus.Listener {
+		DisplayEvent last;
+
+		@Override
+		public void displayed(DisplayEvent e) {
+			last = e;
+		}
+	}
+
+	/**
+	 * Creates the ActionEvents for a sequence of button presses, so that no
+	 * events are created while measuring.
+	 * 
+	 * @param source   - the source of the events
+	 * @param commands - the button labels that are pressed
+	 * @return - the ActionEvents in order
+	 */
+	static ActionEvent[] events(Object source, String... commands) {
+		ActionEvent[] e = new ActionEvent[commands.length];
+		for (int i = 0; i < commands.length; i++) {
+			e[i] = new ActionEvent(source, ActionEvent.ACTION_PERFORMED, commands[i]);
+		}
+		return e;
+	}
+
+	/**
+	 * Creates a Calculator whose GUI has its panel but no window.
+	 * 
+	 * @return - the Calculator
+	 */
+	static Calculator headless() {
+		GUI gui = new GUI();
+		Calculator calc = new Calculator(gui);
+		gui.create_panel(calc);
+		return calc;
+	}
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		Calculator calc = headless();
+
+		// Arithmetic Methods
+		Bench.run("Calculator.add", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(calc.add("1.5", "3.63"));
+			}
+		});
+		Bench.run("Calculator.subtract", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(calc.subtract("17.6", "5.69"));
+			}
+		});
+		Bench.run("Calculator.multiply", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(calc.multiply("63.354", "8.31"));
+			}
+		});
+		Bench.run("Calculator.divide", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(calc.divide("987.5", "4"));
+			}
+		});
+		Bench.run("Calculator.square", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(calc.square("96.35"));
+			}
+		});
+		Bench.run("Calculator.square_root", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(calc.square_root("64.6"));
+			}
+		});
+
+		// The same Methods answered from a ResultCache
+		Calculator cached = headless();
+		cached.setResultCache(new ResultCache(1 << 20));
+		Bench.run("Calculator.divide (ResultCache)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(cached.divide("987.5", "4"));
+			}
+		});
+		Bench.run("Calculator.square_root (ResultCache)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(cached.square_root("64.6"));
+			}
+		});
+		System.out.println(cached.getResultCache());
+
+		// Formatting, the original check_decimal(float f) against the formatter
+		float[] values = { 4f, 5.13f, 526.47174f, 8.037413f, 287.97064f, -0.001f, 1e-10f, 123456f };
+		Bench.run("check_decimal (String.valueOf)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				float f = values[i & 7];
+				Bench.consume(f % 1 == 0 ? String.valueOf((int) f) : String.valueOf(f));
+			}
+		});
+		DecimalFormatter formatter = new DecimalFormatter();
+		char[] buf = new char[DecimalFormatter.MAX_LENGTH];
+		Bench.run("DecimalFormatter.format (char[])", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(formatter.format(values[i & 7], buf, 0));
+			}
+		});
+
+		// Calculating a result then storing and recalling it, with the memory held
+		// as a String as it used to be against the memory slots
+		FloatBackend backend = new FloatBackend();
+		String[] operands = new String[8];
+		for (int i = 0; i < 8; i++) {
+			operands[i] = Integer.toString(i * 37 + 5);
+		}
+		Operand recalled = new Operand(16);
+		String[] mem = { "0" };
+		Bench.run("divide, M+ and MR (String memory)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				String result = backend.divide(operands[i & 7], "7");
+				mem[0] = (i & 1023) == 0 ? "0" : backend.add(mem[0], result);
+				recalled.set(mem[0]);
+			}
+		});
+		MemoryRegisters slots = new MemoryRegisters(MemoryRegisters.DEFAULT_SLOTS);
+		Bench.run("divide, M+ and MR (MemoryRegisters)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				String result = backend.divide(operands[i & 7], "7");
+				int slot = i & 3;
+				slots.set(slot, (i & 1023) == 0 ? 0 : backend.add(slots.get(slot), backend.value(result)));
+				backend.format(slots.get(slot), recalled);
+			}
+		});
+
+		// The value of a number as each of its digits is typed, parsing its chars
+		// every time against the value the Operand keeps up to date
+		Operand typed = new Operand(16);
+		char[] keys = "1234.5678".toCharArray();
+		Bench.run("value per digit (Float.parseFloat)", ops -> {
+			typed.clear();
+			for (int i = 0; i < ops; i++) {
+				int k = i % 10;
+				if (k == 9) {
+					typed.clear();
+				} else {
+					typed.append(keys[k]);
+					Bench.consume(Float.parseFloat(typed.toString()));
+				}
+			}
+		});
+		Bench.run("value per digit (Operand.float_value)", ops -> {
+			typed.clear();
+			for (int i = 0; i < ops; i++) {
+				int k = i % 10;
+				if (k == 9) {
+					typed.clear();
+				} else {
+					typed.append(keys[k]);
+					Bench.consume(typed.float_value());
+				}
+			}
+		});
+
+		// The actionPerformed state machine
+		ActionEvent[] digits = events(calc, "1", "2", "3", ".", "4", "5", "6", "Del", "Del", "C");
+		ActionEvent[] binary = events(calc, "1", "2", ".", "5", "*", "3", "4", "=", "C");
+		ActionEvent[] memory = events(calc, "9", "SR", "=", "M+", "MR", "+", "7", "=", "M-", "MC");
+		stream("actionPerformed digit entry", calc, digits);
+		stream("actionPerformed operator and =", calc, binary);
+		stream("actionPerformed M+/MR", calc, memory);
+
+		// The same state machine measured by Metrics
+		Calculator measured = headless();
+		measured.setMetrics(new Metrics());
+		stream("actionPerformed operator and = (Metrics)", measured, binary);
+		Bench.run("Calculator.divide (Metrics)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(measured.divide("987.5", "4"));
+			}
+		});
+
+		// Display updates
+		Calculator stubbed = new Calculator(new FloatBackend());
+		stubbed.events().subscribe(new StubListener());
+		stream("actionPerformed (stub listener)", stubbed, binary);
+		Calculator previewed = new Calculator(new FloatBackend());
+		previewed.events().subscribe(new StubListener());
+		previewed.setPreview(true);
+		stream("actionPerformed (stub listener, preview)", previewed, binary);
+		Calculator parsed = new Calculator(parsing_preview(new FloatBackend()));
+		parsed.events().subscribe(new StubListener());
+		parsed.setPreview(true);
+		stream("actionPerformed (stub listener, parsing preview)", parsed, binary);
+		GUI gui = new GUI();
+		gui.create_panel(calc);
+		DisplayEvent[] shown = { new DisplayEvent("1", null), new DisplayEvent("12", null),
+				new DisplayEvent("12.", null), new DisplayEvent("12.5", null), new DisplayEvent("12.5", Operator.ADD),
+				new DisplayEvent("3", Operator.ADD), new DisplayEvent("34", Operator.ADD), new DisplayEvent("", null) };
+		Bench.run("GUI.displayed", ops -> {
+			for (int i = 0; i < ops; i++) {
+				gui.displayed(shown[i & 7]);
+			}
+		});
+		gui.setMetrics(new Metrics());
+		Bench.run("GUI.displayed (Metrics)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				gui.displayed(shown[i & 7]);
+			}
+		});
+	}
+
+	/**
+	 * Helper method that wraps a FloatBackend so that its live preview parses
+	 * the numbers being typed, as the default NumericBackend does, instead of
+	 * using their values.
+	 * 
+	 * @param backend - the FloatBackend
+	 * @return - the wrapped backend
+	 */
+	private static NumericBackend parsing_preview(FloatBackend backend) {
+		return new NumericBackend() {
+			@Override
+			public String add(String s1, String s2) {
+				return backend.add(s1, s2);
+			}
+
+			@Override
+			public String subtract(String s1, String s2) {
+				return backend.subtract(s1, s2);
+			}
+
+			@Override
+			public String multiply(String s1, String s2) {
+				return backend.multiply(s1, s2);
+			}
+
+			@Override
+			public String divide(String s1, String s2) {
+				return backend.divide(s1, s2);
+			}
+
+			@Override
+			public String square(String s) {
+				return backend.square(s);
+			}
+
+			@Override
+			public String square_root(String s) {
+				return backend.square_root(s);
+			}
+
+			@Override
+			public boolean overflows(String s) {
+				return backend.overflows(s);
+			}
+		};
+	}
+
+	/**
+	 * Helper method that measures a stream of button presses. One operation is
+	 * one button press.
+	 * 
+	 * @param name   - the name of the benchmark
+	 * @param calc   - the Calculator receiving the presses
+	 * @param events - the presses, which must leave the Calculator cleared
+	 */
+	private static void stream(String name, Calculator calc, ActionEvent[] events) throws Exception {
+		// The position in the stream is kept between calls so it is always replayed in order
+		ActionListener actions = GUI.actions(calc);
+		int[] next = new int[1];
+		Bench.run(name, ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				actions.actionPerformed(events[j]);
+				if (++j == events.length) {
+					j = 0;
+				}
+			}
+			next[0] = j;
+		});
+	}
+}
@@ -0,0 +1,75 @@
+package calculator;
+
+import java.util.Random;
+
+/**
+ * This Class measures the columnar evaluation mode at 1K, 1M and 100M elements,
+ * comparing the scalar kernels with the kernels in use, which are the SIMD
+ * kernels when run with "--add-modules jdk.incubator.vector" and the "vector"
+ * source folder compiled. One operation is one element. The sizes can be
+ * changed with the bench.sizes system property, and 100M elements needs a heap
+ * of about 3 GB (-Xmx3g).
+ * 
+ * @author Andrew Sand
+ */
+public class ColumnarBenchmark {
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		System.out.println("Kernels: " + ColumnarEvaluator.kernels());
+		for (String size : System.getProperty("bench.sizes", "1000,1000000,100000000").split(",")) {
+			// Creating the columns
+			int n = Integer.parseInt(size.trim());
+			Random r = new Random(n);
+			float[] a = new float[n], b = new float[n], out = new float[n];
+			double[] d = new double[n];
+			for (int i = 0; i < n; i++) {
+				a[i] = r.nextFloat() * 1000;
+				b[i] = r.nextFloat() * 100 + 1;
+				d[i] = a[i];
+			}
+
+			// Measuring each operator with both kernels
+			for (Operator o : new Operator[] { Operator.DIVIDE, Operator.MULTIPLY }) {
+				run(o + " scalar n=" + n, n, (from, to) -> ColumnarEvaluator.SCALAR.evaluate(o, a, b, out, from, to));
+				run(o + " columnar n=" + n, n, (from, to) -> ColumnarEvaluator.evaluate(o, a, b, out, from, to));
+			}
+			run("SQUARE_ROOT double scalar n=" + n, n,
+					(from, to) -> ColumnarEvaluator.SCALAR.evaluate(Operator.SQUARE_ROOT, d, null, out, from, to));
+			run("SQUARE_ROOT double columnar n=" + n, n,
+					(from, to) -> ColumnarEvaluator.evaluate(Operator.SQUARE_ROOT, d, null, out, from, to));
+		}
+	}
+
+	/**
+	 * A range of a column being evaluated.
+	 */
+	private interface Range {
+		void evaluate(int from, int to);
+	}
+
+	/**
+	 * Helper method that measures evaluating a column, carrying on from where the
+	 * last call stopped and wrapping round at the end.
+	 * 
+	 * @param name  - the name of the benchmark
+	 * @param n     - the length of the column
+	 * @param range - evaluates a range of the column
+	 */
+	private static void run(String name, int n, Range range) throws Exception {
+		int[] next = new int[1];
+		Bench.run(name, ops -> {
+			int pos = next[0];
+			for (int done = 0; done < ops;) {
+				int len = Math.min(n - pos, ops - done);
+				range.evaluate(pos, pos + len);
+				done += len;
+				pos = pos + len == n ? 0 : pos + len;
+			}
+			next[0] = pos;
+		});
+	}
+}
@@ -0,0 +1,118 @@
+package calculator;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Random;
+
+/**
+ * This Class measures how quickly button presses are dispatched by replaying a
+ * recorded style event log. It compares presses arriving as ActionEvents,
+ * whose label has to be resolved on every event, with presses arriving as
+ * Commands that were resolved once when the GUI wired up its buttons.
+ * 
+ * @author Andrew Sand
+ */
+public class DispatchBenchmark {
+	/**
+	 * Generates a random but realistic session of button presses: numbers are
+	 * typed, an operator is chosen, a second number is typed and the result is
+	 * calculated, with the occasional delete, memory operation and clear.
+	 * 
+	 * @param n    - the number of presses to generate
+	 * @param seed - the seed of the random generator, so logs can be repeated
+	 * @return - the presses in order
+	 */
+	static Command[] session(int n, long seed) {
+		// Variable declaration
+		Random r = new Random(seed);
+		Command[] log = new Command[n];
+		Command[] digits = { Command.ZERO, Command.ONE, Command.TWO, Command.THREE, Command.FOUR, Command.FIVE,
+				Command.SIX, Command.SEVEN, Command.EIGHT, Command.NINE };
+		Command[] operators = { Command.ADD, Command.SUBTRACT, Command.MULTIPLY, Command.DIVIDE, Command.SQUARE,
+				Command.SQUARE_ROOT };
+		Command[] memory = { Command.MEMORY_ADD, Command.MEMORY_SUBTRACT, Command.MEMORY_RECALL,
+				Command.MEMORY_CLEAR };
+
+		// Generating one calculation at a time
+		int i = 0;
+		while (i < n) {
+			// First number
+			int len = 1 + r.nextInt(5);
+			for (int j = 0; j < len && i < n; j++) {
+				log[i++] = r.nextInt(8) == 0 ? Command.DECIMAL : digits[r.nextInt(10)];
+			}
+			if (i < n && r.nextInt(10) == 0) {
+				log[i++] = Command.DELETE;
+			}
+			// Operator, and the second number for the binary ones
+			Command op = operators[r.nextInt(operators.length)];
+			if (i < n) {
+				log[i++] = op;
+			}
+			if (op.operator() != null && !op.operator().isUnary()) {
+				len = 1 + r.nextInt(4);
+				for (int j = 0; j < len && i < n; j++) {
+					log[i++] = digits[r.nextInt(10)];
+				}
+			}
+			if (i < n) {
+				log[i++] = Command.EQUALS;
+			}
+			// Sometimes a memory operation or a clear
+			if (i < n && r.nextInt(4) == 0) {
+				log[i++] = memory[r.nextInt(memory.length)];
+			}
+			if (i < n && r.nextInt(8) == 0) {
+				log[i++] = Command.CLEAR;
+			}
+		}
+		return log;
+	}
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Building the log, both as Commands and as ActionEvents
+		Command[] log = session(1 << 16, 42);
+		Calculator calc = new Calculator(new FloatBackend());
+		ActionEvent[] events = new ActionEvent[log.length];
+		for (int i = 0; i < log.length; i++) {
+			events[i] = new ActionEvent(calc, ActionEvent.ACTION_PERFORMED, log[i].label());
+		}
+
+		// One operation is one event
+		ActionListener actions = GUI.actions(calc);
+		int[] next = new int[1];
+		Bench.run("replay actionPerformed(ActionEvent)", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				actions.actionPerformed(events[j]);
+				j = (j + 1) & (events.length - 1);
+			}
+			next[0] = j;
+		});
+		Bench.run("replay press(Command)", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				calc.press(log[j]);
+				j = (j + 1) & (log.length - 1);
+			}
+			next[0] = j;
+		});
+
+		// The same log with results cached
+		calc.setResultCache(new ResultCache(1 << 20));
+		Bench.run("replay press(Command) (ResultCache)", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				calc.press(log[j]);
+				j = (j + 1) & (log.length - 1);
+			}
+			next[0] = j;
+		});
+		System.out.println(calc.getResultCache());
+	}
+}
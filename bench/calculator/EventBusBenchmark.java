@@ -0,0 +1,79 @@
+package calculator;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * This Class measures the cost of publishing display changes by replaying a
+ * recorded style stream of a million button presses with different
+ * subscribers: none, a listener on the pressing thread, the GUI on the Swing
+ * event dispatch thread and a logger on a background thread. The last two have
+ * their updates coalesced, so the number of events actually delivered to them
+ * is printed too. Run it with -Djava.awt.headless=true.
+ * 
+ * @author Andrew Sand
+ */
+public class EventBusBenchmark {
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Variable declaration
+		Command[] log = DispatchBenchmark.session(1 << 20, 42);
+
+		// No subscribers, so no events are created
+		replay("press, no subscribers", new Calculator(new FloatBackend()), log);
+
+		// A listener on the pressing thread is given every event
+		Calculator sync = new Calculator(new FloatBackend());
+		sync.events().subscribe(new CalculatorBenchmark.StubListener());
+		replay("press, listener on the same thread", sync, log);
+
+		// The GUI, coalesced until the event dispatch thread gets round to it
+		GUI gui = new GUI();
+		Calculator swing = new Calculator(new FloatBackend());
+		gui.create_panel(swing);
+		EventBus.Subscription edt = swing.events().subscribe(gui, SwingUtilities::invokeLater);
+		replay("press, GUI on the event dispatch thread", swing, log);
+		SwingUtilities.invokeAndWait(() -> {
+		});
+		System.out.println("  delivered " + edt.delivered() + " of " + edt.published() + " events");
+
+		// A logger on its own thread, coalesced until it is free
+		ExecutorService logger = Executors.newSingleThreadExecutor();
+		Calculator logged = new Calculator(new FloatBackend());
+		StringBuilder sb = new StringBuilder();
+		EventBus.Subscription background = logged.events().subscribe(e -> {
+			sb.setLength(0);
+			sb.append(System.nanoTime()).append(' ').append(e.text());
+			Bench.consume(sb);
+		}, logger);
+		replay("press, logger on a background thread", logged, log);
+		logger.shutdown();
+		System.out.println("  delivered " + background.delivered() + " of " + background.published() + " events");
+	}
+
+	/**
+	 * Helper method that replays the stream of presses. One operation is one
+	 * press, carried on from where the last call stopped.
+	 * 
+	 * @param name - the name of the benchmark
+	 * @param calc - the Calculator receiving the presses
+	 * @param log  - the presses, a power of two of them
+	 */
+	private static void replay(String name, Calculator calc, Command[] log) throws Exception {
+		int[] next = new int[1];
+		Bench.run(name, ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				calc.press(log[j]);
+				j = (j + 1) & (log.length - 1);
+			}
+			next[0] = j;
+		});
+	}
+}
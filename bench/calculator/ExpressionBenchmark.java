@@ -0,0 +1,64 @@
+package calculator;
+
+/**
+ * This Class measures the cost of turning expression text into a compiled
+ * Expression, comparing a cold parse on every lookup with a lookup in the
+ * ExpressionCache, and the cost of evaluating once compiled.
+ * 
+ * @author Andrew Sand
+ */
+public class ExpressionBenchmark {
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// A working set of formulas, typed with varying whitespace
+		String[] texts = new String[256];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = (i % 2 == 0 ? "(x + " + i + ") * y / 3.3" : "sqrt(x^ +  y^) - " + i + ".5");
+		}
+		ExpressionCache cache = new ExpressionCache(1024);
+		ExpressionCache small = new ExpressionCache(64);
+		float[] vars = { 8.4f, 5.6f };
+		float[] stack = new float[16];
+
+		// One operation is one expression
+		int[] next = new int[1];
+		Bench.run("Expression.compile (cold parse)", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(Expression.compile(texts[j]));
+				j = (j + 1) & (texts.length - 1);
+			}
+			next[0] = j;
+		});
+		Bench.run("ExpressionCache.get (all hits)", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(cache.get(texts[j]));
+				j = (j + 1) & (texts.length - 1);
+			}
+			next[0] = j;
+		});
+		Bench.run("ExpressionCache.get (working set 4x capacity)", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(small.get(texts[j]));
+				j = (j + 1) & (texts.length - 1);
+			}
+			next[0] = j;
+		});
+		Bench.run("ExpressionCache.get + evaluate", ops -> {
+			int j = next[0];
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(cache.get(texts[j]).evaluate(vars, stack));
+				j = (j + 1) & (texts.length - 1);
+			}
+			next[0] = j;
+		});
+		System.out.println(cache);
+		System.out.println(small);
+	}
+}
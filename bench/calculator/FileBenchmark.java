@@ -0,0 +1,161 @@
+package calculator;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * This Class measures evaluating a large file of calculations. It creates a
+ * file of random calculations, 2 GB by default (set the size in bytes with
+ * the bench.size system property and the file with bench.file), then
+ * evaluates it by reading each line into a String and calling the Calculator's
+ * Methods, and with the FileEvaluator. Each run is timed once, as it takes
+ * seconds, and reports its throughput, the bytes its thread allocated and the
+ * most heap that was in use.
+ * 
+ * @author Andrew Sand
+ */
+public class FileBenchmark {
+	/**
+	 * Member variable that stores the bean used to read allocated bytes
+	 */
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory
+			.getThreadMXBean();
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		long size = Long.getLong("bench.size", 2L << 30);
+		Path input = Paths.get(System.getProperty("bench.file", System.getProperty("java.io.tmpdir") + "/calculations.txt"));
+		Path output = Files.createTempFile("answers", ".txt");
+		if (!Files.exists(input) || Files.size(input) < size) {
+			create(input, size);
+		}
+
+		// Running each twice, so the second run has been compiled
+		Calculator calc = new Calculator(new FloatBackend());
+		for (int run = 0; run < 2; run++) {
+			measure("String + Calculator methods", input, () -> strings(calc, input, output));
+			measure("FileEvaluator (mapped)", input, () -> new FileEvaluator().evaluate(input, output));
+		}
+		Files.delete(output);
+	}
+
+	/**
+	 * A run over the whole file.
+	 */
+	private interface Run {
+		long evaluate() throws IOException;
+	}
+
+	/**
+	 * Helper method that times a run and prints its results.
+	 * 
+	 * @param name  - the name of the benchmark
+	 * @param input - the file of calculations
+	 * @param run   - evaluates the file, returning the number of lines
+	 */
+	private static void measure(String name, Path input, Run run) throws IOException {
+		System.gc();
+		long thread = Thread.currentThread().getId();
+		long bytes = THREADS.getThreadAllocatedBytes(thread);
+		long start = System.nanoTime();
+		long lines = run.evaluate();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+		long heap = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				heap += pool.getPeakUsage().getUsed();
+				pool.resetPeakUsage();
+			}
+		}
+		System.out.println(String.format(Locale.ROOT, "%-30s %12.0f lines/s %8.1f MB/s %8.1f B/line %8.1f MB peak heap",
+				name, lines / seconds, Files.size(input) / seconds / (1 << 20), (double) bytes / lines,
+				heap / (double) (1 << 20)));
+	}
+
+	/**
+	 * Helper method that evaluates the file a String at a time.
+	 * 
+	 * @param calc   - the calculator whose Methods are called
+	 * @param input  - the file of calculations
+	 * @param output - the file to write the answers to
+	 * @return - the number of lines evaluated
+	 */
+	private static long strings(Calculator calc, Path input, Path output) throws IOException {
+		long lines = 0;
+		try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.US_ASCII);
+				BufferedWriter out = Files.newBufferedWriter(output, StandardCharsets.US_ASCII)) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				String[] t = line.split(" ");
+				String answer;
+				if (t[0].equals("SR")) {
+					answer = calc.square_root(t[1]);
+				} else if (t[1].equals("^")) {
+					answer = calc.square(t[0]);
+				} else if (t[1].equals("+")) {
+					answer = calc.add(t[0], t[2]);
+				} else if (t[1].equals("-")) {
+					answer = calc.subtract(t[0], t[2]);
+				} else if (t[1].equals("*")) {
+					answer = calc.multiply(t[0], t[2]);
+				} else {
+					answer = calc.divide(t[0], t[2]);
+				}
+				out.write(answer);
+				out.write('\n');
+				lines++;
+			}
+		}
+		return lines;
+	}
+
+	/**
+	 * Helper method that writes a file of random calculations.
+	 * 
+	 * @param file - the file to create
+	 * @param size - the size of the file in bytes
+	 */
+	private static void create(Path file, long size) throws IOException {
+		Random r = new Random(size);
+		String[] ops = { " + ", " - ", " * ", " / " };
+		StringBuilder line = new StringBuilder();
+		long written = 0;
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+			while (written < size) {
+				line.setLength(0);
+				String a = Float.toString(r.nextInt(1000000) / 100f);
+				switch (r.nextInt(6)) {
+				case 4:
+					line.append(a).append(" ^");
+					break;
+				case 5:
+					line.append("SR ").append(a);
+					break;
+				default:
+					line.append(a).append(ops[r.nextInt(4)]).append(r.nextInt(9999) / 10f + 1);
+				}
+				line.append('\n');
+				byte[] bytes = line.toString().getBytes(StandardCharsets.US_ASCII);
+				out.write(bytes);
+				written += bytes.length;
+			}
+		}
+	}
+}
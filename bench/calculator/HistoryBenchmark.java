@@ -0,0 +1,179 @@
+package calculator;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * This Class measures the History against the obvious alternative, a ring of
+ * one Object per calculation on the heap. It measures adding calculations,
+ * then fills each with 4M calculations (set the number with the bench.entries
+ * system property), printing the heap each needs and the time spent
+ * collecting garbage while filling it, and measures counting the matches of
+ * a search over every calculation and finding the newest page of matches. It
+ * also measures adding to a History kept in a file.
+ * 
+ * @author Andrew Sand
+ */
+public class HistoryBenchmark {
+	/**
+	 * The Operators the calculations are made with, a power of two of them
+	 */
+	private static final Operator[] OPERATORS = { Operator.ADD, Operator.SUBTRACT, Operator.MULTIPLY,
+			Operator.DIVIDE };
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		int entries = Integer.getInteger("bench.entries", 1 << 22);
+
+		// Adding calculations, one operation is one calculation
+		History history = new History(History.DEFAULT_CAPACITY);
+		Bench.run("append (History)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				history.append(OPERATORS[i & 3], i, 3, i * 3, i);
+			}
+		});
+		Heap heap = new Heap(History.DEFAULT_CAPACITY);
+		Bench.run("append (heap Objects)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				heap.append(OPERATORS[i & 3], i, 3, i * 3, i);
+			}
+		});
+		Path file = Files.createTempFile("history", null);
+		Files.delete(file);
+		try (History mapped = History.open(file, History.DEFAULT_CAPACITY)) {
+			Bench.run("append (History, mapped file)", ops -> {
+				for (int i = 0; i < ops; i++) {
+					mapped.append(OPERATORS[i & 3], i, 3, i * 3, i);
+				}
+			});
+		}
+		Files.delete(file);
+
+		// Filling each with many calculations
+		long used = used(), gc = gc_millis(), start = System.nanoTime();
+		History big = new History(entries);
+		for (int i = 0; i < entries; i++) {
+			big.append(OPERATORS[i & 3], i, 3, i * 3, i);
+		}
+		print("fill " + entries + " (History)", start, used, gc, (long) History.HEADER + (long) entries * History.RECORD);
+		used = used();
+		gc = gc_millis();
+		start = System.nanoTime();
+		Heap bigHeap = new Heap(entries);
+		for (int i = 0; i < entries; i++) {
+			bigHeap.append(OPERATORS[i & 3], i, 3, i * 3, i);
+		}
+		print("fill " + entries + " (heap Objects)", start, used, gc, 0);
+
+		// Searching every calculation, one operation is one search
+		double min = entries * 2.5, max = entries * 3.0;
+		Bench.run("count matches (History)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(big.count(Operator.MULTIPLY, min, max));
+			}
+		});
+		Bench.run("count matches (heap Objects)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(bigHeap.count(Operator.MULTIPLY, min, max));
+			}
+		});
+		long[] found = new long[20];
+		Bench.run("newest 20 matches (History)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(big.search(Operator.MULTIPLY, min, max, big.count(), found));
+			}
+		});
+		Bench.consume(bigHeap);
+	}
+
+	/**
+	 * Helper method that prints how long filling took, the heap it took and the
+	 * time spent collecting garbage.
+	 * 
+	 * @param name    - the name of the benchmark
+	 * @param start   - when filling started, from System.nanoTime()
+	 * @param used    - the heap used before filling
+	 * @param gc      - the time spent collecting garbage before filling
+	 * @param offHeap - the bytes used off the heap
+	 */
+	private static void print(String name, long start, long used, long gc, long offHeap) {
+		double millis = (System.nanoTime() - start) / 1e6;
+		gc = gc_millis() - gc;
+		used = used() - used;
+		System.out.println(String.format(Locale.ROOT, "%-40s %8.1f ms %8.1f MB heap %8.1f MB off heap %6d ms GC", name,
+				millis, used / (double) (1 << 20), offHeap / (double) (1 << 20), gc));
+	}
+
+	/**
+	 * @return - the heap used after collecting garbage
+	 */
+	private static long used() {
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	/**
+	 * @return - the time spent collecting garbage since the JVM started
+	 */
+	private static long gc_millis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += gc.getCollectionTime();
+		}
+		return millis;
+	}
+
+	/**
+	 * The alternative to the History, a ring of one Object per calculation.
+	 */
+	private static final class Heap {
+		/**
+		 * A calculation
+		 */
+		private static final class Entry {
+			final Operator op;
+			final double first, second, result;
+			final long time;
+
+			Entry(Operator op, double first, double second, double result, long time) {
+				this.op = op;
+				this.first = first;
+				this.second = second;
+				this.result = result;
+				this.time = time;
+			}
+		}
+
+		/**
+		 * Member variables that store the calculations and the number added
+		 */
+		private final Entry[] ring;
+		private long count;
+
+		Heap(int capacity) {
+			ring = new Entry[capacity];
+		}
+
+		void append(Operator op, double first, double second, double result, long time) {
+			ring[(int) (count++ % ring.length)] = new Entry(op, first, second, result, time);
+		}
+
+		long count(Operator op, double min, double max) {
+			long n = 0;
+			for (int i = 0, size = (int) Math.min(count, ring.length); i < size; i++) {
+				Entry e = ring[i];
+				if (e.op == op && e.result >= min && e.result <= max) {
+					n++;
+				}
+			}
+			return n;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package calculator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * This Class measures the Journal. It measures appending memory changes
+ * without waiting for them, then appending and waiting for each change to be
+ * synced on 1 up to bench.threads threads, which group commit shares syncs
+ * between. It then measures opening a journal of 10M changes (set the number
+ * with the bench.entries system property), both replaying every change and
+ * starting from a snapshot.
+ * 
+ * @author Andrew Sand
+ */
+public class JournalBenchmark {
+	/**
+	 * Memory values, a power of two of them
+	 */
+	private static final double[] VALUES = { 8, 12.25, -4.5, 287.97064, 0.1, 526.47174, 1000000, 3.3333333 };
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Appending without waiting, one operation is one change
+		Path dir = Files.createTempDirectory("journal");
+		try (Journal j = Journal.open(dir)) {
+			Bench.run("append", ops -> {
+				for (int i = 0; i < ops; i++) {
+					j.memory(i & 1023, i & 3, VALUES[i & 7]);
+				}
+			});
+			report(j);
+		}
+		delete(dir);
+
+		// Appending and waiting for each change to be synced
+		int threads = Integer.getInteger("bench.threads", 4);
+		for (int t = 1; t <= threads; t *= 2) {
+			dir = Files.createTempDirectory("journal");
+			try (Journal j = Journal.open(dir)) {
+				Bench.run("append + sync", t, id -> ops -> {
+					for (int i = 0; i < ops; i++) {
+						j.memory(id, 0, VALUES[i & 7]);
+						j.sync();
+					}
+				});
+				report(j);
+			}
+			delete(dir);
+		}
+
+		// Opening journals of many changes, with and without snapshots
+		long entries = Long.getLong("bench.entries", 10000000);
+		for (long every : new long[] { Long.MAX_VALUE, Journal.SNAPSHOT_EVERY }) {
+			dir = Files.createTempDirectory("journal");
+			try (Journal j = Journal.open(dir, every)) {
+				for (int i = 0; i < entries; i++) {
+					j.memory(i & 65535, i & 3, VALUES[i & 7]);
+				}
+			}
+			long bytes;
+			try (Stream<Path> files = Files.list(dir)) {
+				bytes = files.mapToLong(f -> f.toFile().length()).sum();
+			}
+			for (int run = 0; run < 3; run++) {
+				long start = System.nanoTime();
+				try (Journal j = Journal.open(dir, every)) {
+					Bench.consume(j.memories().size());
+				}
+				System.out.println(String.format(Locale.ROOT, "recover %d changes%-20s %10.1f ms %10.1f MB on disk",
+						entries, every == Long.MAX_VALUE ? "" : " (snapshots)", (System.nanoTime() - start) / 1e6,
+						bytes / (double) (1 << 20)));
+			}
+			delete(dir);
+		}
+	}
+
+	/**
+	 * Helper method that prints how many changes each sync made durable.
+	 * 
+	 * @param j - the journal
+	 */
+	private static void report(Journal j) throws IOException {
+		j.sync();
+		System.out.println(String.format(Locale.ROOT, "%d changes in %d syncs, %.1f changes per sync", j.appended(),
+				j.commits(), j.appended() / (double) j.commits()));
+	}
+
+	/**
+	 * Helper method that deletes a journal directory.
+	 * 
+	 * @param dir - the directory
+	 */
+	private static void delete(Path dir) throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+		}
+	}
+}
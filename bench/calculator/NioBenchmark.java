@@ -0,0 +1,112 @@
+package calculator;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This Class measures answering calculation requests held as bytes. It
+ * compares decoding each request into a String and calling the Calculator's
+ * Methods, which parse with Float.parseFloat, with the LineEvaluator parsing
+ * straight from the bytes, and then measures the NioCalculatorServer over
+ * localhost with pipelined requests.
+ * 
+ * @author Andrew Sand
+ */
+public class NioBenchmark {
+	/**
+	 * The requests, a power of two of them
+	 */
+	private static final String[] REQUESTS = { "1.5 + 3.63", "17.6 - 5.69", "63.354 * 8.31", "987.5 / 4", "96.35 ^",
+			"SR 64.6", "12.5 * 4", "0.1 + 0.2" };
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Holding the requests as bytes in a direct buffer, as they are read
+		ByteBuffer in = ByteBuffer.allocateDirect(1024);
+		int[] from = new int[REQUESTS.length], to = new int[REQUESTS.length];
+		for (int i = 0; i < REQUESTS.length; i++) {
+			from[i] = in.position();
+			in.put(REQUESTS[i].getBytes(StandardCharsets.ISO_8859_1));
+			to[i] = in.position();
+			in.put((byte) '\n');
+		}
+		ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+
+		// One operation is one request
+		Calculator calc = new Calculator(new FloatBackend());
+		byte[] bytes = new byte[64];
+		Bench.run("String + Calculator methods", ops -> {
+			for (int i = 0; i < ops; i++) {
+				int r = i & (REQUESTS.length - 1);
+				in.get(from[r], bytes, 0, to[r] - from[r]);
+				String[] t = new String(bytes, 0, to[r] - from[r], StandardCharsets.ISO_8859_1).split(" ");
+				String answer;
+				if (t[0].equals("SR")) {
+					answer = calc.square_root(t[1]);
+				} else if (t[1].equals("^")) {
+					answer = calc.square(t[0]);
+				} else if (t[1].equals("+")) {
+					answer = calc.add(t[0], t[2]);
+				} else if (t[1].equals("-")) {
+					answer = calc.subtract(t[0], t[2]);
+				} else if (t[1].equals("*")) {
+					answer = calc.multiply(t[0], t[2]);
+				} else {
+					answer = calc.divide(t[0], t[2]);
+				}
+				if (out.remaining() < LineEvaluator.MAX_ANSWER) {
+					out.clear();
+				}
+				out.put(answer.getBytes(StandardCharsets.ISO_8859_1)).put((byte) '\n');
+			}
+		});
+		LineEvaluator evaluator = new LineEvaluator();
+		Bench.run("LineEvaluator (bytes)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				int r = i & (REQUESTS.length - 1);
+				if (out.remaining() < LineEvaluator.MAX_ANSWER) {
+					out.clear();
+				}
+				evaluator.evaluate(in, from[r], to[r], out);
+			}
+		});
+
+		// Over localhost, in batches of 256 pipelined requests
+		try (NioCalculatorServer server = new NioCalculatorServer(0).start();
+				SocketChannel ch = SocketChannel.open(new InetSocketAddress("localhost", server.port()))) {
+			ByteBuffer batch = ByteBuffer.allocateDirect(32 * 1024);
+			for (int i = 0; i < 256; i++) {
+				batch.put(REQUESTS[i & (REQUESTS.length - 1)].getBytes(StandardCharsets.ISO_8859_1)).put((byte) '\n');
+			}
+			batch.flip();
+			ByteBuffer answers = ByteBuffer.allocateDirect(64 * 1024);
+			Bench.run("NioCalculatorServer, 256 pipelined", ops -> {
+				for (int done = 0; done < ops; done += 256) {
+					// Sending the batch
+					batch.rewind();
+					while (batch.hasRemaining()) {
+						ch.write(batch);
+					}
+					// Reading its answers
+					int lines = 0;
+					answers.clear();
+					while (lines < 256) {
+						int start = answers.position();
+						ch.read(answers);
+						for (int i = start; i < answers.position(); i++) {
+							if (answers.get(i) == '\n') {
+								lines++;
+							}
+						}
+					}
+				}
+			});
+		}
+	}
+}
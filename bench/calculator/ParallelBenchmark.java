@@ -0,0 +1,85 @@
+package calculator;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This Class measures how the ParallelEvaluator scales, evaluating 16M element
+ * batches with pools of 1 up to the number of processors threads (or the
+ * bench.threads system property). The batches are one uniform operator, a mix
+ * of operators where a quarter of the elements are square roots, and a
+ * compiled Expression. The throughput is measured in whole batches, and after
+ * each one the elements per second and scaling efficiency of every pool size
+ * are printed. The efficiency is the throughput divided by the throughput of
+ * one thread times the number of threads. The size can be changed with the
+ * bench.size system property.
+ * 
+ * @author Andrew Sand
+ */
+public class ParallelBenchmark {
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Creating the columns
+		int n = Integer.getInteger("bench.size", 1 << 24);
+		int threads = Integer.getInteger("bench.threads", Runtime.getRuntime().availableProcessors());
+		Random r = new Random(n);
+		float[] a = new float[n], b = new float[n], out = new float[n];
+		byte[] ops = new byte[n];
+		Operator[] mix = { Operator.ADD, Operator.SUBTRACT, Operator.MULTIPLY, Operator.SQUARE_ROOT };
+		for (int i = 0; i < n; i++) {
+			a[i] = r.nextFloat() * 1000;
+			b[i] = r.nextFloat() * 100 + 1;
+			ops[i] = (byte) mix[r.nextInt(mix.length)].ordinal();
+		}
+		Expression e = Expression.compile("sqrt(x^ + y^) / (x - y)");
+		float[][] columns = { a, b };
+
+		// Measuring each batch with every pool size
+		System.out.println("Processors: " + Runtime.getRuntime().availableProcessors() + ", kernels: "
+				+ ColumnarEvaluator.kernels());
+		run("DIVIDE", n, threads, p -> p.evaluate(Operator.DIVIDE, a, b, out));
+		run("mixed", n, threads, p -> p.evaluate(ops, a, b, out));
+		run("expression", n, threads, p -> p.evaluate(e, columns, out));
+	}
+
+	/**
+	 * A whole batch evaluated by a ParallelEvaluator.
+	 */
+	private interface Batch {
+		void evaluate(ParallelEvaluator p);
+	}
+
+	/**
+	 * Helper method that measures a batch with pools of every size and prints the
+	 * scaling efficiency of each.
+	 * 
+	 * @param name    - the name of the benchmark
+	 * @param n       - the length of the batch
+	 * @param threads - the most threads to use
+	 * @param batch   - evaluates the batch
+	 */
+	private static void run(String name, int n, int threads, Batch batch) throws Exception {
+		double[] score = new double[threads + 1];
+		for (int t = 1; t <= threads; t++) {
+			ForkJoinPool pool = new ForkJoinPool(t);
+			ParallelEvaluator p = new ParallelEvaluator(pool);
+
+			// Each operation measured is a whole batch, so it is n elements
+			score[t] = Bench.run(name + " n=" + n + " batches (" + t + " threads)", ops -> {
+				for (int i = 0; i < ops; i++) {
+					batch.evaluate(p);
+				}
+			}) * n;
+			pool.shutdown();
+		}
+		for (int t = 1; t <= threads; t++) {
+			System.out.println(String.format(Locale.ROOT, "%-50s %16.1f elements/s %9.1f%% efficiency",
+					name + " (" + t + " threads)", score[t], 100 * score[t] / (t * score[1])));
+		}
+	}
+}
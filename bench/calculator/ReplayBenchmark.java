@@ -0,0 +1,103 @@
+package calculator;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * This Class measures recording and replaying keypress logs. It records a
+ * realistic session of a million button presses, then compares replaying it
+ * as ActionEvents carrying the button labels, as a test driving the GUI's
+ * listener would, with the KeypressReplayer reading one byte per press, on one
+ * calculator and on two calculators compared after every press. Pressing with
+ * and without a KeypressRecorder shows the cost of recording. One operation is
+ * one press. Run it with -Djava.awt.headless=true.
+ * 
+ * @author Andrew Sand
+ */
+public class ReplayBenchmark {
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Recording the session
+		Command[] session = DispatchBenchmark.session(1 << 20, 18);
+		Path file = Files.createTempFile("keypresses", ".log");
+		try (KeypressRecorder recorder = new KeypressRecorder(file)) {
+			for (Command c : session) {
+				recorder.record(c);
+			}
+		}
+		KeypressReplayer replayer = KeypressReplayer.open(file);
+		int n = replayer.size();
+
+		// Replaying the labels as ActionEvents
+		ActionEvent[] events = new ActionEvent[n];
+		for (int i = 0; i < n; i++) {
+			events[i] = new ActionEvent(replayer, ActionEvent.ACTION_PERFORMED, session[i].label());
+		}
+		ActionListener labels = GUI.actions(new Calculator(new FloatBackend()));
+		run("actionPerformed(ActionEvent)", n, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				labels.actionPerformed(events[i]);
+			}
+		});
+
+		// Replaying the bytes
+		Calculator bytes = new Calculator(new FloatBackend());
+		run("KeypressReplayer.replay", n, (from, to) -> replayer.replay(bytes, from, to));
+
+		// Comparing two calculators, one operation is a whole replay
+		double replays = Bench.run("KeypressReplayer.diverges (whole logs)", ops -> {
+			for (int i = 0; i < ops; i++) {
+				Bench.consume(replayer.diverges(new Calculator(new FloatBackend()), new Calculator(new FloatBackend())));
+			}
+		});
+		System.out.println(String.format(Locale.ROOT, "  %.1f presses/s on each calculator", replays * n));
+
+		// Pressing with a recorder
+		Calculator recorded = new Calculator(new FloatBackend());
+		KeypressRecorder recorder = new KeypressRecorder(file);
+		recorded.setRecorder(recorder);
+		run("press + KeypressRecorder", n, (from, to) -> {
+			for (int i = from; i < to; i++) {
+				recorded.press(session[i]);
+			}
+		});
+		recorder.close();
+		Files.delete(file);
+	}
+
+	/**
+	 * A range of the presses being replayed.
+	 */
+	private interface Range {
+		void replay(int from, int to);
+	}
+
+	/**
+	 * Helper method that measures replaying the presses, carrying on from where
+	 * the last call stopped and wrapping round at the end.
+	 * 
+	 * @param name  - the name of the benchmark
+	 * @param n     - the number of presses
+	 * @param range - replays a range of the presses
+	 */
+	private static void run(String name, int n, Range range) throws Exception {
+		int[] next = new int[1];
+		Bench.run(name, ops -> {
+			int pos = next[0];
+			for (int done = 0; done < ops;) {
+				int len = Math.min(n - pos, ops - done);
+				range.replay(pos, pos + len);
+				done += len;
+				pos = pos + len == n ? 0 : pos + len;
+			}
+			next[0] = pos;
+		});
+	}
+}
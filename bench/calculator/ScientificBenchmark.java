@@ -0,0 +1,65 @@
+package calculator;
+
+import java.util.Random;
+
+import calculator.Scientific.Tier;
+
+/**
+ * This Class measures the scientific functions in each Scientific.Tier, one
+ * call at a time over a mix of arguments in the range each function is used
+ * in, and in bulk through BatchEvaluator, where one operation is a whole column
+ * of 1024 arguments.
+ * 
+ * @author Andrew Sand
+ */
+public class ScientificBenchmark {
+	/**
+	 * The Operators of the functions, the ranges of their arguments, and the
+	 * number of arguments in each column, a power of two
+	 */
+	private static final Operator[] FUNCTIONS = { Operator.EXP, Operator.LN, Operator.LOG10, Operator.POWER,
+			Operator.SIN, Operator.COS, Operator.TAN, Operator.FACTORIAL };
+	private static final double[] MIN = { -50, 1e-6, 1e-6, 0.1, -100, -100, -100, 0 },
+			MAX = { 50, 1e6, 1e6, 100, 100, 100, 100, 20 };
+	private static final int N = 1024;
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		Random random = new Random(25);
+		double[] b = new double[N], out = new double[N];
+		for (int i = 0; i < N; i++) {
+			b[i] = random.nextDouble() * 10 - 5;
+		}
+
+		for (int f = 0; f < FUNCTIONS.length; f++) {
+			Operator o = FUNCTIONS[f];
+			double[] a = new double[N];
+			for (int i = 0; i < N; i++) {
+				a[i] = MIN[f] + random.nextDouble() * (MAX[f] - MIN[f]);
+			}
+
+			// One call at a time
+			for (Tier tier : Tier.values()) {
+				Bench.run(o.symbol() + " " + tier, ops -> {
+					for (int i = 0; i < ops; i++) {
+						Bench.consume(Double.doubleToRawLongBits(Scientific.apply(o, tier, a[i & (N - 1)], b[i & (N - 1)])));
+					}
+				});
+			}
+
+			// A column at a time
+			for (Tier tier : Tier.values()) {
+				Bench.run(o.symbol() + " " + tier + " (column of " + N + ")", ops -> {
+					for (int i = 0; i < ops; i++) {
+						BatchEvaluator.evaluate(o, tier, a, b, out);
+						Bench.consume(Double.doubleToRawLongBits(out[i & (N - 1)]));
+					}
+				});
+			}
+		}
+	}
+}
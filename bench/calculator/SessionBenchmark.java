@@ -0,0 +1,58 @@
+package calculator;
+
+/**
+ * This Class measures how button presses scale across threads. Each thread
+ * replays a recorded style session of presses, either on its own Session from
+ * a SessionRegistry or on one Calculator shared by every thread, which has to
+ * be locked for each press. The number of threads is doubled up to twice the
+ * number of cores, or can be set with the bench.threads system property.
+ * 
+ * @author Andrew Sand
+ */
+public class SessionBenchmark {
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		// Variable declaration
+		Command[] log = DispatchBenchmark.session(1 << 16, 42);
+		int cores = Runtime.getRuntime().availableProcessors();
+		int max = Integer.getInteger("bench.threads", Math.max(2 * cores, 4));
+		System.out.println(cores + " cores");
+
+		for (int threads = 1; threads <= max; threads *= 2) {
+			// One operation is one press on the thread's own session
+			SessionRegistry registry = new SessionRegistry();
+			Bench.run("Session.press", threads, t -> {
+				Session s = registry.open();
+				int[] next = { t * 4096 };
+				return ops -> {
+					int j = next[0];
+					for (int i = 0; i < ops; i++) {
+						s.press(log[j]);
+						j = (j + 1) & (log.length - 1);
+					}
+					next[0] = j;
+				};
+			});
+
+			// One operation is one press on the shared calculator
+			Calculator shared = new Calculator(new FloatBackend());
+			Bench.run("shared Calculator.press", threads, t -> {
+				int[] next = { t * 4096 };
+				return ops -> {
+					int j = next[0];
+					for (int i = 0; i < ops; i++) {
+						synchronized (shared) {
+							shared.press(log[j]);
+						}
+						j = (j + 1) & (log.length - 1);
+					}
+					next[0] = j;
+				};
+			});
+		}
+	}
+}
@@ -0,0 +1,188 @@
+package calculator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+/**
+ * This Class measures how long the calculator takes to start, in a new JVM
+ * each time. The headless launch runs the calculator with "--headless" and
+ * presses "6 * 7 =", and the GUI launch builds and updates the GUI on the
+ * event dispatch thread as the calculator's main Method does, without opening
+ * the window so that it also runs headless. Each launch is timed with the
+ * default class data sharing archive of the JDK, without class data sharing,
+ * and with an AppCDS archive of its own, which is created first by a training
+ * run. AppCDS only archives classes from jar files, so the benchmark's class
+ * path is packed into a jar first. Set the number of launches with the
+ * bench.iterations system property.
+ * 
+ * @author Andrew Sand
+ */
+public class StartupBenchmark {
+	/**
+	 * The number of launches timed for each case
+	 */
+	private static final int LAUNCHES = Integer.getInteger("bench.iterations", 10);
+
+	/**
+	 * The main method for running the benchmarks.
+	 * 
+	 * @param args - Program arguments
+	 */
+	public static void main(String args[]) throws Exception {
+		Path dir = Files.createTempDirectory("startup");
+		try {
+			String classPath = jar(dir.resolve("calculator.jar"));
+			launch("headless", dir, classPath, "calculator.Calculator", "--headless");
+			launch("GUI", dir, classPath, "calculator.StartupBenchmark$GuiLaunch");
+		} finally {
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+				for (Path p : files) {
+					Files.delete(p);
+				}
+			}
+			Files.delete(dir);
+		}
+	}
+
+	/**
+	 * Helper method that packs the directories of the benchmark's class path into
+	 * a jar.
+	 * 
+	 * @param jar - the jar to create
+	 * @return - the class path with the jar in place of the directories
+	 */
+	private static String jar(Path jar) throws IOException {
+		List<String> classPath = new ArrayList<>();
+		classPath.add(jar.toString());
+		try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+			for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+				Path root = Paths.get(entry);
+				if (!Files.isDirectory(root)) {
+					classPath.add(entry);
+					continue;
+				}
+				List<Path> files;
+				try (Stream<Path> walk = Files.walk(root)) {
+					files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+				}
+				for (Path f : files) {
+					out.putNextEntry(new JarEntry(root.relativize(f).toString().replace(File.separatorChar, '/')));
+					Files.copy(f, out);
+					out.closeEntry();
+				}
+			}
+		}
+		return String.join(File.pathSeparator, classPath);
+	}
+
+	/**
+	 * Helper method that times launching one main class with each kind of class
+	 * data sharing.
+	 * 
+	 * @param name      - the name of the launch
+	 * @param dir       - the directory the AppCDS archive is created in
+	 * @param classPath - the class path of the launch
+	 * @param main      - the main class and its arguments
+	 */
+	private static void launch(String name, Path dir, String classPath, String... main) throws Exception {
+		Path archive = dir.resolve(name + ".jsa");
+		time(name + " (JDK CDS)", classPath, main);
+		time(name + " (-Xshare:off)", classPath, main, "-Xshare:off");
+		java(classPath, main, "-XX:ArchiveClassesAtExit=" + archive);
+		time(name + " (AppCDS)", classPath, main, "-XX:SharedArchiveFile=" + archive);
+	}
+
+	/**
+	 * Helper method that launches a JVM LAUNCHES times, printing the mean and
+	 * fastest wall clock time.
+	 * 
+	 * @param name      - the name of the case
+	 * @param classPath - the class path of the launch
+	 * @param main      - the main class and its arguments
+	 * @param options   - the options of the JVM
+	 */
+	private static void time(String name, String classPath, String[] main, String... options) throws Exception {
+		// Warming up the file system cache
+		java(classPath, main, options);
+		long[] times = new long[LAUNCHES];
+		for (int i = 0; i < LAUNCHES; i++) {
+			long start = System.nanoTime();
+			java(classPath, main, options);
+			times[i] = System.nanoTime() - start;
+		}
+		System.out.println(String.format(Locale.ROOT, "%-40s %8.1f ms mean %8.1f ms fastest", name,
+				Arrays.stream(times).average().getAsDouble() / 1e6, Arrays.stream(times).min().getAsLong() / 1e6));
+	}
+
+	/**
+	 * Helper method that launches a JVM, passing "6 * 7 =" on its standard input,
+	 * and waits for it to exit.
+	 * 
+	 * @param classPath - the class path of the launch
+	 * @param main      - the main class and its arguments
+	 * @param options   - the options of the JVM
+	 */
+	private static void java(String classPath, String[] main, String... options)
+			throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-Djava.awt.headless=true");
+		command.addAll(Arrays.asList(options));
+		command.add("-cp");
+		command.add(classPath);
+		command.addAll(Arrays.asList(main));
+		Process p = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD)
+				.redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		try (OutputStream in = p.getOutputStream()) {
+			in.write("6 * 7 =\n".getBytes());
+		}
+		if (p.waitFor() != 0) {
+			throw new IllegalStateException(String.join(" ", command) + " exited with " + p.exitValue());
+		}
+	}
+
+	/**
+	 * The GUI launch, which builds the GUI's look and feel and panel on the event
+	 * dispatch thread and shows one result, without opening a window.
+	 */
+	public static class GuiLaunch {
+		/**
+		 * The main method of the GUI launch.
+		 * 
+		 * @param args - Program arguments
+		 */
+		public static void main(String args[]) throws Exception {
+			Calculator calc = new Calculator();
+			SwingUtilities.invokeAndWait(() -> {
+				try {
+					UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+				GUI gui = new GUI();
+				gui.create_panel(calc);
+				calc.events().subscribe(gui);
+				for (Command c : new Command[] { Command.SIX, Command.MULTIPLY, Command.SEVEN, Command.EQUALS }) {
+					calc.press(c);
+				}
+			});
+			System.exit(0);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package calculator;
+
+/**
+ * This Class contains the calculator's arithmetic kernels. Each Method works on
+ * primitive numbers only, so it can be used both by the String Methods of the
+ * Calculator Class and by the headless BatchEvaluator without creating any
+ * Objects. All of the calculator's results are floats, which is why every
+ * kernel returns a float.
+ * 
+ * @author Andrew Sand
+ */
+public final class Arithmetic {
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private Arithmetic() {
+	}
+
+	/**
+	 * @param a - the first number to add
+	 * @param b - the second number to add
+	 * @return - the sum of the numbers
+	 */
+	public static float add(float a, float b) {
+		return a + b;
+	}
+
+	/**
+	 * @param a - the number to subtract from
+	 * @param b - the number to subtract
+	 * @return - the difference of the numbers
+	 */
+	public static float subtract(float a, float b) {
+		return a - b;
+	}
+
+	/**
+	 * @param a - the first number to multiply
+	 * @param b - the second number to multiply
+	 * @return - the product of the numbers
+	 */
+	public static float multiply(float a, float b) {
+		return a * b;
+	}
+
+	/**
+	 * @param a - the number to divide
+	 * @param b - the number to divide by
+	 * @return - the quotient of the numbers
+	 */
+	public static float divide(float a, float b) {
+		return a / b;
+	}
+
+	/**
+	 * @param a - the number to square
+	 * @return - the number multiplied by itself
+	 */
+	public static float square(float a) {
+		return a * a;
+	}
+
+	/**
+	 * Calculates the square root in double precision and rounds it to a float,
+	 * which is what the calculator has always done. The number is taken as a
+	 * double because square_root(String s) parses its input as a double.
+	 * 
+	 * @param a - the number to square root
+	 * @return - the square root of the number
+	 */
+	public static float square_root(double a) {
+		return (float) Math.sqrt(a);
+	}
+
+	/**
+	 * Applies the passed in Operator to one or two numbers. The second number is
+	 * ignored by the unary operators, and the scientific functions are calculated
+	 * in double precision by Scientific's EXACT tier and rounded to a float.
+	 * 
+	 * @param o - the Operator to apply
+	 * @param a - the first number
+	 * @param b - the second number
+	 * @return - the result of the operation
+	 */
+	public static float apply(Operator o, float a, float b) {
+		// Testing which operation needs to occur
+		switch (o) {
+		case ADD:
+			return add(a, b);
+		case SUBTRACT:
+			return subtract(a, b);
+		case MULTIPLY:
+			return multiply(a, b);
+		case DIVIDE:
+			return divide(a, b);
+		case SQUARE:
+			return square(a);
+		case SQUARE_ROOT:
+			return square_root(a);
+		default:
+			// Throws an IllegalArgumentException for Operators that are not functions
+			return (float) Scientific.apply(o, Scientific.Tier.EXACT, a, b);
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package calculator;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This Class parses decimal numbers straight from ASCII bytes, giving exactly
+ * the same results as Float.parseFloat and Double.parseDouble without creating
+ * a String.
+ * 
+ * The digits are read into a long mantissa and a power of ten exponent. When
+ * the mantissa is below 2^53 and the exponent is at most 22 in size, both are
+ * exact doubles, so one multiplication or division gives the correctly rounded
+ * double. Rounding that double again to a float gives the correctly rounded
+ * float, unless the double lies exactly halfway between two floats, where the
+ * first rounding may have landed on the halfway point. That case, numbers with
+ * more digits or larger exponents, and anything other than plain decimals, such
+ * as "NaN" or hexadecimal, are handed to the JDK's parser instead.
+ * 
+ * @author Andrew Sand
+ */
+final class AsciiNumber {
+	/**
+	 * The powers of ten that are exact doubles
+	 */
+	private static final double[] POWERS = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12,
+			1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * The largest mantissa that is an exact double
+	 */
+	private static final long EXACT = 1L << 53;
+
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private AsciiNumber() {
+	}
+
+	/**
+	 * Parses a float, as Float.parseFloat would.
+	 * 
+	 * @param b    - the buffer holding the number
+	 * @param from - the index of the first byte of the number
+	 * @param to   - the index after the last byte of the number
+	 * @return - the float
+	 * @throws NumberFormatException if the bytes are not a number
+	 */
+	static float parse_float(ByteBuffer b, int from, int to) {
+		double d = fast(b, from, to);
+		if (d == d && rounds_to_float(d)) {
+			return (float) d;
+		}
+		return Float.parseFloat(string(b, from, to));
+	}
+
+	/**
+	 * Parses a double, as Double.parseDouble would.
+	 * 
+	 * @param b    - the buffer holding the number
+	 * @param from - the index of the first byte of the number
+	 * @param to   - the index after the last byte of the number
+	 * @return - the double
+	 * @throws NumberFormatException if the bytes are not a number
+	 */
+	static double parse_double(ByteBuffer b, int from, int to) {
+		double d = fast(b, from, to);
+		return d == d ? d : Double.parseDouble(string(b, from, to));
+	}
+
+	/**
+	 * Helper Method that parses a plain decimal whose mantissa and exponent are
+	 * exact doubles.
+	 * 
+	 * @param b    - the buffer holding the number
+	 * @param from - the index of the first byte of the number
+	 * @param to   - the index after the last byte of the number
+	 * @return - the correctly rounded double, or NaN if it could not be found
+	 *         this way
+	 */
+	private static double fast(ByteBuffer b, int from, int to) {
+		// Variable declaration
+		int i = from;
+		boolean negative = false, dot = false, any = false;
+		long m = 0;
+		int digits = 0, exp = 0;
+
+		// Reading the sign
+		if (i < to && (b.get(i) == '-' || b.get(i) == '+')) {
+			negative = b.get(i++) == '-';
+		}
+
+		// Reading the digits and decimal point
+		for (; i < to; i++) {
+			int c = b.get(i);
+			if (c >= '0' && c <= '9') {
+				any = true;
+				// Leading zeros are not significant
+				if (m != 0 || c != '0') {
+					if (++digits > 18) {
+						return Double.NaN;
+					}
+					m = m * 10 + (c - '0');
+				}
+				if (dot) {
+					exp--;
+				}
+			} else if (c == '.' && !dot) {
+				dot = true;
+			} else if ((c == 'e' || c == 'E') && any) {
+				break;
+			} else {
+				return Double.NaN;
+			}
+		}
+		if (!any) {
+			return Double.NaN;
+		}
+
+		// Reading the exponent
+		if (i < to) {
+			i++;
+			boolean minus = false;
+			if (i < to && (b.get(i) == '-' || b.get(i) == '+')) {
+				minus = b.get(i++) == '-';
+			}
+			if (i == to || to - i > 4) {
+				return Double.NaN;
+			}
+			int e = 0;
+			for (; i < to; i++) {
+				int c = b.get(i);
+				if (c < '0' || c > '9') {
+					return Double.NaN;
+				}
+				e = e * 10 + (c - '0');
+			}
+			exp += minus ? -e : e;
+		}
+
+		return exact(m, exp, negative);
+	}
+
+	/**
+	 * Works out the double of a decimal from its mantissa and power of ten
+	 * exponent, when both are exact doubles.
+	 * 
+	 * @param m        - the mantissa, which must not be negative
+	 * @param exp      - the power of ten exponent
+	 * @param negative - true if the number is negative
+	 * @return - the correctly rounded double, or NaN if it could not be found
+	 *         this way
+	 */
+	static double exact(long m, int exp, boolean negative) {
+		double d;
+		if (m == 0) {
+			d = 0;
+		} else if (m >= EXACT || exp < -22 || exp > 22) {
+			return Double.NaN;
+		} else {
+			d = exp < 0 ? m / POWERS[-exp] : m * POWERS[exp];
+		}
+		return negative ? -d : d;
+	}
+
+	/**
+	 * Tests that a correctly rounded double can be rounded again to give the
+	 * correctly rounded float of the same decimal.
+	 * 
+	 * @param d - the double
+	 * @return - true unless the double is halfway between two floats, which is
+	 *         when the 29 bits a float does not keep are exactly 1000...0
+	 */
+	static boolean rounds_to_float(double d) {
+		return (Double.doubleToRawLongBits(d) & 0x1FFFFFFFL) != 0x10000000L;
+	}
+
+	/**
+	 * Helper Method that copies the bytes of a number into a String, used only
+	 * when the number cannot be parsed directly.
+	 * 
+	 * @param b    - the buffer holding the number
+	 * @param from - the index of the first byte of the number
+	 * @param to   - the index after the last byte of the number
+	 * @return - the String
+	 */
+	private static String string(ByteBuffer b, int from, int to) {
+		byte[] bytes = new byte[to - from];
+		for (int i = from; i < to; i++) {
+			bytes[i - from] = b.get(i);
+		}
+		return new String(bytes, StandardCharsets.ISO_8859_1);
+	}
+}
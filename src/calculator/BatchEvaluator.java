@@ -0,0 +1,233 @@
+package calculator;
+
+/**
+ * This Class is the headless batch API of the calculator. It applies one
+ * Operator to whole columns of numbers at once, writing the results into an
+ * array supplied by the caller. No Strings or boxed numbers are created while
+ * evaluating, so it can be used to run the calculator's arithmetic over
+ * millions of operand pairs. The results are exactly the floats that the
+ * String Methods of the Calculator Class format and return, except for the
+ * scientific functions in double precision, which also take the tier of
+ * accuracy to calculate them in.
+ * 
+ * @author Andrew Sand
+ */
+public final class BatchEvaluator {
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private BatchEvaluator() {
+	}
+
+	/**
+	 * Applies the Operator to every pair of numbers in the passed in columns.
+	 * 
+	 * @param o   - the Operator to apply
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers, may be null for unary operators
+	 * @param out - the column that the results are written into
+	 */
+	public static void evaluate(Operator o, float[] a, float[] b, float[] out) {
+		evaluate(o, a, b, out, 0, a.length);
+	}
+
+	/**
+	 * Applies the Operator to the numbers in the passed in columns between the
+	 * from (inclusive) and to (exclusive) indexes. Each case has its own loop so
+	 * that the operator is only checked once per call.
+	 * 
+	 * @param o    - the Operator to apply
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, may be null for unary operators
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	public static void evaluate(Operator o, float[] a, float[] b, float[] out, int from, int to) {
+		// Checking that the columns are large enough
+		check(o, a.length, b == null ? -1 : b.length, out.length, from, to);
+
+		// Testing which operation needs to occur
+		switch (o) {
+		case ADD:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.add(a[i], b[i]);
+			}
+			break;
+		case SUBTRACT:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.subtract(a[i], b[i]);
+			}
+			break;
+		case MULTIPLY:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.multiply(a[i], b[i]);
+			}
+			break;
+		case DIVIDE:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.divide(a[i], b[i]);
+			}
+			break;
+		case SQUARE:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.square(a[i]);
+			}
+			break;
+		case SQUARE_ROOT:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.square_root(a[i]);
+			}
+			break;
+		default:
+			// The scientific functions, in Scientific's EXACT tier
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.apply(o, a[i], b == null ? Float.NaN : b[i]);
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Applies the Operator to every pair of numbers in the passed in columns.
+	 * 
+	 * @param o   - the Operator to apply
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers, may be null for unary operators
+	 * @param out - the column that the results are written into
+	 */
+	public static void evaluate(Operator o, double[] a, double[] b, float[] out) {
+		evaluate(o, a, b, out, 0, a.length);
+	}
+
+	/**
+	 * Applies the Operator to the numbers in the passed in columns between the
+	 * from (inclusive) and to (exclusive) indexes. The numbers are rounded to
+	 * floats before operating on them, like Float.parseFloat(String s) does in
+	 * the Calculator's String Methods. Square root is the exception, it uses the
+	 * full double just as square_root(String s) does.
+	 * 
+	 * @param o    - the Operator to apply
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, may be null for unary operators
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	public static void evaluate(Operator o, double[] a, double[] b, float[] out, int from, int to) {
+		// Checking that the columns are large enough
+		check(o, a.length, b == null ? -1 : b.length, out.length, from, to);
+
+		// Testing which operation needs to occur
+		switch (o) {
+		case ADD:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.add((float) a[i], (float) b[i]);
+			}
+			break;
+		case SUBTRACT:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.subtract((float) a[i], (float) b[i]);
+			}
+			break;
+		case MULTIPLY:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.multiply((float) a[i], (float) b[i]);
+			}
+			break;
+		case DIVIDE:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.divide((float) a[i], (float) b[i]);
+			}
+			break;
+		case SQUARE:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.square((float) a[i]);
+			}
+			break;
+		case SQUARE_ROOT:
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.square_root(a[i]);
+			}
+			break;
+		default:
+			// The scientific functions, in Scientific's EXACT tier
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.apply(o, (float) a[i], b == null ? Float.NaN : (float) b[i]);
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Applies a scientific function to every pair of numbers in the passed in
+	 * columns, in double precision.
+	 * 
+	 * @param o    - the Operator of the function
+	 * @param tier - the tier of accuracy to calculate it in
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, may be null for unary functions
+	 * @param out  - the column that the results are written into
+	 */
+	public static void evaluate(Operator o, Scientific.Tier tier, double[] a, double[] b, double[] out) {
+		evaluate(o, tier, a, b, out, 0, a.length);
+	}
+
+	/**
+	 * Applies a scientific function to the numbers in the passed in columns
+	 * between the from (inclusive) and to (exclusive) indexes, in double
+	 * precision and the passed in tier of accuracy. Unlike the other Methods, the
+	 * numbers are not rounded to floats, so bulk jobs get the full accuracy of
+	 * the tier.
+	 * 
+	 * @param o    - the Operator of the function
+	 * @param tier - the tier of accuracy to calculate it in
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, may be null for unary functions
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 * @throws IllegalArgumentException if the Operator is not a function
+	 */
+	public static void evaluate(Operator o, Scientific.Tier tier, double[] a, double[] b, double[] out, int from,
+			int to) {
+		// Checking that the columns are large enough and hold a function
+		check(o, a.length, b == null ? -1 : b.length, out.length, from, to);
+		if (!o.isFunction()) {
+			throw new IllegalArgumentException("The " + o + " operator is not a scientific function");
+		}
+
+		// Only pow needs the second column
+		if (o == Operator.POWER) {
+			for (int i = from; i < to; i++) {
+				out[i] = Scientific.pow(a[i], b[i], tier);
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				out[i] = Scientific.apply(o, tier, a[i], Double.NaN);
+			}
+		}
+	}
+
+	/**
+	 * Helper Method that makes sure the range being evaluated fits inside all of
+	 * the columns, so that an error is thrown before any results are written.
+	 * 
+	 * @param o    - the Operator being applied
+	 * @param a    - the length of the first column
+	 * @param b    - the length of the second column, or -1 if there is none
+	 * @param out  - the length of the results column
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	static void check(Operator o, int a, int b, int out, int from, int to) {
+		// Testing the range itself
+		if (from < 0 || from > to || to > a || to > out) {
+			throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") does not fit the columns");
+		}
+		// Testing the second column for binary operators
+		if (!o.isUnary() && to > b) {
+			throw new IllegalArgumentException("The " + o + " operator needs a second column of numbers");
+		}
+	}
+}
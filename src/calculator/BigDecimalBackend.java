@@ -0,0 +1,96 @@
+package calculator;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * This Class is a NumericBackend that works in decimal using BigDecimal. Every
+ * operation is rounded using the MathContext passed into the Constructor, so
+ * typed decimals such as 0.1 are represented exactly and results never
+ * overflow. Results are shown in plain notation without trailing zeros.
+ * 
+ * @author Andrew Sand
+ */
+public class BigDecimalBackend implements NumericBackend {
+	/**
+	 * Member variable that stores the precision and rounding of the operations
+	 */
+	private final MathContext mc;
+
+	/**
+	 * A Constructor Method that uses 34 significant digits (IEEE decimal128).
+	 */
+	public BigDecimalBackend() {
+		this(MathContext.DECIMAL128);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param mc - the precision and rounding of the operations
+	 */
+	public BigDecimalBackend(MathContext mc) {
+		this.mc = mc;
+	}
+
+	/**
+	 * @return - the precision and rounding of the operations
+	 */
+	MathContext context() {
+		return mc;
+	}
+
+	@Override
+	public String add(String s1, String s2) {
+		return format(new BigDecimal(s1).add(new BigDecimal(s2), mc));
+	}
+
+	@Override
+	public String subtract(String s1, String s2) {
+		return format(new BigDecimal(s1).subtract(new BigDecimal(s2), mc));
+	}
+
+	@Override
+	public String multiply(String s1, String s2) {
+		return format(new BigDecimal(s1).multiply(new BigDecimal(s2), mc));
+	}
+
+	@Override
+	public String divide(String s1, String s2) {
+		// Throws an ArithmeticException when dividing by zero
+		return format(new BigDecimal(s1).divide(new BigDecimal(s2), mc));
+	}
+
+	@Override
+	public String square(String s) {
+		BigDecimal d = new BigDecimal(s);
+		return format(d.multiply(d, mc));
+	}
+
+	@Override
+	public String square_root(String s) {
+		// Throws an ArithmeticException for negative numbers
+		return format(new BigDecimal(s).sqrt(mc));
+	}
+
+	@Override
+	public boolean overflows(String s) {
+		// BigDecimal results can be as large as needed
+		return false;
+	}
+
+	/**
+	 * Helper Method that writes a result in plain notation without any trailing
+	 * zeros, so whole results do not have a decimal point.
+	 * 
+	 * @param d - the BigDecimal to format
+	 * @return - the resulting String
+	 */
+	static String format(BigDecimal d) {
+		// Zero needs special handling as it can not be stripped
+		if (d.signum() == 0) {
+			return "0";
+		}
+		return d.stripTrailingZeros().toPlainString();
+	}
+}
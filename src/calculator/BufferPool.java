@@ -0,0 +1,68 @@
+package calculator;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * This Class is a pool of direct ByteBuffers of one size, so that buffers are
+ * created once and then reused rather than created for every connection or
+ * request. Buffers are only created when the pool is empty, and at most
+ * capacity of them are kept when released.
+ * 
+ * The pool is not thread safe, as it is used by the one thread running a
+ * Selector.
+ * 
+ * @author Andrew Sand
+ */
+final class BufferPool {
+	/**
+	 * Member variables that store the size of each buffer and the most buffers
+	 * kept
+	 */
+	private final int size, capacity;
+
+	/**
+	 * Member variable that stores the free buffers
+	 */
+	private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param size     - the size of each buffer in bytes
+	 * @param capacity - the most free buffers kept
+	 */
+	BufferPool(int size, int capacity) {
+		this.size = size;
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Takes a cleared buffer from the pool, creating one if the pool is empty.
+	 * 
+	 * @return - the buffer
+	 */
+	ByteBuffer acquire() {
+		ByteBuffer b = free.pollLast();
+		return b != null ? b : ByteBuffer.allocateDirect(size);
+	}
+
+	/**
+	 * Returns a buffer to the pool.
+	 * 
+	 * @param b - the buffer, which must have come from this pool
+	 */
+	void release(ByteBuffer b) {
+		if (free.size() < capacity) {
+			b.clear();
+			free.addLast(b);
+		}
+	}
+
+	/**
+	 * @return - the number of free buffers
+	 */
+	int free() {
+		return free.size();
+	}
+}
@@ -1,458 +1,1232 @@
 package calculator;
 
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.util.Observable;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.swing.SwingUtilities;
 
 /**
  * This Class contains all of the calculator's logic and input handling code. It
  * also contains the main Method for the software, allowing it to be run and
- * operated. Furthermore, this Class is the Observable in the in the
- * Observable-Observer pattern, which is a simplified version of the MVC
- * pattern. Whenever a new number needs to be displayed on the GUI JTextField,
- * this Class will using its notifyObservers() Method to signal.
+ * operated. Furthermore, this Class is the model in a simplified version of
+ * the MVC pattern. Whenever a new number needs to be displayed on the GUI
+ * JTextField, this Class publishes a DisplayEvent on its EventBus. The
+ * calculator itself never loads AWT or Swing classes, so it starts quickly
+ * without a GUI; ActionEvents from Swing are turned into presses by
+ * GUI.actions(Calculator calc).
  * 
  * @author Andrew Sand
  */
-@SuppressWarnings("deprecation")
-public class Calculator extends Observable implements ActionListener {
-	private GUI observer;
+public class Calculator {
+	/**
+	 * Member variable that stores the channel display changes are published on
+	 */
+	private final EventBus events = new EventBus();
 
 	/**
-	 * Member variables that store the first number, second number, displayed
-	 * number, operator, and result number
+	 * Member variables that store whether the display changed during the current
+	 * press, and the operator button to show as selected
 	 */
-	private String s1, s2, sd, so, sr, mem;
+	private boolean changed;
+	private Operator selected;
+
+	/**
+	 * The most chars that can be typed into the first and second numbers, unless
+	 * the backend lifts the limits
+	 */
+	private static final int S1_LIMIT = 15, S2_LIMIT = 7;
+
+	/**
+	 * The number of calculations kept by a history file that is created with the
+	 * "--history" option, 32 MB of records
+	 */
+	private static final int HISTORY_FILE_CAPACITY = 1 << 20;
+
+	/**
+	 * Member variables that store the first and second numbers as they are typed
+	 */
+	private final Operand s1 = new Operand(S1_LIMIT + 1), s2 = new Operand(S2_LIMIT + 1);
+
+	/**
+	 * Member variable that stores the displayed number. It is either one of the
+	 * numbers being typed, or a fixed String such as a result
+	 */
+	private CharSequence sd;
+
+	/**
+	 * Member variable that stores the result number
+	 */
+	private String sr;
+
+	/**
+	 * Member variable that stores the memory slots
+	 */
+	private final MemoryRegisters memory = new MemoryRegisters(MemoryRegisters.DEFAULT_SLOTS);
+
+	/**
+	 * Member variable that stores the operator in play, or null if there is none
+	 */
+	private Operator so;
+
+	/**
+	 * Member variable that stores the backend that carries out the arithmetic
+	 */
+	private NumericBackend backend;
+
+	/**
+	 * Member variable that stores the cache of results, or null if results are
+	 * not cached
+	 */
+	private ResultCache cache;
+
+	/**
+	 * Member variable that stores the recorder of button presses, or null if
+	 * they are not recorded
+	 */
+	private KeypressRecorder recorder;
+
+	/**
+	 * Member variable that stores the metrics the calculator is measured with,
+	 * or null if it is not measured
+	 */
+	private Metrics metrics;
+
+	/**
+	 * Member variables that store whether the pending result is previewed as the
+	 * numbers are typed, and what = would display
+	 */
+	private boolean previewing;
+	private final Operand preview = new Operand(DecimalFormatter.MAX_LENGTH);
+
+	/**
+	 * Member variable that stores the history of calculations, or null if they
+	 * are not kept
+	 */
+	private History history;
+
+	/**
+	 * Member variable that stores the tier of accuracy of the scientific
+	 * functions
+	 */
+	private Scientific.Tier tier = Scientific.Tier.EXACT;
 
 	/**
 	 * A custom Constructor Method for the Class. It initialises member variables to
-	 * their proper default values and adds the passed in instance of GUI as this
-	 * Object's Observer.
+	 * their proper default values and subscribes the passed in instance of GUI to
+	 * its events. The calculator uses the original float arithmetic.
 	 * 
-	 * @param gui - the Observer GUI for this instance
+	 * @param gui - the GUI for this instance
 	 */
 	public Calculator(GUI gui) {
-		// Add the GUI as an Observer and set default values
-		this.addObserver(gui);
-		observer = gui;
-		s1 = s2 = sd = so = sr = "";
-		mem = "0";
+		this(gui, new FloatBackend());
+	}
+
+	/**
+	 * A custom Constructor Method for the Class. It initialises member variables to
+	 * their proper default values and subscribes the passed in instance of GUI to
+	 * its events, which are delivered on the Swing event dispatch thread.
+	 * 
+	 * @param gui     - the GUI for this instance
+	 * @param backend - the NumericBackend that carries out the arithmetic
+	 */
+	public Calculator(GUI gui, NumericBackend backend) {
+		this(backend);
+		// Subscribe the GUI, coalescing updates until the event dispatch thread
+		// gets round to them
+		events.subscribe(gui, SwingUtilities::invokeLater);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class that creates a calculator without
+	 * a GUI, using the original float arithmetic. No AWT or Swing classes are
+	 * loaded.
+	 */
+	public Calculator() {
+		this(new FloatBackend());
+	}
+
+	/**
+	 * A custom Constructor Method for the Class that creates a calculator without
+	 * a GUI, such as one serving a Session. Subscribers may still be added to
+	 * its events.
+	 * 
+	 * @param backend - the NumericBackend that carries out the arithmetic
+	 */
+	public Calculator(NumericBackend backend) {
+		// Set default values
+		this.backend = backend;
+		sd = sr = "";
+		so = null;
 	}
 
 	/**
 	 * The main method for running this software. The method instantiates all
 	 * necessary instances of software Objects and creates the GUI and threads for
-	 * the program to operate.
+	 * the program to operate. Passing "--server" and optionally a port runs a
+	 * headless CalculatorServer instead, and passing "--nio" and optionally a port
+	 * runs a NioCalculatorServer. Passing "--file" followed by an input and an
+	 * output file evaluates the calculations in the input file with a
+	 * FileEvaluator, and passing "--replay" and a keypress log replays it on a
+	 * headless calculator with the backend and tier it was recorded with.
+	 * Passing "--headless" runs a calculator without Swing that presses the
+	 * buttons read from standard input, see headless(...).
+	 * Otherwise, the GUI is built on the event dispatch thread, with the live
+	 * preview of results and a History held in memory turned on. For the GUI or
+	 * headless calculator, passing "--journal" and a directory persists the
+	 * memory to a Journal in the directory, passing "--record" and a file records
+	 * the button presses, passing "--history" and a file keeps the History in the
+	 * file, passing "--precise" and a number of digits calculates with the
+	 * PreciseBackend, rounding division and square roots to that many digits,
+	 * passing "--tier" and exact, fast or approximate picks the Scientific.Tier of
+	 * the scientific functions, and passing "--metrics" and a number of seconds
+	 * measures the calculator, registering the Metrics with JMX and writing them
+	 * to standard error at that interval.
 	 * 
 	 * @param args - Program arguments
 	 */
-	public static void main(String args[]) {
-		// Variable declaration/instantiation
-		GUI gui = new GUI();
-		Calculator calc = new Calculator(gui);
+	public static void main(String args[]) throws IOException {
+		// Running as a server
+		if (args.length > 0 && args[0].equals("--server")) {
+			CalculatorServer.run(args.length > 1 ? Integer.parseInt(args[1]) : CalculatorServer.DEFAULT_PORT);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--nio")) {
+			int port = args.length > 1 ? Integer.parseInt(args[1]) : CalculatorServer.DEFAULT_PORT;
+			System.out.println("Calculator NIO server listening on port " + new NioCalculatorServer(port).start().port());
+			return;
+		}
 
-		// Attempting to initialise the GUI
-		if (!gui.initialise(calc)) {
-			// GUI failed initialisation
-			System.err.println("Program terminated, the GUI failed initialisation!");
-			System.exit(0);
+		// Evaluating a file
+		if (args.length > 0 && args[0].equals("--file")) {
+			if (args.length < 3) {
+				System.err.println("Usage: --file <input> <output>");
+				return;
+			}
+			long start = System.nanoTime();
+			long lines = new FileEvaluator().evaluate(Paths.get(args[1]), Paths.get(args[2]));
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println(String.format(Locale.ROOT, "Evaluated %d lines in %.2f s (%.0f lines/s)", lines, seconds,
+					lines / seconds));
+			return;
 		}
 
-		// Display the GUI
-		gui.display();
+		// Replaying a keypress log
+		if (args.length > 1 && args[0].equals("--replay")) {
+			KeypressReplayer replayer = KeypressReplayer.open(Paths.get(args[1]));
+			Calculator calc = replayer.calculator();
+			calc.setHistory(new History(History.DEFAULT_CAPACITY));
+			long start = System.nanoTime();
+			replayer.replay(calc);
+			double seconds = (System.nanoTime() - start) / 1e9;
+			System.out.println(String.format(Locale.ROOT, "Replayed %d presses in %.2f s (%.0f presses/s), display: %s",
+					replayer.size(), seconds, replayer.size() / seconds, calc.display()));
+			return;
+		}
+
+		// Variable declaration/instantiation, the calculator never needs Swing
+		Calculator calc = new Calculator();
+
+		// Answering button presses read from standard input
+		if (args.length > 0 && args[0].equals("--headless")) {
+			apply_options(calc, args, 1);
+			headless(calc, new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)), System.out);
+			return;
+		}
+
+		// Building the GUI on the event dispatch thread, only now that it is needed,
+		// and previewing results as they are typed
+		Metrics metrics = apply_options(calc, args, 0);
+		calc.setPreview(true);
+		if (calc.getHistory() == null) {
+			calc.setHistory(new History(History.DEFAULT_CAPACITY));
+		}
+		SwingUtilities.invokeLater(() -> {
+			GUI gui = new GUI();
+			calc.events().subscribe(gui, SwingUtilities::invokeLater);
+			gui.setMetrics(metrics);
+
+			// Attempting to initialise the GUI
+			if (!gui.initialise(calc)) {
+				// GUI failed initialisation
+				System.err.println("Program terminated, the GUI failed initialisation!");
+				System.exit(0);
+			}
+
+			// Display the GUI
+			gui.display();
+		});
 	}
 
 	/**
-	 * Converts the passed in Strings into floats, calculates their sum, then gets
-	 * the appropriate amount of decimal places using the check_decimal(float f)
-	 * helper Method. Public only for JUnit tests to work.
+	 * Helper Method that applies the options of the GUI or headless calculator,
+	 * given as pairs of an option and its value.
+	 * 
+	 * @param calc - the calculator
+	 * @param args - Program arguments
+	 * @param from - the index of the first option
+	 * @return - the metrics the calculator is measured with, or null if it is not
+	 *         measured
+	 * @throws IOException if the journal or keypress log cannot be opened
+	 */
+	private static Metrics apply_options(Calculator calc, String[] args, int from) throws IOException {
+		Metrics metrics = null;
+		String record = null;
+		for (int i = from; i + 1 < args.length; i += 2) {
+			if (args[i].equals("--journal")) {
+				// Restoring and persisting the memory
+				Journal journal = Journal.open(Paths.get(args[i + 1]));
+				calc.setJournal(journal, 0);
+				close_on_exit(journal, "journal");
+			} else if (args[i].equals("--record")) {
+				// Recording the button presses, once the backend and tier are known
+				record = args[i + 1];
+			} else if (args[i].equals("--history")) {
+				// Keeping the history in a file
+				History history = History.open(Paths.get(args[i + 1]), HISTORY_FILE_CAPACITY);
+				calc.setHistory(history);
+				close_on_exit(history, "history");
+			} else if (args[i].equals("--precise")) {
+				// Calculating exactly, rounding division and square roots to the digits
+				calc.setBackend(new PreciseBackend(new MathContext(Integer.parseInt(args[i + 1]))));
+			} else if (args[i].equals("--tier")) {
+				// Trading the last digits of the scientific functions for speed
+				calc.setTier(Scientific.Tier.valueOf(args[i + 1].toUpperCase(Locale.ROOT)));
+			} else if (args[i].equals("--metrics")) {
+				// Measuring the calculator, and the GUI if there is one
+				metrics = new Metrics();
+				try {
+					metrics.register();
+				} catch (JMException e) {
+					System.err.println("Error: The metrics could not be registered with JMX: " + e.getMessage());
+				}
+				calc.setMetrics(metrics);
+				metrics.dump(System.err, Long.parseLong(args[i + 1]), TimeUnit.SECONDS);
+			}
+		}
+		if (record != null) {
+			KeypressRecorder recorder = new KeypressRecorder(Paths.get(record), calc.getBackend(), calc.getTier());
+			calc.setRecorder(recorder);
+			close_on_exit(recorder, "keypress log");
+		}
+		return metrics;
+	}
+
+	/**
+	 * Helper Method that runs a calculator without a GUI. Each line read holds
+	 * button labels separated by spaces, such as "1 2 + 3 =", which are pressed
+	 * in order before the display is written out. Labels that are not buttons are
+	 * reported and skipped.
+	 * 
+	 * @param calc - the calculator
+	 * @param in   - the lines of button labels
+	 * @param out  - where the display is written after each line
+	 * @throws IOException if the lines cannot be read
+	 */
+	static void headless(Calculator calc, BufferedReader in, PrintStream out) throws IOException {
+		String line;
+		while ((line = in.readLine()) != null) {
+			for (String label : line.trim().split("\\s+")) {
+				Command c = Command.of(label);
+				if (c != null) {
+					calc.press(c);
+				} else if (!label.isEmpty()) {
+					out.println("Unknown button: " + label);
+				}
+			}
+			out.println(calc.display());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Helper Method that closes a journal or recorder when the program exits, so
+	 * that its last changes are written.
+	 * 
+	 * @param c    - the journal or recorder
+	 * @param name - what it is, for the error message
+	 */
+	private static void close_on_exit(Closeable c, String name) {
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			try {
+				c.close();
+			} catch (IOException e) {
+				System.err.println("Error: The " + name + " could not be closed: " + e.getMessage());
+			}
+		}));
+	}
+
+	/**
+	 * Calculates the sum of the numbers in the passed in Strings using the
+	 * calculator's NumericBackend. With the default FloatBackend, the Strings are
+	 * converted into floats and whole results are shown without a decimal place.
+	 * Public only for JUnit tests to work.
 	 * 
 	 * @param s1 - the first String containing the number to add
 	 * @param s2 - the second String containing the number to add
 	 * @return - the String representation of the mathematical result
 	 */
 	public String add(String s1, String s2) {
-		// Parse the strings and add them together
-		float f = Float.parseFloat(s1) + Float.parseFloat(s2);
-		// Return the value once the decimal place has been checked
-		return check_decimal(f);
+		return cache == null && metrics == null ? backend.add(s1, s2) : measured(Operator.ADD, s1, s2);
 	}
 
 	/**
-	 * Converts the passed in Strings into floats, calculates their differences,
-	 * then gets the appropriate amount of decimal places using the
-	 * check_decimal(float f) helper Method. Public only for JUnit tests to work.
+	 * Calculates the difference of the numbers in the passed in Strings using the
+	 * calculator's NumericBackend. Public only for JUnit tests to work.
 	 * 
 	 * @param s1 - the first String containing the number to subtract
 	 * @param s2 - the second String containing the number to subtract
 	 * @return - the String representation of the mathematical result
 	 */
 	public String subtract(String s1, String s2) {
-		// Parse the strings and subtract them
-		float f = Float.parseFloat(s1) - Float.parseFloat(s2);
-		// Return the value once the decimal place has been checked
-		return check_decimal(f);
+		return cache == null && metrics == null ? backend.subtract(s1, s2) : measured(Operator.SUBTRACT, s1, s2);
 	}
 
 	/**
-	 * Converts the passed in Strings into floats, calculates their product, then
-	 * gets the appropriate amount of decimal places using the check_decimal(float
-	 * f) helper Method. Public only for JUnit tests to work.
+	 * Calculates the product of the numbers in the passed in Strings using the
+	 * calculator's NumericBackend. Public only for JUnit tests to work.
 	 * 
 	 * @param s1 - the first String containing the number to multiply
 	 * @param s2 - the second String containing the number to multiply
 	 * @return - the String representation of the mathematical result
 	 */
 	public String multiply(String s1, String s2) {
-		// Parse the strings and multiply them together
-		float f = Float.parseFloat(s1) * Float.parseFloat(s2);
-		// Return the value once the decimal place has been checked
-		return check_decimal(f);
+		return cache == null && metrics == null ? backend.multiply(s1, s2) : measured(Operator.MULTIPLY, s1, s2);
 	}
 
 	/**
-	 * Converts the passed in Strings into floats, calculates their quotient, then
-	 * gets the appropriate amount of decimal places using the check_decimal(float
-	 * f) helper Method. Public only for JUnit tests to work.
+	 * Calculates the quotient of the numbers in the passed in Strings using the
+	 * calculator's NumericBackend. Public only for JUnit tests to work.
 	 * 
 	 * @param s1 - the first String containing the number to divide
 	 * @param s2 - the second String containing the number to divide
 	 * @return - the String representation of the mathematical result
 	 */
 	public String divide(String s1, String s2) {
-		// Parse the strings and divide them
-		float f = Float.parseFloat(s1) / Float.parseFloat(s2);
-		// Return the value once the decimal place has been checked
-		return check_decimal(f);
+		return cache == null && metrics == null ? backend.divide(s1, s2) : measured(Operator.DIVIDE, s1, s2);
 	}
 
 	/**
-	 * Converts the passed in String into a float, calculates its square, then gets
-	 * the appropriate amount of decimal places using the check_decimal(float f)
-	 * helper Method. Public only for JUnit tests to work.
+	 * Calculates the square of the number in the passed in String using the
+	 * calculator's NumericBackend. Public only for JUnit tests to work.
 	 * 
 	 * @param s - the String containing the number to square
 	 * @return - the String representation of the mathematical result
 	 */
 	public String square(String s) {
-		// Parse the string and multiply it with itself
-		float f = Float.parseFloat(s) * Float.parseFloat(s);
-		// Return the value once the decimal place has been checked
-		return check_decimal(f);
+		return cache == null && metrics == null ? backend.square(s) : measured(Operator.SQUARE, s, null);
 	}
 
 	/**
-	 * Converts the passed in String into a float, calculates its square root, then
-	 * gets the appropriate amount of decimal places using the check_decimal(float
-	 * f) helper Method. Public only for JUnit tests to work.
+	 * Calculates the square root of the number in the passed in String using the
+	 * calculator's NumericBackend. Public only for JUnit tests to work.
 	 * 
 	 * @param s - the String containing the number to square root
 	 * @return - the String representation of the mathematical result
 	 */
 	public String square_root(String s) {
-		// Parse the string and square root it
-		float f = (float) Math.sqrt(Double.parseDouble(s));
-		// Return the value once the decimal place has been checked
-		return check_decimal(f);
+		return cache == null && metrics == null ? backend.square_root(s) : measured(Operator.SQUARE_ROOT, s, null);
+	}
+
+	/**
+	 * Calculates a scientific function of the numbers in the passed in Strings
+	 * using the calculator's NumericBackend, in the calculator's tier of
+	 * accuracy. Public only for JUnit tests to work.
+	 * 
+	 * @param op - the Operator of the function
+	 * @param s1 - the String containing the first number
+	 * @param s2 - the String containing the second number, or null for unary
+	 *           functions
+	 * @return - the String representation of the mathematical result
+	 */
+	public String function(Operator op, String s1, String s2) {
+		return cache == null && metrics == null ? backend.function(op, tier, s1, s2) : measured(op, s1, s2);
+	}
+
+	/**
+	 * Helper Method that carries out an operation when results are cached or
+	 * metrics are on, timing it if they are on.
+	 * 
+	 * @param op - the operator
+	 * @param s1 - the first number
+	 * @param s2 - the second number, or null for unary operators
+	 * @return - the String representation of the mathematical result
+	 */
+	private String measured(Operator op, String s1, String s2) {
+		if (metrics == null) {
+			return cached(op, s1, s2);
+		}
+		long start = System.nanoTime();
+		try {
+			return cache == null ? compute(op, s1, s2) : cached(op, s1, s2);
+		} finally {
+			metrics.operation(op, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Helper Method that looks up the result of an operation in the cache,
+	 * carrying it out and storing its result on a miss. The key is the bits of the
+	 * numbers as the FloatBackend parses them, so the cache is only used with the
+	 * FloatBackend: other backends see digits a float would round away.
+	 * 
+	 * @param op - the operator
+	 * @param s1 - the first number
+	 * @param s2 - the second number, or null for unary operators
+	 * @return - the String representation of the mathematical result
+	 */
+	private String cached(Operator op, String s1, String s2) {
+		// Other backends are not cached, and neither are the scientific functions
+		// outside the EXACT tier, as the key has no tier
+		if (backend.getClass() != FloatBackend.class || (op.isFunction() && tier != Scientific.Tier.EXACT)) {
+			return compute(op, s1, s2);
+		}
+
+		// Square root has always parsed its number as a double
+		long a = op == Operator.SQUARE_ROOT ? Double.doubleToLongBits(Double.parseDouble(s1))
+				: Float.floatToIntBits(Float.parseFloat(s1));
+		int b = op.isUnary() ? 0 : Float.floatToIntBits(Float.parseFloat(s2));
+
+		// Looking the result up, and working it out if it is not there
+		String r = cache.get(op, a, b);
+		if (r == null) {
+			r = compute(op, s1, s2);
+			cache.put(op, a, b, r);
+		}
+		return r;
+	}
+
+	/**
+	 * Helper Method that carries out an operation using the backend.
+	 * 
+	 * @param op - the operator
+	 * @param s1 - the first number
+	 * @param s2 - the second number, or null for unary operators
+	 * @return - the String representation of the mathematical result
+	 */
+	private String compute(Operator op, String s1, String s2) {
+		switch (op) {
+		case ADD:
+			return backend.add(s1, s2);
+		case SUBTRACT:
+			return backend.subtract(s1, s2);
+		case MULTIPLY:
+			return backend.multiply(s1, s2);
+		case DIVIDE:
+			return backend.divide(s1, s2);
+		case SQUARE:
+			return backend.square(s1);
+		case SQUARE_ROOT:
+			return backend.square_root(s1);
+		default:
+			return backend.function(op, tier, s1, s2);
+		}
+	}
+
+	/**
+	 * @return - the cache of results, or null if results are not cached
+	 */
+	public ResultCache getResultCache() {
+		return cache;
+	}
+
+	/**
+	 * Turns caching of results on or off for this calculator. Results are only
+	 * cached while the FloatBackend is in use.
+	 * 
+	 * @param cache - the cache to use, or null to stop caching
+	 */
+	public void setResultCache(ResultCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * @return - the journal the memory is persisted to, or null if it is not
+	 *         persisted
+	 */
+	public Journal getJournal() {
+		return memory.journal();
+	}
+
+	/**
+	 * Persists the memory slots of this calculator to a journal, under the passed
+	 * in id. If the journal already holds slots for the id, they are restored.
+	 * 
+	 * @param journal - the journal to use, or null to stop persisting the memory
+	 * @param id      - the id the memory is journaled under
+	 */
+	public void setJournal(Journal journal, long id) {
+		memory.journal(journal, id);
+	}
+
+	/**
+	 * @return - the memory slots, which batch jobs can read and write directly
+	 */
+	public MemoryRegisters memory() {
+		return memory;
+	}
+
+	/**
+	 * @return - the recorder of button presses, or null if they are not recorded
+	 */
+	public KeypressRecorder getRecorder() {
+		return recorder;
+	}
+
+	/**
+	 * Turns recording of button presses on or off for this calculator.
+	 * 
+	 * @param recorder - the recorder to use, or null to stop recording
+	 */
+	public void setRecorder(KeypressRecorder recorder) {
+		this.recorder = recorder;
+	}
+
+	/**
+	 * @return - the metrics the calculator is measured with, or null if it is not
+	 *         measured
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Turns measuring of the calculator's operations and button presses on or
+	 * off.
+	 * 
+	 * @param metrics - the metrics to record to, or null to stop measuring
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * @return - the history of calculations, or null if they are not kept
+	 */
+	public History getHistory() {
+		return history;
+	}
+
+	/**
+	 * Turns keeping the history of calculations on or off. While it is on, every
+	 * calculation that = carries out successfully is added to the history.
+	 * 
+	 * @param history - the history to add to, or null to stop keeping one
+	 */
+	public void setHistory(History history) {
+		this.history = history;
+	}
+
+	/**
+	 * @return - the tier of accuracy of the scientific functions
+	 */
+	public Scientific.Tier getTier() {
+		return tier;
+	}
+
+	/**
+	 * Changes the tier of accuracy the scientific functions are calculated in.
+	 * The default, EXACT, gives the same results on every platform.
+	 * 
+	 * @param tier - the new tier
+	 */
+	public void setTier(Scientific.Tier tier) {
+		this.tier = tier;
+	}
+
+	/**
+	 * Re-uses the result of a calculation in the history, as if it had been
+	 * recalled from memory: it becomes the first number if none has been typed,
+	 * or the second number if an operator is in play.
+	 * 
+	 * Like a button press, the recall is recorded and measured.
+	 * 
+	 * @param n - the number of a calculation that is kept in the history
+	 */
+	public void recall(long n) {
+		// Recording the recall
+		if (recorder != null) {
+			recorder.record_recall(n);
+		}
+
+		// Recalling the result, timing it if metrics are on
+		Metrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		changed = false;
+		this.recall(history.result(n), history.exact(n));
+		this.publish();
+		if (metrics != null) {
+			metrics.recall(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @return - true if the pending result is previewed as the numbers are typed
+	 */
+	public boolean isPreview() {
+		return previewing;
+	}
+
+	/**
+	 * Turns the live preview on or off. While it is on, each DisplayEvent also
+	 * carries what = would display if it were pressed now, worked out from the
+	 * values the numbers keep up to date as they are typed.
+	 * 
+	 * @param previewing - true to preview the pending result
+	 */
+	public void setPreview(boolean previewing) {
+		this.previewing = previewing;
+	}
+
+	/**
+	 * @return - the NumericBackend that carries out the calculator's arithmetic
+	 */
+	public NumericBackend getBackend() {
+		return backend;
+	}
+
+	/**
+	 * Changes the NumericBackend that carries out the calculator's arithmetic.
+	 * The numbers already typed in are kept.
+	 * 
+	 * @param backend - the new NumericBackend
+	 */
+	public void setBackend(NumericBackend backend) {
+		this.backend = backend;
+	}
+
+	/**
+	 * This Method contains most of the calculator's logic code. It looks up the
+	 * handler of the button that was pressed in a table indexed by the Command,
+	 * which updates the internal state of the calculator. Additionally, it
+	 * publishes a DisplayEvent whenever the JTextField needs to be updated. If
+	 * metrics are on, the press is timed and errors and overflows are counted.
+	 * 
+	 * @param c - the Command of the button pressed
+	 */
+	public void press(Command c) {
+		// Recording the button pressed
+		if (recorder != null) {
+			recorder.record(c);
+		}
+
+		// Running the handler of the button pressed, timing it if metrics are on
+		Metrics metrics = this.metrics;
+		long start = metrics == null ? 0 : System.nanoTime();
+		changed = false;
+		HANDLERS[c.ordinal()].handle(this, c);
+
+		// Testing if the result is too large or too small for the calculator
+		if (!sr.isEmpty() && sr.compareTo("ERROR") != 0 && !"ERROR".contentEquals(sd) && backend.overflows(sr)) {
+			// Reset the non-result values
+			this.clear();
+			sd = "ERROR: OVERFLOW";
+			changed = true;
+			if (metrics != null) {
+				metrics.overflow();
+			}
+		} else if (metrics != null && changed && "ERROR".contentEquals(sd)) {
+			metrics.error();
+		}
+
+		// Notify the subscribers that the text field needs changing
+		this.publish();
+		if (metrics != null) {
+			metrics.press(c, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Helper Method that publishes a DisplayEvent if the display has changed and
+	 * there are subscribers to notify.
+	 */
+	private void publish() {
+		if (changed && events.has_subscribers()) {
+			events.publish(new DisplayEvent(sd.toString(), selected, memory.name(memory.active()),
+					previewing ? this.preview() : ""));
+		}
+	}
+
+	/**
+	 * @return - the channel display changes are published on
+	 */
+	public EventBus events() {
+		return events;
+	}
+
+	/**
+	 * @return - the number currently displayed
+	 */
+	public String display() {
+		return sd.toString();
+	}
+
+	/**
+	 * @return - the number currently displayed, which may be one of the numbers
+	 *         being typed and change with the next press
+	 */
+	CharSequence shown() {
+		return sd;
 	}
 
 	/**
-	 * A helper method for the calculator that determines when a number should have
-	 * a decimal place. It checks whether or not a float ends in .0. It truncates
-	 * the decimal if so and leaves the value alone otherwise. Additionally, the
-	 * method handles the conversion from a float to a String. For example, this
-	 * method would result in 4.0 + 6.0 = 10 instead of 4.0 + 6.0 = 10.0.
+	 * Helper Method that works out what = would display if it were pressed now,
+	 * for the live preview. There is no preview until = would have something to
+	 * operate on, so it never shows the "ERROR" of a calculation that is only
+	 * half typed.
 	 * 
-	 * @param f - the float to check for an empty decimal.
-	 * @return s - the resulting string from the conversion
+	 * @return - what = would display, or an empty String if there is no preview
 	 */
-	private String check_decimal(float f) {
+	String preview() {
+		// Testing if there is something to operate, as evaluate() does
+		if (so == null || s1.isEmpty() || s1.is_sign()
+				|| (so.isUnary() ? !s2.isEmpty() : s2.isEmpty() || s2.is_sign())) {
+			return "";
+		}
+		try {
+			// The functions are worked out in the calculator's tier, as = does
+			if (so.isFunction()) {
+				String r = backend.function(so, tier, s1.toString(), so.isUnary() ? null : s2.toString());
+				preview.set(backend.overflows(r) ? "ERROR: OVERFLOW" : r);
+			} else {
+				backend.preview(so, s1, s2, preview);
+			}
+		} catch (ArithmeticException | NumberFormatException ex) {
+			preview.set("ERROR");
+		}
+		return preview.toString();
+	}
+
+	/**
+	 * Helper Method that shows an operator button as selected from the next
+	 * DisplayEvent on.
+	 * 
+	 * @param c - the Command of the operator
+	 */
+	private void set_button(Command c) {
+		selected = c.operator();
+	}
+
+	/**
+	 * Helper Method that shows no operator button as selected from the next
+	 * DisplayEvent on.
+	 */
+	private void reset_buttons() {
+		selected = null;
+	}
+
+	/**
+	 * The handler of a button, called by press(Command c).
+	 */
+	private interface Handler {
+		void handle(Calculator calc, Command c);
+	}
+
+	/**
+	 * The table of handlers, indexed by the ordinal of each Command
+	 */
+	private static final Handler[] HANDLERS = new Handler[Command.values().length];
+
+	static {
+		// Filling the table of handlers
+		for (Command c : Command.values()) {
+			Handler h;
+			switch (c) {
+			case ADD:
+			case SUBTRACT:
+			case MULTIPLY:
+			case DIVIDE:
+			case POWER:
+				h = Calculator::operator;
+				break;
+			case SQUARE:
+			case SQUARE_ROOT:
+			case EXP:
+			case LN:
+			case LOG10:
+			case SIN:
+			case COS:
+			case TAN:
+			case FACTORIAL:
+				h = Calculator::unary_operator;
+				break;
+			case MEMORY_ADD:
+				h = (calc, cmd) -> calc.memory_add();
+				break;
+			case MEMORY_SUBTRACT:
+				h = (calc, cmd) -> calc.memory_subtract();
+				break;
+			case MEMORY_RECALL:
+				h = (calc, cmd) -> calc.memory_recall();
+				break;
+			case MEMORY_CLEAR:
+				h = (calc, cmd) -> calc.memory.set(calc.memory.active(), 0);
+				break;
+			case MEMORY_SLOT:
+				h = (calc, cmd) -> calc.memory_slot();
+				break;
+			case DELETE:
+				h = (calc, cmd) -> calc.delete();
+				break;
+			case CLEAR:
+				h = (calc, cmd) -> calc.clear_all();
+				break;
+			case EQUALS:
+				h = (calc, cmd) -> calc.evaluate();
+				break;
+			default:
+				h = Calculator::digit;
+				break;
+			}
+			HANDLERS[c.ordinal()] = h;
+		}
+	}
+
+	/**
+	 * Handles the number buttons and the decimal point by adding onto the number
+	 * being typed.
+	 * 
+	 * @param c - the Command of the button pressed
+	 */
+	private void digit(Command c) {
 		// Variable declaration
-		String s;
+		boolean decimal = c == Command.DECIMAL;
 
-		// Checking if there is a decimal in the float
-		if (f % 1 == 0) {
-			// If not, convert it to an int to remove the .0
-			s = String.valueOf((int) f);
-		} else {
-			// Otherwise, there is a decimal that needs to be retained
-			s = String.valueOf(f);
-		}
-
-		// Return the appropriate string
-		return s;
-	}
-
-	/**
-	 * This Method contains most of the calculator's logic code. It determines what
-	 * button was pressed, the response to the button press, and the internal state
-	 * of the calculator. Additionally, it signals to the GUI Observer using the
-	 * notifyObservers() Method whenever the JTextField needs to be updated.
-	 * 
-	 * @param e - the ActionEvent that occurred (Button pressed)
-	 */
-	@Override
-	public void actionPerformed(ActionEvent e) {
-		// Getting the symbol of the button pressed
-		String s = e.getActionCommand();
-
-		// Checking which button was pressed
-		switch (s) {
-		// Number
-		case "0":
-		case "1":
-		case "2":
-		case "3":
-		case "4":
-		case "5":
-		case "6":
-		case "7":
-		case "8":
-		case "9":
-		case ".":
-			// Testing if there is no operator in play (Edit string 1)
-			if (so.isEmpty() && s1.length() < 15) {
-				// Testing if a decimal can be placed
-				if (s.compareTo(".") == 0 && s1.length() == 0
-						|| (s.compareTo(".") == 0 && s1.length() == 1 && s1.charAt(0) == '-')) {
-					// Can not be placed
-					break;
-				}
-				// Testing if there is already a decimal in the String
-				if (s.compareTo(".") == 0 && s1.indexOf('.') != -1) {
-					// Decimal already in the string
-					break;
-				}
-				// Add onto string 1
-				s1 += s;
-				sd = s1;
-				this.setChanged();
+		// Testing if there is no operator in play (Edit string 1)
+		if (so == null && s1.length() < backend.input_limit(S1_LIMIT)) {
+			// Testing if a decimal can be placed
+			if (decimal && (s1.isEmpty() || s1.is_sign())) {
+				// Can not be placed
+				return;
 			}
-			// Otherwise, edit string 2
-			else if (s2.length() < 7 && !so.isEmpty()) {
-				// Testing if a decimal can be placed
-				if (s.compareTo(".") == 0 && s2.length() == 0
-						|| (s.compareTo(".") == 0 && s2.length() == 1 && s2.charAt(0) == '-')) {
-					// Can not be placed
-					break;
-				}
-				// Testing if there is already a decimal in the String
-				if (s.compareTo(".") == 0 && s2.indexOf('.') != -1) {
-					// Decimal already in the string
-					break;
-				}
-				// Add onto string 2
-				s2 += s;
-				sd = s2;
-				this.setChanged();
+			// Testing if there is already a decimal in the String
+			if (decimal && s1.has_decimal()) {
+				// Decimal already in the string
+				return;
 			}
-			break;
-		// Basic Operators
-		case "+":
-		case "-":
-		case "*":
-		case "/":
-			// Testing if the user is inputting a negative sign
-			if (s1.isEmpty() && s.compareTo("-") == 0) {
-				// Set the negative sign
-				s1 = "-";
-				sd = s1;
+			// Add onto string 1
+			s1.append(c.symbol());
+			sd = s1;
+			changed = true;
+		}
+		// Otherwise, edit string 2
+		else if (so != null && s2.length() < backend.input_limit(S2_LIMIT)) {
+			// Testing if a decimal can be placed
+			if (decimal && (s2.isEmpty() || s2.is_sign())) {
+				// Can not be placed
+				return;
 			}
-			// Otherwise, proceed with the operator as normal
-			else {
-				// Testing if there is something to operate
-				if (!s1.isEmpty() && s2.isEmpty()) {
-					so = s;
-					observer.set_button(s);
-				} else {
-					this.clear();
-					sd = "ERROR";
-					observer.reset_buttons();
-				}
+			// Testing if there is already a decimal in the String
+			if (decimal && s2.has_decimal()) {
+				// Decimal already in the string
+				return;
 			}
-			this.setChanged();
-			break;
-		// Square & Square Root
-		case "^":
-		case "SR":
+			// Add onto string 2
+			s2.append(c.symbol());
+			sd = s2;
+			changed = true;
+		}
+	}
+
+	/**
+	 * Handles the basic operators. The minus button doubles as the negative sign
+	 * when no number has been typed yet.
+	 * 
+	 * @param c - the Command of the button pressed
+	 */
+	private void operator(Command c) {
+		// Testing if the user is inputting a negative sign
+		if (s1.isEmpty() && c == Command.SUBTRACT) {
+			// Set the negative sign
+			s1.append('-');
+			sd = s1;
+		}
+		// Otherwise, proceed with the operator as normal
+		else {
 			// Testing if there is something to operate
 			if (!s1.isEmpty() && s2.isEmpty()) {
-				so = s;
-				observer.set_button(s);
+				so = c.operator();
+				this.set_button(c);
 			} else {
+				this.clear();
 				sd = "ERROR";
-				observer.reset_buttons();
-			}
-			this.setChanged();
-			break;
-		// Add to memory
-		case "M+":
-			// Test if there is a valid result to store
-			if (!sr.isEmpty()) {
-				// Add to the memory
-				mem = this.add(mem, sr);
-				sd = "";
-			}
-			// Errors out if the store operation is illegal
-			else {
-				sd = "ERROR";
+				this.reset_buttons();
 			}
-			// Reset the GUI
-			this.clear();
-			this.setChanged();
-			break;
-		// Subtract from memory
-		case "M-":
-			// Test if there is a valid result to store
-			if (!sr.isEmpty()) {
-				// Subtract from the memory
-				mem = this.subtract(mem, sr);
-				sd = "";
+		}
+		changed = true;
+	}
+
+	/**
+	 * Handles square, square root and the scientific functions that only need
+	 * one number.
+	 * 
+	 * @param c - the Command of the button pressed
+	 */
+	private void unary_operator(Command c) {
+		// Testing if there is something to operate
+		if (!s1.isEmpty() && s2.isEmpty()) {
+			so = c.operator();
+			this.set_button(c);
+		} else {
+			sd = "ERROR";
+			this.reset_buttons();
+		}
+		changed = true;
+	}
+
+	/**
+	 * Handles M+ by adding the last result to the active memory slot.
+	 */
+	private void memory_add() {
+		// Test if there is a valid result to store
+		if (!sr.isEmpty() && sr.compareTo("ERROR") != 0) {
+			// Add to the memory, keeping every digit if the backend does
+			int slot = memory.active();
+			if (backend.keeps_digits()) {
+				String m = backend.add(this.memory_text(slot), sr);
+				memory.set(slot, Double.parseDouble(m), m);
+			} else {
+				memory.set(slot, backend.add(memory.get(slot), backend.value(sr)));
 			}
-			// Errors out if the store operation is illegal
-			else {
-				sd = "ERROR";
+			sd = "";
+		}
+		// Errors out if the store operation is illegal
+		else {
+			sd = "ERROR";
+		}
+		// Reset the GUI
+		this.clear();
+		changed = true;
+	}
+
+	/**
+	 * Handles M- by subtracting the last result from the active memory slot.
+	 */
+	private void memory_subtract() {
+		// Test if there is a valid result to store
+		if (!sr.isEmpty() && sr.compareTo("ERROR") != 0) {
+			// Subtract from the memory, keeping every digit if the backend does
+			int slot = memory.active();
+			if (backend.keeps_digits()) {
+				String m = backend.subtract(this.memory_text(slot), sr);
+				memory.set(slot, Double.parseDouble(m), m);
+			} else {
+				memory.set(slot, backend.subtract(memory.get(slot), backend.value(sr)));
 			}
-			// Reset the GUI
-			this.clear();
-			this.setChanged();
-			break;
-		// Recall Memory
-		case "MR":
-			// Check if there is memory to recall
-			if (!mem.isEmpty()) {
-				// Test if the recall is for the first operand
-				if (s1.isEmpty()) {
-					// Recall to the first string
-					s1 = mem;
-					sd = s1;
-					this.setChanged();
-				}
-				// Test if the recall is for the second operand
-				else if (!so.isEmpty()) {
-					// Recall to the second string
-					s2 = mem;
-					sd = s2;
-					this.setChanged();
-				}
+			sd = "";
+		}
+		// Errors out if the store operation is illegal
+		else {
+			sd = "ERROR";
+		}
+		// Reset the GUI
+		this.clear();
+		changed = true;
+	}
+
+	/**
+	 * Handles MR by recalling the active memory slot into the number being typed,
+	 * without creating a String when the backend can format it in place.
+	 */
+	private void memory_recall() {
+		int slot = memory.active();
+		this.recall(memory.get(slot), memory.exact(slot));
+	}
+
+	/**
+	 * Helper Method that finds the number in a memory slot as the backend shows
+	 * it, for backends that keep every digit.
+	 * 
+	 * @param slot - the index of the slot
+	 * @return - the number kept as it is shown, or else its double in plain
+	 *         notation
+	 */
+	private String memory_text(int slot) {
+		String exact = memory.exact(slot);
+		return exact != null ? exact : BigDecimalBackend.format(BigDecimal.valueOf(memory.get(slot)));
+	}
+
+	/**
+	 * Helper Method that recalls a number into the operand being typed, formatted
+	 * the way the backend formats its results, or as it was shown if it was kept
+	 * that way and the backend keeps every digit.
+	 * 
+	 * @param value - the number to recall
+	 * @param exact - the number as it was shown, or null if the double is the
+	 *              number
+	 */
+	private void recall(double value, String exact) {
+		// Test if the recall is for the first or second operand
+		Operand dst = s1.isEmpty() ? s1 : so != null ? s2 : null;
+		if (dst != null) {
+			if (exact != null && backend.keeps_digits()) {
+				dst.set(exact);
+			} else {
+				backend.format(value, dst);
 			}
-			break;
-		// Clear memory
-		case "MC":
-			mem = "0";
-			break;
-		// Delete
-		case "Del":
-			// Testing which string needs to be deleted from
-			// String 1
-			if (!s1.isEmpty() && so.isEmpty()) {
-				// Remove the last character by creating a substring
-				s1 = s1.substring(0, s1.length() - 1);
+			sd = dst;
+			changed = true;
+		}
+	}
+
+	/**
+	 * Handles MS by making the next memory slot the one used by the memory
+	 * buttons.
+	 */
+	private void memory_slot() {
+		memory.select_next();
+		changed = true;
+	}
+
+	/**
+	 * Handles Del by removing the last char typed, or the operator.
+	 */
+	private void delete() {
+		// Testing which string needs to be deleted from
+		// String 1
+		if (!s1.isEmpty() && so == null) {
+			// Remove the last character
+			s1.delete_last();
+			sd = s1;
+			changed = true;
+		}
+		// Operator
+		else if (!s1.isEmpty() && so != null && s2.isEmpty()) {
+			// Remove the operator and reset the operator buttons
+			so = null;
+			this.reset_buttons();
+			changed = true;
+		}
+		// String 2
+		else if (!s2.isEmpty()) {
+			// Remove the last character
+			s2.delete_last();
+			// Testing what should be displayed
+			if (s2.isEmpty()) {
+				// String 2 is empty, display string 1
 				sd = s1;
-				this.setChanged();
-			}
-			// Operator
-			else if (!s1.isEmpty() && !so.isEmpty() && s2.isEmpty()) {
-				// Remove the operator and reset the operator buttons
-				so = "";
-				observer.reset_buttons();
-				this.setChanged();
+			} else {
+				// String 2
+				sd = s2;
 			}
-			// String 2
-			else if (!s2.isEmpty()) {
-				// Remove the last character by creating a substring
-				s2 = s2.substring(0, s2.length() - 1);
-				// Testing what should be displayed
-				if (s2.isEmpty()) {
-					// String 2 is empty, display string 1
-					sd = s1;
-				} else {
-					// String 2
-					sd = s2;
+			changed = true;
+		}
+	}
+
+	/**
+	 * Helper Method that adds the calculation = has just carried out to the
+	 * history, if one is kept. Results too large or too small to show are not
+	 * added, as the calculator shows an overflow instead. Keeping a history must
+	 * never change what = displays, so a calculation whose numbers can not be
+	 * read as doubles is left out rather than shown as an error.
+	 */
+	private void record() {
+		if (history != null) {
+			try {
+				if (!backend.overflows(sr)) {
+					double second = so.isUnary() ? Double.NaN : s2.double_value();
+					if (backend.keeps_digits()) {
+						history.append(so, s1.double_value(), second, backend.value(sr), sr);
+					} else {
+						history.append(so, s1.double_value(), second, backend.value(sr));
+					}
 				}
-				this.setChanged();
+			} catch (NumberFormatException ex) {
+				// Not kept, the result is still displayed
 			}
-			break;
-		// Clear
-		case "C":
-			// Clears all of the strings
-			this.clear();
-			sd = "";
-			mem = "0";
-			observer.reset_buttons();
-			this.setChanged();
-			break;
-		// Evaluate
-		case "=":
+		}
+	}
+
+	/**
+	 * Handles C by clearing everything, including the active memory slot.
+	 */
+	private void clear_all() {
+		// Clears all of the strings
+		this.clear();
+		sd = "";
+		memory.set(memory.active(), 0);
+		this.reset_buttons();
+		changed = true;
+	}
+
+	/**
+	 * Handles = by calculating the result of the operator in play.
+	 */
+	private void evaluate() {
+		// Backends throw when a result can not be calculated, such as dividing by zero
+		try {
+			// Creating the Strings handed to the backend
+			String s1 = this.s1.toString(), s2 = this.s2.toString();
+
 			// Testing if there is something to operate
-			if (!s1.isEmpty() && !so.isEmpty() && !s2.isEmpty()) {
+			if (!s1.isEmpty() && so != null && !so.isUnary() && !s2.isEmpty()) {
 				// Testing which operation needs to occur
 				switch (so) {
-				// Addition
-				case "+":
+				case ADD:
 					sr = this.add(s1, s2);
 					break;
-				case "-":
+				case SUBTRACT:
 					sr = this.subtract(s1, s2);
 					break;
-				case "*":
+				case MULTIPLY:
 					sr = this.multiply(s1, s2);
 					break;
-				case "/":
+				case DIVIDE:
 					sr = this.divide(s1, s2);
 					break;
+				default:
+					sr = this.function(so, s1, s2);
+					break;
 				}
+				this.record();
 			}
 			// Testing if the operator is one that requires only one number
-			else if ((so.compareTo("^") == 0 || so.compareTo("SR") == 0) && !s1.isEmpty() && s2.isEmpty()) {
+			else if (so != null && so.isUnary() && !s1.isEmpty() && s2.isEmpty()) {
 				// Testing which
-				switch (so) {
-				case "^":
+				if (so == Operator.SQUARE) {
 					sr = this.square(s1);
-					break;
-				case "SR":
+				} else if (so == Operator.SQUARE_ROOT) {
 					sr = this.square_root(s1);
-					break;
+				} else {
+					sr = this.function(so, s1, null);
 				}
+				this.record();
 			}
 			// Otherwise, it is invalid input
 			else {
 				sr = "ERROR";
 			}
-			// Reset the non-result values
-			s1 = "";
-			s2 = "";
-			so = "";
-			// Display the result
-			sd = sr;
-			observer.reset_buttons();
-			this.setChanged();
-			break;
-		}
-
-		// Testing if the result is too large or too small for the calculator
-		if (!sr.isEmpty() && sr.compareTo("ERROR") != 0 && sd.compareTo("ERROR") != 0
-				&& (Float.parseFloat(sr) >= Integer.MAX_VALUE || Float.parseFloat(sr) <= Integer.MIN_VALUE)) {
-			// Reset the non-result values
-			this.clear();
-			sd = "ERROR: OVERFLOW";
-			this.setChanged();
+		} catch (ArithmeticException | NumberFormatException ex) {
+			sr = "ERROR";
 		}
-
-		// Notify the GUI that the text field needs changing
-		this.notifyObservers(sd);
+		// Reset the non-result values
+		s1.clear();
+		s2.clear();
+		so = null;
+		// Display the result
+		sd = sr;
+		this.reset_buttons();
+		changed = true;
 	}
 
 	/**
-	 * Helper method used by the actionPerformed(ActionEvent e) method to reset most
-	 * of the String member variables of the calculator. Specifically, the method
-	 * empties the s1, s2, so, and sr member variables.
+	 * Helper method used by the button handlers to reset most of the member
+	 * variables of the calculator. Specifically, the method empties the s1, s2,
+	 * so, and sr member variables.
 	 */
 	private void clear() {
 		// Clear all strings excluding the memory and display
-		s1 = "";
-		s2 = "";
-		so = "";
+		s1.clear();
+		s2.clear();
+		so = null;
 		sr = "";
 	}
 }
@@ -0,0 +1,399 @@
+package calculator;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This Class runs the calculator as a headless TCP service. Clients send one
+ * request per line and are answered with one line per request:
+ * 
+ * <pre>
+ * E &lt;expression&gt;  evaluates an expression, such as "E (8.4 + 5.6) * 4"
+ * K &lt;buttons&gt;     presses buttons separated by spaces, such as "K 1 2 + 3 ="
+ * </pre>
+ * 
+ * The answer to an expression is its result, and the answer to a series of
+ * presses is what the calculator displays afterwards. Failures are answered
+ * with a line starting with "ERROR".
+ * 
+ * Every connection has its own Session, so connections do not share calculator
+ * state, and is served by its own thread: a virtual thread when the runtime has
+ * them, or otherwise a platform thread. Requests are pipelined: a client may
+ * send many lines without waiting, and answers are only flushed once every
+ * request that has arrived has been answered. A request longer than
+ * MAX_LINE chars is answered with an error and the connection is closed, as
+ * the NioCalculatorServer does, so a client can not make it buffer without
+ * limit.
+ * 
+ * @author Andrew Sand
+ */
+public final class CalculatorServer implements Closeable {
+	/**
+	 * The port listened on when none is given
+	 */
+	public static final int DEFAULT_PORT = 5050;
+
+	/**
+	 * The longest request accepted, the same as the NioCalculatorServer's
+	 */
+	static final int MAX_LINE = NioCalculatorServer.BUFFER_SIZE;
+
+	/**
+	 * Member variables that store the listening socket and the thread accepting
+	 * connections
+	 */
+	private final ServerSocket server;
+	private final Thread acceptor;
+
+	/**
+	 * Member variables that store the threads serving connections and whether
+	 * they are virtual threads
+	 */
+	private final ExecutorService connections;
+	private final boolean virtual;
+
+	/**
+	 * Member variable that stores the open sockets, so they can be closed when the
+	 * server is
+	 */
+	private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Member variables that store the sessions of the connections and the
+	 * expressions shared between them
+	 */
+	private final SessionRegistry registry = new SessionRegistry();
+	private final ExpressionCache expressions = new ExpressionCache(1024);
+
+	/**
+	 * The values of the variables of an expression, of which there are none
+	 */
+	private static final float[] NO_VARIABLES = new float[0];
+
+	/**
+	 * A custom Constructor Method for the Class. The server listens straight
+	 * away, but only accepts connections once started.
+	 * 
+	 * @param port - the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public CalculatorServer(int port) throws IOException {
+		server = new ServerSocket();
+		server.bind(new InetSocketAddress(port));
+		ExecutorService e = virtual_threads();
+		virtual = e != null;
+		connections = virtual ? e : Executors.newCachedThreadPool(r -> {
+			Thread t = new Thread(r, "calculator-connection");
+			t.setDaemon(true);
+			return t;
+		});
+		acceptor = new Thread(this::accept, "calculator-acceptor");
+	}
+
+	/**
+	 * Helper Method that creates an executor running each task on a new virtual
+	 * thread. It is looked up reflectively so that the server also runs on
+	 * releases without virtual threads.
+	 * 
+	 * @return - the executor, or null if virtual threads are not available
+	 */
+	private static ExecutorService virtual_threads() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Starts accepting connections.
+	 * 
+	 * @return - this server
+	 */
+	public CalculatorServer start() {
+		acceptor.start();
+		return this;
+	}
+
+	/**
+	 * @return - the port the server is listening on
+	 */
+	public int port() {
+		return server.getLocalPort();
+	}
+
+	/**
+	 * @return - true if connections are served by virtual threads
+	 */
+	public boolean virtual() {
+		return virtual;
+	}
+
+	/**
+	 * Helper Method, run by the accepting thread, that hands every new connection
+	 * to its own thread until the server is closed.
+	 */
+	private void accept() {
+		while (!server.isClosed()) {
+			// Accepting the next connection
+			Socket s;
+			try {
+				s = server.accept();
+			} catch (IOException e) {
+				// Closing the server stops the loop, any other failure is reported
+				if (!server.isClosed()) {
+					System.err.println("Error: Accepting a connection failed: " + e.getMessage());
+				}
+				continue;
+			}
+
+			// Closing a connection that fails before it is served, so it never leaks
+			try {
+				s.setTcpNoDelay(true);
+			} catch (IOException e) {
+				try {
+					s.close();
+				} catch (IOException ex) {
+					// Already closed
+				}
+				System.err.println("Error: Setting up a connection failed: " + e.getMessage());
+				continue;
+			}
+			sockets.add(s);
+			connections.execute(() -> serve(s));
+		}
+	}
+
+	/**
+	 * Helper Method that serves one connection until the client closes it.
+	 * 
+	 * @param s - the connection's socket
+	 */
+	private void serve(Socket s) {
+		// Variable declaration
+		Session session = registry.open();
+		Connection c = new Connection(session);
+
+		try (s;
+				InputStreamReader reader = new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8);
+				BufferedWriter out = new BufferedWriter(
+						new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+			Lines in = new Lines(reader);
+			String line;
+			while ((line = in.next()) != null) {
+				// Refusing requests that are too long, and the rest of the connection
+				if (line.length() > MAX_LINE) {
+					out.write("ERROR: request too long\n");
+					break;
+				}
+				out.write(c.answer(line));
+				out.write('\n');
+				// Only flushing once every request that has arrived is answered
+				if (!in.ready()) {
+					out.flush();
+				}
+			}
+			out.flush();
+		} catch (IOException e) {
+			// The client went away
+		} finally {
+			sockets.remove(s);
+			registry.close(session.id());
+		}
+	}
+
+	/**
+	 * Stops accepting connections and closes every open one.
+	 */
+	@Override
+	public void close() throws IOException {
+		server.close();
+		for (Socket s : sockets) {
+			s.close();
+		}
+		connections.shutdownNow();
+		try {
+			acceptor.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * This Class splits what a connection sends into lines, like
+	 * BufferedReader.readLine() does, but stops reading a line once it is longer
+	 * than MAX_LINE chars.
+	 */
+	private static final class Lines {
+		/**
+		 * Member variables that store the reader, the chars read from it and not
+		 * used yet, and the line being read
+		 */
+		private final Reader in;
+		private final char[] buf = new char[8192];
+		private int pos, end;
+		private final StringBuilder line = new StringBuilder();
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param in - the reader to read from
+		 */
+		Lines(Reader in) {
+			this.in = in;
+		}
+
+		/**
+		 * Reads the next line.
+		 * 
+		 * @return - the line without its line break, longer than MAX_LINE chars if
+		 *         it was too long, or null at the end of the stream
+		 * @throws IOException if reading fails
+		 */
+		String next() throws IOException {
+			line.setLength(0);
+			while (true) {
+				// Reading more chars once every one read is used
+				if (pos == end) {
+					int n = in.read(buf);
+					if (n == -1) {
+						return line.length() == 0 ? null : line.toString();
+					}
+					pos = 0;
+					end = n;
+				}
+
+				// Taking the chars up to the line break, or all of them
+				int start = pos;
+				while (pos < end && buf[pos] != '\n') {
+					pos++;
+				}
+				line.append(buf, start, pos - start);
+				if (line.length() > MAX_LINE) {
+					return line.toString();
+				}
+				if (pos < end) {
+					pos++;
+					// Dropping the \r of a \r\n line break
+					if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+						line.setLength(line.length() - 1);
+					}
+					return line.toString();
+				}
+			}
+		}
+
+		/**
+		 * @return - true if another line may be read without blocking, as
+		 *         BufferedReader.ready() tells
+		 * @throws IOException if reading fails
+		 */
+		boolean ready() throws IOException {
+			return pos < end || in.ready();
+		}
+	}
+
+	/**
+	 * This Class holds the state of one connection: its Session, and what it
+	 * needs to evaluate expressions without creating anything per request.
+	 */
+	private final class Connection {
+		/**
+		 * Member variables that store the connection's session, the stack used to
+		 * evaluate expressions and the formatter of their results
+		 */
+		private final Session session;
+		private final float[] stack = new float[64];
+		private final DecimalFormatter formatter = new DecimalFormatter();
+		private final FloatBackend backend = new FloatBackend();
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param session - the connection's session
+		 */
+		Connection(Session session) {
+			this.session = session;
+		}
+
+		/**
+		 * Answers one request.
+		 * 
+		 * @param line - the request
+		 * @return - the answer, without a line break
+		 */
+		String answer(String line) {
+			// Testing the kind of request
+			if (line.length() < 2 || line.charAt(1) != ' ') {
+				return "ERROR: unknown request";
+			}
+			switch (line.charAt(0)) {
+			case 'E':
+				return evaluate(line.substring(2));
+			case 'K':
+				return press(line);
+			default:
+				return "ERROR: unknown request";
+			}
+		}
+
+		/**
+		 * Helper Method that evaluates an expression.
+		 * 
+		 * @param text - the expression
+		 * @return - the result, or an error
+		 */
+		private String evaluate(String text) {
+			try {
+				Expression e = expressions.get(text);
+				float[] s = e.stack_size() <= stack.length ? stack : new float[e.stack_size()];
+				String r = formatter.format(e.evaluate(NO_VARIABLES, s));
+				return backend.overflows(r) ? "ERROR: OVERFLOW" : r;
+			} catch (IllegalArgumentException e) {
+				return "ERROR: " + e.getMessage();
+			}
+		}
+
+		/**
+		 * Helper Method that presses the buttons named in a request.
+		 * 
+		 * @param line - the request, starting with "K "
+		 * @return - the display after the presses, or an error
+		 */
+		private String press(String line) {
+			// Resolving every button before pressing any
+			String[] labels = line.substring(2).trim().split("\\s+");
+			Command[] commands = new Command[labels.length];
+			for (int i = 0; i < labels.length; i++) {
+				commands[i] = Command.of(labels[i]);
+				if (commands[i] == null) {
+					return "ERROR: unknown button '" + labels[i] + "'";
+				}
+			}
+			return session.press(commands);
+		}
+	}
+
+	/**
+	 * Runs a server until the process is stopped.
+	 * 
+	 * @param port - the port to listen on
+	 */
+	static void run(int port) throws IOException {
+		CalculatorServer server = new CalculatorServer(port).start();
+		System.out.println("Calculator server listening on port " + server.port()
+				+ (server.virtual() ? " (virtual threads)" : " (platform threads)"));
+	}
+}
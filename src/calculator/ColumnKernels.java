@@ -0,0 +1,44 @@
+package calculator;
+
+/**
+ * This Interface is a set of kernels that apply an Operator to columns of
+ * numbers, used by the ColumnarEvaluator. Every implementation must give
+ * results bit-identical to the BatchEvaluator's, which are the floats that the
+ * Calculator's String Methods format and return. The ranges have already been
+ * checked when these Methods are called.
+ * 
+ * @author Andrew Sand
+ */
+interface ColumnKernels {
+	/**
+	 * Applies the Operator to the float columns between the from (inclusive) and
+	 * to (exclusive) indexes.
+	 * 
+	 * @param o    - the Operator to apply
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, null for unary operators
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	void evaluate(Operator o, float[] a, float[] b, float[] out, int from, int to);
+
+	/**
+	 * Applies the Operator to the double columns between the from (inclusive) and
+	 * to (exclusive) indexes, rounding the numbers to floats first except for
+	 * square root.
+	 * 
+	 * @param o    - the Operator to apply
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, null for unary operators
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	void evaluate(Operator o, double[] a, double[] b, float[] out, int from, int to);
+
+	/**
+	 * @return - a short description of the kernels, such as the vector width
+	 */
+	String name();
+}
@@ -0,0 +1,138 @@
+package calculator;
+
+/**
+ * This Class is the columnar evaluation mode of the calculator. It has the same
+ * Methods as the BatchEvaluator, but runs them with SIMD kernels written with
+ * the Java Vector API whenever they are available, and otherwise with the
+ * BatchEvaluator's scalar loops. Either way the results are bit-identical.
+ * 
+ * The Vector API is an incubating module, so the SIMD kernels are only used
+ * when the program is run with "--add-modules jdk.incubator.vector" and the
+ * "vector" source folder has been compiled. They can be turned off by setting
+ * the calculator.vector system property to false.
+ * 
+ * @author Andrew Sand
+ */
+public final class ColumnarEvaluator {
+	/**
+	 * The scalar kernels, which are the BatchEvaluator's loops
+	 */
+	static final ColumnKernels SCALAR = new ColumnKernels() {
+		@Override
+		public void evaluate(Operator o, float[] a, float[] b, float[] out, int from, int to) {
+			BatchEvaluator.evaluate(o, a, b, out, from, to);
+		}
+
+		@Override
+		public void evaluate(Operator o, double[] a, double[] b, float[] out, int from, int to) {
+			BatchEvaluator.evaluate(o, a, b, out, from, to);
+		}
+
+		@Override
+		public String name() {
+			return "scalar";
+		}
+	};
+
+	/**
+	 * The kernels in use, chosen once when the Class is loaded
+	 */
+	private static final ColumnKernels KERNELS = load();
+
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private ColumnarEvaluator() {
+	}
+
+	/**
+	 * Helper Method that loads the SIMD kernels if the Vector API module is
+	 * present, falling back to the scalar ones.
+	 * 
+	 * @return - the kernels to use
+	 */
+	static ColumnKernels load() {
+		// Testing if the SIMD kernels are wanted and can be used
+		if (!Boolean.parseBoolean(System.getProperty("calculator.vector", "true"))
+				|| ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return SCALAR;
+		}
+		try {
+			return (ColumnKernels) Class.forName("calculator.VectorKernels").getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// The kernels were not compiled into this build
+			return SCALAR;
+		}
+	}
+
+	/**
+	 * @return - a short description of the kernels in use
+	 */
+	public static String kernels() {
+		return KERNELS.name();
+	}
+
+	/**
+	 * @return - true if the SIMD kernels are in use
+	 */
+	public static boolean vectorized() {
+		return KERNELS != SCALAR;
+	}
+
+	/**
+	 * Applies the Operator to every pair of numbers in the passed in columns.
+	 * 
+	 * @param o   - the Operator to apply
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers, may be null for unary operators
+	 * @param out - the column that the results are written into
+	 */
+	public static void evaluate(Operator o, float[] a, float[] b, float[] out) {
+		evaluate(o, a, b, out, 0, a.length);
+	}
+
+	/**
+	 * Applies the Operator to the numbers in the passed in columns between the
+	 * from (inclusive) and to (exclusive) indexes.
+	 * 
+	 * @param o    - the Operator to apply
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, may be null for unary operators
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	public static void evaluate(Operator o, float[] a, float[] b, float[] out, int from, int to) {
+		BatchEvaluator.check(o, a.length, b == null ? -1 : b.length, out.length, from, to);
+		KERNELS.evaluate(o, a, b, out, from, to);
+	}
+
+	/**
+	 * Applies the Operator to every pair of numbers in the passed in columns.
+	 * 
+	 * @param o   - the Operator to apply
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers, may be null for unary operators
+	 * @param out - the column that the results are written into
+	 */
+	public static void evaluate(Operator o, double[] a, double[] b, float[] out) {
+		evaluate(o, a, b, out, 0, a.length);
+	}
+
+	/**
+	 * Applies the Operator to the numbers in the passed in columns between the
+	 * from (inclusive) and to (exclusive) indexes, rounding them to floats first
+	 * except for square root, as the BatchEvaluator does.
+	 * 
+	 * @param o    - the Operator to apply
+	 * @param a    - the column of first numbers
+	 * @param b    - the column of second numbers, may be null for unary operators
+	 * @param out  - the column that the results are written into
+	 * @param from - the first index to evaluate
+	 * @param to   - the index after the last one to evaluate
+	 */
+	public static void evaluate(Operator o, double[] a, double[] b, float[] out, int from, int to) {
+		BatchEvaluator.check(o, a.length, b == null ? -1 : b.length, out.length, from, to);
+		KERNELS.evaluate(o, a, b, out, from, to);
+	}
+}
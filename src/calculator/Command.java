@@ -0,0 +1,86 @@
+package calculator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This Enum lists every button of the calculator. The GUI resolves each of its
+ * JButtons into a Command once, when it wires them up, so a button press can be
+ * dispatched by the Calculator Class without looking at the button's label.
+ * 
+ * The ordinal of each Command is the byte written for it in keypress logs, so
+ * new buttons must be added at the end to keep old logs replayable.
+ * 
+ * @author Andrew Sand
+ */
+public enum Command {
+	ZERO("0"), ONE("1"), TWO("2"), THREE("3"), FOUR("4"), FIVE("5"), SIX("6"), SEVEN("7"), EIGHT("8"), NINE("9"),
+	DECIMAL("."), ADD("+"), SUBTRACT("-"), MULTIPLY("*"), DIVIDE("/"), SQUARE("^"), SQUARE_ROOT("SR"),
+	MEMORY_ADD("M+"), MEMORY_SUBTRACT("M-"), MEMORY_RECALL("MR"), MEMORY_CLEAR("MC"), DELETE("Del"), CLEAR("C"),
+	EQUALS("="), MEMORY_SLOT("MS"), EXP("exp"), LN("ln"), LOG10("log"), POWER("x^y"), SIN("sin"), COS("cos"),
+	TAN("tan"), FACTORIAL("n!");
+
+	/**
+	 * Member variable that maps each button label to its Command
+	 */
+	private static final Map<String, Command> LABELS = new HashMap<>();
+
+	static {
+		for (Command c : values()) {
+			LABELS.put(c.label, c);
+		}
+	}
+
+	/**
+	 * Member variables that store the button label, the char it types (digits
+	 * and the decimal point only), and the Operator it selects (operators only)
+	 */
+	private final String label;
+	private final char symbol;
+	private final Operator operator;
+
+	/**
+	 * A custom Constructor Method for the Enum.
+	 * 
+	 * @param label - the label of the button
+	 */
+	Command(String label) {
+		this.label = label;
+		this.symbol = label.length() == 1 && (Character.isDigit(label.charAt(0)) || label.equals("."))
+				? label.charAt(0)
+				: 0;
+		this.operator = Operator.of(label);
+	}
+
+	/**
+	 * @return - the label of the button
+	 */
+	public String label() {
+		return label;
+	}
+
+	/**
+	 * @return - the char typed by the button, or 0 if it does not type one
+	 */
+	public char symbol() {
+		return symbol;
+	}
+
+	/**
+	 * @return - the Operator selected by the button, or null if it is not an
+	 *         operator
+	 */
+	public Operator operator() {
+		return operator;
+	}
+
+	/**
+	 * Finds the Command of the button with the passed in label.
+	 * 
+	 * @param label - the label of the button
+	 * @return - the matching Command, or null if there is none
+	 */
+	public static Command of(String label) {
+		return LABELS.get(label);
+	}
+}
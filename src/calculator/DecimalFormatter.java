@@ -0,0 +1,697 @@
+package calculator;
+
+/**
+ * This Class converts the calculator's float results into text without
+ * creating any Objects. It produces exactly the same text as the Calculator's
+ * original check_decimal(float f) Method: whole numbers are written as an int
+ * without a trailing ".0", and every other number is written the way
+ * String.valueOf(float f) writes it. The digits are written into a char[] or a
+ * StringBuilder supplied by the caller, so the same buffers can be reused for
+ * every result.
+ *
+ * The digit generation is a port of the float path of the JDK's own
+ * Float.toString() algorithm (a Steele and White style digit loop with a
+ * symmetric stopping test), including its integer, long and big number cases,
+ * so that the output matches it character for character. An instance keeps
+ * its own scratch buffers, so it is not safe to share one between threads.
+ *
+ * @author Andrew Sand
+ */
+public final class DecimalFormatter {
+	/**
+	 * The largest number of chars that a single formatted float can use
+	 */
+	public static final int MAX_LENGTH = 26;
+
+	/**
+	 * Constants describing the layout of a double, which the digit generation
+	 * works in
+	 */
+	private static final int EXP_SHIFT = 52;
+	private static final long FRACT_HOB = 1L << EXP_SHIFT;
+	private static final long EXP_ONE = 0x3ff0000000000000L;
+	private static final long SIGNIF_BIT_MASK = 0x000fffffffffffffL;
+	private static final long EXP_BIT_MASK = 0x7ff0000000000000L;
+	private static final long SIGN_BIT_MASK = 0x8000000000000000L;
+	private static final int EXP_BIAS = 1023;
+
+	/**
+	 * Powers of five that fit into an int and a long
+	 */
+	private static final int[] SMALL_5_POW = new int[14];
+	private static final long[] LONG_5_POW = new long[27];
+
+	/**
+	 * Approximately ceil(log2(5^i)), the number of bits needed by 5^i
+	 */
+	private static final int[] N_5_BITS = { 0, 3, 5, 7, 10, 12, 14, 17, 19, 21, 24, 26, 28, 31, 33, 35, 38, 40, 42,
+			45, 47, 49, 52, 54, 56, 59, 61 };
+
+	static {
+		// Filling the power of five tables
+		SMALL_5_POW[0] = 1;
+		for (int i = 1; i < SMALL_5_POW.length; i++) {
+			SMALL_5_POW[i] = SMALL_5_POW[i - 1] * 5;
+		}
+		LONG_5_POW[0] = 1;
+		for (int i = 1; i < LONG_5_POW.length; i++) {
+			LONG_5_POW[i] = LONG_5_POW[i - 1] * 5;
+		}
+	}
+
+	/**
+	 * Member variables that store the generated decimal digits, how many there
+	 * are, and the decimal exponent of the first one
+	 */
+	private final char[] digits = new char[20];
+	private int nDigits, decExponent;
+
+	/**
+	 * Scratch numbers used by the digit generation when the values involved do
+	 * not fit into a long
+	 */
+	private final Big b = new Big(), s = new Big(), m = new Big(), tenS = new Big(), t = new Big();
+
+	/**
+	 * Scratch buffer used when formatting into a StringBuilder
+	 */
+	private final char[] buffer = new char[MAX_LENGTH];
+
+	/**
+	 * Formats the float and appends the text to the passed in StringBuilder.
+	 *
+	 * @param f  - the float to format
+	 * @param sb - the StringBuilder to append to
+	 * @return - the passed in StringBuilder
+	 */
+	public StringBuilder format(float f, StringBuilder sb) {
+		int len = format(f, buffer, 0);
+		return sb.append(buffer, 0, len);
+	}
+
+	/**
+	 * Formats the float and returns the text as a new String. This is for callers
+	 * that need a String anyway, such as the Calculator's String Methods.
+	 *
+	 * @param f - the float to format
+	 * @return - the resulting String
+	 */
+	public String format(float f) {
+		int len = format(f, buffer, 0);
+		return new String(buffer, 0, len);
+	}
+
+	/**
+	 * Formats the float into the passed in char[] starting at the passed in
+	 * offset. The array needs room for MAX_LENGTH chars after the offset.
+	 *
+	 * @param f   - the float to format
+	 * @param dst - the char[] to write the text into
+	 * @param off - the index of the first char to write
+	 * @return - the number of chars written
+	 */
+	public int format(float f, char[] dst, int off) {
+		// Checking if there is a decimal in the float
+		if (f % 1 == 0) {
+			// If not, write it as an int to remove the .0
+			return format_int((int) f, dst, off);
+		}
+
+		// NaN and infinity are the only other values without a decimal part
+		if (f != f) {
+			return copy("NaN", dst, off);
+		} else if (f == Float.POSITIVE_INFINITY) {
+			return copy("Infinity", dst, off);
+		} else if (f == Float.NEGATIVE_INFINITY) {
+			return copy("-Infinity", dst, off);
+		}
+
+		// Otherwise, there is a decimal that needs to be retained
+		generate(f);
+		return layout(f < 0, dst, off);
+	}
+
+	/**
+	 * Helper Method that writes an int in base ten.
+	 *
+	 * @param v   - the int to write
+	 * @param dst - the char[] to write the text into
+	 * @param off - the index of the first char to write
+	 * @return - the number of chars written
+	 */
+	private static int format_int(int v, char[] dst, int off) {
+		// Variable declaration
+		int i = off;
+
+		// Writing the sign, working with negative numbers so MIN_VALUE fits
+		if (v < 0) {
+			dst[i++] = '-';
+		} else {
+			v = -v;
+		}
+
+		// Counting the digits so they can be written from the back
+		int n = 1;
+		for (int p = v / 10; p != 0; p /= 10) {
+			n++;
+		}
+		int end = i + n;
+		for (int j = end - 1; j >= i; j--) {
+			dst[j] = (char) ('0' - v % 10);
+			v /= 10;
+		}
+		return end - off;
+	}
+
+	/**
+	 * Helper Method that copies a constant String into the char[].
+	 *
+	 * @param s   - the String to copy
+	 * @param dst - the char[] to write the text into
+	 * @param off - the index of the first char to write
+	 * @return - the number of chars written
+	 */
+	private static int copy(String s, char[] dst, int off) {
+		s.getChars(0, s.length(), dst, off);
+		return s.length();
+	}
+
+	/**
+	 * Generates the decimal digits of a finite, non-zero float that is not a
+	 * whole number. The result is stored in the digits, nDigits and decExponent
+	 * member variables.
+	 *
+	 * @param f - the float to convert
+	 */
+	private void generate(float f) {
+		// Unpacking the float
+		int fBits = Float.floatToRawIntBits(f);
+		int fract = fBits & 0x007fffff;
+		int binExp = (fBits & 0x7f800000) >> 23;
+		int nSignificantBits;
+		if (binExp == 0) {
+			// Normalising a denormalised number
+			int leadingZeros = Integer.numberOfLeadingZeros(fract);
+			int shift = leadingZeros - (31 - 23);
+			fract <<= shift;
+			binExp = 1 - shift;
+			nSignificantBits = 32 - leadingZeros;
+		} else {
+			// Inserting the hidden high-order bit
+			fract |= 0x00800000;
+			nSignificantBits = 24;
+		}
+		binExp -= 127;
+		long fractBits = ((long) fract) << (EXP_SHIFT - 23);
+
+		// Counting the significant bits
+		final int tailZeros = Long.numberOfTrailingZeros(fractBits);
+		final int nFractBits = EXP_SHIFT + 1 - tailZeros;
+
+		// The number of significant bits to the right of the point, this is never
+		// zero as whole numbers are written by format_int(int v, ...)
+		int nTinyBits = Math.max(0, nFractBits - binExp - 1);
+
+		// Computing B, S and M and their decimal exponent, so that the number is
+		// (B / S) * 10^decExp and M is half an ulp scaled like B
+		int decExp = estimate_dec_exp(fractBits, binExp);
+		int B5 = Math.max(0, -decExp);
+		int B2 = B5 + nTinyBits + binExp;
+		int S5 = Math.max(0, decExp);
+		int S2 = S5 + nTinyBits;
+		int M5 = B5;
+		int M2 = B2 - nSignificantBits;
+
+		// Shifting out the zeros and removing the common factors of two
+		fractBits >>>= tailZeros;
+		B2 -= nFractBits - 1;
+		int common2factor = Math.min(B2, S2);
+		B2 -= common2factor;
+		S2 -= common2factor;
+		M2 -= common2factor;
+
+		// The next number below a power of two is only half as far away
+		if (nFractBits == 1) {
+			M2 -= 1;
+		}
+		if (M2 < 0) {
+			B2 -= M2;
+			S2 -= M2;
+			M2 = 0;
+		}
+
+		// Variable declaration
+		int ndigit = 0;
+		boolean low, high;
+		long lowDigitDifference;
+		int q;
+
+		// Estimating the size of B and 10 * S to pick int, long or big arithmetic
+		int Bbits = nFractBits + B2 + ((B5 < N_5_BITS.length) ? N_5_BITS[B5] : (B5 * 3));
+		int tenSbits = S2 + 1 + (((S5 + 1) < N_5_BITS.length) ? N_5_BITS[(S5 + 1)] : ((S5 + 1) * 3));
+		if (Bbits < 64 && tenSbits < 64) {
+			if (Bbits < 32 && tenSbits < 32) {
+				// Everything fits into an int
+				int b = ((int) fractBits * SMALL_5_POW[B5]) << B2;
+				int s = SMALL_5_POW[S5] << S2;
+				int m = SMALL_5_POW[M5] << M2;
+				int tens = s * 10;
+
+				// The first digit is dropped when the exponent estimate was too high
+				q = b / s;
+				b = 10 * (b % s);
+				m *= 10;
+				low = (b < m);
+				high = (b + m > tens);
+				if ((q == 0) && !high) {
+					decExp--;
+				} else {
+					digits[ndigit++] = (char) ('0' + q);
+				}
+				// E-form always needs a digit after the point
+				if (decExp < -3 || decExp >= 8) {
+					high = low = false;
+				}
+				while (!low && !high) {
+					q = b / s;
+					b = 10 * (b % s);
+					m *= 10;
+					if (m > 0L) {
+						low = (b < m);
+						high = (b + m > tens);
+					} else {
+						// M overflowed, so it is certainly large enough to stop
+						low = true;
+						high = true;
+					}
+					digits[ndigit++] = (char) ('0' + q);
+				}
+				lowDigitDifference = (b << 1) - tens;
+			} else {
+				// Everything fits into a long
+				long b = (fractBits * LONG_5_POW[B5]) << B2;
+				long s = LONG_5_POW[S5] << S2;
+				long m = LONG_5_POW[M5] << M2;
+				long tens = s * 10L;
+
+				// The first digit is dropped when the exponent estimate was too high
+				q = (int) (b / s);
+				b = 10L * (b % s);
+				m *= 10L;
+				low = (b < m);
+				high = (b + m > tens);
+				if ((q == 0) && !high) {
+					decExp--;
+				} else {
+					digits[ndigit++] = (char) ('0' + q);
+				}
+				// E-form always needs a digit after the point
+				if (decExp < -3 || decExp >= 8) {
+					high = low = false;
+				}
+				while (!low && !high) {
+					q = (int) (b / s);
+					b = 10 * (b % s);
+					m *= 10;
+					if (m > 0L) {
+						low = (b < m);
+						high = (b + m > tens);
+					} else {
+						// M overflowed, so it is certainly large enough to stop
+						low = true;
+						high = true;
+					}
+					digits[ndigit++] = (char) ('0' + q);
+				}
+				lowDigitDifference = (b << 1) - tens;
+			}
+		} else {
+			// The numbers are too large for a long
+			s.set_pow52(S5, S2);
+			b.set_mul_pow52(fractBits, B5, B2);
+			m.set_pow52(M5 + 1, M2 + 1);
+			tenS.set_pow52(S5 + 1, S2 + 1);
+
+			// The first digit is dropped when the exponent estimate was too high
+			q = b.quo_rem_iteration(s);
+			low = b.cmp(m) < 0;
+			high = t.set_sum(b, m).cmp(tenS) >= 0;
+			if ((q == 0) && !high) {
+				decExp--;
+			} else {
+				digits[ndigit++] = (char) ('0' + q);
+			}
+			// E-form always needs a digit after the point
+			if (decExp < -3 || decExp >= 8) {
+				high = low = false;
+			}
+			while (!low && !high) {
+				q = b.quo_rem_iteration(s);
+				m.mul_by_10();
+				low = b.cmp(m) < 0;
+				high = t.set_sum(b, m).cmp(tenS) >= 0;
+				digits[ndigit++] = (char) ('0' + q);
+			}
+			if (high && low) {
+				lowDigitDifference = t.set_sum(b, b).cmp(tenS);
+			} else {
+				lowDigitDifference = 0L;
+			}
+		}
+		decExponent = decExp + 1;
+		nDigits = ndigit;
+
+		// The last digit gets rounded based on the stopping condition
+		if (high) {
+			if (low) {
+				if (lowDigitDifference == 0L) {
+					// A tie, round to an even digit
+					if ((digits[nDigits - 1] & 1) != 0) {
+						roundup();
+					}
+				} else if (lowDigitDifference > 0) {
+					roundup();
+				}
+			} else {
+				roundup();
+			}
+		}
+	}
+
+	/**
+	 * Helper Method that adds one to the last generated digit, carrying into the
+	 * digits before it when needed.
+	 */
+	private void roundup() {
+		int i = nDigits - 1;
+		int q = digits[i];
+		if (q == '9') {
+			while (q == '9' && i > 0) {
+				digits[i] = '0';
+				q = digits[--i];
+			}
+			if (q == '9') {
+				// Carry out of the first digit, so the exponent grows
+				decExponent += 1;
+				digits[0] = '1';
+				return;
+			}
+		}
+		digits[i] = (char) (q + 1);
+	}
+
+	/**
+	 * Estimates the decimal exponent of the number, using
+	 * log10(d) ~= (d2 - 1.5) / 1.5 + log10(1.5) + binExp * log10(2) where d2 is
+	 * the significand scaled to 1 <= d2 < 2.
+	 *
+	 * @param fractBits - the significand bits of the number
+	 * @param binExp    - the binary exponent of the number
+	 * @return - the floor of the estimated decimal exponent
+	 */
+	private static int estimate_dec_exp(long fractBits, int binExp) {
+		double d2 = Double.longBitsToDouble(EXP_ONE | (fractBits & SIGNIF_BIT_MASK));
+		double d = (d2 - 1.5D) * 0.289529654D + 0.176091259 + (double) binExp * 0.301029995663981;
+		long dBits = Double.doubleToRawLongBits(d);
+		int exponent = (int) ((dBits & EXP_BIT_MASK) >> EXP_SHIFT) - EXP_BIAS;
+		boolean isNegative = (dBits & SIGN_BIT_MASK) != 0;
+		if (exponent >= 0 && exponent < 52) {
+			long mask = SIGNIF_BIT_MASK >> exponent;
+			int r = (int) (((dBits & SIGNIF_BIT_MASK) | FRACT_HOB) >> (EXP_SHIFT - exponent));
+			return isNegative ? (((mask & dBits) == 0L) ? -r : -r - 1) : r;
+		} else if (exponent < 0) {
+			return (((dBits & ~SIGN_BIT_MASK) == 0) ? 0 : ((isNegative) ? -1 : 0));
+		} else {
+			return (int) d;
+		}
+	}
+
+	/**
+	 * Helper Method that writes the generated digits in either plain or
+	 * scientific notation, the same way Float.toString() lays them out.
+	 *
+	 * @param negative - true if a minus sign is needed
+	 * @param dst      - the char[] to write the text into
+	 * @param off      - the index of the first char to write
+	 * @return - the number of chars written
+	 */
+	private int layout(boolean negative, char[] dst, int off) {
+		// Variable declaration
+		int i = off;
+
+		// Writing the sign
+		if (negative) {
+			dst[i++] = '-';
+		}
+
+		if (decExponent > 0 && decExponent < 8) {
+			// Plain notation with digits on both sides of the point
+			int charLength = Math.min(nDigits, decExponent);
+			System.arraycopy(digits, 0, dst, i, charLength);
+			i += charLength;
+			if (charLength < decExponent) {
+				for (int z = charLength; z < decExponent; z++) {
+					dst[i++] = '0';
+				}
+				dst[i++] = '.';
+				dst[i++] = '0';
+			} else {
+				dst[i++] = '.';
+				if (charLength < nDigits) {
+					int t = nDigits - charLength;
+					System.arraycopy(digits, charLength, dst, i, t);
+					i += t;
+				} else {
+					dst[i++] = '0';
+				}
+			}
+		} else if (decExponent <= 0 && decExponent > -3) {
+			// Plain notation with leading zeros after the point
+			dst[i++] = '0';
+			dst[i++] = '.';
+			for (int z = decExponent; z < 0; z++) {
+				dst[i++] = '0';
+			}
+			System.arraycopy(digits, 0, dst, i, nDigits);
+			i += nDigits;
+		} else {
+			// Scientific notation
+			dst[i++] = digits[0];
+			dst[i++] = '.';
+			if (nDigits > 1) {
+				System.arraycopy(digits, 1, dst, i, nDigits - 1);
+				i += nDigits - 1;
+			} else {
+				dst[i++] = '0';
+			}
+			dst[i++] = 'E';
+			int e;
+			if (decExponent <= 0) {
+				dst[i++] = '-';
+				e = -decExponent + 1;
+			} else {
+				e = decExponent - 1;
+			}
+			if (e <= 9) {
+				dst[i++] = (char) (e + '0');
+			} else {
+				dst[i++] = (char) (e / 10 + '0');
+				dst[i++] = (char) (e % 10 + '0');
+			}
+		}
+		return i - off;
+	}
+
+	/**
+	 * A small, fixed size, unsigned big integer used when the digit generation
+	 * needs more than 64 bits. A float never needs more than a few hundred bits,
+	 * so the words are allocated once and reused.
+	 */
+	private static final class Big {
+		/**
+		 * Member variables that store the 32 bit words, least significant first, and
+		 * how many of them are in use
+		 */
+		private final int[] w = new int[16];
+		private int n;
+
+		/**
+		 * Sets this number to 5^p5 * 2^p2.
+		 *
+		 * @param p5 - the power of five
+		 * @param p2 - the power of two
+		 */
+		void set_pow52(int p5, int p2) {
+			set_mul_pow52(1, p5, p2);
+		}
+
+		/**
+		 * Sets this number to v * 5^p5 * 2^p2.
+		 *
+		 * @param v  - the positive value to scale
+		 * @param p5 - the power of five
+		 * @param p2 - the power of two
+		 */
+		void set_mul_pow52(long v, int p5, int p2) {
+			// Starting with the value itself
+			w[0] = (int) v;
+			w[1] = (int) (v >>> 32);
+			n = w[1] == 0 ? 1 : 2;
+			// Multiplying by five, thirteen powers at a time to stay in an int
+			while (p5 > 0) {
+				int k = Math.min(p5, 13);
+				mul_small(SMALL_5_POW[k]);
+				p5 -= k;
+			}
+			shift_left(p2);
+		}
+
+		/**
+		 * Multiplies this number by a small positive int.
+		 *
+		 * @param x - the int to multiply by
+		 */
+		private void mul_small(int x) {
+			long carry = 0;
+			long mx = x & 0xffffffffL;
+			for (int i = 0; i < n; i++) {
+				long p = (w[i] & 0xffffffffL) * mx + carry;
+				w[i] = (int) p;
+				carry = p >>> 32;
+			}
+			if (carry != 0) {
+				w[n++] = (int) carry;
+			}
+		}
+
+		/**
+		 * Shifts this number to the left by the passed in number of bits.
+		 *
+		 * @param bits - the number of bits to shift by
+		 */
+		private void shift_left(int bits) {
+			if (bits <= 0) {
+				return;
+			}
+			int words = bits >>> 5;
+			int r = bits & 31;
+			// Shifting whole words first
+			if (words > 0) {
+				for (int i = n - 1; i >= 0; i--) {
+					w[i + words] = w[i];
+				}
+				for (int i = 0; i < words; i++) {
+					w[i] = 0;
+				}
+				n += words;
+			}
+			// Then the remaining bits
+			if (r != 0) {
+				int carry = 0;
+				for (int i = words; i < n; i++) {
+					int x = w[i];
+					w[i] = (x << r) | carry;
+					carry = x >>> (32 - r);
+				}
+				if (carry != 0) {
+					w[n++] = carry;
+				}
+			}
+		}
+
+		/**
+		 * Multiplies this number by ten.
+		 */
+		void mul_by_10() {
+			mul_small(10);
+		}
+
+		/**
+		 * Sets this number to x + y.
+		 *
+		 * @param x - the first number to add
+		 * @param y - the second number to add
+		 * @return - this number
+		 */
+		Big set_sum(Big x, Big y) {
+			int len = Math.max(x.n, y.n);
+			long carry = 0;
+			for (int i = 0; i < len; i++) {
+				long a = i < x.n ? x.w[i] & 0xffffffffL : 0;
+				long c = i < y.n ? y.w[i] & 0xffffffffL : 0;
+				long sum = a + c + carry;
+				w[i] = (int) sum;
+				carry = sum >>> 32;
+			}
+			n = len;
+			if (carry != 0) {
+				w[n++] = (int) carry;
+			}
+			return this;
+		}
+
+		/**
+		 * Compares this number with another one.
+		 *
+		 * @param o - the number to compare against
+		 * @return - a negative, zero or positive int as this is less than, equal
+		 *         to or greater than the other number
+		 */
+		int cmp(Big o) {
+			int an = length(), bn = o.length();
+			if (an != bn) {
+				return an < bn ? -1 : 1;
+			}
+			for (int i = an - 1; i >= 0; i--) {
+				if (w[i] != o.w[i]) {
+					return Integer.compareUnsigned(w[i], o.w[i]) < 0 ? -1 : 1;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * @return - the number of words in use, ignoring leading zero words
+		 */
+		private int length() {
+			int len = n;
+			while (len > 0 && w[len - 1] == 0) {
+				len--;
+			}
+			return len;
+		}
+
+		/**
+		 * Computes q = this / s and sets this number to 10 * (this mod s). The
+		 * quotient is always a single decimal digit, so it is found by repeated
+		 * subtraction.
+		 *
+		 * @param s - the number to divide by
+		 * @return - the quotient q
+		 */
+		int quo_rem_iteration(Big s) {
+			int q = 0;
+			while (cmp(s) >= 0) {
+				subtract(s);
+				q++;
+			}
+			mul_by_10();
+			return q;
+		}
+
+		/**
+		 * Subtracts a number that is no larger than this one.
+		 *
+		 * @param o - the number to subtract
+		 */
+		private void subtract(Big o) {
+			long borrow = 0;
+			for (int i = 0; i < n; i++) {
+				long d = (w[i] & 0xffffffffL) - (i < o.n ? o.w[i] & 0xffffffffL : 0) - borrow;
+				w[i] = (int) d;
+				borrow = (d >>> 63);
+			}
+			n = Math.max(length(), 1);
+		}
+	}
+}
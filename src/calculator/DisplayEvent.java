@@ -0,0 +1,103 @@
+package calculator;
+
+/**
+ * This Class is what the calculator publishes whenever its display changes:
+ * the text to show, the operator button to show as selected, the name of the
+ * active memory slot and the live preview of the pending result. It is
+ * immutable, so it can be handed to subscribers on any thread.
+ * 
+ * @author Andrew Sand
+ */
+public final class DisplayEvent {
+	/**
+	 * Member variables that store the displayed text and the selected operator,
+	 * or null if no operator is selected
+	 */
+	private final String text;
+	private final Operator selected;
+
+	/**
+	 * Member variable that stores the name of the active memory slot
+	 */
+	private final String memory;
+
+	/**
+	 * Member variable that stores what = would display, or an empty String if
+	 * there is no preview
+	 */
+	private final String preview;
+
+	/**
+	 * A custom Constructor Method for the Class, with the first memory slot
+	 * active.
+	 * 
+	 * @param text     - the displayed text
+	 * @param selected - the selected operator, or null if there is none
+	 */
+	public DisplayEvent(String text, Operator selected) {
+		this(text, selected, "M1");
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param text     - the displayed text
+	 * @param selected - the selected operator, or null if there is none
+	 * @param memory   - the name of the active memory slot
+	 */
+	public DisplayEvent(String text, Operator selected, String memory) {
+		this(text, selected, memory, "");
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param text     - the displayed text
+	 * @param selected - the selected operator, or null if there is none
+	 * @param memory   - the name of the active memory slot
+	 * @param preview  - what = would display, or an empty String if there is no
+	 *                 preview
+	 */
+	public DisplayEvent(String text, Operator selected, String memory, String preview) {
+		this.text = text;
+		this.selected = selected;
+		this.memory = memory;
+		this.preview = preview;
+	}
+
+	/**
+	 * @return - the displayed text
+	 */
+	public String text() {
+		return text;
+	}
+
+	/**
+	 * @return - the selected operator, or null if there is none
+	 */
+	public Operator selected() {
+		return selected;
+	}
+
+	/**
+	 * @return - the name of the active memory slot
+	 */
+	public String memory() {
+		return memory;
+	}
+
+	/**
+	 * @return - what = would display, or an empty String if there is no preview
+	 */
+	public String preview() {
+		return preview;
+	}
+
+	/**
+	 * toString() Method for the Class, returning the displayed text.
+	 */
+	@Override
+	public String toString() {
+		return text;
+	}
+}
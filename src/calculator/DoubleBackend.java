@@ -0,0 +1,80 @@
+package calculator;
+
+/**
+ * This Class is a NumericBackend that works in double precision. It behaves
+ * like the FloatBackend, but keeps roughly 15 significant digits instead of 7,
+ * which matches the 15 digits that can be typed into the first number. Whole
+ * results are formatted as a long, so results outside of the long range are
+ * reported as an overflow.
+ * 
+ * @author Andrew Sand
+ */
+public class DoubleBackend implements NumericBackend {
+	@Override
+	public String add(String s1, String s2) {
+		return format(Double.parseDouble(s1) + Double.parseDouble(s2));
+	}
+
+	@Override
+	public String subtract(String s1, String s2) {
+		return format(Double.parseDouble(s1) - Double.parseDouble(s2));
+	}
+
+	@Override
+	public String multiply(String s1, String s2) {
+		return format(Double.parseDouble(s1) * Double.parseDouble(s2));
+	}
+
+	@Override
+	public String divide(String s1, String s2) {
+		return format(Double.parseDouble(s1) / Double.parseDouble(s2));
+	}
+
+	@Override
+	public String square(String s) {
+		double d = Double.parseDouble(s);
+		return format(d * d);
+	}
+
+	@Override
+	public String square_root(String s) {
+		return format(Math.sqrt(Double.parseDouble(s)));
+	}
+
+	@Override
+	public String function(Operator op, Scientific.Tier tier, String s1, String s2) {
+		// Results too large for a long are reported by overflows(String s)
+		double d = Scientific.apply(op, tier, Double.parseDouble(s1), s2 == null ? Double.NaN : Double.parseDouble(s2));
+		if (Double.isNaN(d)) {
+			throw new ArithmeticException(op.symbol() + " is not defined");
+		}
+		return format(d);
+	}
+
+	@Override
+	public boolean overflows(String s) {
+		// Whole results are formatted as a long, so they must fit into one
+		double d = Double.parseDouble(s);
+		return d >= Long.MAX_VALUE || d <= Long.MIN_VALUE;
+	}
+
+	@Override
+	public void format(double memory, Operand dst) {
+		dst.set(format(memory));
+	}
+
+	/**
+	 * Helper Method that removes the ".0" from whole results, the same way the
+	 * FloatBackend does.
+	 * 
+	 * @param d - the double to format
+	 * @return - the resulting String
+	 */
+	private static String format(double d) {
+		// Checking if there is a decimal in the double
+		if (d % 1 == 0) {
+			return String.valueOf((long) d);
+		}
+		return String.valueOf(d);
+	}
+}
@@ -0,0 +1,164 @@
+package calculator;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This Class is the publish/subscribe channel the calculator announces display
+ * changes on, replacing the Observable-Observer pattern. Each subscriber names
+ * the Executor its events are delivered on, such as the Swing event dispatch
+ * thread for the GUI or a background thread for a logger, so a slow subscriber
+ * never blocks the calculator.
+ * 
+ * Events are coalesced: each subscription only holds the latest event it has
+ * not yet been given, and only asks its Executor to deliver when it did not
+ * already have one waiting. However many presses happen before the Executor
+ * gets round to it, the subscriber is only given the latest display, so the
+ * GUI renders at most once per turn of the event dispatch thread. Publishing
+ * takes no lock.
+ * 
+ * @author Andrew Sand
+ */
+public final class EventBus {
+	/**
+	 * A subscriber to the calculator's display changes.
+	 */
+	public interface Listener {
+		void displayed(DisplayEvent e);
+	}
+
+	/**
+	 * Member variable that stores the subscriptions. Publishing iterates over a
+	 * snapshot without locking, and subscribing is rare
+	 */
+	private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Subscribes a listener that is given events on the publishing thread, as soon
+	 * as they are published.
+	 * 
+	 * @param listener - the subscriber
+	 * @return - the Subscription, used to unsubscribe
+	 */
+	public Subscription subscribe(Listener listener) {
+		return subscribe(listener, Runnable::run);
+	}
+
+	/**
+	 * Subscribes a listener that is given the latest event on the passed in
+	 * Executor. The Executor must run tasks one at a time, in order.
+	 * 
+	 * @param listener - the subscriber
+	 * @param executor - delivers events to the subscriber
+	 * @return - the Subscription, used to unsubscribe
+	 */
+	public Subscription subscribe(Listener listener, Executor executor) {
+		Subscription s = new Subscription(listener, executor);
+		subscriptions.add(s);
+		return s;
+	}
+
+	/**
+	 * @return - true if anything is subscribed, so callers can avoid creating
+	 *         events that nobody will be given
+	 */
+	public boolean has_subscribers() {
+		return !subscriptions.isEmpty();
+	}
+
+	/**
+	 * Publishes an event to every subscriber.
+	 * 
+	 * @param e - the event
+	 */
+	public void publish(DisplayEvent e) {
+		for (Subscription s : subscriptions) {
+			s.offer(e);
+		}
+	}
+
+	/**
+	 * This Class is one subscriber's subscription, holding the latest event it
+	 * has not been given yet.
+	 */
+	public final class Subscription {
+		/**
+		 * Member variables that store the subscriber and how it is given events
+		 */
+		private final Listener listener;
+		private final Executor executor;
+
+		/**
+		 * Member variable that stores the latest event not yet given to the
+		 * subscriber, or null if a delivery is not waiting
+		 */
+		private final AtomicReference<DisplayEvent> latest = new AtomicReference<>();
+
+		/**
+		 * Member variables that count the events published to and delivered to the
+		 * subscriber
+		 */
+		private final LongAdder published = new LongAdder(), delivered = new LongAdder();
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param listener - the subscriber
+		 * @param executor - delivers events to the subscriber
+		 */
+		private Subscription(Listener listener, Executor executor) {
+			this.listener = listener;
+			this.executor = executor;
+		}
+
+		/**
+		 * Helper Method that replaces the waiting event, asking the Executor to
+		 * deliver only if nothing was waiting already.
+		 * 
+		 * @param e - the event
+		 */
+		private void offer(DisplayEvent e) {
+			published.increment();
+			if (latest.getAndSet(e) == null) {
+				executor.execute(this::deliver);
+			}
+		}
+
+		/**
+		 * Helper Method, run by the Executor, that gives the subscriber the latest
+		 * event. Anything published after the event is taken asks for another
+		 * delivery.
+		 */
+		private void deliver() {
+			DisplayEvent e = latest.getAndSet(null);
+			if (e != null) {
+				delivered.increment();
+				listener.displayed(e);
+			}
+		}
+
+		/**
+		 * @return - the number of events published to the subscriber
+		 */
+		public long published() {
+			return published.sum();
+		}
+
+		/**
+		 * @return - the number of events given to the subscriber, the rest having
+		 *         been coalesced
+		 */
+		public long delivered() {
+			return delivered.sum();
+		}
+
+		/**
+		 * Unsubscribes. An event already waiting may still be delivered.
+		 */
+		public void cancel() {
+			subscriptions.remove(this);
+		}
+	}
+}
@@ -0,0 +1,218 @@
+package calculator;
+
+import java.util.Arrays;
+
+/**
+ * This Class is a compiled infix expression, such as "(1.5 + x) * 2" or
+ * "sqrt(a^ + b^)". An expression is parsed and compiled once into a compact
+ * postfix program of int opcodes, and can then be evaluated any number of
+ * times without parsing it again. The operations are the Calculator's own
+ * float kernels from the Arithmetic Class, so an expression gives the same
+ * results as typing the same calculations into the calculator one at a time.
+ * 
+ * The syntax supports numbers, named variables, the binary operators + - * /,
+ * a leading minus sign, the postfix square operator ^ (like the calculator's
+ * square button), the functions sqr(x) and sqrt(x) (also written SR(x)), the
+ * scientific functions exp(x), ln(x), log(x), sin(x), cos(x), tan(x), fact(x)
+ * and pow(x, y), and parentheses. Multiplication and division bind tighter
+ * than addition and subtraction, and operators of the same precedence are
+ * evaluated left to right. The scientific functions are calculated in
+ * Scientific's EXACT tier, the calculator's default.
+ * 
+ * A compiled Expression is immutable and can be shared between threads.
+ * 
+ * @author Andrew Sand
+ */
+public final class Expression {
+	/**
+	 * The opcodes of the compiled program. CONST and VAR are followed by the
+	 * index of their constant or variable, and FUNCTION by the ordinal of the
+	 * Operator of its scientific function.
+	 */
+	static final int CONST = 0, VAR = 1, ADD = 2, SUBTRACT = 3, MULTIPLY = 4, DIVIDE = 5, NEGATE = 6, SQUARE = 7,
+			SQUARE_ROOT = 8, FUNCTION = 9;
+
+	/**
+	 * The Operators, indexed by the ordinals that follow FUNCTION
+	 */
+	private static final Operator[] OPERATORS = Operator.values();
+
+	/**
+	 * Member variables that store the original text, the program, its
+	 * constants, the names of its variables, and the deepest the stack gets
+	 */
+	private final String text;
+	private final int[] code;
+	private final float[] constants;
+	private final String[] variables;
+	private final int maxStack;
+
+	/**
+	 * A package-private Constructor Method used by the ExpressionParser.
+	 * 
+	 * @param text      - the original text of the expression
+	 * @param code      - the compiled program
+	 * @param constants - the constants used by the program
+	 * @param variables - the names of the variables, in order of first use
+	 * @param maxStack  - the deepest the stack gets while evaluating
+	 */
+	Expression(String text, int[] code, float[] constants, String[] variables, int maxStack) {
+		this.text = text;
+		this.code = code;
+		this.constants = constants;
+		this.variables = variables;
+		this.maxStack = maxStack;
+	}
+
+	/**
+	 * Parses and compiles an infix expression.
+	 * 
+	 * @param text - the expression to compile
+	 * @return - the compiled Expression
+	 * @throws IllegalArgumentException if the expression is not valid
+	 */
+	public static Expression compile(String text) {
+		return new ExpressionParser(text).parse();
+	}
+
+	/**
+	 * @return - the original text of the expression
+	 */
+	public String text() {
+		return text;
+	}
+
+	/**
+	 * @return - the names of the variables, in the order their values are passed
+	 *         to the evaluate Methods
+	 */
+	public String[] variables() {
+		return variables.clone();
+	}
+
+	/**
+	 * @return - the size of the stack needed by evaluate(float[] vars, float[]
+	 *         stack)
+	 */
+	public int stack_size() {
+		return maxStack;
+	}
+
+	/**
+	 * Evaluates the expression. This creates a new stack for each call, use
+	 * evaluate(float[] vars, float[] stack) to reuse one.
+	 * 
+	 * @param vars - the values of the variables
+	 * @return - the result of the expression
+	 */
+	public float evaluate(float... vars) {
+		return evaluate(vars, new float[maxStack]);
+	}
+
+	/**
+	 * Evaluates the expression using the passed in stack, so that nothing is
+	 * created while evaluating.
+	 * 
+	 * @param vars  - the values of the variables
+	 * @param stack - a stack of at least stack_size() floats
+	 * @return - the result of the expression
+	 */
+	public float evaluate(float[] vars, float[] stack) {
+		// Checking that every variable has a value
+		if (vars.length < variables.length) {
+			throw new IllegalArgumentException(
+					"Expected values for " + Arrays.toString(variables) + " but got " + vars.length);
+		}
+
+		// Running the program
+		int sp = 0;
+		for (int pc = 0; pc < code.length; pc++) {
+			switch (code[pc]) {
+			case CONST:
+				stack[sp++] = constants[code[++pc]];
+				break;
+			case VAR:
+				stack[sp++] = vars[code[++pc]];
+				break;
+			case ADD:
+				sp--;
+				stack[sp - 1] = Arithmetic.add(stack[sp - 1], stack[sp]);
+				break;
+			case SUBTRACT:
+				sp--;
+				stack[sp - 1] = Arithmetic.subtract(stack[sp - 1], stack[sp]);
+				break;
+			case MULTIPLY:
+				sp--;
+				stack[sp - 1] = Arithmetic.multiply(stack[sp - 1], stack[sp]);
+				break;
+			case DIVIDE:
+				sp--;
+				stack[sp - 1] = Arithmetic.divide(stack[sp - 1], stack[sp]);
+				break;
+			case NEGATE:
+				stack[sp - 1] = -stack[sp - 1];
+				break;
+			case SQUARE:
+				stack[sp - 1] = Arithmetic.square(stack[sp - 1]);
+				break;
+			case SQUARE_ROOT:
+				stack[sp - 1] = Arithmetic.square_root(stack[sp - 1]);
+				break;
+			case FUNCTION:
+				// Only pow takes a second number off the stack
+				Operator o = OPERATORS[code[++pc]];
+				if (o.isUnary()) {
+					stack[sp - 1] = Arithmetic.apply(o, stack[sp - 1], Float.NaN);
+				} else {
+					sp--;
+					stack[sp - 1] = Arithmetic.apply(o, stack[sp - 1], stack[sp]);
+				}
+				break;
+			default:
+				throw new IllegalStateException("Unknown opcode " + code[pc]);
+			}
+		}
+		return stack[0];
+	}
+
+	/**
+	 * Evaluates the expression once for every row of the passed in columns. The
+	 * column at index i holds the values of variable i, and every column must be
+	 * at least as long as the results column.
+	 * 
+	 * @param columns - the columns of variable values
+	 * @param out     - the column that the results are written into
+	 */
+	public void evaluate(float[][] columns, float[] out) {
+		evaluate(columns, out, 0, out.length);
+	}
+
+	/**
+	 * Evaluates the expression for the rows of the passed in columns between the
+	 * from (inclusive) and to (exclusive) indexes.
+	 * 
+	 * @param columns - the columns of variable values
+	 * @param out     - the column that the results are written into
+	 * @param from    - the first row to evaluate
+	 * @param to      - the row after the last one to evaluate
+	 */
+	public void evaluate(float[][] columns, float[] out, int from, int to) {
+		// Variable declaration, the same stack and values are reused for every row
+		float[] stack = new float[maxStack];
+		float[] vars = new float[variables.length];
+
+		// Evaluating each row
+		for (int row = from; row < to; row++) {
+			for (int v = 0; v < vars.length; v++) {
+				vars[v] = columns[v][row];
+			}
+			out[row] = evaluate(vars, stack);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+}
@@ -0,0 +1,279 @@
+package calculator;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This Class caches compiled Expressions so that formulas that are entered
+ * again and again are only parsed once. Expressions are looked up by their
+ * normalized text, so "2+3" and " 2 + 3 " share an entry, compiled from the
+ * text of the first lookup: its text() and any error are those of a text that
+ * was actually passed in, never of the normalized key.
+ * 
+ * The cache is split into segments, each a LinkedHashMap in access order with
+ * its own lock, so threads looking up different expressions rarely wait for
+ * each other. Each segment holds an equal share of the capacity and evicts its
+ * least recently used expression when it is full.
+ * 
+ * @author Andrew Sand
+ */
+public final class ExpressionCache {
+	/**
+	 * Member variable that stores the segments, a power of two of them
+	 */
+	private final Segment[] segments;
+
+	/**
+	 * Member variables that count hits, misses and evictions
+	 */
+	private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+	/**
+	 * A custom Constructor Method for the Class, using 16 segments.
+	 * 
+	 * @param capacity - the most expressions the cache holds
+	 */
+	public ExpressionCache(int capacity) {
+		this(capacity, 16);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param capacity    - the most expressions the cache holds
+	 * @param concurrency - roughly how many threads are expected to use the cache
+	 *                    at once, rounded up to a power of two segments
+	 */
+	public ExpressionCache(int capacity, int concurrency) {
+		// Testing the arguments
+		if (capacity < 1 || concurrency < 1) {
+			throw new IllegalArgumentException("Capacity and concurrency must be positive");
+		}
+
+		// Never more segments than entries, so every segment holds at least one
+		int n = Integer.highestOneBit(Math.min(capacity, concurrency));
+		if (n < Math.min(capacity, concurrency)) {
+			n <<= 1;
+		}
+		if (n > capacity) {
+			n >>= 1;
+		}
+
+		// Sharing the capacity between the segments
+		segments = new Segment[n];
+		for (int i = 0; i < n; i++) {
+			segments[i] = new Segment(capacity / n + (i < capacity % n ? 1 : 0));
+		}
+	}
+
+	/**
+	 * Returns the compiled Expression for the passed in text, compiling it only if
+	 * it is not already cached.
+	 * 
+	 * @param text - the expression
+	 * @return - the compiled Expression
+	 * @throws IllegalArgumentException if the expression is not valid
+	 */
+	public Expression get(String text) {
+		// Variable declaration
+		String key = normalize(text);
+		Segment s = segment(key);
+
+		// Looking the expression up
+		Expression e;
+		synchronized (s) {
+			e = s.get(key);
+		}
+		if (e != null) {
+			hits.increment();
+			return e;
+		}
+
+		// Compiling the text as it was passed in, outside of the lock, so other
+		// lookups are not held up
+		misses.increment();
+		e = Expression.compile(text);
+		synchronized (s) {
+			// Another thread may have compiled it in the meantime
+			Expression other = s.putIfAbsent(key, e);
+			return other != null ? other : e;
+		}
+	}
+
+	/**
+	 * Helper Method that picks the segment of a key, spreading the high bits of
+	 * the hash into the low ones first.
+	 * 
+	 * @param key - the normalized expression
+	 * @return - the segment holding it
+	 */
+	private Segment segment(String key) {
+		int h = key.hashCode();
+		h ^= h >>> 16;
+		return segments[h & (segments.length - 1)];
+	}
+
+	/**
+	 * Normalizes an expression by removing whitespace. A single space is kept
+	 * where removing it would join two numbers or names together, so "1 2"
+	 * remains an invalid expression rather than becoming 12, and after the E of
+	 * an exponent and its sign, so "1.5E -7" remains invalid rather than becoming
+	 * 1.5E-7. Keeping a space is always safe, as the parser skips the spaces the
+	 * key keeps wherever they are not inside a number.
+	 * 
+	 * @param text - the expression
+	 * @return - the normalized expression
+	 */
+	static String normalize(String text) {
+		// Testing whether there is anything to do, which is the common case
+		int i = 0;
+		while (i < text.length() && !Character.isWhitespace(text.charAt(i))) {
+			i++;
+		}
+		if (i == text.length()) {
+			return text;
+		}
+
+		// Copying everything but the whitespace
+		StringBuilder sb = new StringBuilder(text.length());
+		sb.append(text, 0, i);
+		while (i < text.length()) {
+			char c = text.charAt(i++);
+			if (!Character.isWhitespace(c)) {
+				sb.append(c);
+				continue;
+			}
+			// Skipping the rest of the whitespace
+			while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+				i++;
+			}
+			if (sb.length() > 0 && i < text.length() && (is_exponent(sb)
+					|| is_word(sb.charAt(sb.length() - 1)) && is_word(text.charAt(i)))) {
+				sb.append(' ');
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Helper Method that tests whether the normalized text so far ends with what
+	 * could be the E of an exponent, or an E and its sign, which a number only
+	 * continues from without a space in between.
+	 * 
+	 * @param sb - the normalized text so far
+	 * @return - true if it does
+	 */
+	private static boolean is_exponent(StringBuilder sb) {
+		int n = sb.length();
+		char c = sb.charAt(n - 1);
+		if ((c == '+' || c == '-') && n > 1) {
+			c = sb.charAt(n - 2);
+		}
+		return c == 'E' || c == 'e';
+	}
+
+	/**
+	 * Helper Method that tests whether a char can be part of a number or name.
+	 * 
+	 * @param c - the char to test
+	 * @return - true if it can
+	 */
+	private static boolean is_word(char c) {
+		return Character.isLetterOrDigit(c) || c == '.' || c == '_';
+	}
+
+	/**
+	 * @return - the number of lookups that found a cached expression
+	 */
+	public long hits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return - the number of lookups that had to compile the expression
+	 */
+	public long misses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return - the number of expressions evicted to make room
+	 */
+	public long evictions() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return - the fraction of lookups that were hits, or 0 before any lookup
+	 */
+	public double hit_rate() {
+		long h = hits(), total = h + misses();
+		return total == 0 ? 0 : (double) h / total;
+	}
+
+	/**
+	 * @return - the number of expressions currently cached
+	 */
+	public int size() {
+		int n = 0;
+		for (Segment s : segments) {
+			synchronized (s) {
+				n += s.size();
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Removes every cached expression. The counters are kept.
+	 */
+	public void clear() {
+		for (Segment s : segments) {
+			synchronized (s) {
+				s.clear();
+			}
+		}
+	}
+
+	/**
+	 * toString() Method for the Class, describing the counters.
+	 */
+	@Override
+	public String toString() {
+		return "ExpressionCache[size=" + size() + ", hits=" + hits() + ", misses=" + misses() + ", evictions="
+				+ evictions() + "]";
+	}
+
+	/**
+	 * This Class is one segment of the cache: a LinkedHashMap in access order
+	 * that evicts its eldest entry once it holds more than its capacity. It is
+	 * guarded by its own monitor.
+	 */
+	@SuppressWarnings("serial")
+	private final class Segment extends LinkedHashMap<String, Expression> {
+		/**
+		 * Member variable that stores the most entries this segment holds
+		 */
+		private final int capacity;
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param capacity - the most entries this segment holds
+		 */
+		Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Expression> eldest) {
+			if (size() > capacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,379 @@
+package calculator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This Class tokenizes and parses an infix expression using recursive descent,
+ * emitting the postfix program of an Expression as it goes. Each precedence
+ * level has its own Method:
+ * 
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := factor (('*' | '/') factor)*
+ * factor     := ('+' | '-') factor | postfix
+ * postfix    := primary '^'*
+ * primary    := number | name | name '(' expression (',' expression)? ')'
+ *             | '(' expression ')'
+ * </pre>
+ * 
+ * Parentheses, signs and function calls may be nested up to MAX_NESTING deep,
+ * so that a hostile expression is rejected before it can overflow the stack of
+ * the thread parsing it. An instance parses a single expression and is then
+ * thrown away.
+ * 
+ * @author Andrew Sand
+ */
+class ExpressionParser {
+	/**
+	 * The deepest that parentheses, signs and function calls may be nested
+	 */
+	static final int MAX_NESTING = 256;
+
+	/**
+	 * Member variables that store the text being parsed and the position of the
+	 * next char to read
+	 */
+	private final String text;
+	private int pos;
+
+	/**
+	 * Member variables that store the program being emitted and its length
+	 */
+	private int[] code = new int[16];
+	private int length;
+
+	/**
+	 * Member variables that store the constants and variables used so far
+	 */
+	private float[] constants = new float[4];
+	private int nConstants;
+	private final List<String> variables = new ArrayList<>();
+
+	/**
+	 * Member variables that track the depth of the stack while emitting
+	 */
+	private int depth, maxDepth;
+
+	/**
+	 * Member variable that tracks how deeply the factor being parsed is nested
+	 */
+	private int nesting;
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param text - the expression to parse
+	 */
+	ExpressionParser(String text) {
+		this.text = text;
+	}
+
+	/**
+	 * Parses the whole expression.
+	 * 
+	 * @return - the compiled Expression
+	 * @throws IllegalArgumentException if the expression is not valid
+	 */
+	Expression parse() {
+		expression();
+		skip_spaces();
+		// Testing for anything left over
+		if (pos < text.length()) {
+			throw error("Unexpected '" + text.charAt(pos) + "'");
+		}
+		return new Expression(text, Arrays.copyOf(code, length), Arrays.copyOf(constants, nConstants),
+				variables.toArray(new String[0]), maxDepth);
+	}
+
+	/**
+	 * Parses additions and subtractions.
+	 */
+	private void expression() {
+		term();
+		while (true) {
+			if (accept('+')) {
+				term();
+				emit(Expression.ADD, -1);
+			} else if (accept('-')) {
+				term();
+				emit(Expression.SUBTRACT, -1);
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Parses multiplications and divisions.
+	 */
+	private void term() {
+		factor();
+		while (true) {
+			if (accept('*')) {
+				factor();
+				emit(Expression.MULTIPLY, -1);
+			} else if (accept('/')) {
+				factor();
+				emit(Expression.DIVIDE, -1);
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Parses leading signs. Every nested parenthesis, sign and function call
+	 * passes through here, so this is where the nesting is limited.
+	 */
+	private void factor() {
+		if (++nesting > MAX_NESTING) {
+			throw error("Expression nested more than " + MAX_NESTING + " deep");
+		}
+		if (accept('-')) {
+			factor();
+			emit(Expression.NEGATE, 0);
+		} else if (accept('+')) {
+			factor();
+		} else {
+			postfix();
+		}
+		nesting--;
+	}
+
+	/**
+	 * Parses the postfix square operator.
+	 */
+	private void postfix() {
+		primary();
+		while (accept('^')) {
+			emit(Expression.SQUARE, 0);
+		}
+	}
+
+	/**
+	 * Parses numbers, variables, function calls and parentheses.
+	 */
+	private void primary() {
+		skip_spaces();
+		// Testing for the end of the text
+		if (pos >= text.length()) {
+			throw error("Unexpected end of expression");
+		}
+		char c = text.charAt(pos);
+
+		// Parentheses
+		if (accept('(')) {
+			expression();
+			expect(')');
+		}
+		// Numbers
+		else if (Character.isDigit(c) || c == '.') {
+			number();
+		}
+		// Variables and functions
+		else if (Character.isLetter(c)) {
+			int start = pos;
+			while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+				pos++;
+			}
+			String name = text.substring(start, pos);
+			if (accept('(')) {
+				function(name, start);
+			} else {
+				variable(name);
+			}
+		} else {
+			throw error("Unexpected '" + c + "'");
+		}
+	}
+
+	/**
+	 * Parses a number, including an optional exponent such as "1.5E-7".
+	 */
+	private void number() {
+		// Variable declaration
+		int start = pos;
+
+		// Reading the digits and decimal point
+		while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+			pos++;
+		}
+		// Reading the exponent
+		if (pos < text.length() && (text.charAt(pos) == 'E' || text.charAt(pos) == 'e')) {
+			int mark = pos++;
+			if (pos < text.length() && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+				pos++;
+			}
+			if (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+				while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+					pos++;
+				}
+			} else {
+				// Not an exponent after all
+				pos = mark;
+			}
+		}
+
+		// Parsing the number the same way the calculator does
+		float f;
+		try {
+			f = Float.parseFloat(text.substring(start, pos));
+		} catch (NumberFormatException e) {
+			pos = start;
+			throw error("Invalid number");
+		}
+
+		// Storing it as a constant
+		if (nConstants == constants.length) {
+			constants = Arrays.copyOf(constants, nConstants * 2);
+		}
+		constants[nConstants] = f;
+		emit(Expression.CONST, 1);
+		emit_operand(nConstants++);
+	}
+
+	/**
+	 * Emits a variable, giving it the next index the first time it is used.
+	 * 
+	 * @param name - the name of the variable
+	 */
+	private void variable(String name) {
+		int index = variables.indexOf(name);
+		if (index == -1) {
+			index = variables.size();
+			variables.add(name);
+		}
+		emit(Expression.VAR, 1);
+		emit_operand(index);
+	}
+
+	/**
+	 * Parses the arguments of a function and emits the function.
+	 * 
+	 * @param name  - the name of the function
+	 * @param start - the position of the name, for error messages
+	 */
+	private void function(String name, int start) {
+		// Finding the opcode of the function, or the Operator of a scientific one
+		int op = Expression.FUNCTION;
+		Operator o = null;
+		switch (name) {
+		case "sqr":
+			op = Expression.SQUARE;
+			break;
+		case "sqrt":
+		case "SR":
+			op = Expression.SQUARE_ROOT;
+			break;
+		case "exp":
+			o = Operator.EXP;
+			break;
+		case "ln":
+			o = Operator.LN;
+			break;
+		case "log":
+			o = Operator.LOG10;
+			break;
+		case "pow":
+			o = Operator.POWER;
+			break;
+		case "sin":
+			o = Operator.SIN;
+			break;
+		case "cos":
+			o = Operator.COS;
+			break;
+		case "tan":
+			o = Operator.TAN;
+			break;
+		case "fact":
+			o = Operator.FACTORIAL;
+			break;
+		default:
+			pos = start;
+			throw error("Unknown function '" + name + "'");
+		}
+		expression();
+		// pow takes a second argument, which it pops along with the first
+		if (o == Operator.POWER) {
+			expect(',');
+			expression();
+		}
+		expect(')');
+		emit(op, o == Operator.POWER ? -1 : 0);
+		if (o != null) {
+			emit_operand(o.ordinal());
+		}
+	}
+
+	/**
+	 * Helper Method that emits an opcode and tracks the stack depth.
+	 * 
+	 * @param op     - the opcode to emit
+	 * @param change - how the opcode changes the depth of the stack
+	 */
+	private void emit(int op, int change) {
+		emit_operand(op);
+		depth += change;
+		maxDepth = Math.max(maxDepth, depth);
+	}
+
+	/**
+	 * Helper Method that adds an int to the program.
+	 * 
+	 * @param v - the int to add
+	 */
+	private void emit_operand(int v) {
+		if (length == code.length) {
+			code = Arrays.copyOf(code, length * 2);
+		}
+		code[length++] = v;
+	}
+
+	/**
+	 * Helper Method that skips spaces and reads the passed in char if it is next.
+	 * 
+	 * @param c - the char to read
+	 * @return - true if the char was read
+	 */
+	private boolean accept(char c) {
+		skip_spaces();
+		if (pos < text.length() && text.charAt(pos) == c) {
+			pos++;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Helper Method that reads the passed in char, which must be next.
+	 * 
+	 * @param c - the char to read
+	 */
+	private void expect(char c) {
+		if (!accept(c)) {
+			throw error("Expected '" + c + "'");
+		}
+	}
+
+	/**
+	 * Helper Method that skips whitespace.
+	 */
+	private void skip_spaces() {
+		while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	/**
+	 * Helper Method that creates an exception describing where parsing failed.
+	 * 
+	 * @param message - what went wrong
+	 * @return - the exception to throw
+	 */
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at position " + pos + " in \"" + text + "\"");
+	}
+}
@@ -0,0 +1,145 @@
+package calculator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This Class evaluates a file of recorded calculations, one per line in the
+ * form understood by the LineEvaluator (such as "3.5 * 7", "96.35 ^" or "SR
+ * 64.6"), writing the answers to another file, one per line in the same order.
+ * The answers are exactly what the Calculator displays for the same operations,
+ * so results too large to show are answered with "ERROR: OVERFLOW", and lines
+ * that cannot be understood are answered with "ERROR".
+ * 
+ * The input file is memory-mapped a window at a time and its lines are parsed
+ * in place, without creating a String per line, and the answers are gathered
+ * in a direct buffer that is written to the output channel whenever it fills.
+ * The heap used therefore stays the same whatever the size of the file.
+ * 
+ * @author Andrew Sand
+ */
+public final class FileEvaluator {
+	/**
+	 * The default number of bytes of the input mapped at once
+	 */
+	static final int WINDOW = 1 << 28;
+
+	/**
+	 * The size of the buffer the answers are gathered in
+	 */
+	private static final int OUT_SIZE = 1 << 16;
+
+	/**
+	 * Member variables that store the evaluator of each line and the buffer of
+	 * answers
+	 */
+	private final LineEvaluator evaluator = new LineEvaluator();
+	private final ByteBuffer out = ByteBuffer.allocateDirect(OUT_SIZE);
+
+	/**
+	 * Member variable that stores the number of bytes mapped at once, which is
+	 * also the longest line allowed
+	 */
+	private final int window;
+
+	/**
+	 * A default Constructor Method for the Class.
+	 */
+	public FileEvaluator() {
+		this(WINDOW);
+	}
+
+	/**
+	 * A package-private Constructor Method with a custom window, used by the
+	 * tests.
+	 * 
+	 * @param window - the number of bytes of the input mapped at once
+	 */
+	FileEvaluator(int window) {
+		this.window = window;
+	}
+
+	/**
+	 * Evaluates every line of the input file, replacing the output file with the
+	 * answers.
+	 * 
+	 * @param input  - the file of calculations
+	 * @param output - the file to write the answers to
+	 * @return - the number of lines evaluated
+	 * @throws IOException if a file cannot be read or written, or a line is
+	 *                     longer than the window
+	 */
+	public long evaluate(Path input, Path output) throws IOException {
+		try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+				FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+						StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = in.size(), position = 0, lines = 0;
+			out.clear();
+
+			// Mapping each window of the input, which ends after its last full line
+			while (position < size) {
+				int length = (int) Math.min(window, size - position);
+				boolean last = position + length == size;
+				MappedByteBuffer map = in.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+				// Evaluating each line of the window
+				int start = 0;
+				for (int i = 0; i < length; i++) {
+					if (map.get(i) == '\n') {
+						answer(map, start, i, channel);
+						start = i + 1;
+						lines++;
+					}
+				}
+
+				// A final line without a line break is only complete at the end of the
+				// file, otherwise it is mapped again at the start of the next window
+				if (last && start < length) {
+					answer(map, start, length, channel);
+					start = length;
+					lines++;
+				} else if (start == 0) {
+					throw new IOException("Line at byte " + position + " is longer than " + window + " bytes");
+				}
+				position += start;
+			}
+
+			// Writing the remaining answers
+			flush(channel);
+			return lines;
+		}
+	}
+
+	/**
+	 * Helper Method that evaluates one line, first writing out the gathered
+	 * answers if there may not be room for another.
+	 * 
+	 * @param in      - the buffer holding the line
+	 * @param from    - the index of the first byte of the line
+	 * @param to      - the index of its line break
+	 * @param channel - the output channel
+	 */
+	private void answer(ByteBuffer in, int from, int to, FileChannel channel) throws IOException {
+		if (out.remaining() < LineEvaluator.MAX_ANSWER) {
+			flush(channel);
+		}
+		evaluator.evaluate(in, from, to, out);
+	}
+
+	/**
+	 * Helper Method that writes the gathered answers to the output channel.
+	 * 
+	 * @param channel - the output channel
+	 */
+	private void flush(FileChannel channel) throws IOException {
+		out.flip();
+		while (out.hasRemaining()) {
+			channel.write(out);
+		}
+		out.clear();
+	}
+}
@@ -0,0 +1,149 @@
+package calculator;
+
+/**
+ * This Class is the calculator's original NumericBackend. Numbers are parsed
+ * into floats, operated on using the Arithmetic kernels, and formatted using a
+ * DecimalFormatter, so whole results are shown without a trailing ".0". Results
+ * that do not fit into an int are reported as an overflow.
+ * 
+ * @author Andrew Sand
+ */
+public class FloatBackend implements NumericBackend {
+	/**
+	 * Member variable that stores the formatter used to turn results into text
+	 */
+	private final DecimalFormatter formatter = new DecimalFormatter();
+
+	/**
+	 * Member variables that store the last result and its float, so that storing
+	 * the result in a memory slot does not parse it again, and the chars a
+	 * recalled memory is formatted into
+	 */
+	private String last;
+	private float lastValue;
+	private final char[] chars = new char[DecimalFormatter.MAX_LENGTH];
+
+	@Override
+	public String add(String s1, String s2) {
+		return result(Arithmetic.add(Float.parseFloat(s1), Float.parseFloat(s2)));
+	}
+
+	@Override
+	public String subtract(String s1, String s2) {
+		return result(Arithmetic.subtract(Float.parseFloat(s1), Float.parseFloat(s2)));
+	}
+
+	@Override
+	public String multiply(String s1, String s2) {
+		return result(Arithmetic.multiply(Float.parseFloat(s1), Float.parseFloat(s2)));
+	}
+
+	@Override
+	public String divide(String s1, String s2) {
+		return result(Arithmetic.divide(Float.parseFloat(s1), Float.parseFloat(s2)));
+	}
+
+	@Override
+	public String square(String s) {
+		return result(Arithmetic.square(Float.parseFloat(s)));
+	}
+
+	@Override
+	public String square_root(String s) {
+		// Square root has always parsed its number as a double
+		return result(Arithmetic.square_root(Double.parseDouble(s)));
+	}
+
+	@Override
+	public String function(Operator op, Scientific.Tier tier, String s1, String s2) {
+		// Calculated in double precision from the floats, which overflows(String s)
+		// reports if the result is too large
+		float f = (float) Scientific.apply(op, tier, Float.parseFloat(s1), s2 == null ? Float.NaN : Float.parseFloat(s2));
+		if (Float.isNaN(f)) {
+			throw new ArithmeticException(op.symbol() + " is not defined");
+		}
+		return result(f);
+	}
+
+	@Override
+	public boolean overflows(String s) {
+		return overflows(Float.parseFloat(s));
+	}
+
+	/**
+	 * Helper Method that tests whether a result is too large to show. Whole
+	 * results are formatted as an int, so they must fit into one, and infinite
+	 * results never do.
+	 * 
+	 * @param f - the result
+	 * @return - true if the result overflows
+	 */
+	static boolean overflows(float f) {
+		return f >= Integer.MAX_VALUE || f <= Integer.MIN_VALUE;
+	}
+
+	@Override
+	public double value(String s) {
+		// The last result is usually the one being stored
+		return s == last ? lastValue : Float.parseFloat(s);
+	}
+
+	@Override
+	public double add(double memory, double v) {
+		return Arithmetic.add((float) memory, (float) v);
+	}
+
+	@Override
+	public double subtract(double memory, double v) {
+		return Arithmetic.subtract((float) memory, (float) v);
+	}
+
+	@Override
+	public void format(double memory, Operand dst) {
+		dst.set(chars, 0, formatter.format((float) memory, chars, 0));
+	}
+
+	@Override
+	public void preview(Operator op, Operand s1, Operand s2, Operand dst) {
+		// Using the values kept by the Operands, so nothing is parsed or created
+		float f;
+		switch (op) {
+		case ADD:
+			f = Arithmetic.add(s1.float_value(), s2.float_value());
+			break;
+		case SUBTRACT:
+			f = Arithmetic.subtract(s1.float_value(), s2.float_value());
+			break;
+		case MULTIPLY:
+			f = Arithmetic.multiply(s1.float_value(), s2.float_value());
+			break;
+		case DIVIDE:
+			f = Arithmetic.divide(s1.float_value(), s2.float_value());
+			break;
+		case SQUARE:
+			f = Arithmetic.square(s1.float_value());
+			break;
+		default:
+			// Square root has always parsed its number as a double
+			f = Arithmetic.square_root(s1.double_value());
+			break;
+		}
+		// The same test as overflows(String s), whose String holds the same float
+		if (overflows(f)) {
+			dst.set("ERROR: OVERFLOW");
+		} else {
+			dst.set(chars, 0, formatter.format(f, chars, 0));
+		}
+	}
+
+	/**
+	 * Helper Method that formats a result, remembering it and its float.
+	 * 
+	 * @param f - the result
+	 * @return - the String representation of the result
+	 */
+	private String result(float f) {
+		lastValue = f;
+		return last = formatter.format(f);
+	}
+}
@@ -7,18 +7,15 @@ import java.awt.GridBagLayout;
 import java.awt.event.*;
 import javax.swing.*;
 
-import java.util.Observable;
-import java.util.Observer;
-
 /**
  * This Class contains the GUI code for the calculator software. Additionally,
- * it is the Observer in the Observable-Observer pattern, which is a simplified
- * version of the MVC pattern.
+ * it is the view in a simplified version of the MVC pattern, subscribing to the
+ * calculator's EventBus.
  * 
  * @author Andrew Sand
  */
 @SuppressWarnings("deprecation")
-public class GUI implements Observer {
+public class GUI implements EventBus.Listener {
 	/**
 	 * A member variable storing the GUI JFrame
 	 */
@@ -29,38 +26,43 @@ public class GUI implements Observer {
 	 */
 	private JTextField l;
 
+	/**
+	 * A member variable storing the JLabel that previews the pending result
+	 */
+	private JLabel lp;
+
 	/**
 	 * Member variables for all of the GUI buttons
 	 */
 	private JButton B0, B1, B2, B3, B4, B5, B6, B7, B8, B9, Badd, Bsub, Bdivide, Bmult, Bdec, Bclear, Bequals, BSquare,
-			BSqrRoot, BMR, BMC, BMadd, BMsub, Bdel;
+			BSqrRoot, BMR, BMC, BMadd, BMsub, BMS, Bdel, BExp, BLn, BLog, BPow, BSin, BCos, BTan, BFact;
 
 	/**
 	 * Member variables that stores the JPanel containing the buttons and JTextField
 	 */
 	private JPanel p;
 
+	/**
+	 * Member variable that stores the list of past calculations, or null if the
+	 * calculator keeps no History
+	 */
+	private HistoryModel history;
+
+	/**
+	 * Member variable that stores the metrics the GUI's updates are measured
+	 * with, or null if they are not measured
+	 */
+	private Metrics metrics;
+
 	/**
 	 * A Method that initialised all of the GUI components. It prepares everything
 	 * so that the GUI can be displayed properly. Calling this Method is a
 	 * prerequisite to displaying the GUI.
 	 * 
-	 * @param calc - An instance of the Calculator Class. The Observable for this
-	 *             Observer
+	 * @param calc - An instance of the Calculator Class, the model for this view
 	 * @return true or false based on the initialisation success
 	 */
-	public boolean initialise(Observable calc) {
-		// Instantiate Swing GUI Objects
-		f = new JFrame("calculator");
-		p = new JPanel();
-		GridBagLayout layout = new GridBagLayout();
-		GridBagConstraints gbc = new GridBagConstraints();
-
-		// Set starting properties of GUI Objects
-		f.setLocationRelativeTo(null);
-		p.setLayout(layout);
-		gbc.fill = GridBagConstraints.HORIZONTAL;
-
+	public boolean initialise(Calculator calc) {
 		// Attempt to match system UI
 		try {
 			UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
@@ -70,12 +72,56 @@ public class GUI implements Observer {
 			return false;
 		}
 
+		// Create the buttons and text field
+		create_panel(calc);
+
+		// Instantiate the JFrame and set its starting properties
+		f = new JFrame("calculator");
+		f.setLocationRelativeTo(null);
+
+		// Add the panel to the JFrame
+		f.getContentPane().add(p, BorderLayout.CENTER);
+
+		// Add the list of past calculations beside the panel, if they are kept
+		if (calc.getHistory() != null) {
+			f.getContentPane().add(create_history(calc), BorderLayout.EAST);
+		}
+
+		// Set the Window size (Width, Height)
+		f.setSize(calc.getHistory() != null ? 700 : 450, 330);
+
+		// Initialisation successful
+		return true;
+	}
+
+	/**
+	 * A Method that creates the JPanel containing the buttons and JTextField, and
+	 * wires each button to the calculator's press(Command c) Method. It does not
+	 * create a window, so it also works in a headless environment, which the
+	 * benchmarks rely on.
+	 * 
+	 * @param calc - An instance of the Calculator Class, the model for this view
+	 */
+	void create_panel(Calculator calc) {
+		// Instantiate Swing GUI Objects
+		p = new JPanel();
+		GridBagLayout layout = new GridBagLayout();
+		GridBagConstraints gbc = new GridBagConstraints();
+
+		// Set starting properties of GUI Objects
+		p.setLayout(layout);
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+
 		// Instantiate the text field
 		l = new JTextField(16);
 
 		// Disable editability on the text field
 		l.setEditable(false);
 
+		// Instantiate the preview of the pending result, which is blank until there
+		// is one
+		lp = new JLabel(" ");
+
 		// Instantiate the number buttons
 		B0 = new JButton("0");
 		B1 = new JButton("1");
@@ -96,6 +142,16 @@ public class GUI implements Observer {
 		BSquare = new JButton("^");
 		BSqrRoot = new JButton("SR");
 
+		// Instantiate the scientific function buttons
+		BExp = new JButton("exp");
+		BLn = new JButton("ln");
+		BLog = new JButton("log");
+		BPow = new JButton("x^y");
+		BSin = new JButton("sin");
+		BCos = new JButton("cos");
+		BTan = new JButton("tan");
+		BFact = new JButton("n!");
+
 		// Instantiate miscellaneous buttons
 		Bclear = new JButton("C");
 		Bequals = new JButton("=");
@@ -107,39 +163,52 @@ public class GUI implements Observer {
 		BMC = new JButton("MC");
 		BMadd = new JButton("M+");
 		BMsub = new JButton("M-");
+		BMS = new JButton("M1");
 
-		// Add Event Listeners to all of the buttons
-		B0.addActionListener((ActionListener) calc);
-		B1.addActionListener((ActionListener) calc);
-		B2.addActionListener((ActionListener) calc);
-		B3.addActionListener((ActionListener) calc);
-		B4.addActionListener((ActionListener) calc);
-		B5.addActionListener((ActionListener) calc);
-		B6.addActionListener((ActionListener) calc);
-		B7.addActionListener((ActionListener) calc);
-		B8.addActionListener((ActionListener) calc);
-		B9.addActionListener((ActionListener) calc);
-		Badd.addActionListener((ActionListener) calc);
-		Bsub.addActionListener((ActionListener) calc);
-		Bdivide.addActionListener((ActionListener) calc);
-		Bmult.addActionListener((ActionListener) calc);
-		BSquare.addActionListener((ActionListener) calc);
-		BSqrRoot.addActionListener((ActionListener) calc);
-		Bclear.addActionListener((ActionListener) calc);
-		Bequals.addActionListener((ActionListener) calc);
-		Bdec.addActionListener((ActionListener) calc);
-		BMR.addActionListener((ActionListener) calc);
-		BMC.addActionListener((ActionListener) calc);
-		BMadd.addActionListener((ActionListener) calc);
-		BMsub.addActionListener((ActionListener) calc);
-		Bdel.addActionListener((ActionListener) calc);
+		// Add Event Listeners to all of the buttons, resolving each into its Command once
+		bind(B0, Command.ZERO, calc);
+		bind(B1, Command.ONE, calc);
+		bind(B2, Command.TWO, calc);
+		bind(B3, Command.THREE, calc);
+		bind(B4, Command.FOUR, calc);
+		bind(B5, Command.FIVE, calc);
+		bind(B6, Command.SIX, calc);
+		bind(B7, Command.SEVEN, calc);
+		bind(B8, Command.EIGHT, calc);
+		bind(B9, Command.NINE, calc);
+		bind(Badd, Command.ADD, calc);
+		bind(Bsub, Command.SUBTRACT, calc);
+		bind(Bdivide, Command.DIVIDE, calc);
+		bind(Bmult, Command.MULTIPLY, calc);
+		bind(BSquare, Command.SQUARE, calc);
+		bind(BSqrRoot, Command.SQUARE_ROOT, calc);
+		bind(Bclear, Command.CLEAR, calc);
+		bind(Bequals, Command.EQUALS, calc);
+		bind(Bdec, Command.DECIMAL, calc);
+		bind(BMR, Command.MEMORY_RECALL, calc);
+		bind(BMC, Command.MEMORY_CLEAR, calc);
+		bind(BMadd, Command.MEMORY_ADD, calc);
+		bind(BMsub, Command.MEMORY_SUBTRACT, calc);
+		bind(BMS, Command.MEMORY_SLOT, calc);
+		bind(Bdel, Command.DELETE, calc);
+		bind(BExp, Command.EXP, calc);
+		bind(BLn, Command.LN, calc);
+		bind(BLog, Command.LOG10, calc);
+		bind(BPow, Command.POWER, calc);
+		bind(BSin, Command.SIN, calc);
+		bind(BCos, Command.COS, calc);
+		bind(BTan, Command.TAN, calc);
+		bind(BFact, Command.FACTORIAL, calc);
 
 		// Add the elements to the panel
-		gbc.gridwidth = 4;
+		gbc.gridwidth = 3;
 		gbc.gridx = 0;
 		gbc.gridy = 0;
 		p.add(l, gbc);
 		gbc.gridwidth = 1;
+		gbc.gridx = 3;
+		gbc.gridy = 0;
+		p.add(BMS, gbc);
 		gbc.gridx = 0;
 		gbc.gridy = 1;
 		p.add(BSquare, gbc);
@@ -212,25 +281,109 @@ public class GUI implements Observer {
 		gbc.gridx = 3;
 		gbc.gridy = 6;
 		p.add(Bequals, gbc);
+		gbc.gridx = 0;
+		gbc.gridy = 7;
+		p.add(BExp, gbc);
+		gbc.gridx = 1;
+		gbc.gridy = 7;
+		p.add(BLn, gbc);
+		gbc.gridx = 2;
+		gbc.gridy = 7;
+		p.add(BLog, gbc);
+		gbc.gridx = 3;
+		gbc.gridy = 7;
+		p.add(BPow, gbc);
+		gbc.gridx = 0;
+		gbc.gridy = 8;
+		p.add(BSin, gbc);
+		gbc.gridx = 1;
+		gbc.gridy = 8;
+		p.add(BCos, gbc);
+		gbc.gridx = 2;
+		gbc.gridy = 8;
+		p.add(BTan, gbc);
+		gbc.gridx = 3;
+		gbc.gridy = 8;
+		p.add(BFact, gbc);
+		gbc.gridwidth = 4;
+		gbc.gridx = 0;
+		gbc.gridy = 9;
+		p.add(lp, gbc);
+		gbc.gridwidth = 1;
 
 		// Set the background colour
 		p.setBackground(Color.gray);
 
-		// Set the text field's text alignment to right
+		// Set the text field's and preview's text alignment to right
 		l.setHorizontalAlignment(SwingConstants.RIGHT);
+		lp.setHorizontalAlignment(SwingConstants.RIGHT);
+	}
 
-		// Add the panel to the JFrame
-		f.getContentPane().add(p, BorderLayout.CENTER);
+	/**
+	 * A Method that creates the list of the calculator's past calculations,
+	 * newest first. Double-clicking a calculation re-uses its result. The list
+	 * only formats the calculations that are scrolled into view, so it stays
+	 * quick however many the History keeps.
+	 * 
+	 * @param calc - An instance of the Calculator Class, which keeps a History
+	 * @return - the scrollable list
+	 */
+	JScrollPane create_history(Calculator calc) {
+		history = new HistoryModel(calc);
+		JList<String> lh = new JList<>(history);
 
-		// Set the Window size (Width, Height)
-		f.setSize(450, 250);
+		// Sizing every cell like this one, rather than measuring each calculation
+		lh.setPrototypeCellValue("-0.000000000000 * -0.00000 = -0.00000000");
+		lh.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
 
-		// Initialisation successful
-		return true;
+		// Re-using the result of the calculation double-clicked
+		lh.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				int i = lh.locationToIndex(e.getPoint());
+				if (e.getClickCount() == 2 && i >= 0) {
+					history.recall(i);
+				}
+			}
+		});
+		return new JScrollPane(lh);
+	}
+
+	/**
+	 * Helper Method that makes a button press the passed in Command on the
+	 * calculator, so the button's label never needs to be looked at again.
+	 * 
+	 * @param b    - the button to wire up
+	 * @param c    - the Command of the button
+	 * @param calc - the calculator that handles the button press
+	 */
+	private void bind(JButton b, Command c, Calculator calc) {
+		b.addActionListener(e -> calc.press(c));
+	}
+
+	/**
+	 * Creates an ActionListener that resolves the label of each ActionEvent into a
+	 * Command and presses it on the passed in calculator. The GUI's own buttons
+	 * press their Command directly, so this is only used by other ActionEvent
+	 * sources.
+	 * 
+	 * @param calc - the calculator that handles the button presses
+	 * @return - the ActionListener
+	 */
+	public static ActionListener actions(Calculator calc) {
+		return e -> {
+			// Getting the Command of the button pressed
+			Command c = Command.of(e.getActionCommand());
+
+			// Ignoring labels that are not buttons of the calculator
+			if (c != null) {
+				calc.press(c);
+			}
+		};
 	}
 
 	/**
-	 * Method to display the GUI. The initialise(Observable calc) Method must be
+	 * Method to display the GUI. The initialise(Calculator calc) Method must be
 	 * called before this.
 	 */
 	public void display() {
@@ -244,6 +397,7 @@ public class GUI implements Observer {
 	 * @param s - the String representing the button that was pressed
 	 */
 	public void set_button(String s) {
+		long start = metrics == null ? 0 : System.nanoTime();
 		// Reset all of the button text colours to black
 		this.reset_buttons();
 		// Test which button was pressed and set its text colour to red (selected)
@@ -266,6 +420,33 @@ public class GUI implements Observer {
 		case "SR":
 			BSqrRoot.setForeground(Color.red);
 			break;
+		case "exp":
+			BExp.setForeground(Color.red);
+			break;
+		case "ln":
+			BLn.setForeground(Color.red);
+			break;
+		case "log":
+			BLog.setForeground(Color.red);
+			break;
+		case "x^y":
+			BPow.setForeground(Color.red);
+			break;
+		case "sin":
+			BSin.setForeground(Color.red);
+			break;
+		case "cos":
+			BCos.setForeground(Color.red);
+			break;
+		case "tan":
+			BTan.setForeground(Color.red);
+			break;
+		case "n!":
+			BFact.setForeground(Color.red);
+			break;
+		}
+		if (metrics != null) {
+			metrics.set_button(System.nanoTime() - start);
 		}
 	}
 
@@ -273,23 +454,187 @@ public class GUI implements Observer {
 	 * A Method that resets all of the button's text colours to black
 	 */
 	public void reset_buttons() {
+		long start = metrics == null ? 0 : System.nanoTime();
 		Badd.setForeground(Color.black);
 		Bsub.setForeground(Color.black);
 		Bmult.setForeground(Color.black);
 		Bdivide.setForeground(Color.black);
 		BSquare.setForeground(Color.black);
 		BSqrRoot.setForeground(Color.black);
+		BExp.setForeground(Color.black);
+		BLn.setForeground(Color.black);
+		BLog.setForeground(Color.black);
+		BPow.setForeground(Color.black);
+		BSin.setForeground(Color.black);
+		BCos.setForeground(Color.black);
+		BTan.setForeground(Color.black);
+		BFact.setForeground(Color.black);
+		if (metrics != null) {
+			metrics.reset_buttons(System.nanoTime() - start);
+		}
 	}
 
 	/**
-	 * Override Method required by the Observer Interface. This Method will be
-	 * called every time the Observed Calculator instance calls its
-	 * notifyObservers() Method. It updates what is displayed in the JTextField,
-	 * which acts as the calculator's screen.
+	 * Override Method required by the EventBus.Listener Interface. This Method is
+	 * called on the Swing event dispatch thread with the latest display of the
+	 * Calculator, any older ones having been coalesced. It updates what is
+	 * displayed in the JTextField, which acts as the calculator's screen, the
+	 * selected operator button, the active memory slot, which is shown on the
+	 * button that selects the next one, the preview of the pending result below
+	 * the buttons, and the list of past calculations. If metrics are on, the time
+	 * taken is recorded.
 	 */
 	@Override
-	public void update(Observable o, Object arg) {
-		// Set the text field to the observed value
-		l.setText((String) arg);
+	public void displayed(DisplayEvent e) {
+		long start = metrics == null ? 0 : System.nanoTime();
+		// Set the text field to the published value
+		l.setText(e.text());
+		BMS.setText(e.memory());
+		lp.setText(e.preview().isEmpty() ? " " : "= " + e.preview());
+
+		// Show any calculations added to the History
+		if (history != null) {
+			history.refresh();
+		}
+
+		// Show the selected operator
+		if (e.selected() != null) {
+			this.set_button(e.selected().symbol());
+		} else {
+			this.reset_buttons();
+		}
+		if (metrics != null) {
+			metrics.update(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * @return - the metrics the GUI's updates are measured with, or null if they
+	 *         are not measured
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Turns measuring of the GUI's updates on the event dispatch thread on or
+	 * off.
+	 * 
+	 * @param metrics - the metrics to record to, or null to stop measuring
+	 */
+	public void setMetrics(Metrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * This Class is the ListModel of the list of past calculations. It reads each
+	 * calculation from the History when the list asks for it, so nothing is
+	 * copied onto the heap, and only tells the list about the calculations added
+	 * since it last looked.
+	 */
+	private static class HistoryModel extends AbstractListModel<String> {
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Member variables that store the calculator and the scratch Operand the
+		 * numbers are formatted into
+		 */
+		private final Calculator calc;
+		private final Operand scratch = new Operand(DecimalFormatter.MAX_LENGTH);
+
+		/**
+		 * Member variables that store the History's count and size when the list
+		 * last looked
+		 */
+		private long count;
+		private int size;
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param calc - the calculator, which keeps a History
+		 */
+		HistoryModel(Calculator calc) {
+			this.calc = calc;
+			this.refresh();
+		}
+
+		/**
+		 * Tells the list about the calculations added to the History, or that every
+		 * row has changed once the History has started replacing its oldest
+		 * calculations.
+		 */
+		void refresh() {
+			History h = calc.getHistory();
+			long added = h.count() - count;
+			int old = size;
+			count = h.count();
+			size = h.size();
+			if (size < old) {
+				fireIntervalRemoved(this, size, old - 1);
+			} else if (size > old) {
+				fireIntervalAdded(this, 0, size - old - 1);
+			}
+			if (added != size - old && size > 0) {
+				fireContentsChanged(this, 0, size - 1);
+			}
+		}
+
+		/**
+		 * Re-uses the result of a calculation in the list.
+		 * 
+		 * @param index - the row of the calculation
+		 */
+		void recall(int index) {
+			long n = count - 1 - index;
+			if (n >= calc.getHistory().oldest()) {
+				calc.recall(n);
+			}
+		}
+
+		@Override
+		public int getSize() {
+			return size;
+		}
+
+		/**
+		 * Formats a calculation as "a op b = r", or "op(a) = r" for unary
+		 * operators.
+		 */
+		@Override
+		public String getElementAt(int index) {
+			// Variable declaration
+			History h = calc.getHistory();
+			long n = count - 1 - index;
+			Operator op = h.operator(n);
+			StringBuilder sb = new StringBuilder(48);
+
+			// Writing out the calculation
+			if (op.isUnary()) {
+				sb.append(op.symbol()).append('(').append(this.format(h.first(n))).append(')');
+			} else {
+				sb.append(this.format(h.first(n))).append(' ').append(op.symbol()).append(' ')
+						.append(this.format(h.second(n)));
+			}
+			// Writing out the result with every digit, if it was kept that way
+			sb.append(" = ");
+			String exact = h.exact(n);
+			if (exact != null && calc.getBackend().keeps_digits()) {
+				return sb.append(exact).toString();
+			}
+			return sb.append(this.format(h.result(n))).toString();
+		}
+
+		/**
+		 * Helper Method that formats a number the way the calculator's backend
+		 * formats its results.
+		 * 
+		 * @param value - the number
+		 * @return - the formatted number, in the scratch Operand
+		 */
+		private CharSequence format(double value) {
+			calc.getBackend().format(value, scratch);
+			return scratch;
+		}
 	}
 }
@@ -0,0 +1,407 @@
+package calculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This Class is the calculator's history of past calculations. It is a ring
+ * buffer of fixed-width records kept off the heap, in a direct ByteBuffer or
+ * a memory-mapped file, so that millions of calculations can be kept and
+ * searched without creating an Object for any of them or adding to the work
+ * of the garbage collector. Once the history is full, each new calculation
+ * replaces the oldest one.
+ * 
+ * Every calculation is numbered in the order it was added, starting from 0,
+ * and is read back by its number while it is still kept. The file starts
+ * with a header of 32 bytes, [int magic][int record size][long capacity]
+ * [long count][long unused], followed by one record of 32 bytes for each
+ * calculation that can be kept:
+ * 
+ * <pre>
+ *  0  double  the first number
+ *  8  double  the second number, or NaN for unary operators
+ * 16  double  the result
+ * 24  long    the time in milliseconds since the epoch, shifted left by 8
+ *             bits, with the ordinal of the Operator in the low 8 bits
+ * </pre>
+ * 
+ * A history kept in a file survives restarts, so long-running sessions can
+ * keep more calculations than fit comfortably in memory. Results with more
+ * digits than a double holds can also be added as they are shown, which are
+ * kept on the heap alongside the records and are not written to the file. The history is not
+ * thread safe, and is read and written by the thread pressing the buttons.
+ * 
+ * @author Andrew Sand
+ */
+public final class History implements Closeable {
+	/**
+	 * The number of calculations kept by a history held in memory
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * The size in bytes of the header and of each record, and the first bytes of
+	 * a history file, "CHIS"
+	 */
+	static final int HEADER = 32, RECORD = 32, MAGIC = 0x43484953;
+
+	/**
+	 * The offsets of the fields of the header and of a record
+	 */
+	private static final int CAPACITY = 8, COUNT = 16, FIRST = 0, SECOND = 8, RESULT = 16, PACKED = 24;
+
+	/**
+	 * The Operators, indexed by the low 8 bits of a record's last field
+	 */
+	private static final Operator[] OPERATORS = Operator.values();
+
+	/**
+	 * Member variables that store the header and records, and the most
+	 * calculations that are kept
+	 */
+	private final ByteBuffer buffer;
+	private final int capacity;
+
+	/**
+	 * Member variable that stores the number of calculations ever added, which
+	 * is also the number the next one is given
+	 */
+	private long count;
+
+	/**
+	 * Member variable that maps the numbers of the calculations kept whose
+	 * results were added as they are shown to those results
+	 */
+	private final Map<Long, String> exact = new HashMap<>();
+
+	/**
+	 * A custom Constructor Method for the Class that keeps the history in a
+	 * direct ByteBuffer.
+	 * 
+	 * @param capacity - the most calculations that are kept
+	 */
+	public History(int capacity) {
+		this(ByteBuffer.allocateDirect(size(capacity)), capacity);
+		write_header();
+	}
+
+	/**
+	 * A private Constructor Method used by the others and by open(...).
+	 * 
+	 * @param buffer   - the buffer holding the header and records
+	 * @param capacity - the most calculations that are kept
+	 */
+	private History(ByteBuffer buffer, int capacity) {
+		this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Opens a history kept in a memory-mapped file, creating the file if it does
+	 * not exist. An existing file keeps the calculations it holds and the
+	 * capacity it was created with.
+	 * 
+	 * @param file     - the history file
+	 * @param capacity - the most calculations that are kept, if the file is
+	 *                 created
+	 * @return - the History
+	 * @throws IOException if the file cannot be opened or is not a history file
+	 */
+	public static History open(Path file, int capacity) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// Creating the file
+			if (channel.size() == 0) {
+				History h = new History(channel.map(FileChannel.MapMode.READ_WRITE, 0, size(capacity)), capacity);
+				h.write_header();
+				return h;
+			}
+
+			// Checking the header of an existing file
+			ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+				// Reading until the header is full or the file ends
+			}
+			long cap = header.getLong(CAPACITY), count = header.getLong(COUNT);
+			if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != RECORD || cap <= 0
+					|| cap > (Integer.MAX_VALUE - HEADER) / RECORD || count < 0
+					|| channel.size() != size((int) cap)) {
+				throw new IOException(file + " is not a history file");
+			}
+			History h = new History(channel.map(FileChannel.MapMode.READ_WRITE, 0, size((int) cap)), (int) cap);
+			h.count = count;
+			return h;
+		}
+	}
+
+	/**
+	 * Adds a calculation, replacing the oldest one if the history is full.
+	 * 
+	 * @param op     - the operator
+	 * @param first  - the first number
+	 * @param second - the second number, or NaN for unary operators
+	 * @param result - the result
+	 * @return - the number of the calculation
+	 */
+	public long append(Operator op, double first, double second, double result) {
+		return append(op, first, second, result, System.currentTimeMillis());
+	}
+
+	/**
+	 * Adds a calculation whose result has more digits than a double holds,
+	 * keeping the result as it is shown, replacing the oldest one if the history
+	 * is full.
+	 * 
+	 * @param op     - the operator
+	 * @param first  - the first number
+	 * @param second - the second number, or NaN for unary operators
+	 * @param result - the result
+	 * @param exact  - the result as it is shown
+	 * @return - the number of the calculation
+	 */
+	public long append(Operator op, double first, double second, double result, String exact) {
+		long n = append(op, first, second, result);
+		this.exact.put(n, exact);
+		return n;
+	}
+
+	/**
+	 * Adds a calculation made at the passed in time, replacing the oldest one if
+	 * the history is full.
+	 * 
+	 * @param op     - the operator
+	 * @param first  - the first number
+	 * @param second - the second number, or NaN for unary operators
+	 * @param result - the result
+	 * @param time   - the time in milliseconds since the epoch
+	 * @return - the number of the calculation
+	 */
+	long append(Operator op, double first, double second, double result, long time) {
+		int off = offset(count);
+		if (!exact.isEmpty()) {
+			exact.remove(count - capacity);
+		}
+		buffer.putDouble(off + FIRST, first);
+		buffer.putDouble(off + SECOND, second);
+		buffer.putDouble(off + RESULT, result);
+		buffer.putLong(off + PACKED, time << 8 | op.ordinal());
+		// Counting the record only once it is written
+		buffer.putLong(COUNT, count + 1);
+		return count++;
+	}
+
+	/**
+	 * @return - the most calculations that are kept
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return - the number of calculations ever added, which is one more than
+	 *         the number of the newest
+	 */
+	public long count() {
+		return count;
+	}
+
+	/**
+	 * @return - the number of calculations kept
+	 */
+	public int size() {
+		return (int) Math.min(count, capacity);
+	}
+
+	/**
+	 * @return - the number of the oldest calculation kept
+	 */
+	public long oldest() {
+		return count - size();
+	}
+
+	/**
+	 * @param n - the number of a calculation that is kept
+	 * @return - the operator of the calculation
+	 */
+	public Operator operator(long n) {
+		return OPERATORS[(int) (buffer.getLong(check(n) + PACKED) & 0xFF)];
+	}
+
+	/**
+	 * @param n - the number of a calculation that is kept
+	 * @return - the first number of the calculation
+	 */
+	public double first(long n) {
+		return buffer.getDouble(check(n) + FIRST);
+	}
+
+	/**
+	 * @param n - the number of a calculation that is kept
+	 * @return - the second number of the calculation, or NaN for unary operators
+	 */
+	public double second(long n) {
+		return buffer.getDouble(check(n) + SECOND);
+	}
+
+	/**
+	 * @param n - the number of a calculation that is kept
+	 * @return - the result of the calculation
+	 */
+	public double result(long n) {
+		return buffer.getDouble(check(n) + RESULT);
+	}
+
+	/**
+	 * @param n - the number of a calculation that is kept
+	 * @return - the result of the calculation as it is shown, or null if the
+	 *         double returned by result(long n) is the result
+	 */
+	public String exact(long n) {
+		check(n);
+		return exact.isEmpty() ? null : exact.get(n);
+	}
+
+	/**
+	 * @param n - the number of a calculation that is kept
+	 * @return - the time the calculation was made, in milliseconds since the
+	 *         epoch
+	 */
+	public long time(long n) {
+		return buffer.getLong(check(n) + PACKED) >> 8;
+	}
+
+	/**
+	 * Finds the calculations with an operator and a result in a range, newest
+	 * first. Further matches are found by passing the number of the last one
+	 * found as before, so any number of matches can be paged through with the
+	 * same array.
+	 * 
+	 * @param op     - the operator, or null for any operator
+	 * @param min    - the smallest result
+	 * @param max    - the largest result
+	 * @param before - the number after the newest calculation to look at, such
+	 *               as count()
+	 * @param found  - the array the numbers of the matches are written into
+	 * @return - the number of matches written, which is less than the length of
+	 *         the array only once every calculation has been looked at
+	 */
+	public int search(Operator op, double min, double max, long before, long[] found) {
+		// Variable declaration, -1 matches any operator
+		int ordinal = op == null ? -1 : op.ordinal();
+		int n = 0;
+
+		// Looking at each record from the newest to the oldest
+		long oldest = oldest();
+		for (long i = Math.min(before, count) - 1; i >= oldest && n < found.length; i--) {
+			int off = offset(i);
+			if (ordinal != -1 && (buffer.getLong(off + PACKED) & 0xFF) != ordinal) {
+				continue;
+			}
+			double r = buffer.getDouble(off + RESULT);
+			if (r >= min && r <= max) {
+				found[n++] = i;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Counts the calculations with an operator and a result in a range.
+	 * 
+	 * @param op  - the operator, or null for any operator
+	 * @param min - the smallest result
+	 * @param max - the largest result
+	 * @return - the number of calculations that match
+	 */
+	public long count(Operator op, double min, double max) {
+		// Variable declaration, -1 matches any operator
+		int ordinal = op == null ? -1 : op.ordinal();
+		long n = 0;
+
+		// Looking at each record in the order they are stored
+		int end = HEADER + size() * RECORD;
+		for (int off = HEADER; off < end; off += RECORD) {
+			if (ordinal == -1 || (buffer.getLong(off + PACKED) & 0xFF) == ordinal) {
+				double r = buffer.getDouble(off + RESULT);
+				if (r >= min && r <= max) {
+					n++;
+				}
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Forgets every calculation.
+	 */
+	public void clear() {
+		count = 0;
+		buffer.putLong(COUNT, 0);
+		exact.clear();
+	}
+
+	/**
+	 * Writes the calculations of a history kept in a file out to the file. A
+	 * history kept in memory is simply left to the garbage collector.
+	 */
+	@Override
+	public void close() {
+		if (buffer instanceof MappedByteBuffer) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	/**
+	 * Helper Method that writes the header of a new history.
+	 */
+	private void write_header() {
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, RECORD);
+		buffer.putLong(CAPACITY, capacity);
+		buffer.putLong(COUNT, 0);
+	}
+
+	/**
+	 * Helper Method that finds the record of a calculation.
+	 * 
+	 * @param n - the number of the calculation
+	 * @return - the offset of its record
+	 */
+	private int offset(long n) {
+		return HEADER + (int) (n % capacity) * RECORD;
+	}
+
+	/**
+	 * Helper Method that checks that a calculation is kept.
+	 * 
+	 * @param n - the number of the calculation
+	 * @return - the offset of its record
+	 */
+	private int check(long n) {
+		if (n < oldest() || n >= count) {
+			throw new IndexOutOfBoundsException("Calculation " + n + ", kept " + oldest() + " to " + (count - 1));
+		}
+		return offset(n);
+	}
+
+	/**
+	 * Helper Method that works out the size of a history.
+	 * 
+	 * @param capacity - the most calculations that are kept
+	 * @return - the size in bytes of the header and records
+	 */
+	private static int size(int capacity) {
+		if (capacity <= 0 || capacity > (Integer.MAX_VALUE - HEADER) / RECORD) {
+			throw new IllegalArgumentException("A history can not keep " + capacity + " calculations");
+		}
+		return HEADER + capacity * RECORD;
+	}
+}
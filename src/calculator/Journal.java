@@ -0,0 +1,627 @@
+package calculator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * This Class persists the memory slots of each calculator session, so that M+
+ * and M- results survive a restart. Every change is appended to a journal in a
+ * compact binary format, and a snapshot of every memory is written after
+ * a number of changes, so that opening the journal only replays the changes
+ * made since the last snapshot.
+ * 
+ * Changes are made durable by one writer thread using group commit: all of the
+ * changes appended while it was writing and syncing the last batch are written
+ * as one frame and synced with a single call to force. Callers do not wait for
+ * their change to be written unless they call sync(). Each frame carries its
+ * length and a CRC32C checksum, so a frame torn by a crash is found and cut
+ * off when the journal is opened again. Snapshots are written to a temporary
+ * file that is synced and then renamed, so there is always one complete
+ * snapshot to start from.
+ * 
+ * The files of generation g are "snapshot-g.bin", the memories after every
+ * change in the journals before generation g, and "journal-g.log", the changes
+ * made after it.
+ * 
+ * @author Andrew Sand
+ */
+public final class Journal implements Closeable {
+	/**
+	 * The default number of changes between snapshots
+	 */
+	static final long SNAPSHOT_EVERY = 1 << 20;
+
+	/**
+	 * The size of the buffers changes are gathered in, which is also the largest
+	 * frame
+	 */
+	static final int BATCH = 1 << 20;
+
+	/**
+	 * The types of record: a memory slot of a session was set, or the session
+	 * was removed
+	 */
+	private static final byte SET = 1, REMOVE = 2;
+
+	/**
+	 * The first int of a snapshot file
+	 */
+	private static final int MAGIC = 0x43534e50;
+
+	/**
+	 * Member variables that store the directory of the files and the number of
+	 * changes between snapshots
+	 */
+	private final Path dir;
+	private final long every;
+
+	/**
+	 * Member variable that stores the memory slots of every session, as of the
+	 * last change appended. It is guarded by the lock.
+	 */
+	private final Map<Long, double[]> memory;
+
+	/**
+	 * Member variables that store the changes waiting to be written, and the
+	 * buffer the writer swaps with it. They are guarded by the lock.
+	 */
+	private ByteBuffer pending = ByteBuffer.allocate(BATCH), spare = ByteBuffer.allocate(BATCH);
+
+	/**
+	 * Member variables that store the number of changes appended, the number
+	 * written and synced, and the number of frames written. They are guarded by
+	 * the lock.
+	 */
+	private long appended, durable, commits;
+
+	/**
+	 * Member variables that store whether the journal is closing, and the error
+	 * that stopped the writer. They are guarded by the lock.
+	 */
+	private boolean closed;
+	private IOException failure;
+
+	/**
+	 * Member variables that store the current generation and its journal file,
+	 * which are only used by the writer once the journal is open
+	 */
+	private long generation;
+	private FileChannel channel;
+
+	/**
+	 * Member variable that stores the number of changes in the current journal
+	 * file
+	 */
+	private long since;
+
+	/**
+	 * Member variables that store the lock and the writer thread
+	 */
+	private final Object lock = new Object();
+	private final Thread writer;
+
+	/**
+	 * Private Constructor Method, journals are created by open(Path dir).
+	 * 
+	 * @param dir        - the directory of the files
+	 * @param every      - the number of changes between snapshots
+	 * @param memory     - the recovered memories
+	 * @param generation - the generation to append to
+	 * @param channel    - the journal file of the generation, positioned at its end
+	 * @param since      - the number of changes already in the journal file
+	 */
+	private Journal(Path dir, long every, Map<Long, double[]> memory, long generation, FileChannel channel, long since) {
+		this.dir = dir;
+		this.every = every;
+		this.memory = memory;
+		this.generation = generation;
+		this.channel = channel;
+		this.since = since;
+		writer = new Thread(this::write, "journal-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Opens the journal in a directory, creating it if it does not exist, with a
+	 * snapshot after every SNAPSHOT_EVERY changes.
+	 * 
+	 * @param dir - the directory of the files
+	 * @return - the Journal, holding the recovered memories
+	 * @throws IOException if the files cannot be read or written
+	 */
+	public static Journal open(Path dir) throws IOException {
+		return open(dir, SNAPSHOT_EVERY);
+	}
+
+	/**
+	 * Opens the journal in a directory, creating it if it does not exist. The
+	 * newest complete snapshot is loaded and the changes journaled after it are
+	 * replayed, stopping at the first torn or corrupted frame, which is cut off.
+	 * 
+	 * @param dir   - the directory of the files
+	 * @param every - the number of changes between snapshots
+	 * @return - the Journal, holding the recovered memories
+	 * @throws IOException if the files cannot be read or written
+	 */
+	public static Journal open(Path dir, long every) throws IOException {
+		Files.createDirectories(dir);
+
+		// Finding the files of each generation
+		TreeMap<Long, Path> snapshots = new TreeMap<>(Collections.reverseOrder()), journals = new TreeMap<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+			for (Path f : files) {
+				String name = f.getFileName().toString();
+				if (name.matches("snapshot-\\d+\\.bin")) {
+					snapshots.put(Long.parseLong(name.substring(9, name.length() - 4)), f);
+				} else if (name.matches("journal-\\d+\\.log")) {
+					journals.put(Long.parseLong(name.substring(8, name.length() - 4)), f);
+				}
+			}
+		}
+
+		// Loading the newest snapshot that is complete
+		Map<Long, double[]> memory = new HashMap<>();
+		long generation = 0;
+		for (Map.Entry<Long, Path> s : snapshots.entrySet()) {
+			if (load(s.getValue(), s.getKey(), memory)) {
+				generation = s.getKey();
+				break;
+			}
+			memory.clear();
+		}
+
+		// Replaying the journals from the snapshot on, cutting off the last one
+		// after its last complete frame
+		long since = 0;
+		for (Map.Entry<Long, Path> j : journals.tailMap(generation).entrySet()) {
+			long[] changes = new long[1];
+			long valid = replay(j.getValue(), memory, changes);
+			since = changes[0];
+			generation = j.getKey();
+			if (valid < Files.size(j.getValue())) {
+				try (FileChannel torn = FileChannel.open(j.getValue(), StandardOpenOption.WRITE)) {
+					torn.truncate(valid);
+					torn.force(true);
+				}
+				break;
+			}
+		}
+
+		// Appending to the journal of the newest generation
+		FileChannel channel = FileChannel.open(dir.resolve("journal-" + generation + ".log"), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		channel.position(channel.size());
+		return new Journal(dir, every, memory, generation, channel, since);
+	}
+
+	/**
+	 * Records that a memory slot of a session has been set.
+	 * 
+	 * @param session - the id of the session
+	 * @param slot    - the index of the slot
+	 * @param value   - the number in the slot
+	 */
+	public void memory(long session, int slot, double value) {
+		if (slot < 0) {
+			throw new IllegalArgumentException("Memory slot " + slot);
+		}
+		append(SET, session, slot, value);
+	}
+
+	/**
+	 * Records that a session has been closed, so its memory is forgotten.
+	 * 
+	 * @param session - the id of the session
+	 */
+	public void remove(long session) {
+		append(REMOVE, session, 0, 0);
+	}
+
+	/**
+	 * @param session - the id of the session
+	 * @return - a copy of the memory slots of the session, up to the last one
+	 *         set, or null if none have been set
+	 */
+	public double[] memory(long session) {
+		synchronized (lock) {
+			double[] m = memory.get(session);
+			return m == null ? null : m.clone();
+		}
+	}
+
+	/**
+	 * @return - a copy of the memory slots of every session
+	 */
+	public Map<Long, double[]> memories() {
+		synchronized (lock) {
+			return copy(memory);
+		}
+	}
+
+	/**
+	 * Waits until every change appended so far has been written and synced.
+	 * 
+	 * @throws IOException if the writer failed
+	 */
+	public void sync() throws IOException {
+		synchronized (lock) {
+			long target = appended;
+			while (durable < target && failure == null) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException();
+				}
+			}
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+
+	/**
+	 * @return - the number of changes appended
+	 */
+	public long appended() {
+		synchronized (lock) {
+			return appended;
+		}
+	}
+
+	/**
+	 * @return - the number of frames written, each synced once
+	 */
+	public long commits() {
+		synchronized (lock) {
+			return commits;
+		}
+	}
+
+	/**
+	 * Syncs the changes appended so far and stops the writer.
+	 */
+	@Override
+	public void close() throws IOException {
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} finally {
+			channel.close();
+		}
+		synchronized (lock) {
+			if (failure != null) {
+				throw failure;
+			}
+		}
+	}
+
+	/**
+	 * Helper Method that encodes a change into the pending buffer and applies it
+	 * to the memories, waiting for the writer if the buffer is full.
+	 * 
+	 * @param type    - the type of record
+	 * @param session - the id of the session
+	 * @param slot    - the index of the slot set
+	 * @param value   - the number in the slot set
+	 */
+	private void append(byte type, long session, int slot, double value) {
+		// The type, two varints and a double
+		int size = 1 + 10 + 5 + 8;
+		synchronized (lock) {
+			if (closed || failure != null) {
+				throw new IllegalStateException(closed ? "Journal closed" : "Journal failed", failure);
+			}
+			// Waiting for the writer to take the pending buffer when it is full
+			while (pending.remaining() < size && failure == null) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while journaling", e);
+				}
+			}
+			if (failure != null) {
+				throw new IllegalStateException("Journal failed", failure);
+			}
+
+			// Encoding the record
+			pending.put(type);
+			put_varint(pending, session);
+			if (type == SET) {
+				put_varint(pending, slot);
+				pending.putDouble(value);
+				set(memory, session, slot, value);
+			} else {
+				memory.remove(session);
+			}
+			appended++;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * The body of the writer thread, which writes and syncs the pending changes
+	 * as one frame whenever there are any, and writes a snapshot every so often.
+	 */
+	private void write() {
+		ByteBuffer header = ByteBuffer.allocate(8);
+		CRC32C crc = new CRC32C();
+		while (true) {
+			// Waiting for changes and taking them all
+			ByteBuffer batch;
+			long target, count;
+			Map<Long, double[]> snapshot = null;
+			synchronized (lock) {
+				while (pending.position() == 0 && !closed) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						// Only closing stops the writer
+					}
+				}
+				if (pending.position() == 0) {
+					return;
+				}
+				batch = pending;
+				pending = spare;
+				spare = batch;
+				count = appended - durable;
+				target = appended;
+				lock.notifyAll();
+
+				// Copying the memories when a snapshot is due, which then match the
+				// end of this frame
+				if (since + count >= every && !closed) {
+					snapshot = copy(memory);
+				}
+			}
+
+			try {
+				// Writing the frame and syncing it
+				batch.flip();
+				crc.reset();
+				crc.update(batch.duplicate());
+				header.clear();
+				header.putInt(batch.remaining()).putInt((int) crc.getValue()).flip();
+				while (header.hasRemaining() || batch.hasRemaining()) {
+					channel.write(new ByteBuffer[] { header, batch });
+				}
+				channel.force(false);
+				batch.clear();
+				since += count;
+
+				// Starting the next generation with a snapshot
+				if (snapshot != null) {
+					snapshot(snapshot);
+				}
+			} catch (IOException e) {
+				synchronized (lock) {
+					failure = e;
+					lock.notifyAll();
+				}
+				return;
+			}
+
+			// Waking up the callers waiting for the changes to be synced
+			synchronized (lock) {
+				durable = target;
+				commits++;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Helper Method that writes a snapshot starting the next generation, then
+	 * switches to its journal file and deletes the files of the older
+	 * generations.
+	 * 
+	 * @param snapshot - the memories after every change written so far
+	 */
+	private void snapshot(Map<Long, double[]> snapshot) throws IOException {
+		long next = generation + 1;
+		Path tmp = dir.resolve("snapshot-" + next + ".tmp");
+		try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			CheckedOutputStream checked = new CheckedOutputStream(
+					new BufferedOutputStream(Channels.newOutputStream(out), 1 << 16), new CRC32C());
+			DataOutputStream data = new DataOutputStream(checked);
+			data.writeInt(MAGIC);
+			data.writeLong(next);
+			data.writeInt(snapshot.size());
+			for (Map.Entry<Long, double[]> e : snapshot.entrySet()) {
+				data.writeLong(e.getKey());
+				data.writeInt(e.getValue().length);
+				for (double v : e.getValue()) {
+					data.writeDouble(v);
+				}
+			}
+			data.writeInt((int) checked.getChecksum().getValue());
+			data.flush();
+			out.force(true);
+		}
+		Files.move(tmp, dir.resolve("snapshot-" + next + ".bin"), StandardCopyOption.ATOMIC_MOVE);
+
+		// Switching to the journal of the new generation
+		channel.close();
+		channel = FileChannel.open(dir.resolve("journal-" + next + ".log"), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		Files.deleteIfExists(dir.resolve("journal-" + generation + ".log"));
+		Files.deleteIfExists(dir.resolve("snapshot-" + generation + ".bin"));
+		generation = next;
+		since = 0;
+	}
+
+	/**
+	 * Helper Method that loads a snapshot, checking that it is complete.
+	 * 
+	 * @param file       - the snapshot file
+	 * @param generation - the generation in its name
+	 * @param memory     - the map to load the memories into
+	 * @return - true if the snapshot was complete
+	 */
+	private static boolean load(Path file, long generation, Map<Long, double[]> memory) throws IOException {
+		CRC32C crc = new CRC32C();
+		try (DataInputStream in = new DataInputStream(
+				new CheckedInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16), crc))) {
+			if (in.readInt() != MAGIC || in.readLong() != generation) {
+				return false;
+			}
+			int n = in.readInt();
+			for (int i = 0; i < n; i++) {
+				long session = in.readLong();
+				double[] slots = new double[in.readInt()];
+				for (int j = 0; j < slots.length; j++) {
+					slots[j] = in.readDouble();
+				}
+				memory.put(session, slots);
+			}
+			int expected = (int) crc.getValue();
+			return in.readInt() == expected;
+		} catch (EOFException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Helper Method that replays the frames of a journal file, stopping at the
+	 * first one that is torn or corrupted.
+	 * 
+	 * @param file    - the journal file
+	 * @param memory  - the map to apply the changes to
+	 * @param changes - an array whose first element is set to the number of
+	 *                changes replayed
+	 * @return - the length of the file up to the end of the last complete frame
+	 */
+	private static long replay(Path file, Map<Long, double[]> memory, long[] changes) throws IOException {
+		CRC32C crc = new CRC32C();
+		byte[] frame = new byte[BATCH];
+		long valid = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			while (true) {
+				// Reading and checking the frame
+				int length = in.readInt(), checksum = in.readInt();
+				if (length <= 0 || length > BATCH) {
+					return valid;
+				}
+				in.readFully(frame, 0, length);
+				crc.reset();
+				crc.update(frame, 0, length);
+				if ((int) crc.getValue() != checksum) {
+					return valid;
+				}
+
+				// Applying its records
+				ByteBuffer b = ByteBuffer.wrap(frame, 0, length);
+				while (b.hasRemaining()) {
+					byte type = b.get();
+					long session = get_varint(b);
+					if (type == SET) {
+						int slot = (int) get_varint(b);
+						set(memory, session, slot, b.getDouble());
+					} else {
+						memory.remove(session);
+					}
+					changes[0]++;
+				}
+				valid += 8 + length;
+			}
+		} catch (EOFException e) {
+			return valid;
+		}
+	}
+
+	/**
+	 * Helper Method that sets a memory slot of a session, growing its slots if
+	 * needed.
+	 * 
+	 * @param memory  - the memory slots of every session
+	 * @param session - the id of the session
+	 * @param slot    - the index of the slot
+	 * @param value   - the number in the slot
+	 */
+	private static void set(Map<Long, double[]> memory, long session, int slot, double value) {
+		double[] slots = memory.get(session);
+		if (slots == null || slots.length <= slot) {
+			slots = slots == null ? new double[slot + 1] : Arrays.copyOf(slots, slot + 1);
+			memory.put(session, slots);
+		}
+		slots[slot] = value;
+	}
+
+	/**
+	 * Helper Method that copies the memory slots of every session.
+	 * 
+	 * @param memory - the memory slots of every session
+	 * @return - the copy
+	 */
+	private static Map<Long, double[]> copy(Map<Long, double[]> memory) {
+		Map<Long, double[]> copy = new HashMap<>();
+		for (Map.Entry<Long, double[]> e : memory.entrySet()) {
+			copy.put(e.getKey(), e.getValue().clone());
+		}
+		return copy;
+	}
+
+	/**
+	 * Helper Method that writes a number as a variable length integer, seven
+	 * bits to a byte.
+	 * 
+	 * @param b - the buffer to write to
+	 * @param v - the number, which must not be negative
+	 */
+	private static void put_varint(ByteBuffer b, long v) {
+		while ((v & ~0x7FL) != 0) {
+			b.put((byte) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		b.put((byte) v);
+	}
+
+	/**
+	 * Helper Method that reads a variable length integer.
+	 * 
+	 * @param b - the buffer to read from
+	 * @return - the number
+	 */
+	private static long get_varint(ByteBuffer b) {
+		long v = 0;
+		for (int shift = 0;; shift += 7) {
+			byte x = b.get();
+			v |= (long) (x & 0x7F) << shift;
+			if (x >= 0) {
+				return v;
+			}
+		}
+	}
+}
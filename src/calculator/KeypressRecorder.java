@@ -0,0 +1,205 @@
+package calculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.MathContext;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This Class records the buttons pressed on a Calculator into a keypress log,
+ * so the session can be replayed later by a KeypressReplayer. As the
+ * Calculator is a state machine driven only by its button presses, replaying
+ * the log goes through exactly the same displays.
+ * 
+ * A log starts with a header of 11 bytes, [4 bytes "CKEY"][byte backend]
+ * [byte tier][int precision][byte rounding], naming the NumericBackend and
+ * Scientific.Tier of the calculator recorded: the backend is its index in
+ * BACKENDS, the tier is its ordinal, and the precision and rounding are those
+ * of the backend's MathContext, or 0 for backends without one. It is followed
+ * by one byte per press, the ordinal of its Command. Recalling a calculation from the History is written as the byte
+ * RECALL followed by the 8 bytes of the number of the calculation. The presses
+ * are gathered in a buffer and written to the file
+ * whenever it fills and when the recorder is closed.
+ * 
+ * Changing the backend or tier of the calculator while it is recorded is not
+ * recorded. A recorder is used by the thread pressing the buttons, such as the Swing
+ * event dispatch thread, so it is not thread safe.
+ * 
+ * @author Andrew Sand
+ */
+public final class KeypressRecorder implements Closeable {
+	/**
+	 * The first bytes of every keypress log
+	 */
+	static final byte[] MAGIC = { 'C', 'K', 'E', 'Y' };
+
+	/**
+	 * The size in bytes of the header of a log
+	 */
+	static final int HEADER = MAGIC.length + 7;
+
+	/**
+	 * The backends that can be recorded, indexed by the byte of the header
+	 */
+	static final Class<?>[] BACKENDS = { FloatBackend.class, DoubleBackend.class, BigDecimalBackend.class,
+			RationalBackend.class, PreciseBackend.class };
+
+	/**
+	 * The byte of a recall from the History, which no Command's ordinal reaches
+	 */
+	static final byte RECALL = -1;
+
+	/**
+	 * Member variables that store the file being written and the presses not yet
+	 * written to it
+	 */
+	private final FileChannel channel;
+	private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+	/**
+	 * Member variables that store the number of presses recorded, and the error
+	 * that stopped the recording
+	 */
+	private long presses;
+	private IOException failure;
+
+	/**
+	 * A custom Constructor Method for the Class, which replaces the file with a
+	 * new log of a calculator with the FloatBackend and the EXACT tier.
+	 * 
+	 * @param file - the file to record into
+	 * @throws IOException if the file cannot be created
+	 */
+	public KeypressRecorder(Path file) throws IOException {
+		this(file, new FloatBackend(), Scientific.Tier.EXACT);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class, which replaces the file with a
+	 * new log.
+	 * 
+	 * @param file    - the file to record into
+	 * @param backend - the NumericBackend of the calculator recorded
+	 * @param tier    - the tier of the calculator's scientific functions
+	 * @throws IOException              if the file cannot be created
+	 * @throws IllegalArgumentException if the backend is not one of BACKENDS
+	 */
+	public KeypressRecorder(Path file, NumericBackend backend, Scientific.Tier tier) throws IOException {
+		// Finding the backend and its MathContext before the file is replaced
+		int kind = 0;
+		while (kind < BACKENDS.length && BACKENDS[kind] != backend.getClass()) {
+			kind++;
+		}
+		if (kind == BACKENDS.length) {
+			throw new IllegalArgumentException(backend.getClass().getName() + " can not be recorded");
+		}
+		MathContext mc = context(backend);
+
+		// Writing the header
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		buffer.put(MAGIC).put((byte) kind).put((byte) tier.ordinal());
+		buffer.putInt(mc == null ? 0 : mc.getPrecision()).put((byte) (mc == null ? 0 : mc.getRoundingMode().ordinal()));
+	}
+
+	/**
+	 * Records a button press. If the log cannot be written, recording stops and
+	 * the error is thrown by close().
+	 * 
+	 * @param c - the Command of the button pressed
+	 */
+	public void record(Command c) {
+		if (failure != null) {
+			return;
+		}
+		buffer.put((byte) c.ordinal());
+		presses++;
+		if (!buffer.hasRemaining()) {
+			try {
+				flush();
+			} catch (IOException e) {
+				failure = e;
+			}
+		}
+	}
+
+	/**
+	 * Records a calculation being recalled from the History. If the log cannot
+	 * be written, recording stops and the error is thrown by close().
+	 * 
+	 * @param n - the number of the calculation
+	 */
+	public void record_recall(long n) {
+		if (failure != null) {
+			return;
+		}
+		// Making room for the number, so it is never split between writes
+		if (buffer.remaining() < 1 + Long.BYTES) {
+			try {
+				flush();
+			} catch (IOException e) {
+				failure = e;
+				return;
+			}
+		}
+		buffer.put(RECALL).putLong(n);
+		presses++;
+	}
+
+	/**
+	 * @return - the number of presses recorded
+	 */
+	public long presses() {
+		return presses;
+	}
+
+	/**
+	 * Writes the presses recorded so far to the file.
+	 * 
+	 * @throws IOException if the file cannot be written
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Writes the remaining presses and closes the file.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (failure == null) {
+				flush();
+			}
+		} finally {
+			channel.close();
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Helper Method that finds the MathContext of a backend.
+	 * 
+	 * @param backend - the backend
+	 * @return - its MathContext, or null if it has none
+	 */
+	private static MathContext context(NumericBackend backend) {
+		if (backend instanceof BigDecimalBackend) {
+			return ((BigDecimalBackend) backend).context();
+		} else if (backend instanceof RationalBackend) {
+			return ((RationalBackend) backend).context();
+		} else if (backend instanceof PreciseBackend) {
+			return ((PreciseBackend) backend).context();
+		}
+		return null;
+	}
+}
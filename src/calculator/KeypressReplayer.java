@@ -0,0 +1,268 @@
+package calculator;
+
+import java.io.IOException;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This Class replays a keypress log written by a KeypressRecorder on headless
+ * Calculators, as fast as they can take the presses. It is used as a
+ * regression harness, replaying recorded sessions on two calculators (such as
+ * ones with different backends, or the same calculator before and after a
+ * change) and finding the first press after which their displays differ, and
+ * as a load generator.
+ * 
+ * The header of the log names the backend and tier of the calculator that was
+ * recorded, and calculator() creates a new one like it to replay on.
+ * 
+ * The log is memory-mapped and checked once when it is opened, after which a
+ * replay only reads one byte and calls press(Command c) for each press.
+ * Recalls from the History are replayed with recall(long n), so the
+ * calculators replayed on need a History holding the same calculations as
+ * the recorded one had, such as a new one when the recording began with one.
+ * 
+ * @author Andrew Sand
+ */
+public final class KeypressReplayer {
+	/**
+	 * The Commands, indexed by the bytes of a log
+	 */
+	private static final Command[] COMMANDS = Command.values();
+
+	/**
+	 * The tiers and rounding modes, indexed by the bytes of a header
+	 */
+	private static final Scientific.Tier[] TIERS = Scientific.Tier.values();
+	private static final RoundingMode[] ROUNDINGS = RoundingMode.values();
+
+	/**
+	 * Member variable that stores the presses, without the header of the log
+	 */
+	private final ByteBuffer presses;
+
+	/**
+	 * Member variables that store the backend recorded, as its index in
+	 * KeypressRecorder.BACKENDS, the precision and rounding of its MathContext,
+	 * and the tier of its scientific functions
+	 */
+	private final int backend, precision;
+	private final RoundingMode rounding;
+	private final Scientific.Tier tier;
+
+	/**
+	 * Member variables that store the number of presses, and where each press
+	 * starts in the log, or null if every press is one byte
+	 */
+	private final int size;
+	private final int[] offsets;
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param log - a buffer holding a whole keypress log, from its position to
+	 *            its limit
+	 * @throws IllegalArgumentException if the buffer does not hold a keypress log
+	 */
+	public KeypressReplayer(ByteBuffer log) {
+		// Checking the header
+		ByteBuffer b = log.duplicate();
+		for (byte m : KeypressRecorder.MAGIC) {
+			if (!b.hasRemaining() || b.get() != m) {
+				throw new IllegalArgumentException("Not a keypress log");
+			}
+		}
+		if (b.remaining() < KeypressRecorder.HEADER - KeypressRecorder.MAGIC.length) {
+			throw new IllegalArgumentException("Incomplete keypress log header");
+		}
+		backend = b.get();
+		int t = b.get();
+		precision = b.getInt();
+		int r = b.get();
+		if (backend < 0 || backend >= KeypressRecorder.BACKENDS.length || t < 0 || t >= TIERS.length
+				|| precision < 0 || r < 0 || r >= ROUNDINGS.length) {
+			throw new IllegalArgumentException("Unknown calculator in keypress log header");
+		}
+		tier = TIERS[t];
+		rounding = ROUNDINGS[r];
+		presses = b.slice();
+
+		// Checking every press, and counting them
+		int n = 0;
+		boolean recalls = false;
+		for (int i = 0; i < presses.limit(); i += length(presses, i), n++) {
+			int c = presses.get(i);
+			if (c == KeypressRecorder.RECALL) {
+				recalls = true;
+				if (i + 1 + Long.BYTES > presses.limit()) {
+					throw new IllegalArgumentException("Incomplete recall at press " + n);
+				}
+			} else if (c < 0 || c >= COMMANDS.length) {
+				throw new IllegalArgumentException("Unknown button " + c + " at press " + n);
+			}
+		}
+		size = n;
+
+		// Finding where each press starts, only when they are not all one byte
+		if (recalls) {
+			offsets = new int[n];
+			for (int i = 0, p = 0; i < n; p += length(presses, p), i++) {
+				offsets[i] = p;
+			}
+		} else {
+			offsets = null;
+		}
+	}
+
+	/**
+	 * Opens a keypress log file, mapping it into memory.
+	 * 
+	 * @param file - the log file
+	 * @return - the KeypressReplayer of the log
+	 * @throws IOException if the file cannot be read
+	 */
+	public static KeypressReplayer open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return new KeypressReplayer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/**
+	 * Creates a calculator like the one that was recorded, with its backend and
+	 * the tier of its scientific functions.
+	 * 
+	 * @return - the new Calculator
+	 */
+	public Calculator calculator() {
+		MathContext mc = new MathContext(precision, rounding);
+		Class<?> c = KeypressRecorder.BACKENDS[backend];
+		NumericBackend b;
+		if (c == DoubleBackend.class) {
+			b = new DoubleBackend();
+		} else if (c == BigDecimalBackend.class) {
+			b = new BigDecimalBackend(mc);
+		} else if (c == RationalBackend.class) {
+			b = new RationalBackend(mc);
+		} else if (c == PreciseBackend.class) {
+			b = new PreciseBackend(mc);
+		} else {
+			b = new FloatBackend();
+		}
+		Calculator calc = new Calculator(b);
+		calc.setTier(tier);
+		return calc;
+	}
+
+	/**
+	 * @return - the number of presses in the log
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i - the index of a press
+	 * @return - the Command of the press, or null if it recalls from the History
+	 */
+	public Command get(int i) {
+		int c = presses.get(offsets == null ? i : offsets[i]);
+		return c == KeypressRecorder.RECALL ? null : COMMANDS[c];
+	}
+
+	/**
+	 * Replays every press of the log on a calculator.
+	 * 
+	 * @param calc - the calculator to press the buttons of
+	 */
+	public void replay(Calculator calc) {
+		replay(calc, 0, size);
+	}
+
+	/**
+	 * Replays a range of the presses of the log on a calculator.
+	 * 
+	 * @param calc - the calculator to press the buttons of
+	 * @param from - the index of the first press
+	 * @param to   - the index after the last press
+	 */
+	public void replay(Calculator calc, int from, int to) {
+		if (offsets == null) {
+			for (int i = from; i < to; i++) {
+				calc.press(COMMANDS[presses.get(i)]);
+			}
+		} else {
+			for (int i = from; i < to; i++) {
+				press(calc, offsets[i]);
+			}
+		}
+	}
+
+	/**
+	 * Replays the log on two calculators side by side, comparing their displays
+	 * after every press.
+	 * 
+	 * @param expected - the calculator whose displays are expected
+	 * @param actual   - the calculator being checked
+	 * @return - the index of the first press after which the displays differ, or
+	 *         -1 if they never do
+	 */
+	public int diverges(Calculator expected, Calculator actual) {
+		for (int i = 0; i < size; i++) {
+			int p = offsets == null ? i : offsets[i];
+			press(expected, p);
+			press(actual, p);
+			if (!same(expected.shown(), actual.shown())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Helper Method that replays one press on a calculator.
+	 * 
+	 * @param calc   - the calculator
+	 * @param offset - where the press starts in the log
+	 */
+	private void press(Calculator calc, int offset) {
+		int c = presses.get(offset);
+		if (c == KeypressRecorder.RECALL) {
+			calc.recall(presses.getLong(offset + 1));
+		} else {
+			calc.press(COMMANDS[c]);
+		}
+	}
+
+	/**
+	 * Helper Method that finds the number of bytes of a press.
+	 * 
+	 * @param log    - the presses of a log
+	 * @param offset - where the press starts
+	 * @return - the number of bytes of the press
+	 */
+	private static int length(ByteBuffer log, int offset) {
+		return log.get(offset) == KeypressRecorder.RECALL ? 1 + Long.BYTES : 1;
+	}
+
+	/**
+	 * Helper Method that compares two displays without creating Strings of them.
+	 * 
+	 * @param a - the first display
+	 * @param b - the second display
+	 * @return - true if they hold the same chars
+	 */
+	private static boolean same(CharSequence a, CharSequence b) {
+		if (a.length() != b.length()) {
+			return false;
+		}
+		for (int i = 0; i < a.length(); i++) {
+			if (a.charAt(i) != b.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
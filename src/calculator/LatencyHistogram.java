@@ -0,0 +1,147 @@
+package calculator;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This Class counts how long something took, in nanoseconds, in a fixed amount
+ * of memory, like an HdrHistogram. Values below 64 have a bucket each, and
+ * every power of two above that is split into 32 buckets, so every value is
+ * counted to within about 3% whatever its size. Values of a minute or more
+ * share the last buckets.
+ * 
+ * Values can be recorded from any number of threads without locking.
+ * 
+ * @author Andrew Sand
+ */
+public final class LatencyHistogram {
+	/**
+	 * The number of bits of each value that pick its bucket within its power of
+	 * two, and the number of buckets in each power of two
+	 */
+	private static final int SUB_BITS = 5, SUB_BUCKETS = 1 << SUB_BITS;
+
+	/**
+	 * The largest value counted in its own bucket, about 68 seconds
+	 */
+	static final long MAX_VALUE = (1L << 36) - 1;
+
+	/**
+	 * Member variables that store the count of each bucket and the largest value
+	 * recorded
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(bucket(MAX_VALUE) + 1);
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Member variable that stores the sum of the values, the number of values
+	 * being the sum of the counts
+	 */
+	private final LongAdder sum = new LongAdder();
+
+	/**
+	 * Records a value.
+	 * 
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts.incrementAndGet(bucket(Math.min(nanos, MAX_VALUE)));
+		sum.add(nanos);
+		if (nanos > max.get()) {
+			max.accumulateAndGet(nanos, Math::max);
+		}
+	}
+
+	/**
+	 * @return - the number of values recorded
+	 */
+	public long count() {
+		long n = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			n += counts.get(i);
+		}
+		return n;
+	}
+
+	/**
+	 * @return - the mean of the values recorded in nanoseconds, or 0 if there are
+	 *         none
+	 */
+	public double mean() {
+		long n = count();
+		return n == 0 ? 0 : (double) sum.sum() / n;
+	}
+
+	/**
+	 * @return - the largest value recorded in nanoseconds
+	 */
+	public long max() {
+		return max.get();
+	}
+
+	/**
+	 * Finds the value that the passed in percentage of the values are at or
+	 * below, to within the size of its bucket.
+	 * 
+	 * @param percentile - the percentage, from 0 to 100
+	 * @return - the value in nanoseconds, or 0 if there are none
+	 */
+	public long percentile(double percentile) {
+		long n = count();
+		if (n == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highest(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Forgets every value recorded.
+	 */
+	public void reset() {
+		for (int i = 0; i < counts.length(); i++) {
+			counts.set(i, 0);
+		}
+		sum.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Helper Method that finds the bucket of a value.
+	 * 
+	 * @param v - the value, from 0 to MAX_VALUE
+	 * @return - the index of its bucket
+	 */
+	static int bucket(long v) {
+		if (v < 2 * SUB_BUCKETS) {
+			return (int) v;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((v >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * Helper Method that finds the largest value counted in a bucket.
+	 * 
+	 * @param i - the index of the bucket
+	 * @return - the largest value of the bucket
+	 */
+	static long highest(int i) {
+		if (i < 2 * SUB_BUCKETS) {
+			return i;
+		}
+		int shift = i / SUB_BUCKETS - 1;
+		return ((long) (SUB_BUCKETS + i % SUB_BUCKETS + 1) << shift) - 1;
+	}
+}
@@ -0,0 +1,164 @@
+package calculator;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This Class answers calculation requests held as ASCII bytes, such as a line
+ * read from a socket, without creating any Objects. A request is one of:
+ * 
+ * <pre>
+ * a + b, a - b, a * b, a / b
+ * a ^
+ * SR a
+ * </pre>
+ * 
+ * with the parts separated by spaces. The numbers are parsed by AsciiNumber and
+ * operated on with the Arithmetic kernels, exactly as the FloatBackend does, so
+ * each answer matches the String returned by the Calculator's Method of the
+ * same operation. Results too large for the Calculator to show are answered
+ * with "ERROR: OVERFLOW", as it displays them, and requests that cannot be
+ * understood are answered with "ERROR".
+ * 
+ * Instances reuse their buffers, so each one must only be used by one thread.
+ * 
+ * @author Andrew Sand
+ */
+final class LineEvaluator {
+	/**
+	 * The most bytes an answer takes, including its line break
+	 */
+	static final int MAX_ANSWER = DecimalFormatter.MAX_LENGTH + 1;
+
+	/**
+	 * The answer to a request that cannot be understood
+	 */
+	private static final byte[] ERROR = { 'E', 'R', 'R', 'O', 'R' };
+
+	/**
+	 * The answer to a request whose result is too large to show
+	 */
+	private static final byte[] OVERFLOW = { 'E', 'R', 'R', 'O', 'R', ':', ' ', 'O', 'V', 'E', 'R', 'F', 'L', 'O', 'W' };
+
+	/**
+	 * Member variables that store the formatter of results and the chars it
+	 * formats into
+	 */
+	private final DecimalFormatter formatter = new DecimalFormatter();
+	private final char[] chars = new char[DecimalFormatter.MAX_LENGTH];
+
+	/**
+	 * Member variable that stores where each part of the request starts and ends
+	 */
+	private final int[] parts = new int[6];
+
+	/**
+	 * Answers a request, writing the answer and a line break into the output
+	 * buffer.
+	 * 
+	 * @param in   - the buffer holding the request
+	 * @param from - the index of the first byte of the request
+	 * @param to   - the index after the last byte of the request, not including
+	 *             its line break
+	 * @param out  - the buffer to write the answer into, which needs room for
+	 *             MAX_ANSWER bytes
+	 */
+	void evaluate(ByteBuffer in, int from, int to, ByteBuffer out) {
+		// Ignoring a carriage return before the line break
+		if (to > from && in.get(to - 1) == '\r') {
+			to--;
+		}
+
+		// Splitting the request into its parts
+		int n = split(in, from, to);
+		float r;
+		try {
+			if (n == 3 && parts[3] - parts[2] == 1) {
+				// Binary operators
+				float a = AsciiNumber.parse_float(in, parts[0], parts[1]);
+				float b = AsciiNumber.parse_float(in, parts[4], parts[5]);
+				switch (in.get(parts[2])) {
+				case '+':
+					r = Arithmetic.add(a, b);
+					break;
+				case '-':
+					r = Arithmetic.subtract(a, b);
+					break;
+				case '*':
+					r = Arithmetic.multiply(a, b);
+					break;
+				case '/':
+					r = Arithmetic.divide(a, b);
+					break;
+				default:
+					error(out);
+					return;
+				}
+			} else if (n == 2 && parts[3] - parts[2] == 1 && in.get(parts[2]) == '^') {
+				// Square
+				r = Arithmetic.square(AsciiNumber.parse_float(in, parts[0], parts[1]));
+			} else if (n == 2 && parts[1] - parts[0] == 2 && in.get(parts[0]) == 'S' && in.get(parts[0] + 1) == 'R') {
+				// Square root has always parsed its number as a double
+				r = Arithmetic.square_root(AsciiNumber.parse_double(in, parts[2], parts[3]));
+			} else {
+				error(out);
+				return;
+			}
+		} catch (NumberFormatException e) {
+			error(out);
+			return;
+		}
+
+		// Tested as the FloatBackend tests the results the Calculator shows
+		if (FloatBackend.overflows(r)) {
+			out.put(OVERFLOW).put((byte) '\n');
+			return;
+		}
+
+		// Writing the answer
+		int len = formatter.format(r, chars, 0);
+		for (int i = 0; i < len; i++) {
+			out.put((byte) chars[i]);
+		}
+		out.put((byte) '\n');
+	}
+
+	/**
+	 * Helper Method that finds the parts of a request separated by spaces.
+	 * 
+	 * @param in   - the buffer holding the request
+	 * @param from - the index of the first byte of the request
+	 * @param to   - the index after the last byte of the request
+	 * @return - the number of parts, or 4 if there are more than 3
+	 */
+	private int split(ByteBuffer in, int from, int to) {
+		int n = 0, i = from;
+		while (true) {
+			// Skipping spaces
+			while (i < to && in.get(i) == ' ') {
+				i++;
+			}
+			if (i == to) {
+				return n;
+			}
+			if (n == 3) {
+				return 4;
+			}
+			// Finding the end of the part
+			parts[2 * n] = i;
+			while (i < to && in.get(i) != ' ') {
+				i++;
+			}
+			parts[2 * n + 1] = i;
+			n++;
+		}
+	}
+
+	/**
+	 * Helper Method that writes the answer to a request that cannot be understood.
+	 * 
+	 * @param out - the buffer to write the answer into
+	 */
+	private static void error(ByteBuffer out) {
+		out.put(ERROR).put((byte) '\n');
+	}
+}
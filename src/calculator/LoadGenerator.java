@@ -0,0 +1,171 @@
+package calculator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This Class is a load generator for the CalculatorServer. It opens a number of
+ * connections, each sending a mix of expression and button requests in
+ * pipelined batches, checks every answer and reports the throughput and the
+ * mean time taken for a batch to be answered.
+ * 
+ * @author Andrew Sand
+ */
+public final class LoadGenerator {
+	/**
+	 * The requests sent, in turn, with the answers expected. Every button request
+	 * ends with =, which leaves the calculator ready for the next one
+	 */
+	static final String[] REQUESTS = { "E 12.5 * 4 + 3", "K 1 2 + 3 0 =", "E sqrt(3^ + 4^) / 2", "K 6 4 SR =",
+			"E (8.4 + 5.6) * 4 / 3.3", "K 9 9 * 9 =" };
+	static final String[] ANSWERS = { "53", "42", "2.5", "8", "16.969698", "891" };
+
+	/**
+	 * This Class is the outcome of a run.
+	 */
+	public static final class Result {
+		/**
+		 * Member variables that store the requests answered, the wrong answers and
+		 * the time taken
+		 */
+		public final long requests, errors, nanos, batchNanos;
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param requests   - the requests answered
+		 * @param errors     - the wrong answers
+		 * @param nanos      - the time taken by the whole run
+		 * @param batchNanos - the total time taken for batches to be answered
+		 */
+		Result(long requests, long errors, long nanos, long batchNanos) {
+			this.requests = requests;
+			this.errors = errors;
+			this.nanos = nanos;
+			this.batchNanos = batchNanos;
+		}
+
+		/**
+		 * toString() Method for the Class, describing the run.
+		 */
+		@Override
+		public String toString() {
+			return String.format("%d requests, %d errors, %.0f requests/s", requests, errors, requests * 1e9 / nanos);
+		}
+	}
+
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private LoadGenerator() {
+	}
+
+	/**
+	 * Runs the load generator.
+	 * 
+	 * @param host        - the host of the server
+	 * @param port        - the port of the server
+	 * @param connections - the number of connections to open at once
+	 * @param requests    - the number of requests each connection sends
+	 * @param pipeline    - the number of requests sent before waiting for the
+	 *                    answers
+	 * @return - the outcome of the run
+	 */
+	public static Result run(String host, int port, int connections, int requests, int pipeline) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(connections);
+		try {
+			// Starting every connection
+			long start = System.nanoTime();
+			List<Future<long[]>> results = new ArrayList<>();
+			for (int i = 0; i < connections; i++) {
+				results.add(pool.submit(() -> connection(host, port, requests, pipeline)));
+			}
+
+			// Adding up what each connection saw
+			long errors = 0, batchNanos = 0, batches = 0;
+			for (Future<long[]> f : results) {
+				long[] r = f.get();
+				errors += r[0];
+				batchNanos += r[1];
+				batches += r[2];
+			}
+			long nanos = System.nanoTime() - start;
+			return new Result((long) connections * requests, errors, nanos, batches == 0 ? 0 : batchNanos / batches);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Helper Method that sends the requests of one connection.
+	 * 
+	 * @param host     - the host of the server
+	 * @param port     - the port of the server
+	 * @param requests - the number of requests to send
+	 * @param pipeline - the number of requests sent before waiting for the answers
+	 * @return - the wrong answers, the total time taken for batches to be answered
+	 *         and the number of batches
+	 */
+	private static long[] connection(String host, int port, int requests, int pipeline) throws IOException {
+		try (Socket s = new Socket(host, port);
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+				BufferedWriter out = new BufferedWriter(
+						new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+			s.setTcpNoDelay(true);
+			long errors = 0, batchNanos = 0, batches = 0;
+			int sent = 0;
+			while (sent < requests) {
+				// Sending a batch
+				long start = System.nanoTime();
+				int n = Math.min(pipeline, requests - sent);
+				for (int i = 0; i < n; i++) {
+					out.write(REQUESTS[(sent + i) % REQUESTS.length]);
+					out.write('\n');
+				}
+				out.flush();
+
+				// Checking its answers
+				for (int i = 0; i < n; i++) {
+					String answer = in.readLine();
+					if (answer == null) {
+						throw new IOException("The server closed the connection");
+					}
+					if (!answer.equals(ANSWERS[(sent + i) % ANSWERS.length])) {
+						errors++;
+					}
+				}
+				sent += n;
+				batchNanos += System.nanoTime() - start;
+				batches++;
+			}
+			return new long[] { errors, batchNanos, batches };
+		}
+	}
+
+	/**
+	 * The main method for running the load generator.
+	 * 
+	 * @param args - Program arguments: host, port, connections, requests per
+	 *             connection and pipeline depth, all optional
+	 */
+	public static void main(String args[]) throws Exception {
+		String host = args.length > 0 ? args[0] : "localhost";
+		int port = args.length > 1 ? Integer.parseInt(args[1]) : CalculatorServer.DEFAULT_PORT;
+		int connections = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+		int requests = args.length > 3 ? Integer.parseInt(args[3]) : 100000;
+		int pipeline = args.length > 4 ? Integer.parseInt(args[4]) : 64;
+		Result r = run(host, port, connections, requests, pipeline);
+		System.out.println(r + String.format(", %.1f us per batch of %d", r.batchNanos / 1e3, pipeline));
+	}
+}
@@ -0,0 +1,272 @@
+package calculator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This Class is the calculator's memory: a file of memory slots, each holding
+ * a number, with one of them active for the memory buttons (M+, M-, MR and
+ * MC). The numbers are kept in a double[], so storing and recalling a slot by
+ * its index is constant time and never parses or creates a String. A number
+ * with more digits than a double holds, stored by a backend that keeps its
+ * digits, is also kept as it is shown, so it can be recalled exactly. Slots are
+ * named "M1", "M2" and so on unless other names are given, and can also be
+ * found by name.
+ * 
+ * Batch jobs can read and write the slots of a headless Calculator directly
+ * through Calculator.memory(). If the memory is persisted to a Journal, every
+ * change to a slot is journaled, however it was made. Only the doubles are
+ * journaled, so a restored slot holds the double of an exact number.
+ * 
+ * The registers belong to one Calculator and are not thread safe.
+ * 
+ * @author Andrew Sand
+ */
+public final class MemoryRegisters {
+	/**
+	 * The number of slots of a Calculator's memory
+	 */
+	public static final int DEFAULT_SLOTS = 4;
+
+	/**
+	 * Member variables that store the number in each slot and the name of each
+	 * slot
+	 */
+	private final double[] values;
+	private final String[] names;
+
+	/**
+	 * Member variable that stores each slot's number as it is shown, or null if
+	 * its double is the number
+	 */
+	private final String[] exact;
+
+	/**
+	 * Member variable that maps each name to the index of its slot
+	 */
+	private final Map<String, Integer> indexes = new HashMap<>();
+
+	/**
+	 * Member variable that stores the index of the active slot
+	 */
+	private int active;
+
+	/**
+	 * Member variables that store the journal the slots are persisted to, or null
+	 * if they are not persisted, and the id they are journaled under
+	 */
+	private Journal journal;
+	private long journalId;
+
+	/**
+	 * A custom Constructor Method for the Class, naming the slots "M1", "M2" and
+	 * so on.
+	 * 
+	 * @param slots - the number of slots
+	 */
+	public MemoryRegisters(int slots) {
+		this(default_names(slots));
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param names - the name of each slot, in order
+	 * @throws IllegalArgumentException if there are no names or a name is used
+	 *                                  twice
+	 */
+	public MemoryRegisters(String... names) {
+		if (names.length == 0) {
+			throw new IllegalArgumentException("There must be at least one memory slot");
+		}
+		this.values = new double[names.length];
+		this.exact = new String[names.length];
+		this.names = names.clone();
+		for (int i = 0; i < names.length; i++) {
+			if (indexes.put(names[i], i) != null) {
+				throw new IllegalArgumentException("Memory slot " + names[i] + " is named twice");
+			}
+		}
+	}
+
+	/**
+	 * @return - the number of slots
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * @param slot - the index of a slot
+	 * @return - the name of the slot
+	 */
+	public String name(int slot) {
+		return names[slot];
+	}
+
+	/**
+	 * Finds a slot by its name.
+	 * 
+	 * @param name - the name of the slot
+	 * @return - the index of the slot
+	 * @throws IllegalArgumentException if there is no slot with the name
+	 */
+	public int index(String name) {
+		Integer i = indexes.get(name);
+		if (i == null) {
+			throw new IllegalArgumentException("No memory slot " + name);
+		}
+		return i;
+	}
+
+	/**
+	 * @return - the index of the active slot
+	 */
+	public int active() {
+		return active;
+	}
+
+	/**
+	 * Makes a slot the one used by the memory buttons.
+	 * 
+	 * @param slot - the index of the slot
+	 */
+	public void select(int slot) {
+		check(slot);
+		active = slot;
+	}
+
+	/**
+	 * Makes the slot after the active one active, going back to the first after
+	 * the last.
+	 */
+	public void select_next() {
+		active = active + 1 == values.length ? 0 : active + 1;
+	}
+
+	/**
+	 * @param slot - the index of a slot
+	 * @return - the number in the slot
+	 */
+	public double get(int slot) {
+		return values[slot];
+	}
+
+	/**
+	 * Stores a number in a slot.
+	 * 
+	 * @param slot  - the index of the slot
+	 * @param value - the number to store
+	 */
+	public void set(int slot, double value) {
+		set(slot, value, null);
+	}
+
+	/**
+	 * Stores a number in a slot, along with the number as it is shown when it
+	 * has more digits than the double holds.
+	 * 
+	 * @param slot  - the index of the slot
+	 * @param value - the number to store
+	 * @param exact - the number as it is shown, or null if the double is the
+	 *              number
+	 */
+	public void set(int slot, double value, String exact) {
+		check(slot);
+		// Journaling only real changes, comparing the bits so -0 and NaN count
+		if (journal != null && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(values[slot])) {
+			journal.memory(journalId, slot, value);
+		}
+		values[slot] = value;
+		this.exact[slot] = exact;
+	}
+
+	/**
+	 * @param slot - the index of a slot
+	 * @return - the number in the slot as it is shown, or null if the double
+	 *         returned by get(int slot) is the number
+	 */
+	public String exact(int slot) {
+		return exact[slot];
+	}
+
+	/**
+	 * @param name - the name of a slot
+	 * @return - the number in the slot
+	 */
+	public double get(String name) {
+		return values[index(name)];
+	}
+
+	/**
+	 * Stores a number in a slot.
+	 * 
+	 * @param name  - the name of the slot
+	 * @param value - the number to store
+	 */
+	public void set(String name, double value) {
+		set(index(name), value);
+	}
+
+	/**
+	 * Sets every slot to zero.
+	 */
+	public void clear() {
+		for (int i = 0; i < values.length; i++) {
+			set(i, 0);
+		}
+	}
+
+	/**
+	 * Persists the slots to a journal under the passed in id, restoring the
+	 * slots the journal already holds for it.
+	 * 
+	 * @param journal - the journal to use, or null to stop persisting the slots
+	 * @param id      - the id the slots are journaled under
+	 */
+	void journal(Journal journal, long id) {
+		this.journal = null;
+		if (journal != null) {
+			double[] saved = journal.memory(id);
+			if (saved != null) {
+				System.arraycopy(saved, 0, values, 0, Math.min(saved.length, values.length));
+				Arrays.fill(exact, 0, Math.min(saved.length, values.length), null);
+			}
+		}
+		this.journal = journal;
+		this.journalId = id;
+	}
+
+	/**
+	 * @return - the journal the slots are persisted to, or null if they are not
+	 */
+	Journal journal() {
+		return journal;
+	}
+
+	/**
+	 * Helper Method that checks the index of a slot.
+	 * 
+	 * @param slot - the index of the slot
+	 */
+	private void check(int slot) {
+		if (slot < 0 || slot >= values.length) {
+			throw new IndexOutOfBoundsException("Memory slot " + slot + ", size " + values.length);
+		}
+	}
+
+	/**
+	 * Helper Method that creates the default names of the slots.
+	 * 
+	 * @param slots - the number of slots
+	 * @return - "M1", "M2" and so on
+	 */
+	private static String[] default_names(int slots) {
+		String[] names = new String[slots];
+		for (int i = 0; i < slots; i++) {
+			names[i] = "M" + (i + 1);
+		}
+		return names;
+	}
+}
@@ -0,0 +1,306 @@
+package calculator;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * This Class measures where the time goes between a button press and the
+ * display being updated. It keeps a LatencyHistogram for each of the
+ * Calculator's operations, for each button pressed, and for the GUI's updates
+ * on the event dispatch thread, and counts the errors and overflows shown.
+ * 
+ * Metrics are turned on by passing an instance to Calculator.setMetrics(...)
+ * and GUI.setMetrics(...). While they are off, the only cost is a null check
+ * per press. The measurements can be read through JMX once register() is
+ * called, and written out periodically with dump(...). One instance can be
+ * shared by any number of calculators and threads.
+ * 
+ * @author Andrew Sand
+ */
+public final class Metrics implements MetricsMXBean {
+	/**
+	 * The name the metrics are registered under with JMX
+	 */
+	public static final String OBJECT_NAME = "calculator:type=Metrics";
+
+	/**
+	 * Member variables that store the histograms of each operator, indexed by
+	 * its ordinal, and of each button, indexed by the ordinal of its Command
+	 */
+	private final LatencyHistogram[] operations = histograms(Operator.values().length);
+	private final LatencyHistogram[] presses = histograms(Command.values().length);
+
+	/**
+	 * Member variable that stores the histogram of recalls from the History
+	 */
+	private final LatencyHistogram recalls = new LatencyHistogram();
+
+	/**
+	 * Member variables that store the histograms of the GUI's updates, and of
+	 * setting and resetting its operator buttons
+	 */
+	private final LatencyHistogram update = new LatencyHistogram(), setButton = new LatencyHistogram(),
+			resetButtons = new LatencyHistogram();
+
+	/**
+	 * Member variables that count the errors and overflows displayed
+	 */
+	private final LongAdder errors = new LongAdder(), overflows = new LongAdder();
+
+	/**
+	 * Records the time taken by one of the Calculator's operations.
+	 * 
+	 * @param op    - the operator
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void operation(Operator op, long nanos) {
+		operations[op.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Records the time taken to handle a button press.
+	 * 
+	 * @param c     - the Command of the button pressed
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void press(Command c, long nanos) {
+		presses[c.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Records the time taken to recall a calculation from the History.
+	 * 
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void recall(long nanos) {
+		recalls.record(nanos);
+	}
+
+	/**
+	 * Records the time taken by the GUI to show a DisplayEvent.
+	 * 
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void update(long nanos) {
+		update.record(nanos);
+	}
+
+	/**
+	 * Records the time taken by the GUI to select an operator button.
+	 * 
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void set_button(long nanos) {
+		setButton.record(nanos);
+	}
+
+	/**
+	 * Records the time taken by the GUI to reset its operator buttons.
+	 * 
+	 * @param nanos - the time taken in nanoseconds
+	 */
+	public void reset_buttons(long nanos) {
+		resetButtons.record(nanos);
+	}
+
+	/**
+	 * Counts a press that ended with an error displayed.
+	 */
+	public void error() {
+		errors.increment();
+	}
+
+	/**
+	 * Counts a result that was too large or too small to show.
+	 */
+	public void overflow() {
+		overflows.increment();
+	}
+
+	/**
+	 * @param op - an operator
+	 * @return - the histogram of the operator's times
+	 */
+	public LatencyHistogram operation(Operator op) {
+		return operations[op.ordinal()];
+	}
+
+	/**
+	 * @param c - the Command of a button
+	 * @return - the histogram of the button's times
+	 */
+	public LatencyHistogram press(Command c) {
+		return presses[c.ordinal()];
+	}
+
+	/**
+	 * @return - the histogram of the times of recalls from the History
+	 */
+	public LatencyHistogram recall() {
+		return recalls;
+	}
+
+	/**
+	 * @return - the histogram of the GUI's update times
+	 */
+	public LatencyHistogram update() {
+		return update;
+	}
+
+	@Override
+	public long getErrors() {
+		return errors.sum();
+	}
+
+	@Override
+	public long getOverflows() {
+		return overflows.sum();
+	}
+
+	@Override
+	public Map<String, Long> getCounts() {
+		Map<String, Long> counts = new LinkedHashMap<>();
+		histograms().forEach((name, h) -> counts.put(name, h.count()));
+		return counts;
+	}
+
+	@Override
+	public Map<String, Double> getMeanMicros() {
+		return micros(h -> h.mean());
+	}
+
+	@Override
+	public Map<String, Double> getP99Micros() {
+		return micros(h -> h.percentile(99));
+	}
+
+	@Override
+	public Map<String, Double> getMaxMicros() {
+		return micros(h -> h.max());
+	}
+
+	@Override
+	public String getReport() {
+		return report();
+	}
+
+	/**
+	 * Writes every histogram that has been recorded to, one per line, with its
+	 * count, mean, median, 99th and 99.9th percentiles and maximum in
+	 * microseconds, followed by the error and overflow counts.
+	 * 
+	 * @return - the report
+	 */
+	public String report() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format(Locale.ROOT, "%-22s %10s %10s %10s %10s %10s %10s%n", "us", "count", "mean", "p50", "p99",
+				"p99.9", "max"));
+		histograms().forEach((name, h) -> {
+			if (h.count() > 0) {
+				sb.append(String.format(Locale.ROOT, "%-22s %10d %10.2f %10.2f %10.2f %10.2f %10.2f%n", name, h.count(),
+						h.mean() / 1e3, h.percentile(50) / 1e3, h.percentile(99) / 1e3, h.percentile(99.9) / 1e3,
+						h.max() / 1e3));
+			}
+		});
+		sb.append("errors ").append(errors.sum()).append(", overflows ").append(overflows.sum())
+				.append(System.lineSeparator());
+		return sb.toString();
+	}
+
+	@Override
+	public void reset() {
+		histograms().values().forEach(LatencyHistogram::reset);
+		errors.reset();
+		overflows.reset();
+	}
+
+	/**
+	 * Registers the metrics with the platform MBeanServer under OBJECT_NAME, so
+	 * that they can be read through JMX.
+	 * 
+	 * @return - the name they were registered under
+	 * @throws JMException if metrics are already registered under the name
+	 */
+	public ObjectName register() throws JMException {
+		ObjectName name = new ObjectName(OBJECT_NAME);
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+		return name;
+	}
+
+	/**
+	 * Starts writing the report to the passed in stream every period, on a
+	 * daemon thread, so that it stops when the program does.
+	 * 
+	 * @param out    - the stream to write to
+	 * @param period - the time between reports
+	 * @param unit   - the unit of the period
+	 * @return - the executor writing the reports, which stops them when shut down
+	 */
+	public ScheduledExecutorService dump(PrintStream out, long period, TimeUnit unit) {
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "calculator-metrics");
+			t.setDaemon(true);
+			return t;
+		});
+		executor.scheduleAtFixedRate(() -> out.print(report()), period, period, unit);
+		return executor;
+	}
+
+	/**
+	 * Helper Method that names every histogram, in the order they are reported.
+	 * 
+	 * @return - the histograms by name
+	 */
+	private Map<String, LatencyHistogram> histograms() {
+		Map<String, LatencyHistogram> all = new LinkedHashMap<>();
+		for (Operator op : Operator.values()) {
+			all.put("op " + op.name().toLowerCase(Locale.ROOT), operations[op.ordinal()]);
+		}
+		for (Command c : Command.values()) {
+			all.put("press " + c.label(), presses[c.ordinal()]);
+		}
+		all.put("press History", recalls);
+		all.put("gui update", update);
+		all.put("gui set_button", setButton);
+		all.put("gui reset_buttons", resetButtons);
+		return all;
+	}
+
+	/**
+	 * Helper Method that reads a value in nanoseconds from every histogram, in
+	 * microseconds.
+	 * 
+	 * @param value - reads the value from a histogram
+	 * @return - the value of each histogram by name
+	 */
+	private Map<String, Double> micros(ToDoubleFunction<LatencyHistogram> value) {
+		Map<String, Double> micros = new LinkedHashMap<>();
+		histograms().forEach((name, h) -> micros.put(name, value.applyAsDouble(h) / 1e3));
+		return micros;
+	}
+
+	/**
+	 * Helper Method that creates an array of empty histograms.
+	 * 
+	 * @param n - the number of histograms
+	 * @return - the histograms
+	 */
+	private static LatencyHistogram[] histograms(int n) {
+		LatencyHistogram[] histograms = new LatencyHistogram[n];
+		for (int i = 0; i < n; i++) {
+			histograms[i] = new LatencyHistogram();
+		}
+		return histograms;
+	}
+}
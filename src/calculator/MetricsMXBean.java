@@ -0,0 +1,55 @@
+package calculator;
+
+import java.util.Map;
+
+/**
+ * This Interface is the management interface of the calculator's Metrics, as
+ * seen through JMX, for example in JConsole under "calculator:type=Metrics".
+ * Times are in microseconds and are keyed by the name of the operation,
+ * button or GUI update they were measured on.
+ * 
+ * @author Andrew Sand
+ */
+public interface MetricsMXBean {
+	/**
+	 * @return - the number of presses that ended with an error displayed
+	 */
+	long getErrors();
+
+	/**
+	 * @return - the number of results that were too large or too small to show
+	 */
+	long getOverflows();
+
+	/**
+	 * @return - the number of times each operation, button and GUI update was
+	 *         measured
+	 */
+	Map<String, Long> getCounts();
+
+	/**
+	 * @return - the mean time of each operation, button and GUI update
+	 */
+	Map<String, Double> getMeanMicros();
+
+	/**
+	 * @return - the 99th percentile time of each operation, button and GUI
+	 *         update
+	 */
+	Map<String, Double> getP99Micros();
+
+	/**
+	 * @return - the longest time of each operation, button and GUI update
+	 */
+	Map<String, Double> getMaxMicros();
+
+	/**
+	 * @return - every measurement as text, as written by the periodic dump
+	 */
+	String getReport();
+
+	/**
+	 * Forgets every measurement.
+	 */
+	void reset();
+}
@@ -0,0 +1,362 @@
+package calculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * This Class is a non-blocking TCP front end for calculations. One thread runs
+ * a Selector serving every connection. Each request is one line answered by a
+ * LineEvaluator, such as "3.5 * 7" or "SR 64.6", and is read, parsed and
+ * answered without creating any Objects once the server is warmed up.
+ * 
+ * Each connection reads into a direct ByteBuffer taken from a BufferPool.
+ * Answers to every complete line are written into pooled output buffers, which
+ * are sent together with one gathering write. While answers are waiting to be
+ * sent the connection stops reading, so a client that does not read its
+ * answers cannot make the server buffer without limit.
+ * 
+ * @author Andrew Sand
+ */
+public final class NioCalculatorServer implements Closeable {
+	/**
+	 * The size of each pooled buffer, which is also the longest request accepted
+	 */
+	static final int BUFFER_SIZE = 16 * 1024;
+
+	/**
+	 * The most output buffers one connection fills before sending them
+	 */
+	private static final int MAX_OUT = 8;
+
+	/**
+	 * Member variables that store the Selector, the listening channel and the
+	 * thread running the Selector
+	 */
+	private final Selector selector;
+	private final ServerSocketChannel server;
+	private final Thread thread;
+
+	/**
+	 * Member variable that stores whether the server has been asked to stop
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * Member variables that store the pooled buffers and the evaluator shared by
+	 * every connection, which are only used by the Selector's thread
+	 */
+	private final BufferPool pool = new BufferPool(BUFFER_SIZE, 1024);
+	private final LineEvaluator evaluator = new LineEvaluator();
+
+	/**
+	 * A custom Constructor Method for the Class. The server listens straight
+	 * away, but only serves connections once started.
+	 * 
+	 * @param port - the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be listened on
+	 */
+	public NioCalculatorServer(int port) throws IOException {
+		selector = Selector.open();
+		server = ServerSocketChannel.open();
+		server.bind(new InetSocketAddress(port));
+		server.configureBlocking(false);
+		server.register(selector, SelectionKey.OP_ACCEPT);
+		thread = new Thread(this::loop, "calculator-selector");
+	}
+
+	/**
+	 * Starts serving connections.
+	 * 
+	 * @return - this server
+	 */
+	public NioCalculatorServer start() {
+		thread.start();
+		return this;
+	}
+
+	/**
+	 * @return - the port the server is listening on
+	 */
+	public int port() {
+		return server.socket().getLocalPort();
+	}
+
+	/**
+	 * Helper Method, run by the Selector's thread, that serves connections until
+	 * the server is closed.
+	 */
+	private void loop() {
+		try {
+			while (!closed) {
+				selector.select();
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					try {
+						if (!key.isValid()) {
+							continue;
+						}
+						if (key.isAcceptable()) {
+							accept();
+						} else {
+							Connection c = (Connection) key.attachment();
+							if (key.isWritable()) {
+								c.write();
+							}
+							if (key.isValid() && key.isReadable()) {
+								c.read();
+							}
+						}
+					} catch (IOException e) {
+						// The client went away
+						Object c = key.attachment();
+						if (c != null) {
+							((Connection) c).close();
+						}
+					}
+				}
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			System.err.println("Error: The selector failed: " + e);
+		} finally {
+			// Closing every channel and the Selector itself
+			for (SelectionKey key : selector.keys()) {
+				try {
+					key.channel().close();
+				} catch (IOException e) {
+					// Already closed
+				}
+			}
+			try {
+				selector.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+		}
+	}
+
+	/**
+	 * Helper Method that accepts a waiting connection.
+	 */
+	private void accept() throws IOException {
+		SocketChannel ch = server.accept();
+		if (ch != null) {
+			ch.configureBlocking(false);
+			ch.socket().setTcpNoDelay(true);
+			SelectionKey key = ch.register(selector, SelectionKey.OP_READ);
+			key.attach(new Connection(ch, key));
+		}
+	}
+
+	/**
+	 * Stops the server, closing every connection.
+	 */
+	@Override
+	public void close() throws IOException {
+		// The Selector's thread closes everything once it wakes up
+		closed = true;
+		selector.wakeup();
+		try {
+			thread.join(1000);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		// Also closing a server that was never started
+		if (!thread.isAlive()) {
+			server.close();
+			selector.close();
+		}
+	}
+
+	/**
+	 * This Class is the state of one connection: its buffer of requests and its
+	 * buffers of answers waiting to be sent.
+	 */
+	private final class Connection {
+		/**
+		 * Member variables that store the connection's channel and key
+		 */
+		private final SocketChannel ch;
+		private final SelectionKey key;
+
+		/**
+		 * Member variable that stores the requests read, including the start of a
+		 * line not yet complete. It is only held while there is something in it
+		 */
+		private ByteBuffer in;
+
+		/**
+		 * Member variables that store the output buffers and how many of them are
+		 * in use
+		 */
+		private final ByteBuffer[] out = new ByteBuffer[MAX_OUT];
+		private int outs;
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param ch  - the connection's channel
+		 * @param key - the connection's key
+		 */
+		Connection(SocketChannel ch, SelectionKey key) {
+			this.ch = ch;
+			this.key = key;
+		}
+
+		/**
+		 * Reads and answers every complete request that has arrived.
+		 */
+		void read() throws IOException {
+			// Reading
+			if (in == null) {
+				in = pool.acquire();
+			}
+			int n = ch.read(in);
+			if (n < 0) {
+				close();
+				return;
+			}
+
+			answer();
+		}
+
+		/**
+		 * Helper Method that answers every complete line that has been read, as far
+		 * as there is room for the answers, and then sends them.
+		 */
+		private void answer() throws IOException {
+			// Answering every complete line
+			int start = 0, end = in.position();
+			boolean line = false;
+			for (int i = 0; i < end; i++) {
+				if (in.get(i) == '\n') {
+					line = true;
+					ByteBuffer o = output();
+					if (o == null) {
+						// No room for more answers until these are sent
+						break;
+					}
+					evaluator.evaluate(in, start, i, o);
+					start = i + 1;
+				}
+			}
+
+			// A line longer than a buffer can never be answered
+			if (!line && end == in.capacity()) {
+				close();
+				return;
+			}
+
+			// Keeping the start of an incomplete line
+			in.flip().position(start);
+			in.compact();
+			if (in.position() == 0) {
+				pool.release(in);
+				in = null;
+			}
+
+			// Sending the answers
+			write();
+		}
+
+		/**
+		 * Helper Method that finds an output buffer with room for an answer.
+		 * 
+		 * @return - the buffer, or null if all of them are full
+		 */
+		private ByteBuffer output() {
+			if (outs > 0 && out[outs - 1].remaining() >= LineEvaluator.MAX_ANSWER) {
+				return out[outs - 1];
+			}
+			if (outs == MAX_OUT) {
+				return null;
+			}
+			return out[outs++] = pool.acquire();
+		}
+
+		/**
+		 * Sends the waiting answers with one gathering write, waiting for the
+		 * channel to be writable if they do not all fit.
+		 */
+		void write() throws IOException {
+			if (outs == 0) {
+				return;
+			}
+			// Getting every buffer ready to send, unless it already is
+			if ((key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+				for (int i = 0; i < outs; i++) {
+					out[i].flip();
+				}
+			}
+			ch.write(out, 0, outs);
+
+			// Releasing the buffers sent
+			int sent = 0;
+			while (sent < outs && !out[sent].hasRemaining()) {
+				pool.release(out[sent]);
+				sent++;
+			}
+			if (sent == outs) {
+				Arrays.fill(out, 0, outs, null);
+				outs = 0;
+				// Reading again, including any lines that were left waiting
+				key.interestOps(SelectionKey.OP_READ);
+				if (in != null && has_line()) {
+					answer();
+				}
+			} else {
+				// Moving the unsent buffers to the front and waiting to send them
+				System.arraycopy(out, sent, out, 0, outs - sent);
+				Arrays.fill(out, outs - sent, outs, null);
+				outs -= sent;
+				key.interestOps(SelectionKey.OP_WRITE);
+			}
+		}
+
+		/**
+		 * Helper Method that tests whether a complete line is waiting to be
+		 * answered.
+		 * 
+		 * @return - true if there is one
+		 */
+		private boolean has_line() {
+			for (int i = 0; i < in.position(); i++) {
+				if (in.get(i) == '\n') {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Closes the connection, returning its buffers to the pool.
+		 */
+		void close() {
+			key.cancel();
+			try {
+				ch.close();
+			} catch (IOException e) {
+				// Already closed
+			}
+			if (in != null) {
+				pool.release(in);
+				in = null;
+			}
+			for (int i = 0; i < outs; i++) {
+				pool.release(out[i]);
+				out[i] = null;
+			}
+			outs = 0;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package calculator;
+
+import java.math.BigDecimal;
+
+/**
+ * This Interface describes the arithmetic that the Calculator Class delegates
+ * to. Each implementation decides how the typed numbers are parsed, what
+ * precision the operations are carried out in, and how the results are turned
+ * back into text for the display. The FloatBackend keeps the calculator's
+ * original behaviour, while the others trade speed for precision.
+ * 
+ * @author Andrew Sand
+ */
+public interface NumericBackend {
+	/**
+	 * @param s1 - the first String containing the number to add
+	 * @param s2 - the second String containing the number to add
+	 * @return - the String representation of the mathematical result
+	 */
+	String add(String s1, String s2);
+
+	/**
+	 * @param s1 - the first String containing the number to subtract
+	 * @param s2 - the second String containing the number to subtract
+	 * @return - the String representation of the mathematical result
+	 */
+	String subtract(String s1, String s2);
+
+	/**
+	 * @param s1 - the first String containing the number to multiply
+	 * @param s2 - the second String containing the number to multiply
+	 * @return - the String representation of the mathematical result
+	 */
+	String multiply(String s1, String s2);
+
+	/**
+	 * @param s1 - the first String containing the number to divide
+	 * @param s2 - the second String containing the number to divide
+	 * @return - the String representation of the mathematical result
+	 */
+	String divide(String s1, String s2);
+
+	/**
+	 * @param s - the String containing the number to square
+	 * @return - the String representation of the mathematical result
+	 */
+	String square(String s);
+
+	/**
+	 * @param s - the String containing the number to square root
+	 * @return - the String representation of the mathematical result
+	 */
+	String square_root(String s);
+
+	/**
+	 * Calculates a scientific function in double precision using Scientific, in
+	 * the passed in tier of accuracy. The result is shown in plain notation, as
+	 * the other backends show their results.
+	 * 
+	 * @param op   - the Operator of the function
+	 * @param tier - the tier of accuracy to calculate it in
+	 * @param s1   - the String containing the first number
+	 * @param s2   - the String containing the second number, or null for unary
+	 *             functions
+	 * @return - the String representation of the mathematical result
+	 * @throws ArithmeticException if the function is not defined for the numbers
+	 *                             or the result is too large
+	 */
+	default String function(Operator op, Scientific.Tier tier, String s1, String s2) {
+		double r = Scientific.apply(op, tier, Double.parseDouble(s1), s2 == null ? Double.NaN : Double.parseDouble(s2));
+		if (!Double.isFinite(r)) {
+			throw new ArithmeticException(op.symbol() + " is not defined or too large");
+		}
+		return BigDecimalBackend.format(BigDecimal.valueOf(r));
+	}
+
+	/**
+	 * Tests whether a result is too large or too small for this backend to
+	 * display correctly, in which case the calculator shows an overflow error.
+	 * 
+	 * @param s - the String representation of a result
+	 * @return - true if the result overflowed, false otherwise
+	 */
+	boolean overflows(String s);
+
+	/**
+	 * Gives the most chars that can be typed into a number. The calculator
+	 * limits each number so that it fits its display and the precision of the
+	 * FloatBackend, and backends that can keep more digits may lift the limit.
+	 * 
+	 * @param limit - the calculator's limit for the number
+	 * @return - the most chars that can be typed into the number
+	 */
+	default int input_limit(int limit) {
+		return limit;
+	}
+
+	/**
+	 * Turns a result of this backend into the number stored in a memory slot.
+	 * Backends may remember their last result so it does not need parsing again.
+	 * 
+	 * @param s - the String representation of a result
+	 * @return - the number it holds
+	 */
+	default double value(String s) {
+		return Double.parseDouble(s);
+	}
+
+	/**
+	 * Tells whether the results of this backend can hold more digits than a
+	 * double. If they can, the memory and the History keep each result as it is
+	 * shown as well as its double, so it is recalled with every digit.
+	 * 
+	 * @return - true if results are kept as they are shown
+	 */
+	default boolean keeps_digits() {
+		return false;
+	}
+
+	/**
+	 * Adds a number to a memory slot, in the precision of this backend.
+	 * 
+	 * @param memory - the number in the slot
+	 * @param v      - the number to add
+	 * @return - the new number in the slot
+	 */
+	default double add(double memory, double v) {
+		return memory + v;
+	}
+
+	/**
+	 * Subtracts a number from a memory slot, in the precision of this backend.
+	 * 
+	 * @param memory - the number in the slot
+	 * @param v      - the number to subtract
+	 * @return - the new number in the slot
+	 */
+	default double subtract(double memory, double v) {
+		return memory - v;
+	}
+
+	/**
+	 * Writes the number in a memory slot into an Operand when it is recalled,
+	 * formatted the way this backend formats its results.
+	 * 
+	 * @param memory - the number in the slot
+	 * @param dst    - the Operand to write into
+	 */
+	default void format(double memory, Operand dst) {
+		dst.set(memory % 1 == 0 && Math.abs(memory) < 1e18 ? Long.toString((long) memory) : Double.toString(memory));
+	}
+
+	/**
+	 * Works out what = would display for an operation on the numbers being
+	 * typed, for the calculator's live preview: the result, or "ERROR: OVERFLOW"
+	 * if it is too large or too small. Backends that can operate on the values
+	 * the Operands keep up to date as they are typed may do so instead of
+	 * parsing them, as long as the result is the same.
+	 * 
+	 * @param op  - the operator in play, which is not a scientific function
+	 * @param s1  - the first number
+	 * @param s2  - the second number, empty for unary operators
+	 * @param dst - the Operand to write what = would display into
+	 * @throws ArithmeticException   if the result can not be calculated
+	 * @throws NumberFormatException if a number is not valid
+	 */
+	default void preview(Operator op, Operand s1, Operand s2, Operand dst) {
+		// Carrying out the operation the way = does
+		String a = s1.toString(), r;
+		switch (op) {
+		case ADD:
+			r = add(a, s2.toString());
+			break;
+		case SUBTRACT:
+			r = subtract(a, s2.toString());
+			break;
+		case MULTIPLY:
+			r = multiply(a, s2.toString());
+			break;
+		case DIVIDE:
+			r = divide(a, s2.toString());
+			break;
+		case SQUARE:
+			r = square(a);
+			break;
+		default:
+			r = square_root(a);
+			break;
+		}
+		dst.set(overflows(r) ? "ERROR: OVERFLOW" : r);
+	}
+}
@@ -0,0 +1,250 @@
+package calculator;
+
+/**
+ * This Class holds a number while it is being typed into the calculator. The
+ * chars are kept in a reusable char[], and the position of the decimal point
+ * is tracked as chars are added and deleted, so typing, deleting and checking
+ * for a decimal point are all constant time and do not create any Objects. It
+ * is a CharSequence, so it can be handed to the GUI as a view of the number
+ * for display. The view changes as the number is edited.
+ * 
+ * The value of the number is also kept up to date as it is typed: each digit
+ * added multiplies a long mantissa by ten and adds the digit, and deleting it
+ * divides the mantissa by ten again, which exactly undoes the addition. As
+ * chars are only ever added and removed at the end, this is constant time and
+ * float_value() and double_value() do not need to parse the chars. They give
+ * exactly what Float.parseFloat and Double.parseDouble would, falling back on
+ * them for numbers with more than 18 digits or chars that are not part of a
+ * plain decimal.
+ * 
+ * @author Andrew Sand
+ */
+public final class Operand implements CharSequence {
+	/**
+	 * Member variable that stores the chars of the number
+	 */
+	private char[] buf;
+
+	/**
+	 * Member variables that store how many chars are in use, and the index of
+	 * the decimal point, or -1 if there is none
+	 */
+	private int len, dot;
+
+	/**
+	 * The most significant digits kept in the mantissa
+	 */
+	private static final int MAX_DIGITS = 18;
+
+	/**
+	 * Member variables that store the significant digits of the number as a
+	 * long, how many significant digits there are, and how many digits follow
+	 * the decimal point
+	 */
+	private long mantissa;
+	private int digits, scale;
+
+	/**
+	 * Member variables that store whether the number starts with a negative sign,
+	 * and how many chars are not part of a plain decimal
+	 */
+	private boolean negative;
+	private int other;
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param capacity - the number of chars the buffer starts with
+	 */
+	public Operand(int capacity) {
+		buf = new char[capacity];
+		dot = -1;
+	}
+
+	/**
+	 * Adds a char onto the end of the number.
+	 * 
+	 * @param c - the digit, decimal point or sign to add
+	 */
+	public void append(char c) {
+		// Making room, which only happens if a recalled number was very long
+		if (len == buf.length) {
+			grow(len + 1);
+		}
+		// Tracking the decimal point and the value
+		if (c >= '0' && c <= '9') {
+			// Leading zeros are not significant
+			if ((digits > 0 || c != '0') && ++digits <= MAX_DIGITS) {
+				mantissa = mantissa * 10 + (c - '0');
+			}
+			if (dot != -1) {
+				scale++;
+			}
+		} else if (c == '.' && dot == -1) {
+			dot = len;
+		} else if (c == '-' && len == 0) {
+			negative = true;
+		} else {
+			other++;
+		}
+		buf[len++] = c;
+	}
+
+	/**
+	 * Removes the last char of the number, if there is one.
+	 */
+	public void delete_last() {
+		if (len > 0) {
+			char c = buf[--len];
+			// Undoing what adding the char did
+			if (c >= '0' && c <= '9') {
+				// Once there is a significant digit, every digit after it is one
+				if (digits > 0 && digits-- <= MAX_DIGITS) {
+					mantissa /= 10;
+				}
+				if (dot != -1) {
+					scale--;
+				}
+			} else if (dot == len) {
+				dot = -1;
+			} else if (c == '-' && len == 0) {
+				negative = false;
+			} else {
+				other--;
+			}
+		}
+	}
+
+	/**
+	 * Empties the number.
+	 */
+	public void clear() {
+		len = 0;
+		dot = -1;
+		mantissa = 0;
+		digits = scale = other = 0;
+		negative = false;
+	}
+
+	/**
+	 * Replaces the number with the passed in chars, such as a recalled memory.
+	 * 
+	 * @param s - the chars to copy
+	 */
+	public void set(CharSequence s) {
+		clear();
+		for (int i = 0; i < s.length(); i++) {
+			append(s.charAt(i));
+		}
+	}
+
+	/**
+	 * Replaces the number with a range of the passed in chars, such as a recalled
+	 * memory that has been formatted.
+	 * 
+	 * @param src - the chars to copy from
+	 * @param off - the index of the first char
+	 * @param len - the number of chars
+	 */
+	public void set(char[] src, int off, int len) {
+		clear();
+		for (int i = 0; i < len; i++) {
+			append(src[off + i]);
+		}
+	}
+
+	/**
+	 * @return - true if the number contains a decimal point
+	 */
+	public boolean has_decimal() {
+		return dot != -1;
+	}
+
+	/**
+	 * @return - true if the number is only a negative sign
+	 */
+	public boolean is_sign() {
+		return len == 1 && buf[0] == '-';
+	}
+
+	/**
+	 * @return - true if the number is empty
+	 */
+	public boolean isEmpty() {
+		return len == 0;
+	}
+
+	/**
+	 * @return - the number as Float.parseFloat would parse it
+	 * @throws NumberFormatException if the chars are not a number
+	 */
+	public float float_value() {
+		double d = exact();
+		if (d == d && AsciiNumber.rounds_to_float(d)) {
+			return (float) d;
+		}
+		return Float.parseFloat(toString());
+	}
+
+	/**
+	 * @return - the number as Double.parseDouble would parse it
+	 * @throws NumberFormatException if the chars are not a number
+	 */
+	public double double_value() {
+		double d = exact();
+		return d == d ? d : Double.parseDouble(toString());
+	}
+
+	@Override
+	public int length() {
+		return len;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if (index < 0 || index >= len) {
+			throw new IndexOutOfBoundsException("index " + index + ", length " + len);
+		}
+		return buf[index];
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString().substring(start, end);
+	}
+
+	/**
+	 * Creates a String of the number. This is the only Method that creates an
+	 * Object, and is used when the number is handed to a NumericBackend.
+	 */
+	@Override
+	public String toString() {
+		return new String(buf, 0, len);
+	}
+
+	/**
+	 * Helper Method that works out the value of the number from its mantissa.
+	 * 
+	 * @return - the correctly rounded double, or NaN if the chars must be parsed
+	 *         instead
+	 */
+	private double exact() {
+		// Testing that the number is a plain decimal with at least one digit
+		int signs = (dot == -1 ? 0 : 1) + (negative ? 1 : 0);
+		if (other != 0 || len == signs || digits > MAX_DIGITS) {
+			return Double.NaN;
+		}
+		return AsciiNumber.exact(mantissa, -scale, negative);
+	}
+
+	/**
+	 * Helper Method that grows the buffer.
+	 * 
+	 * @param min - the smallest capacity needed
+	 */
+	private void grow(int min) {
+		char[] b = new char[Math.max(min, buf.length * 2)];
+		System.arraycopy(buf, 0, b, 0, len);
+		buf = b;
+	}
+}
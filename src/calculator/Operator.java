@@ -0,0 +1,97 @@
+package calculator;
+
+/**
+ * This Enum lists the arithmetic operations that the calculator supports. Each
+ * constant stores the symbol of the button that selects it on the GUI, and
+ * whether it needs one or two numbers to operate on. It is used by the headless
+ * batch API so that an operation can be chosen without going through a String.
+ * 
+ * The scientific functions are calculated in double precision by the
+ * Scientific Class. The ordinal of each Operator is stored in History files,
+ * so new operators must be added at the end.
+ * 
+ * @author Andrew Sand
+ */
+public enum Operator {
+	ADD("+", false), SUBTRACT("-", false), MULTIPLY("*", false), DIVIDE("/", false), SQUARE("^", true),
+	SQUARE_ROOT("SR", true), EXP("exp", true, true), LN("ln", true, true), LOG10("log", true, true),
+	POWER("x^y", false, true), SIN("sin", true, true), COS("cos", true, true), TAN("tan", true, true),
+	FACTORIAL("n!", true, true);
+
+	/**
+	 * Member variable that stores the symbol of the operator's button
+	 */
+	private final String symbol;
+
+	/**
+	 * Member variable that stores whether the operator only needs one number
+	 */
+	private final boolean unary;
+
+	/**
+	 * Member variable that stores whether the operator is a scientific function
+	 */
+	private final boolean function;
+
+	/**
+	 * A custom Constructor Method for the Enum.
+	 * 
+	 * @param symbol - the symbol of the operator's button
+	 * @param unary  - true if the operator only needs one number
+	 */
+	Operator(String symbol, boolean unary) {
+		this(symbol, unary, false);
+	}
+
+	/**
+	 * A custom Constructor Method for the Enum.
+	 * 
+	 * @param symbol   - the symbol of the operator's button
+	 * @param unary    - true if the operator only needs one number
+	 * @param function - true if the operator is a scientific function
+	 */
+	Operator(String symbol, boolean unary, boolean function) {
+		this.symbol = symbol;
+		this.unary = unary;
+		this.function = function;
+	}
+
+	/**
+	 * @return - the symbol of the operator's button
+	 */
+	public String symbol() {
+		return symbol;
+	}
+
+	/**
+	 * @return - true if the operator only needs one number, false otherwise
+	 */
+	public boolean isUnary() {
+		return unary;
+	}
+
+	/**
+	 * @return - true if the operator is a scientific function, calculated by the
+	 *         Scientific Class, false otherwise
+	 */
+	public boolean isFunction() {
+		return function;
+	}
+
+	/**
+	 * Finds the Operator that matches the passed in button symbol.
+	 * 
+	 * @param s - the symbol of the button
+	 * @return - the matching Operator, or null if there is none
+	 */
+	public static Operator of(String s) {
+		// Checking each operator's symbol
+		for (Operator o : values()) {
+			if (o.symbol.equals(s)) {
+				return o;
+			}
+		}
+		// No operator has this symbol
+		return null;
+	}
+}
@@ -0,0 +1,178 @@
+package calculator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This Class evaluates large batches of independent calculations across every
+ * core, using a ForkJoinPool. The columns are split in half again and again
+ * until the pieces are chunks of CHUNK elements, small enough for the pieces of
+ * every column to stay in the cache together while they are evaluated. Idle
+ * threads steal halves that have not been started yet, so batches whose
+ * elements cost different amounts, such as a mix of square roots and
+ * additions, are still shared out evenly.
+ * 
+ * Every element is calculated on its own by the same kernels as the
+ * ColumnarEvaluator, so the results do not depend on how the work was split or
+ * which thread did it: they are always the same as evaluating the batch on
+ * one thread.
+ * 
+ * @author Andrew Sand
+ */
+public final class ParallelEvaluator {
+	/**
+	 * The number of elements in the smallest piece of work: 16 KB of each float
+	 * column
+	 */
+	static final int CHUNK = 4096;
+
+	/**
+	 * The Operators, indexed by the ordinals used in columns of operators
+	 */
+	private static final Operator[] OPERATORS = Operator.values();
+
+	/**
+	 * Member variable that stores the pool the work is run in
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * A default Constructor Method for the Class, using the common pool.
+	 */
+	public ParallelEvaluator() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param pool - the pool to run the work in
+	 */
+	public ParallelEvaluator(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * Applies the Operator to every pair of numbers in the passed in columns.
+	 * 
+	 * @param o   - the Operator to apply
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers, may be null for unary operators
+	 * @param out - the column that the results are written into
+	 */
+	public void evaluate(Operator o, float[] a, float[] b, float[] out) {
+		BatchEvaluator.check(o, a.length, b == null ? -1 : b.length, out.length, 0, a.length);
+		pool.invoke(new Task((from, to) -> ColumnarEvaluator.evaluate(o, a, b, out, from, to), 0, a.length));
+	}
+
+	/**
+	 * Applies the Operator to every pair of numbers in the passed in columns,
+	 * rounding them to floats first except for square root, as the
+	 * BatchEvaluator does.
+	 * 
+	 * @param o   - the Operator to apply
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers, may be null for unary operators
+	 * @param out - the column that the results are written into
+	 */
+	public void evaluate(Operator o, double[] a, double[] b, float[] out) {
+		BatchEvaluator.check(o, a.length, b == null ? -1 : b.length, out.length, 0, a.length);
+		pool.invoke(new Task((from, to) -> ColumnarEvaluator.evaluate(o, a, b, out, from, to), 0, a.length));
+	}
+
+	/**
+	 * Applies a different Operator to each pair of numbers in the passed in
+	 * columns. The second number is ignored by unary operators.
+	 * 
+	 * @param ops - the column of Operators, as their ordinals
+	 * @param a   - the column of first numbers
+	 * @param b   - the column of second numbers
+	 * @param out - the column that the results are written into
+	 */
+	public void evaluate(byte[] ops, float[] a, float[] b, float[] out) {
+		// Checking that the columns are large enough
+		if (b == null || b.length < ops.length || a.length < ops.length || out.length < ops.length) {
+			throw new IllegalArgumentException("Every column must be as long as the column of operators");
+		}
+		for (byte op : ops) {
+			if (op < 0 || op >= OPERATORS.length) {
+				throw new IllegalArgumentException("Unknown operator: " + op);
+			}
+		}
+
+		pool.invoke(new Task((from, to) -> {
+			for (int i = from; i < to; i++) {
+				out[i] = Arithmetic.apply(OPERATORS[ops[i]], a[i], b[i]);
+			}
+		}, 0, ops.length));
+	}
+
+	/**
+	 * Evaluates an Expression once for every row of the passed in columns, as
+	 * Expression.evaluate(float[][] columns, float[] out) does.
+	 * 
+	 * @param e       - the Expression
+	 * @param columns - the columns of variable values, one per variable
+	 * @param out     - the column that the results are written into
+	 */
+	public void evaluate(Expression e, float[][] columns, float[] out) {
+		// Checking that there is a long enough column for every variable
+		if (columns.length < e.variables().length) {
+			throw new IllegalArgumentException("Expected " + e.variables().length + " columns");
+		}
+		for (int v = 0; v < e.variables().length; v++) {
+			if (columns[v].length < out.length) {
+				throw new IllegalArgumentException("Column " + v + " is shorter than the results column");
+			}
+		}
+
+		pool.invoke(new Task((from, to) -> e.evaluate(columns, out, from, to), 0, out.length));
+	}
+
+	/**
+	 * The work done on one chunk of the columns.
+	 */
+	private interface Chunk {
+		void evaluate(int from, int to);
+	}
+
+	/**
+	 * This Class is a piece of the work, which evaluates its range itself if it
+	 * is small enough and otherwise splits it in half.
+	 */
+	@SuppressWarnings("serial")
+	private static final class Task extends RecursiveAction {
+		/**
+		 * Member variables that store the work and the range of the piece
+		 */
+		private final Chunk chunk;
+		private final int from, to;
+
+		/**
+		 * A custom Constructor Method for the Class.
+		 * 
+		 * @param chunk - the work done on each chunk
+		 * @param from  - the first index of the piece
+		 * @param to    - the index after the last one of the piece
+		 */
+		Task(Chunk chunk, int from, int to) {
+			this.chunk = chunk;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			// Evaluating small pieces
+			if (to - from <= CHUNK) {
+				chunk.evaluate(from, to);
+				return;
+			}
+
+			// Splitting on a chunk boundary, so pieces line up with cache lines and
+			// vectors
+			int mid = from + ((to - from) / 2 + CHUNK - 1) / CHUNK * CHUNK;
+			invokeAll(new Task(chunk, from, mid), new Task(chunk, mid, to));
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package calculator;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * This Class is a NumericBackend for large and exact values, such as money. It
+ * lifts the calculator's limits on how many chars can be typed into each
+ * number, and its results never overflow. Addition, subtraction,
+ * multiplication and squaring are exact, while division and square roots are
+ * rounded using the MathContext passed into the Constructor unless their
+ * result is exact and short enough.
+ * 
+ * Most numbers typed into a calculator fit into a long once their decimal
+ * point is removed, so each number is first read as a long and the number of
+ * digits after its decimal point, and the operation is carried out on longs
+ * with checks for overflow. Only numbers of more than 18 digits, results that
+ * would overflow a long, and divisions and square roots that are not exact
+ * escalate to BigDecimal, so the results are always those BigDecimal would
+ * give. Results are shown in plain notation without trailing zeros.
+ * 
+ * @author Andrew Sand
+ */
+public class PreciseBackend implements NumericBackend {
+	/**
+	 * The powers of ten that fit into a long
+	 */
+	private static final long[] POW10 = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L,
+			1000000000L, 10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+			1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L };
+
+	/**
+	 * The most digits read into a long, and the value returned for a number that
+	 * can not be
+	 */
+	private static final int MAX_DIGITS = 18;
+	private static final long NONE = Long.MIN_VALUE;
+
+	/**
+	 * Member variable that stores the precision and rounding of division and
+	 * square roots
+	 */
+	private final MathContext mc;
+
+	/**
+	 * Member variable that stores whether an exact quotient or square root of
+	 * longs has few enough digits that it needs no rounding
+	 */
+	private final boolean exact;
+
+	/**
+	 * Member variable that stores the chars results are formatted into
+	 */
+	private final char[] chars = new char[48];
+
+	/**
+	 * A Constructor Method that rounds division and square roots to 34
+	 * significant digits (IEEE decimal128).
+	 */
+	public PreciseBackend() {
+		this(MathContext.DECIMAL128);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param mc - the precision and rounding of division and square roots
+	 */
+	public PreciseBackend(MathContext mc) {
+		this.mc = mc;
+		this.exact = mc.getPrecision() == 0 || mc.getPrecision() > MAX_DIGITS;
+	}
+
+	/**
+	 * @return - the precision and rounding of division and square roots
+	 */
+	MathContext context() {
+		return mc;
+	}
+
+	@Override
+	public String add(String s1, String s2) {
+		// Variable declaration
+		long a = unscaled(s1), b = unscaled(s2);
+
+		// Adding the longs with the same number of digits after the point
+		if (a != NONE && b != NONE) {
+			int sa = scale(s1), sb = scale(s2), sc = Math.max(sa, sb);
+			a = rescale(a, sc - sa);
+			b = rescale(b, sc - sb);
+			long r = a + b;
+			if (a != NONE && b != NONE && ((a ^ r) & (b ^ r)) >= 0) {
+				return format(r, sc);
+			}
+		}
+		return BigDecimalBackend.format(new BigDecimal(s1).add(new BigDecimal(s2)));
+	}
+
+	@Override
+	public String subtract(String s1, String s2) {
+		// Variable declaration
+		long a = unscaled(s1), b = unscaled(s2);
+
+		// Subtracting the longs with the same number of digits after the point
+		if (a != NONE && b != NONE) {
+			int sa = scale(s1), sb = scale(s2), sc = Math.max(sa, sb);
+			a = rescale(a, sc - sa);
+			b = rescale(b, sc - sb);
+			long r = a - b;
+			if (a != NONE && b != NONE && ((a ^ b) & (a ^ r)) >= 0) {
+				return format(r, sc);
+			}
+		}
+		return BigDecimalBackend.format(new BigDecimal(s1).subtract(new BigDecimal(s2)));
+	}
+
+	@Override
+	public String multiply(String s1, String s2) {
+		// Variable declaration
+		long a = unscaled(s1), b = unscaled(s2);
+
+		// Multiplying the longs, whose digits after the point add up
+		if (a != NONE && b != NONE) {
+			long r = a * b;
+			if (Math.multiplyHigh(a, b) == r >> 63) {
+				return format(r, scale(s1) + scale(s2));
+			}
+		}
+		return BigDecimalBackend.format(new BigDecimal(s1).multiply(new BigDecimal(s2)));
+	}
+
+	@Override
+	public String divide(String s1, String s2) {
+		// Variable declaration
+		long a = unscaled(s1), b = unscaled(s2);
+
+		// Dividing the longs if the quotient is exact once the first is given as
+		// many digits after the point as fit
+		if (exact && a != NONE && b != NONE && b != 0) {
+			int k = 0;
+			while (k < MAX_DIGITS && rescale(a, k + 1) != NONE) {
+				k++;
+			}
+			long n = a * POW10[k];
+			if (n % b == 0) {
+				return format(n / b, scale(s1) + k - scale(s2));
+			}
+		}
+		// Throws an ArithmeticException when dividing by zero
+		return BigDecimalBackend.format(new BigDecimal(s1).divide(new BigDecimal(s2), mc));
+	}
+
+	@Override
+	public String square(String s) {
+		return multiply(s, s);
+	}
+
+	@Override
+	public String square_root(String s) {
+		// Variable declaration
+		long a = unscaled(s);
+		int sa = scale(s);
+
+		// Taking the root of a long that is a perfect square, with an even number
+		// of digits after the point, which Math.sqrt finds exactly below 2^52
+		if (exact && a >= 0 && a <= 1L << 52 && (sa & 1) == 0) {
+			long r = (long) Math.sqrt(a);
+			if (r * r == a) {
+				return format(r, sa / 2);
+			}
+		}
+		// Throws an ArithmeticException for negative numbers
+		return BigDecimalBackend.format(new BigDecimal(s).sqrt(mc));
+	}
+
+	@Override
+	public boolean overflows(String s) {
+		// Results can be as large as needed
+		return false;
+	}
+
+	@Override
+	public boolean keeps_digits() {
+		// Results have as many digits as they need
+		return true;
+	}
+
+	@Override
+	public void format(double memory, Operand dst) {
+		// Recalling in plain notation, which the other backends only do for whole
+		// numbers
+		if (Double.isFinite(memory)) {
+			dst.set(BigDecimalBackend.format(BigDecimal.valueOf(memory)));
+		} else {
+			NumericBackend.super.format(memory, dst);
+		}
+	}
+
+	@Override
+	public int input_limit(int limit) {
+		// Numbers of any length can be typed
+		return Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Helper Method that reads a plain decimal of at most 18 digits as a long,
+	 * ignoring its decimal point.
+	 * 
+	 * @param s - the String containing the number
+	 * @return - the digits of the number as a long, or NONE if it is not a plain
+	 *         decimal of at most 18 digits
+	 */
+	private static long unscaled(String s) {
+		// Variable declaration
+		int n = s.length(), digits = 0;
+		boolean negative = n > 0 && s.charAt(0) == '-', dot = false;
+		long m = 0;
+
+		// Reading each digit after the sign
+		for (int i = negative ? 1 : 0; i < n; i++) {
+			char c = s.charAt(i);
+			if (c >= '0' && c <= '9' && ++digits <= MAX_DIGITS) {
+				m = m * 10 + (c - '0');
+			} else if (c == '.' && !dot) {
+				dot = true;
+			} else {
+				return NONE;
+			}
+		}
+		if (digits == 0) {
+			return NONE;
+		}
+		return negative ? -m : m;
+	}
+
+	/**
+	 * Helper Method that counts the digits after the decimal point of a number.
+	 * 
+	 * @param s - the String containing the number
+	 * @return - the number of digits after the decimal point
+	 */
+	private static int scale(String s) {
+		int dot = s.indexOf('.');
+		return dot < 0 ? 0 : s.length() - dot - 1;
+	}
+
+	/**
+	 * Helper Method that gives a long more digits after the decimal point.
+	 * 
+	 * @param u - the digits of a number, or NONE
+	 * @param k - how many digits to add
+	 * @return - the digits of the number, or NONE if they overflow a long
+	 */
+	private static long rescale(long u, int k) {
+		if (k == 0 || u == NONE) {
+			return u;
+		}
+		if (k > MAX_DIGITS) {
+			return NONE;
+		}
+		long r = u * POW10[k];
+		return Math.multiplyHigh(u, POW10[k]) == r >> 63 ? r : NONE;
+	}
+
+	/**
+	 * Helper Method that writes a result in plain notation without any trailing
+	 * zeros, the same way BigDecimalBackend.format(BigDecimal d) does.
+	 * 
+	 * @param u     - the digits of the result
+	 * @param scale - the number of digits after the decimal point, which is
+	 *              negative if there are zeros before it
+	 * @return - the resulting String
+	 */
+	private String format(long u, int scale) {
+		// The one long that can not be negated, and zero, which has no digits
+		if (u == NONE) {
+			return BigDecimalBackend.format(BigDecimal.valueOf(u, scale));
+		}
+		if (u == 0) {
+			return "0";
+		}
+
+		// Removing the trailing zeros
+		while (scale > 0 && u % 10 == 0) {
+			u /= 10;
+			scale--;
+		}
+
+		// Writing the chars from the last
+		boolean negative = u < 0;
+		u = Math.abs(u);
+		int p = chars.length;
+		for (int z = scale; z < 0; z++) {
+			chars[--p] = '0';
+		}
+		for (int i = 0; u != 0 || i < scale;) {
+			chars[--p] = (char) ('0' + u % 10);
+			u /= 10;
+			if (++i == scale) {
+				chars[--p] = '.';
+			}
+		}
+		if (chars[p] == '.') {
+			chars[--p] = '0';
+		}
+		if (negative) {
+			chars[--p] = '-';
+		}
+		return new String(chars, p, chars.length - p);
+	}
+}
@@ -0,0 +1,229 @@
+package calculator;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * This Class is an immutable, exact rational number made from a BigInteger
+ * numerator and denominator. The fraction is always stored in lowest terms
+ * with a positive denominator, so two equal numbers always have the same
+ * numerator and denominator.
+ * 
+ * @author Andrew Sand
+ */
+public final class Rational implements Comparable<Rational> {
+	/**
+	 * Commonly used values
+	 */
+	public static final Rational ZERO = new Rational(BigInteger.ZERO, BigInteger.ONE);
+	public static final Rational ONE = new Rational(BigInteger.ONE, BigInteger.ONE);
+
+	/**
+	 * Member variables that store the numerator and the denominator
+	 */
+	private final BigInteger num, den;
+
+	/**
+	 * A private Constructor Method that stores an already reduced fraction.
+	 * 
+	 * @param num - the numerator
+	 * @param den - the positive denominator
+	 */
+	private Rational(BigInteger num, BigInteger den) {
+		this.num = num;
+		this.den = den;
+	}
+
+	/**
+	 * Creates the Rational num / den, reducing it to lowest terms.
+	 * 
+	 * @param num - the numerator
+	 * @param den - the denominator
+	 * @return - the resulting Rational
+	 */
+	public static Rational of(BigInteger num, BigInteger den) {
+		// Testing for an illegal denominator
+		if (den.signum() == 0) {
+			throw new ArithmeticException("Division by zero");
+		}
+		// Keeping the sign on the numerator
+		if (den.signum() < 0) {
+			num = num.negate();
+			den = den.negate();
+		}
+		// Reducing the fraction
+		BigInteger gcd = num.gcd(den);
+		if (!gcd.equals(BigInteger.ONE)) {
+			num = num.divide(gcd);
+			den = den.divide(gcd);
+		}
+		return new Rational(num, den);
+	}
+
+	/**
+	 * Creates the Rational that exactly equals the passed in BigDecimal.
+	 * 
+	 * @param d - the BigDecimal to convert
+	 * @return - the resulting Rational
+	 */
+	public static Rational of(BigDecimal d) {
+		// Testing if the scale is negative, which means a whole number
+		if (d.scale() <= 0) {
+			return new Rational(d.toBigIntegerExact(), BigInteger.ONE);
+		}
+		return of(d.unscaledValue(), BigInteger.TEN.pow(d.scale()));
+	}
+
+	/**
+	 * Parses a Rational from either a decimal number, such as "-12.5", or a
+	 * fraction, such as "1/3".
+	 * 
+	 * @param s - the String to parse
+	 * @return - the resulting Rational
+	 * @throws NumberFormatException if the String is not a number
+	 */
+	public static Rational parse(String s) {
+		// Testing if the String is a fraction
+		int slash = s.indexOf('/');
+		if (slash != -1) {
+			return of(new BigInteger(s.substring(0, slash).trim()), new BigInteger(s.substring(slash + 1).trim()));
+		}
+		return of(new BigDecimal(s));
+	}
+
+	/**
+	 * @return - the numerator
+	 */
+	public BigInteger numerator() {
+		return num;
+	}
+
+	/**
+	 * @return - the positive denominator
+	 */
+	public BigInteger denominator() {
+		return den;
+	}
+
+	/**
+	 * @return - -1, 0 or 1 as this number is negative, zero or positive
+	 */
+	public int signum() {
+		return num.signum();
+	}
+
+	/**
+	 * @param o - the Rational to add
+	 * @return - this + o
+	 */
+	public Rational add(Rational o) {
+		return of(num.multiply(o.den).add(o.num.multiply(den)), den.multiply(o.den));
+	}
+
+	/**
+	 * @param o - the Rational to subtract
+	 * @return - this - o
+	 */
+	public Rational subtract(Rational o) {
+		return of(num.multiply(o.den).subtract(o.num.multiply(den)), den.multiply(o.den));
+	}
+
+	/**
+	 * @param o - the Rational to multiply by
+	 * @return - this * o
+	 */
+	public Rational multiply(Rational o) {
+		return of(num.multiply(o.num), den.multiply(o.den));
+	}
+
+	/**
+	 * @param o - the Rational to divide by
+	 * @return - this / o
+	 * @throws ArithmeticException if o is zero
+	 */
+	public Rational divide(Rational o) {
+		return of(num.multiply(o.den), den.multiply(o.num));
+	}
+
+	/**
+	 * Calculates the square root. The result is exact when both the numerator
+	 * and the denominator are perfect squares, otherwise it is the exact value of
+	 * the square root rounded using the passed in MathContext.
+	 * 
+	 * @param mc - the precision used when the root is not rational
+	 * @return - the square root of this number
+	 * @throws ArithmeticException if this number is negative
+	 */
+	public Rational sqrt(MathContext mc) {
+		// Testing for an illegal number
+		if (num.signum() < 0) {
+			throw new ArithmeticException("Square root of a negative number");
+		}
+		// Testing if the root is exact
+		BigInteger n = num.sqrt(), d = den.sqrt();
+		if (n.multiply(n).equals(num) && d.multiply(d).equals(den)) {
+			return new Rational(n, d);
+		}
+		return of(toBigDecimal(new MathContext(mc.getPrecision() + 2, mc.getRoundingMode())).sqrt(mc));
+	}
+
+	/**
+	 * @param mc - the precision and rounding of the conversion
+	 * @return - this number as a BigDecimal
+	 */
+	public BigDecimal toBigDecimal(MathContext mc) {
+		return new BigDecimal(num).divide(new BigDecimal(den), mc);
+	}
+
+	/**
+	 * @return - true if this number can be written as a finite decimal, which is
+	 *         when the denominator only has the prime factors 2 and 5
+	 */
+	public boolean isTerminating() {
+		BigInteger d = den.shiftRight(den.getLowestSetBit());
+		BigInteger five = BigInteger.valueOf(5);
+		while (d.mod(five).signum() == 0) {
+			d = d.divide(five);
+		}
+		return d.equals(BigInteger.ONE);
+	}
+
+	@Override
+	public int compareTo(Rational o) {
+		return num.multiply(o.den).compareTo(o.num.multiply(den));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Rational)) {
+			return false;
+		}
+		Rational r = (Rational) o;
+		return num.equals(r.num) && den.equals(r.den);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * num.hashCode() + den.hashCode();
+	}
+
+	/**
+	 * Writes the number as a plain decimal if it can be written exactly,
+	 * otherwise as a fraction such as "1/3". Both forms can be read back by
+	 * parse(String s).
+	 */
+	@Override
+	public String toString() {
+		// Whole numbers
+		if (den.equals(BigInteger.ONE)) {
+			return num.toString();
+		}
+		// Finite decimals
+		if (isTerminating()) {
+			return new BigDecimal(num).divide(new BigDecimal(den)).stripTrailingZeros().toPlainString();
+		}
+		// Everything else
+		return num + "/" + den;
+	}
+}
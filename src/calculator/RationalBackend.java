@@ -0,0 +1,106 @@
+package calculator;
+
+import java.math.MathContext;
+
+/**
+ * This Class is a NumericBackend that works with exact Rational numbers.
+ * Addition, subtraction, multiplication and division never lose precision,
+ * and results that can not be written as a finite decimal are shown as a
+ * fraction such as "1/3". Square roots are only exact for perfect squares,
+ * otherwise they are rounded using the MathContext passed into the
+ * Constructor.
+ * 
+ * @author Andrew Sand
+ */
+public class RationalBackend implements NumericBackend {
+	/**
+	 * Member variable that stores the precision used for inexact square roots
+	 */
+	private final MathContext mc;
+
+	/**
+	 * A Constructor Method that rounds inexact square roots to 34 significant
+	 * digits (IEEE decimal128).
+	 */
+	public RationalBackend() {
+		this(MathContext.DECIMAL128);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param mc - the precision used for inexact square roots
+	 */
+	public RationalBackend(MathContext mc) {
+		this.mc = mc;
+	}
+
+	/**
+	 * @return - the precision used for inexact square roots
+	 */
+	MathContext context() {
+		return mc;
+	}
+
+	@Override
+	public String add(String s1, String s2) {
+		return Rational.parse(s1).add(Rational.parse(s2)).toString();
+	}
+
+	@Override
+	public String subtract(String s1, String s2) {
+		return Rational.parse(s1).subtract(Rational.parse(s2)).toString();
+	}
+
+	@Override
+	public String multiply(String s1, String s2) {
+		return Rational.parse(s1).multiply(Rational.parse(s2)).toString();
+	}
+
+	@Override
+	public String divide(String s1, String s2) {
+		// Throws an ArithmeticException when dividing by zero
+		return Rational.parse(s1).divide(Rational.parse(s2)).toString();
+	}
+
+	@Override
+	public String square(String s) {
+		Rational r = Rational.parse(s);
+		return r.multiply(r).toString();
+	}
+
+	@Override
+	public String square_root(String s) {
+		// Throws an ArithmeticException for negative numbers
+		return Rational.parse(s).sqrt(mc).toString();
+	}
+
+	@Override
+	public double value(String s) {
+		// Results may be fractions, which Double.parseDouble can not read
+		return Double.parseDouble(decimal(s));
+	}
+
+	@Override
+	public String function(Operator op, Scientific.Tier tier, String s1, String s2) {
+		// The functions work in double precision, so fractions become decimals first
+		return NumericBackend.super.function(op, tier, decimal(s1), s2 == null ? null : decimal(s2));
+	}
+
+	@Override
+	public boolean overflows(String s) {
+		// Rational results can be as large as needed
+		return false;
+	}
+
+	/**
+	 * Helper Method that writes a number, which may be a fraction, as a decimal
+	 * with the 16 significant digits a double keeps.
+	 * 
+	 * @param s - the String containing the number
+	 * @return - the number as a decimal
+	 */
+	private static String decimal(String s) {
+		return Rational.parse(s).toBigDecimal(MathContext.DECIMAL64).toString();
+	}
+}
@@ -0,0 +1,279 @@
+package calculator;
+
+import java.util.Arrays;
+
+/**
+ * This Class memoizes the results of the calculator's operations. Entries are
+ * keyed on the operator and the bit patterns of the parsed operands rather than
+ * on their Strings, so "5", "5.0" and "05" share an entry.
+ * 
+ * The cache is an open addressing hash table held in parallel primitive
+ * arrays, sized once from a memory budget and never grown. A key is stored in
+ * one of the PROBES slots following its home slot. When all of them are taken,
+ * one is evicted using the clock algorithm: every hit sets the slot's
+ * reference bit, and the hand sweeps the slots clearing reference bits until
+ * it finds one that has not been used since the last sweep. As entries are only
+ * ever replaced and never removed, lookups can stop at the first empty slot.
+ * 
+ * The cache is not thread safe, as each Calculator has its own.
+ * 
+ * @author Andrew Sand
+ */
+public final class ResultCache {
+	/**
+	 * The number of slots after its home slot that a key may be stored in
+	 */
+	static final int PROBES = 8;
+
+	/**
+	 * The estimated bytes used by one slot of the table, not counting its result
+	 * String: a long, an int, two bytes and a reference
+	 */
+	static final int SLOT_BYTES = 8 + 4 + 1 + 1 + 4;
+
+	/**
+	 * The estimated bytes used by a typical result String, used only to size the
+	 * table from the budget
+	 */
+	static final int RESULT_BYTES = 56;
+
+	/**
+	 * Member variables that store the keys: the first operand's bits, the second
+	 * operand's bits and the operator's ordinal plus one, where 0 marks an empty
+	 * slot
+	 */
+	private final long[] first;
+	private final int[] second;
+	private final byte[] ops;
+
+	/**
+	 * Member variables that store the results and the reference bits
+	 */
+	private final String[] results;
+	private final boolean[] referenced;
+
+	/**
+	 * Member variables that store the mask for the table's size and the clock hand
+	 */
+	private final int mask;
+	private int hand;
+
+	/**
+	 * Member variables that store the statistics
+	 */
+	private long hits, misses, evictions, resultBytes;
+	private int size;
+
+	/**
+	 * A custom Constructor Method for the Class. The table is sized so that it
+	 * and typical results fit into the passed in budget.
+	 * 
+	 * @param budget - the most bytes the cache should use
+	 */
+	public ResultCache(long budget) {
+		// Finding the largest power of two of slots that fits
+		long slots = budget / (SLOT_BYTES + RESULT_BYTES);
+		if (slots < PROBES) {
+			throw new IllegalArgumentException("A budget of " + budget + " bytes is too small");
+		}
+		int n = Integer.highestOneBit((int) Math.min(slots, 1 << 30));
+
+		// Creating the table
+		first = new long[n];
+		second = new int[n];
+		ops = new byte[n];
+		results = new String[n];
+		referenced = new boolean[n];
+		mask = n - 1;
+	}
+
+	/**
+	 * Looks up a result.
+	 * 
+	 * @param op - the operator
+	 * @param a  - the bits of the first operand
+	 * @param b  - the bits of the second operand, or 0 for unary operators
+	 * @return - the cached result, or null if there is none
+	 */
+	public String get(Operator op, long a, int b) {
+		// Variable declaration
+		byte o = (byte) (op.ordinal() + 1);
+		int home = hash(o, a, b);
+
+		// Probing until the key or an empty slot is found
+		for (int i = 0; i < PROBES; i++) {
+			int slot = (home + i) & mask;
+			if (ops[slot] == 0) {
+				break;
+			}
+			if (ops[slot] == o && first[slot] == a && second[slot] == b) {
+				referenced[slot] = true;
+				hits++;
+				return results[slot];
+			}
+		}
+		misses++;
+		return null;
+	}
+
+	/**
+	 * Stores a result, evicting another if there is no room for it.
+	 * 
+	 * @param op     - the operator
+	 * @param a      - the bits of the first operand
+	 * @param b      - the bits of the second operand, or 0 for unary operators
+	 * @param result - the result to store
+	 */
+	public void put(Operator op, long a, int b, String result) {
+		// Variable declaration
+		byte o = (byte) (op.ordinal() + 1);
+		int home = hash(o, a, b);
+
+		// Using the key's own slot or the first empty one
+		for (int i = 0; i < PROBES; i++) {
+			int slot = (home + i) & mask;
+			if (ops[slot] == 0) {
+				size++;
+				store(slot, o, a, b, result);
+				return;
+			}
+			if (ops[slot] == o && first[slot] == a && second[slot] == b) {
+				store(slot, o, a, b, result);
+				return;
+			}
+		}
+
+		// Sweeping the clock hand over the probed slots, giving referenced slots a
+		// second chance. After one full sweep every reference bit is clear.
+		while (true) {
+			int slot = (home + hand) & mask;
+			hand = (hand + 1) & (PROBES - 1);
+			if (referenced[slot]) {
+				referenced[slot] = false;
+			} else {
+				evictions++;
+				store(slot, o, a, b, result);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Helper Method that writes an entry into a slot.
+	 * 
+	 * @param slot   - the slot to write to
+	 * @param o      - the operator's ordinal plus one
+	 * @param a      - the bits of the first operand
+	 * @param b      - the bits of the second operand
+	 * @param result - the result to store
+	 */
+	private void store(int slot, byte o, long a, int b, String result) {
+		if (results[slot] != null) {
+			resultBytes -= string_bytes(results[slot]);
+		}
+		resultBytes += string_bytes(result);
+		ops[slot] = o;
+		first[slot] = a;
+		second[slot] = b;
+		results[slot] = result;
+		referenced[slot] = false;
+	}
+
+	/**
+	 * Helper Method that mixes a key into a home slot.
+	 * 
+	 * @param o - the operator's ordinal plus one
+	 * @param a - the bits of the first operand
+	 * @param b - the bits of the second operand
+	 * @return - the home slot
+	 */
+	private int hash(byte o, long a, int b) {
+		long h = a * 0x9E3779B97F4A7C15L + ((long) b << 3 | o);
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		return (int) h & mask;
+	}
+
+	/**
+	 * Helper Method that estimates the bytes used by a result String with compact
+	 * Strings and compressed references: the String, plus its byte[] rounded up
+	 * to 8 bytes.
+	 * 
+	 * @param s - the String
+	 * @return - the estimated bytes
+	 */
+	private static long string_bytes(String s) {
+		return 24 + ((16 + s.length() + 7) & ~7);
+	}
+
+	/**
+	 * Removes every entry. The statistics are kept.
+	 */
+	public void clear() {
+		Arrays.fill(ops, (byte) 0);
+		Arrays.fill(results, null);
+		Arrays.fill(referenced, false);
+		size = 0;
+		resultBytes = 0;
+	}
+
+	/**
+	 * @return - the number of slots in the table
+	 */
+	public int capacity() {
+		return results.length;
+	}
+
+	/**
+	 * @return - the number of results currently cached
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return - the number of lookups that found a result
+	 */
+	public long hits() {
+		return hits;
+	}
+
+	/**
+	 * @return - the number of lookups that did not find a result
+	 */
+	public long misses() {
+		return misses;
+	}
+
+	/**
+	 * @return - the number of results evicted to make room
+	 */
+	public long evictions() {
+		return evictions;
+	}
+
+	/**
+	 * @return - the fraction of lookups that were hits, or 0 before any lookup
+	 */
+	public double hit_rate() {
+		long total = hits + misses;
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	/**
+	 * @return - the estimated bytes used by the table and the results it holds
+	 */
+	public long footprint() {
+		return (long) capacity() * SLOT_BYTES + 5 * 16 + resultBytes;
+	}
+
+	/**
+	 * toString() Method for the Class, describing the statistics.
+	 */
+	@Override
+	public String toString() {
+		return String.format("ResultCache[size=%d/%d, hit rate=%.1f%%, evictions=%d, footprint=%d bytes]", size,
+				capacity(), hit_rate() * 100, evictions, footprint());
+	}
+}
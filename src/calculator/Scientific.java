@@ -0,0 +1,456 @@
+package calculator;
+
+import java.math.BigInteger;
+
+/**
+ * This Class contains the calculator's scientific functions: exp, ln, log10,
+ * pow, sin, cos, tan and the factorial, which is extended to every number by
+ * the gamma function. Like the Arithmetic Class, each Method works on
+ * primitive numbers only, so it can be used by the backends and by bulk jobs
+ * without creating any Objects.
+ * 
+ * Every function is offered in three tiers, trading the last digits for
+ * throughput:
+ * 
+ * <pre>
+ * EXACT        StrictMath, within 1 ulp and the same on every platform
+ * FAST         Math, within 1 ulp (2 for pow, tan) and usually intrinsified
+ * APPROXIMATE  the table-driven and polynomial kernels of this Class
+ * </pre>
+ * 
+ * The approximate kernels are accurate to far more than the float precision
+ * of the calculator's results. Their largest errors against StrictMath, which
+ * ScientificTest checks over random arguments, and for sin, cos and tan also
+ * at the doubles nearest to every multiple of pi/2 in range, where the result
+ * or its cosine is close to zero, are:
+ * 
+ * <pre>
+ * exp           |x| &lt; 708               2 ulp
+ * ln            x &gt; 0                   3 ulp
+ * log10         x &gt; 0                   4 ulp
+ * sin, cos      |x| &lt; 1e5               1 ulp
+ * tan           |x| &lt; 1e5               3 ulp
+ * pow           x normal, |y ln x| &lt; 708  4 |y ln x| + 2 ulp
+ * </pre>
+ * 
+ * Arguments outside these ranges, infinities and NaN are passed on to
+ * StrictMath, so the special cases are always those of StrictMath. The
+ * factorial of the whole numbers 0 to 170 is exact in every tier. Other
+ * factorials use the Lanczos approximation of the gamma function, within
+ * about 1e-15 relative in the EXACT and FAST tiers, as StrictMath has no
+ * gamma function.
+ * 
+ * @author Andrew Sand
+ */
+public final class Scientific {
+	/**
+	 * This Enum lists the tiers of accuracy the functions are offered in.
+	 */
+	public enum Tier {
+		/**
+		 * StrictMath, within 1 ulp and the same on every platform
+		 */
+		EXACT,
+
+		/**
+		 * Math, within 1 or 2 ulps, using the JIT's intrinsics where it has them
+		 */
+		FAST,
+
+		/**
+		 * Table-driven and polynomial kernels, see the error table of Scientific
+		 */
+		APPROXIMATE
+	}
+
+	/**
+	 * Private Constructor, this Class only has static Methods.
+	 */
+	private Scientific() {
+	}
+
+	/**
+	 * ln(2), ln(10), and sqrt(2 pi) for the gamma function
+	 */
+	private static final double LN2 = 0.6931471805599453, LN10 = 2.302585092994046,
+			SQRT_2PI = 2.5066282746310007;
+
+	/**
+	 * ln(2) / 32 split in two, the first with its low bits clear so that
+	 * multiplying it by a whole number of up to 2^30 is exact, and 32 / ln(2)
+	 */
+	private static final double LN2_32_HI = 0.021660834550857544, LN2_32_LO = 1.4841640746973977e-08,
+			INV_LN2_32 = 46.16624130844683;
+
+	/**
+	 * pi / 2 split in four, from fdlibm, the first three with their low bits
+	 * clear so that multiplying them by a whole number of up to 2^20 is exact,
+	 * and 2 / pi
+	 */
+	private static final double PIO2_1 = 1.57079632673412561417e+00, PIO2_2 = 6.07710050630396597660e-11,
+			PIO2_3 = 2.02226624871116645580e-21, PIO2_3T = 8.47842766036889956997e-32,
+			INV_PIO2 = 0.6366197723675814;
+
+	/**
+	 * The tables of the approximate kernels: 2^(j/32), and c, ln(c) and 1/c for the
+	 * midpoints c = 1 + (j + 0.5)/64 of 64 slices of [1, 2), halved from 1.5 on
+	 * so that numbers just below 1 are not split into -ln(2) and nearly ln(2)
+	 */
+	private static final double[] EXP2_32 = new double[32], C = new double[64], LN_C = new double[64],
+			INV_C = new double[64];
+
+	/**
+	 * The factorials of 0 to 170, correctly rounded, the largest that are finite
+	 */
+	private static final double[] FACTORIALS = new double[171];
+
+	/**
+	 * The coefficients of the Lanczos approximation of the gamma function, g = 7
+	 * and n = 9
+	 */
+	private static final double[] LANCZOS = { 0.99999999999980993, 676.5203681218851, -1259.1392167224028,
+			771.32342877765313, -176.61502916214059, 12.507343278686905, -0.13857109526572012, 9.9843695780195716e-6,
+			1.5056327351493116e-7 };
+
+	static {
+		// Filling the tables from StrictMath and exact products
+		for (int j = 0; j < EXP2_32.length; j++) {
+			EXP2_32[j] = StrictMath.pow(2, j / 32.0);
+		}
+		for (int j = 0; j < LN_C.length; j++) {
+			C[j] = (1 + (j + 0.5) / 64) / (j < 32 ? 1 : 2);
+			LN_C[j] = StrictMath.log(C[j]);
+			INV_C[j] = 1 / C[j];
+		}
+		BigInteger f = BigInteger.ONE;
+		for (int i = 0; i < FACTORIALS.length; i++) {
+			FACTORIALS[i] = f.doubleValue();
+			f = f.multiply(BigInteger.valueOf(i + 1));
+		}
+	}
+
+	/**
+	 * Applies the passed in scientific function to one or two numbers. The
+	 * second number is ignored by every function but pow.
+	 * 
+	 * @param o    - the Operator of the function
+	 * @param tier - the tier of accuracy
+	 * @param a    - the first number
+	 * @param b    - the second number
+	 * @return - the result of the function
+	 */
+	public static double apply(Operator o, Tier tier, double a, double b) {
+		// Testing which function needs to occur
+		switch (o) {
+		case EXP:
+			return exp(a, tier);
+		case LN:
+			return ln(a, tier);
+		case LOG10:
+			return log10(a, tier);
+		case POWER:
+			return pow(a, b, tier);
+		case SIN:
+			return sin(a, tier);
+		case COS:
+			return cos(a, tier);
+		case TAN:
+			return tan(a, tier);
+		case FACTORIAL:
+			return factorial(a, tier);
+		default:
+			throw new IllegalArgumentException("Not a scientific function: " + o);
+		}
+	}
+
+	/**
+	 * @param x    - the power of e
+	 * @param tier - the tier of accuracy
+	 * @return - e raised to the power of the number
+	 */
+	public static double exp(double x, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.exp(x);
+		case FAST:
+			return Math.exp(x);
+		default:
+			return approximate_exp(x);
+		}
+	}
+
+	/**
+	 * @param x    - the number
+	 * @param tier - the tier of accuracy
+	 * @return - the natural logarithm of the number
+	 */
+	public static double ln(double x, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.log(x);
+		case FAST:
+			return Math.log(x);
+		default:
+			return approximate_ln(x);
+		}
+	}
+
+	/**
+	 * @param x    - the number
+	 * @param tier - the tier of accuracy
+	 * @return - the base 10 logarithm of the number
+	 */
+	public static double log10(double x, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.log10(x);
+		case FAST:
+			return Math.log10(x);
+		default:
+			return approximate_ln(x) * (1 / LN10);
+		}
+	}
+
+	/**
+	 * @param x    - the base
+	 * @param y    - the power
+	 * @param tier - the tier of accuracy
+	 * @return - the base raised to the power
+	 */
+	public static double pow(double x, double y, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.pow(x, y);
+		case FAST:
+			return Math.pow(x, y);
+		default:
+			// Only positive normal bases are approximated, the rest go to StrictMath
+			return x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY ? approximate_exp(y * approximate_ln(x))
+					: StrictMath.pow(x, y);
+		}
+	}
+
+	/**
+	 * @param x    - the angle in radians
+	 * @param tier - the tier of accuracy
+	 * @return - the sine of the angle
+	 */
+	public static double sin(double x, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.sin(x);
+		case FAST:
+			return Math.sin(x);
+		default:
+			return approximate_trig(x, 0);
+		}
+	}
+
+	/**
+	 * @param x    - the angle in radians
+	 * @param tier - the tier of accuracy
+	 * @return - the cosine of the angle
+	 */
+	public static double cos(double x, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.cos(x);
+		case FAST:
+			return Math.cos(x);
+		default:
+			return approximate_trig(x, 1);
+		}
+	}
+
+	/**
+	 * @param x    - the angle in radians
+	 * @param tier - the tier of accuracy
+	 * @return - the tangent of the angle
+	 */
+	public static double tan(double x, Tier tier) {
+		switch (tier) {
+		case EXACT:
+			return StrictMath.tan(x);
+		case FAST:
+			return Math.tan(x);
+		default:
+			return approximate_trig(x, 2);
+		}
+	}
+
+	/**
+	 * Calculates the factorial of a number, which is gamma(x + 1) for numbers
+	 * that are not whole. The factorials of negative whole numbers are not
+	 * defined.
+	 * 
+	 * @param x    - the number
+	 * @param tier - the tier of accuracy
+	 * @return - the factorial of the number, or NaN if it is not defined
+	 */
+	public static double factorial(double x, Tier tier) {
+		// Whole numbers are looked up
+		if (x == Math.rint(x)) {
+			if (x < 0) {
+				return Double.NaN;
+			}
+			return x < FACTORIALS.length ? FACTORIALS[(int) x] : Double.POSITIVE_INFINITY;
+		}
+		return gamma(x + 1, tier);
+	}
+
+	/**
+	 * Helper Method that calculates the gamma function with the Lanczos
+	 * approximation, reflecting numbers below 0.5.
+	 * 
+	 * @param z    - the number, which is not a whole number of 0 or less
+	 * @param tier - the tier of accuracy of the functions it uses
+	 * @return - gamma(z)
+	 */
+	private static double gamma(double z, Tier tier) {
+		// Testing for NaN and numbers too large or small to matter
+		if (!(Math.abs(z) < 172)) {
+			return z > 0 ? Double.POSITIVE_INFINITY : z < 0 ? 0 : Double.NaN;
+		}
+		// Reflecting, gamma(z) gamma(1 - z) = pi / sin(pi z)
+		if (z < 0.5) {
+			return Math.PI / (sin(Math.PI * z, tier) * gamma(1 - z, tier));
+		}
+
+		// Summing the series
+		z -= 1;
+		double a = LANCZOS[0];
+		for (int i = 1; i < LANCZOS.length; i++) {
+			a += LANCZOS[i] / (z + i);
+		}
+
+		// sqrt(2 pi) t^(z + 0.5) e^-t a, splitting the power so it does not
+		// overflow before e^-t brings it back down
+		double t = z + 7.5;
+		double h = pow(t, (z + 0.5) / 2, tier);
+		return SQRT_2PI * h * (h * exp(-t, tier)) * a;
+	}
+
+	/**
+	 * Helper Method that approximates e^x. It splits x into (32m + j) ln(2)/32 +
+	 * r, with |r| at most ln(2)/64, and multiplies 2^m, 2^(j/32) from a table,
+	 * and a polynomial for e^r.
+	 * 
+	 * @param x - the power of e
+	 * @return - e raised to the power of the number
+	 */
+	private static double approximate_exp(double x) {
+		// Numbers whose result is not a normal double, infinities and NaN
+		if (!(Math.abs(x) < 708)) {
+			return StrictMath.exp(x);
+		}
+
+		// Reducing the number
+		double k = Math.rint(x * INV_LN2_32);
+		double r = (x - k * LN2_32_HI) - k * LN2_32_LO;
+		int n = (int) k;
+
+		// e^r, the terms of its series up to r^6
+		double p = 1 + r * (1 + r * (1.0 / 2 + r * (1.0 / 6 + r * (1.0 / 24 + r * (1.0 / 120 + r * (1.0 / 720))))));
+
+		// Scaling by 2^(j/32) and 2^m
+		return EXP2_32[n & 31] * p * Double.longBitsToDouble((long) ((n >> 5) + 1023) << 52);
+	}
+
+	/**
+	 * Helper Method that approximates ln(x). It splits x into 2^e m, with m in
+	 * [0.75, 1.5), and adds e ln(2), ln(c) from a table for the midpoint c of the
+	 * 1/64 wide slice of [1, 2) that m or 2m is in, and a polynomial for ln(m/c).
+	 * Numbers close to 1 use a polynomial for ln(x) itself, so their small
+	 * results are not lost to cancellation.
+	 * 
+	 * @param x - the number
+	 * @return - the natural logarithm of the number
+	 */
+	private static double approximate_ln(double x) {
+		// Zero, negative, subnormal and infinite numbers, and NaN
+		if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+			return StrictMath.log(x);
+		}
+
+		// Numbers close to 1, the terms of the series of ln(1 + t) up to t^9
+		double t = x - 1;
+		if (Math.abs(t) < 1.0 / 64) {
+			return t * (1 + t * (-1.0 / 2 + t * (1.0 / 3 + t * (-1.0 / 4 + t * (1.0 / 5 + t * (-1.0 / 6
+					+ t * (1.0 / 7 + t * (-1.0 / 8 + t * (1.0 / 9)))))))));
+		}
+
+		// Splitting the number into its exponent and mantissa, halving mantissas
+		// from 1.5 on
+		long bits = Double.doubleToRawLongBits(x);
+		int j = (int) (bits >>> 46) & 63;
+		int e = (int) (bits >>> 52) - 1023 + (j >> 5);
+		double m = Double.longBitsToDouble(bits & 0x000FFFFFFFFFFFFFL | (j < 32 ? 0x3FF0000000000000L : 0x3FE0000000000000L));
+
+		// ln(m/c) with |m/c - 1| at most 1/96, the terms up to t^7
+		t = (m - C[j]) * INV_C[j];
+		double p = t * (1 + t * (-1.0 / 2 + t * (1.0 / 3 + t * (-1.0 / 4 + t * (1.0 / 5 + t * (-1.0 / 6 + t * (1.0 / 7)))))));
+		return e * LN2 + (LN_C[j] + p);
+	}
+
+	/**
+	 * Helper Method that approximates sin(x), cos(x) or tan(x). It splits x into
+	 * k pi/2 + r + e, with |r| at most pi/4 and e the part of r that does not fit
+	 * into a double, and uses polynomials for sin(r) and cos(r), corrected by e
+	 * and picked and signed by the quadrant k.
+	 * 
+	 * @param x        - the angle in radians
+	 * @param function - 0 for sin, 1 for cos, 2 for tan
+	 * @return - the sine, cosine or tangent of the angle
+	 */
+	private static double approximate_trig(double x, int function) {
+		// Angles too large to reduce with these parts of pi/2, infinities and NaN
+		if (!(Math.abs(x) < 1e5)) {
+			return function == 0 ? StrictMath.sin(x) : function == 1 ? StrictMath.cos(x) : StrictMath.tan(x);
+		}
+
+		// Reducing the angle, subtracting each part of k pi/2 exactly and carrying
+		// the rounding errors in e, so that r keeps its relative accuracy even
+		// when the angle is very close to a multiple of pi/2. Angles within pi/4
+		// of zero need no reducing, which also keeps the sign of -0
+		double k = Math.rint(x * INV_PIO2), r = x, e = 0;
+		if (k != 0) {
+			double y = x - k * PIO2_1, w = -k * PIO2_2;
+			r = y + w;
+			double b = r - y;
+			e = (y - (r - b)) + (w - b);
+			y = r;
+			w = -k * PIO2_3;
+			r = y + w;
+			b = r - y;
+			e += (y - (r - b)) + (w - b) - k * PIO2_3T;
+			y = r + e;
+			e -= y - r;
+			r = y;
+		}
+		int q = (int) k & 3;
+
+		// The terms of the series of sin(r) up to r^17, and cos(r) up to r^16
+		double r2 = r * r;
+		double s = r + r * r2 * (-1.0 / 6 + r2 * (1.0 / 120 + r2 * (-1.0 / 5040 + r2 * (1.0 / 362880
+				+ r2 * (-1.0 / 39916800 + r2 * (1.0 / 6227020800L + r2 * (-1.0 / 1307674368000L
+						+ r2 * (1.0 / 355687428096000L))))))));
+		double c = 1 + r2 * (-1.0 / 2 + r2 * (1.0 / 24 + r2 * (-1.0 / 720 + r2 * (1.0 / 40320
+				+ r2 * (-1.0 / 3628800 + r2 * (1.0 / 479001600 + r2 * (-1.0 / 87178291200L
+						+ r2 * (1.0 / 20922789888000L))))))));
+
+		// sin(r + e) and cos(r + e), as e is at most half an ulp of r
+		double t = s;
+		s += e * c;
+		c -= e * t;
+
+		// Picking by the quadrant
+		switch (function) {
+		case 0:
+			return q == 0 ? s : q == 1 ? c : q == 2 ? -s : -c;
+		case 1:
+			return q == 0 ? c : q == 1 ? -s : q == 2 ? -c : s;
+		default:
+			return (q & 1) == 0 ? s / c : -c / s;
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package calculator;
+
+/**
+ * This Class is one user's session with the calculator. Each session has its
+ * own Calculator and NumericBackend, so sessions share no mutable state and
+ * never wait for each other. Presses on the same session are applied one at a
+ * time under the session's own lock.
+ * 
+ * After every press the displayed number is published as an immutable String,
+ * so it can be read from any thread without taking the lock.
+ * 
+ * @author Andrew Sand
+ */
+public final class Session {
+	/**
+	 * Member variable that stores the id given to the session by its registry
+	 */
+	private final long id;
+
+	/**
+	 * Member variable that stores the session's own calculator
+	 */
+	private final Calculator calc;
+
+	/**
+	 * Member variable that stores the displayed number after the last press
+	 */
+	private volatile String display = "";
+
+	/**
+	 * A custom Constructor Method for the Class.
+	 * 
+	 * @param id      - the id of the session
+	 * @param backend - the session's own NumericBackend
+	 */
+	Session(long id, NumericBackend backend) {
+		this(id, backend, null);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class whose memory is persisted.
+	 * 
+	 * @param id      - the id of the session
+	 * @param backend - the session's own NumericBackend
+	 * @param journal - the journal the memory is persisted to, or null
+	 */
+	Session(long id, NumericBackend backend, Journal journal) {
+		this.id = id;
+		this.calc = new Calculator(backend);
+		calc.setJournal(journal, id);
+	}
+
+	/**
+	 * Presses a button of the session's calculator.
+	 * 
+	 * @param c - the Command of the button pressed
+	 * @return - the number displayed after the press
+	 */
+	public synchronized String press(Command c) {
+		calc.press(c);
+		return display = calc.display();
+	}
+
+	/**
+	 * Presses a series of buttons of the session's calculator, taking the lock
+	 * only once.
+	 * 
+	 * @param commands - the Commands of the buttons pressed, in order
+	 * @return - the number displayed after the last press
+	 */
+	public synchronized String press(Command... commands) {
+		for (Command c : commands) {
+			calc.press(c);
+		}
+		return display = calc.display();
+	}
+
+	/**
+	 * @return - the number displayed after the last press, read without locking
+	 */
+	public String display() {
+		return display;
+	}
+
+	/**
+	 * @return - the id of the session
+	 */
+	public long id() {
+		return id;
+	}
+
+	/**
+	 * toString() Method for the Class.
+	 */
+	@Override
+	public String toString() {
+		return "Session[" + id + ": " + display + "]";
+	}
+}
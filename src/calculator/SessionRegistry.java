@@ -0,0 +1,147 @@
+package calculator;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * This Class keeps track of the open Sessions, so that one process can serve
+ * many users at once. Sessions are held in a ConcurrentHashMap, whose lookups
+ * take no lock and whose updates only lock one bin, and ids come from an
+ * AtomicLong, so threads serving different sessions do not contend.
+ * 
+ * @author Andrew Sand
+ */
+public final class SessionRegistry {
+	/**
+	 * Member variable that stores the open sessions by id
+	 */
+	private final ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<>();
+
+	/**
+	 * Member variable that stores the next id to give out
+	 */
+	private final AtomicLong ids = new AtomicLong();
+
+	/**
+	 * Member variable that creates a NumericBackend for each new session
+	 */
+	private final Supplier<? extends NumericBackend> backends;
+
+	/**
+	 * Member variable that stores the journal the memory of each session is
+	 * persisted to, or null if it is not persisted
+	 */
+	private final Journal journal;
+
+	/**
+	 * A default Constructor Method for the Class. Sessions use the original float
+	 * arithmetic.
+	 */
+	public SessionRegistry() {
+		this(FloatBackend::new);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class. Backends are not thread safe, so
+	 * the supplier must create a new one each time.
+	 * 
+	 * @param backends - creates the NumericBackend of each new session
+	 */
+	public SessionRegistry(Supplier<? extends NumericBackend> backends) {
+		this(backends, null);
+	}
+
+	/**
+	 * A custom Constructor Method for the Class that persists the memory of each
+	 * session to a journal. New ids carry on from the largest id in the journal,
+	 * and the sessions recovered from it can be reopened with resume(long id).
+	 * 
+	 * @param backends - creates the NumericBackend of each new session
+	 * @param journal  - the journal the memory of each session is persisted to
+	 */
+	public SessionRegistry(Supplier<? extends NumericBackend> backends, Journal journal) {
+		this.backends = backends;
+		this.journal = journal;
+		if (journal != null) {
+			for (long id : journal.memories().keySet()) {
+				ids.accumulateAndGet(id, Math::max);
+			}
+		}
+	}
+
+	/**
+	 * Opens a new session.
+	 * 
+	 * @return - the new Session
+	 */
+	public Session open() {
+		Session s = new Session(ids.incrementAndGet(), backends.get(), journal);
+		sessions.put(s.id(), s);
+		return s;
+	}
+
+	/**
+	 * Reopens a session that was open before a restart, restoring its memory from
+	 * the journal. If the session is already open it is returned as it is.
+	 * 
+	 * @param id - the id of the session
+	 * @return - the Session
+	 * @throws IllegalArgumentException if the id has never been given out
+	 */
+	public Session resume(long id) {
+		if (journal == null || id <= 0 || id > ids.get()) {
+			throw new IllegalArgumentException("No journaled session " + id);
+		}
+		return sessions.computeIfAbsent(id, k -> new Session(k, backends.get(), journal));
+	}
+
+	/**
+	 * Finds an open session.
+	 * 
+	 * @param id - the id of the session
+	 * @return - the Session, or null if it is not open
+	 */
+	public Session get(long id) {
+		return sessions.get(id);
+	}
+
+	/**
+	 * Presses a button of an open session.
+	 * 
+	 * @param id - the id of the session
+	 * @param c  - the Command of the button pressed
+	 * @return - the number displayed after the press
+	 * @throws IllegalArgumentException if the session is not open
+	 */
+	public String press(long id, Command c) {
+		Session s = sessions.get(id);
+		if (s == null) {
+			throw new IllegalArgumentException("No open session " + id);
+		}
+		return s.press(c);
+	}
+
+	/**
+	 * Closes a session, forgetting its journaled memory.
+	 * 
+	 * @param id - the id of the session
+	 * @return - true if the session was open
+	 */
+	public boolean close(long id) {
+		if (sessions.remove(id) == null) {
+			return false;
+		}
+		if (journal != null) {
+			journal.remove(id);
+		}
+		return true;
+	}
+
+	/**
+	 * @return - the number of open sessions
+	 */
+	public int size() {
+		return sessions.size();
+	}
+}
@@ -0,0 +1,131 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * AsciiNumber Class against the JDK's parsers, and the LineEvaluator Class
+ * against the Calculator's Methods.
+ * 
+ * @author Andrew Sand
+ */
+public class AsciiNumberTest {
+	/**
+	 * Helper method that parses a String as a float using AsciiNumber.
+	 * 
+	 * @param s - the number
+	 * @return - the float
+	 */
+	private static float parse_float(String s) {
+		ByteBuffer b = ByteBuffer.allocateDirect(s.length() + 2);
+		b.put((byte) '#').put(s.getBytes(StandardCharsets.ISO_8859_1)).put((byte) '#');
+		return AsciiNumber.parse_float(b, 1, 1 + s.length());
+	}
+
+	/**
+	 * Helper method that parses a String as a double using AsciiNumber.
+	 * 
+	 * @param s - the number
+	 * @return - the double
+	 */
+	private static double parse_double(String s) {
+		ByteBuffer b = ByteBuffer.wrap(s.getBytes(StandardCharsets.ISO_8859_1));
+		return AsciiNumber.parse_double(b, 0, s.length());
+	}
+
+	/**
+	 * Testing numbers typed on the calculator and other accepted forms
+	 */
+	@Test
+	public void forms() {
+		for (String s : new String[] { "0", "-0", "5", "1.5", "3.63", "-12.25", ".5", "5.", "0.001", "63.354",
+				"987.5", "1234567.1234567", "1e5", "1.5E-7", "+3", "1e-45", "3.4028236e38", "NaN", "-Infinity",
+				"0x1p3", "1.5f", "123456789012345678901234567890", "0.1000000000000000055511151231257827" }) {
+			assertEquals(s, Float.floatToIntBits(Float.parseFloat(s)), Float.floatToIntBits(parse_float(s)));
+			assertEquals(s, Double.doubleToLongBits(Double.parseDouble(s)),
+					Double.doubleToLongBits(parse_double(s)));
+		}
+	}
+
+	/**
+	 * Testing that what the JDK rejects is rejected
+	 */
+	@Test
+	public void invalid() {
+		for (String s : new String[] { "", "-", ".", "1.2.3", "1e", "1e+", "abc", "1 2", "--1" }) {
+			try {
+				parse_float(s);
+				fail("Accepted " + s);
+			} catch (NumberFormatException e) {
+				// Expected
+			}
+		}
+	}
+
+	/**
+	 * Testing random decimals against the JDK, including numbers halfway between
+	 * two floats, which must not be rounded twice
+	 */
+	@Test
+	public void random() {
+		Random r = new Random(13);
+		for (int i = 0; i < 200000; i++) {
+			String s;
+			switch (i % 3) {
+			case 0:
+				// Decimals of up to 17 digits
+				s = decimal(r.nextLong() % 100000000000000000L, r.nextInt(20));
+				break;
+			case 1:
+				// Floats printed exactly, many of which are long ties
+				s = new java.math.BigDecimal(Float.intBitsToFloat(r.nextInt(0x7F800000))).toPlainString();
+				break;
+			default:
+				// Halfway between two floats, written exactly
+				float f = Float.intBitsToFloat(0x3F800000 + r.nextInt(1 << 23));
+				s = new java.math.BigDecimal(f).add(new java.math.BigDecimal(Math.ulp(f) / 2)).toPlainString();
+			}
+			assertEquals(s, Float.floatToIntBits(Float.parseFloat(s)), Float.floatToIntBits(parse_float(s)));
+			assertEquals(s, Double.doubleToLongBits(Double.parseDouble(s)), Double.doubleToLongBits(parse_double(s)));
+		}
+	}
+
+	/**
+	 * Helper method that writes an unscaled value and scale as a decimal.
+	 * 
+	 * @param unscaled - the digits
+	 * @param scale    - the number of digits after the decimal point
+	 * @return - the decimal
+	 */
+	private static String decimal(long unscaled, int scale) {
+		return java.math.BigDecimal.valueOf(unscaled, scale).toPlainString();
+	}
+
+	/**
+	 * Testing that each request is answered as the Calculator would display it
+	 */
+	@Test
+	public void line_evaluator() {
+		Calculator calc = new Calculator(new FloatBackend());
+		String[] requests = { "1.5 + 3.63", "17.6 - 5.69", "63.354 * 8.31", "987.5 / 4", "96.35 ^", "SR 64.6",
+				"1 / 0", "-4 * -2.5", "  7   *  6 \r", "1 +", "1 x 2", "SR", "a + 1", "1 + 2 + 3" };
+		String[] expected = { calc.add("1.5", "3.63"), calc.subtract("17.6", "5.69"), calc.multiply("63.354", "8.31"),
+				calc.divide("987.5", "4"), calc.square("96.35"), calc.square_root("64.6"), "ERROR: OVERFLOW",
+				calc.multiply("-4", "-2.5"), "42", "ERROR", "ERROR", "ERROR", "ERROR", "ERROR" };
+		LineEvaluator e = new LineEvaluator();
+		ByteBuffer out = ByteBuffer.allocate(LineEvaluator.MAX_ANSWER);
+		for (int i = 0; i < requests.length; i++) {
+			ByteBuffer in = ByteBuffer.wrap(requests[i].getBytes(StandardCharsets.ISO_8859_1));
+			out.clear();
+			e.evaluate(in, 0, in.limit(), out);
+			assertEquals(requests[i], expected[i] + "\n",
+					new String(out.array(), 0, out.position(), StandardCharsets.ISO_8859_1));
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * BatchEvaluator Class. The test methods check that the batch results are the
+ * same as the results of the Calculator's String Methods.
+ * 
+ * @author Andrew Sand
+ */
+public class BatchEvaluatorTest {
+	/**
+	 * Member variable that stores the testing instance of the Calculator
+	 */
+	Calculator test;
+
+	/**
+	 * Member variables that store the operand columns used by the tests
+	 */
+	float[] a = { 1f, 1.5f, 172f, 17.6f, 63.354f, 987.5f, 96.35f, 64.6f, -8.25f };
+	float[] b = { 3f, 3.63f, 7f, 5.69f, 8.31f, 4f, 0.5f, 2f, 0.3f };
+
+	/**
+	 * @Before method that instantiates a new, clean instance of the Calculator
+	 *         before each test
+	 */
+	@Before
+	public void setup() {
+		test = new Calculator();
+	}
+
+	/**
+	 * Testing every binary operator against the String Methods
+	 */
+	@Test
+	public void binary() {
+		float[] out = new float[a.length];
+		for (Operator o : new Operator[] { Operator.ADD, Operator.SUBTRACT, Operator.MULTIPLY, Operator.DIVIDE }) {
+			BatchEvaluator.evaluate(o, a, b, out);
+			for (int i = 0; i < a.length; i++) {
+				String s1 = String.valueOf(a[i]), s2 = String.valueOf(b[i]);
+				String expected;
+				switch (o) {
+				case ADD:
+					expected = test.add(s1, s2);
+					break;
+				case SUBTRACT:
+					expected = test.subtract(s1, s2);
+					break;
+				case MULTIPLY:
+					expected = test.multiply(s1, s2);
+					break;
+				default:
+					expected = test.divide(s1, s2);
+					break;
+				}
+				assertEquals(Float.parseFloat(expected), out[i], 0f);
+			}
+		}
+	}
+
+	/**
+	 * Testing the unary operators against the String Methods
+	 */
+	@Test
+	public void unary() {
+		float[] out = new float[a.length];
+		BatchEvaluator.evaluate(Operator.SQUARE, a, null, out);
+		for (int i = 0; i < a.length; i++) {
+			assertEquals(Float.parseFloat(test.square(String.valueOf(a[i]))), out[i], 0f);
+		}
+		BatchEvaluator.evaluate(Operator.SQUARE_ROOT, a, null, out);
+		for (int i = 0; i < a.length; i++) {
+			assertEquals(Float.parseFloat(test.square_root(String.valueOf(a[i]))), out[i], 0f);
+		}
+	}
+
+	/**
+	 * Testing that double columns keep the full precision for square root only
+	 */
+	@Test
+	public void doubles() {
+		double[] d = { 64.6, 0.1, 2 };
+		float[] out = new float[d.length];
+		BatchEvaluator.evaluate(Operator.SQUARE_ROOT, d, null, out);
+		for (int i = 0; i < d.length; i++) {
+			assertEquals(Float.parseFloat(test.square_root(String.valueOf(d[i]))), out[i], 0f);
+		}
+		BatchEvaluator.evaluate(Operator.ADD, d, d, out);
+		assertEquals(Float.parseFloat(test.add("0.1", "0.1")), out[1], 0f);
+	}
+
+	/**
+	 * Testing that only the requested range is written
+	 */
+	@Test
+	public void range() {
+		float[] out = new float[a.length];
+		BatchEvaluator.evaluate(Operator.ADD, a, b, out, 2, 4);
+		assertEquals(0f, out[1], 0f);
+		assertEquals(179f, out[2], 0f);
+		assertEquals(0f, out[4], 0f);
+	}
+
+	/**
+	 * Testing that a binary operator without a second column is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void missing_column() {
+		BatchEvaluator.evaluate(Operator.ADD, a, null, new float[a.length]);
+	}
+}
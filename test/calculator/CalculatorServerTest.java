@@ -0,0 +1,116 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * CalculatorServer Class over localhost, including with the LoadGenerator.
+ * 
+ * @author Andrew Sand
+ */
+public class CalculatorServerTest {
+	/**
+	 * Member variable that stores the server under test
+	 */
+	CalculatorServer server;
+
+	/**
+	 * @Before method that starts a server on a free port before each test
+	 */
+	@Before
+	public void setup() throws Exception {
+		server = new CalculatorServer(0).start();
+	}
+
+	/**
+	 * @After method that closes the server after each test
+	 */
+	@After
+	public void teardown() throws Exception {
+		server.close();
+	}
+
+	/**
+	 * Testing expressions, buttons and errors, sent pipelined in one write
+	 */
+	@Test
+	public void requests() throws Exception {
+		try (Socket s = new Socket("localhost", server.port());
+				PrintWriter out = new PrintWriter(s.getOutputStream(), false, StandardCharsets.UTF_8);
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8))) {
+			out.print("E 2 + 3 * 4\nK 1 2 . 5 +\nK 1 8\nK =\nE 1 +\nK 1 x\nX 1\nE 99999^ ^\n");
+			out.flush();
+			assertEquals("14", in.readLine());
+			assertEquals("12.5", in.readLine());
+			assertEquals("18", in.readLine());
+			assertEquals("30.5", in.readLine());
+			assertTrue(in.readLine().startsWith("ERROR"));
+			assertEquals("ERROR: unknown button 'x'", in.readLine());
+			assertEquals("ERROR: unknown request", in.readLine());
+			assertEquals("ERROR: OVERFLOW", in.readLine());
+		}
+	}
+
+	/**
+	 * Testing that expressions nested too deeply are answered with an error, and
+	 * that a request longer than MAX_LINE is refused and closes the connection
+	 */
+	@Test
+	public void hostile_requests() throws Exception {
+		try (Socket s = new Socket("localhost", server.port());
+				PrintWriter out = new PrintWriter(s.getOutputStream(), false, StandardCharsets.UTF_8);
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8))) {
+			out.print("E " + "(".repeat(5000) + "1" + ")".repeat(5000) + "\r\nE " + "-".repeat(5000) + "1\r\nE 1 + 1\r\n");
+			out.flush();
+			assertTrue(in.readLine().startsWith("ERROR: Expression nested more than"));
+			assertTrue(in.readLine().startsWith("ERROR: Expression nested more than"));
+			assertEquals("2", in.readLine());
+			out.print("E " + "1".repeat(CalculatorServer.MAX_LINE) + "\n");
+			out.flush();
+			assertEquals("ERROR: request too long", in.readLine());
+			assertNull(in.readLine());
+		}
+	}
+
+	/**
+	 * Testing that connections have their own calculators
+	 */
+	@Test
+	public void per_connection() throws Exception {
+		try (Socket a = new Socket("localhost", server.port());
+				Socket b = new Socket("localhost", server.port());
+				PrintWriter outA = new PrintWriter(a.getOutputStream(), true, StandardCharsets.UTF_8);
+				PrintWriter outB = new PrintWriter(b.getOutputStream(), true, StandardCharsets.UTF_8);
+				BufferedReader inA = new BufferedReader(new InputStreamReader(a.getInputStream()));
+				BufferedReader inB = new BufferedReader(new InputStreamReader(b.getInputStream()))) {
+			outA.println("K 7 *");
+			assertEquals("7", inA.readLine());
+			outB.println("K 3");
+			assertEquals("3", inB.readLine());
+			outA.println("K 6 =");
+			assertEquals("42", inA.readLine());
+		}
+	}
+
+	/**
+	 * Testing the load generator against the server on localhost
+	 */
+	@Test
+	public void load() throws Exception {
+		LoadGenerator.Result r = LoadGenerator.run("localhost", server.port(), 8, 3000, 32);
+		assertEquals(24000, r.requests);
+		assertEquals(0, r.errors);
+	}
+}
@@ -2,6 +2,20 @@ package calculator;
 
 import static org.junit.Assert.*;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.math.MathContext;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -17,19 +31,18 @@ import calculator.GUI;
  */
 public class CalculatorTest {
 	/**
-	 * Member variables that store the testing instances of the Calculator and GUI
+	 * Member variable that stores the testing instance of the Calculator, which
+	 * has no GUI
 	 */
-	GUI gui;
 	Calculator test;
 
 	/**
-	 * @Before method that instantiates new, clean instances of the Calculator and
-	 *         GUI before each test
+	 * @Before method that instantiates a new, clean instance of the Calculator
+	 *         before each test
 	 */
 	@Before
 	public void setup() {
-		gui = new GUI();
-		test = new Calculator(gui);
+		test = new Calculator();
 	}
 
 	/**
@@ -135,4 +148,248 @@ public class CalculatorTest {
 	public void multi_op() {
 		assertTrue(test.square(test.divide(test.multiply(test.add("8.4", "5.6"), "4"), "3.3")).compareTo("287.97064") == 0);
 	}
+
+	/**
+	 * Helper method that presses a sequence of buttons, returning what was last
+	 * displayed
+	 * 
+	 * @param commands - the buttons to press
+	 * @return - the last displayed String
+	 */
+	private String press(Command... commands) {
+		String[] shown = { null };
+		test.events().subscribe(e -> shown[0] = e.text());
+		for (Command c : commands) {
+			test.press(c);
+		}
+		return shown[0];
+	}
+
+	/**
+	 * Helper method, shared by the tests of the calculator's parts, that presses
+	 * a sequence of buttons on a calculator
+	 * 
+	 * @param calc     - the calculator
+	 * @param commands - the buttons to press
+	 * @return - the number displayed after the last press
+	 */
+	static String press(Calculator calc, Command... commands) {
+		for (Command c : commands) {
+			calc.press(c);
+		}
+		return calc.display();
+	}
+
+	/**
+	 * Testing a calculation typed with the buttons
+	 */
+	@Test
+	public void press_calculation() {
+		assertEquals("30.5", press(Command.ONE, Command.TWO, Command.DECIMAL, Command.FIVE, Command.ADD, Command.ONE,
+				Command.EIGHT, Command.EQUALS));
+	}
+
+	/**
+	 * Testing the negative sign, delete and a second decimal point
+	 */
+	@Test
+	public void press_editing() {
+		assertEquals("-1.2", press(Command.SUBTRACT, Command.ONE, Command.DECIMAL, Command.TWO, Command.DECIMAL,
+				Command.THREE, Command.DELETE));
+	}
+
+	/**
+	 * Testing that the memory keeps a result
+	 */
+	@Test
+	public void press_memory() {
+		assertEquals("8", press(Command.SIX, Command.FOUR, Command.SQUARE_ROOT, Command.EQUALS, Command.MEMORY_ADD,
+				Command.MEMORY_RECALL));
+	}
+
+	/**
+	 * Testing that M+ and M- store results on every backend, including results
+	 * that are fractions
+	 */
+	@Test
+	public void memory_fractions() {
+		for (NumericBackend backend : new NumericBackend[] { new FloatBackend(), new DoubleBackend(),
+				new BigDecimalBackend(), new RationalBackend(), new PreciseBackend() }) {
+			Calculator calc = new Calculator(backend);
+			for (String s : "2 / 3 = M+ 1 / 3 = M- MR".split(" ")) {
+				calc.press(Command.of(s));
+			}
+			assertEquals(1.0 / 3, Double.parseDouble(calc.display()), 1e-7);
+		}
+	}
+
+	/**
+	 * Testing that the overflow error is shown
+	 */
+	@Test
+	public void press_overflow() {
+		assertEquals("ERROR: OVERFLOW", press(Command.NINE, Command.NINE, Command.NINE, Command.NINE, Command.NINE,
+				Command.NINE, Command.SQUARE, Command.EQUALS));
+	}
+
+	/**
+	 * Testing that ActionEvents are resolved into the same Commands
+	 */
+	@Test
+	public void action_event() {
+		ActionListener actions = GUI.actions(test);
+		String[] shown = { null };
+		test.events().subscribe(e -> shown[0] = e.text());
+		for (String s : new String[] { "7", "*", "6", "=", "?" }) {
+			actions.actionPerformed(new ActionEvent(this, 0, s));
+		}
+		assertEquals("42", shown[0]);
+	}
+
+	/**
+	 * Testing the headless mode, which presses the buttons read from each line
+	 */
+	@Test
+	public void headless() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		Calculator.headless(test, new BufferedReader(new StringReader("1 2 + 3 =\nC 2 * 4 =\nx\n")),
+				new PrintStream(bytes, true));
+		assertEquals(String.format("15%n8%nUnknown button: x%n8%n"), bytes.toString());
+	}
+
+	/**
+	 * Testing that a calculator without a GUI loads no AWT or Swing classes,
+	 * which needs a JVM of its own
+	 */
+	@Test
+	public void no_swing() throws Exception {
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		Process p = new ProcessBuilder(java, "-verbose:class", "-cp", System.getProperty("java.class.path"),
+				"calculator.Calculator", "--headless").redirectErrorStream(true).start();
+		p.getOutputStream().write("6 * 7 =\n".getBytes());
+		p.getOutputStream().close();
+		String out = new String(p.getInputStream().readAllBytes());
+		assertEquals(0, p.waitFor());
+		assertTrue(out.contains("42"));
+		assertFalse(out.contains("java.awt"));
+		assertFalse(out.contains("javax.swing"));
+	}
+
+	/**
+	 * Testing that the preview shows the pending result as it is typed
+	 */
+	@Test
+	public void preview() {
+		test.setPreview(true);
+		List<String> previews = new ArrayList<>();
+		test.events().subscribe(e -> previews.add(e.preview()));
+		for (Command c : new Command[] { Command.ONE, Command.TWO, Command.ADD, Command.THREE, Command.DECIMAL,
+				Command.FIVE, Command.DELETE, Command.DELETE, Command.DELETE, Command.SQUARE_ROOT, Command.EQUALS }) {
+			test.press(c);
+		}
+		assertEquals(Arrays.asList("", "", "", "15", "15", "15.5", "15", "15", "", "3.4641016", ""), previews);
+	}
+
+	/**
+	 * Testing that the preview is what = displays, for random calculations
+	 * typed and edited on each backend
+	 */
+	@Test
+	public void preview_matches_equals() {
+		Random random = new Random(22);
+		Command[] keys = { Command.ZERO, Command.ONE, Command.TWO, Command.FIVE, Command.SEVEN, Command.NINE,
+				Command.DECIMAL, Command.DELETE, Command.ADD, Command.SUBTRACT, Command.MULTIPLY, Command.DIVIDE,
+				Command.SQUARE, Command.SQUARE_ROOT, Command.EXP, Command.LN, Command.POWER, Command.SIN,
+				Command.FACTORIAL };
+		for (NumericBackend backend : new NumericBackend[] { new FloatBackend(), new DoubleBackend(),
+				new BigDecimalBackend(), new RationalBackend(), new PreciseBackend() }) {
+			Calculator calc = new Calculator(backend);
+			calc.setPreview(true);
+			String[] preview = { "" };
+			calc.events().subscribe(e -> preview[0] = e.preview());
+			for (int i = 0; i < 20_000; i++) {
+				calc.press(keys[random.nextInt(keys.length)]);
+				if (random.nextInt(8) == 0) {
+					String expected = preview[0];
+					calc.press(Command.EQUALS);
+					if (!expected.isEmpty()) {
+						assertEquals(expected, calc.display());
+					}
+					calc.press(Command.CLEAR);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Testing that the precise backend lifts the limits on the numbers typed and
+	 * the int limit on results
+	 */
+	@Test
+	public void precise() {
+		Calculator calc = new Calculator(new PreciseBackend());
+		for (String s : "1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 . 2 5 * 1 0 0 0 0 0 0 0 0 0 0 0 =".split(" ")) {
+			calc.press(Command.of(s));
+		}
+		assertEquals("1234567890123456789025000000000", calc.display());
+
+		// The float backend stops taking digits and reports an overflow
+		calc.setBackend(new FloatBackend());
+		for (String s : "C 1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8".split(" ")) {
+			calc.press(Command.of(s));
+		}
+		assertEquals("123456789012345", calc.display());
+		calc.press(Command.MULTIPLY);
+		calc.press(Command.TWO);
+		calc.press(Command.EQUALS);
+		assertEquals("ERROR: OVERFLOW", calc.display());
+	}
+
+	/**
+	 * Testing that the precise backend's results keep every digit when they are
+	 * stored in the memory or the history and recalled
+	 */
+	@Test
+	public void precise_recall() {
+		Calculator calc = new Calculator(new PreciseBackend(new MathContext(40)));
+		calc.setHistory(new History(16));
+		for (String s : "1 2 3 4 5 6 7 8 9 0 1 2 3 4 5 6 7 8 9 0 * 1 0 0 0 0 0 0 0 0 0 0 0 0 = M+ MR + 1 =".split(" ")) {
+			calc.press(Command.of(s));
+		}
+		assertEquals("12345678901234567890000000000001", calc.display());
+		calc.press(Command.MEMORY_SUBTRACT);
+		calc.press(Command.MEMORY_RECALL);
+		assertEquals("-1", calc.display());
+
+		// Recalling the first calculation from the history
+		calc.press(Command.CLEAR);
+		calc.recall(0);
+		calc.press(Command.ADD);
+		calc.press(Command.TWO);
+		calc.press(Command.EQUALS);
+		assertEquals("12345678901234567890000000000002", calc.display());
+	}
+
+	/**
+	 * Testing the scientific function buttons, and that the tiers of accuracy
+	 * give the same float results
+	 */
+	@Test
+	public void scientific() {
+		for (Scientific.Tier tier : Scientific.Tier.values()) {
+			test.setTier(tier);
+			assertEquals("1024", press(Command.CLEAR, Command.TWO, Command.POWER, Command.ONE, Command.ZERO,
+					Command.EQUALS));
+			assertEquals("120", press(Command.CLEAR, Command.FIVE, Command.FACTORIAL, Command.EQUALS));
+			assertEquals("2", press(Command.CLEAR, Command.ONE, Command.ZERO, Command.ZERO, Command.LOG10,
+					Command.EQUALS));
+			assertEquals("7.389056", press(Command.CLEAR, Command.TWO, Command.EXP, Command.EQUALS));
+			assertEquals("0.84147096", press(Command.CLEAR, Command.ONE, Command.SIN, Command.EQUALS));
+			assertEquals("ERROR", press(Command.CLEAR, Command.ZERO, Command.SUBTRACT, Command.ONE, Command.EQUALS,
+					Command.LN, Command.EQUALS));
+			assertEquals("ERROR: OVERFLOW", press(Command.CLEAR, Command.FIVE, Command.ZERO, Command.EXP,
+					Command.EQUALS));
+		}
+		assertEquals("-1", test.function(Operator.COS, "3.1415927", null));
+	}
 }
@@ -0,0 +1,117 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * ColumnarEvaluator Class. Its results must be bit-identical to the
+ * BatchEvaluator's, whichever kernels are in use. Running the tests with
+ * "--add-modules jdk.incubator.vector" tests the SIMD kernels.
+ * 
+ * @author Andrew Sand
+ */
+public class ColumnarEvaluatorTest {
+	/**
+	 * Values that are easy to get wrong
+	 */
+	private static final float[] SPECIAL = { 0f, -0f, 1f, -1f, Float.MIN_VALUE, -Float.MIN_VALUE, Float.MIN_NORMAL,
+			Float.MAX_VALUE, -Float.MAX_VALUE, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NaN, 3.63f,
+			1e-20f, 1e20f, 2.5f };
+
+	/**
+	 * Helper method that creates a column of random floats of every kind, with
+	 * the special values mixed in.
+	 * 
+	 * @param r - the random generator
+	 * @param n - the length of the column
+	 * @return - the column
+	 */
+	private static float[] column(Random r, int n) {
+		float[] c = new float[n];
+		for (int i = 0; i < n; i++) {
+			switch (r.nextInt(3)) {
+			case 0:
+				c[i] = Float.intBitsToFloat(r.nextInt());
+				break;
+			case 1:
+				c[i] = (r.nextInt(2000000) - 1000000) / 1000f;
+				break;
+			default:
+				c[i] = SPECIAL[r.nextInt(SPECIAL.length)];
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Testing every Operator on float columns, over ranges that do not line up
+	 * with the vectors
+	 */
+	@Test
+	public void floats() {
+		Random r = new Random(14);
+		for (int n : new int[] { 0, 1, 7, 16, 33, 1000, 4099 }) {
+			float[] a = column(r, n), b = column(r, n);
+			for (Operator o : Operator.values()) {
+				float[] expected = new float[n], actual = new float[n];
+				int from = n / 5, to = n - n / 7;
+				BatchEvaluator.evaluate(o, a, b, expected, from, to);
+				ColumnarEvaluator.evaluate(o, a, b, actual, from, to);
+				for (int i = 0; i < n; i++) {
+					assertEquals(o + " at " + i, Float.floatToRawIntBits(expected[i]),
+							Float.floatToRawIntBits(actual[i]));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Testing every Operator on double columns, whose numbers are rounded to
+	 * floats except for square root
+	 */
+	@Test
+	public void doubles() {
+		Random r = new Random(41);
+		int n = 2053;
+		double[] a = new double[n], b = new double[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = i % 3 == 0 ? Double.longBitsToDouble(r.nextLong()) : r.nextGaussian() * 1000;
+			b[i] = i % 5 == 0 ? SPECIAL[i % SPECIAL.length] : r.nextGaussian() * 1000;
+		}
+		for (Operator o : Operator.values()) {
+			float[] expected = new float[n], actual = new float[n];
+			BatchEvaluator.evaluate(o, a, b, expected);
+			ColumnarEvaluator.evaluate(o, a, b, actual);
+			for (int i = 0; i < n; i++) {
+				assertEquals(o + " at " + i, Float.floatToIntBits(expected[i]), Float.floatToIntBits(actual[i]));
+			}
+		}
+	}
+
+	/**
+	 * Testing that the results match the Calculator's String Methods
+	 */
+	@Test
+	public void calculator() {
+		Calculator calc = new Calculator(new FloatBackend());
+		float[] a = { 987.5f, 63.354f, 64.6f }, b = { 4.1f, 8.31f, 0f }, out = new float[3];
+		ColumnarEvaluator.evaluate(Operator.DIVIDE, a, b, out);
+		assertEquals(calc.divide("987.5", "4.1"), new DecimalFormatter().format(out[0]));
+		ColumnarEvaluator.evaluate(Operator.MULTIPLY, a, b, out);
+		assertEquals(calc.multiply("63.354", "8.31"), new DecimalFormatter().format(out[1]));
+		ColumnarEvaluator.evaluate(Operator.SQUARE_ROOT, new double[] { 987.5, 63.354, 64.6 }, null, out);
+		assertEquals(calc.square_root("64.6"), new DecimalFormatter().format(out[2]));
+	}
+
+	/**
+	 * Testing that ranges are checked before anything is written
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void missing_column() {
+		ColumnarEvaluator.evaluate(Operator.DIVIDE, new float[4], null, new float[4]);
+	}
+}
@@ -0,0 +1,128 @@
+package calculator;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * DecimalFormatter Class. Every test compares the formatter against the
+ * original check_decimal(float f) conversion, which is reproduced here as the
+ * reference. The exhaustive test covers every float and only runs when the
+ * "exhaustive" system property is set, as it takes a long time.
+ * 
+ * @author Andrew Sand
+ */
+public class DecimalFormatterTest {
+	/**
+	 * Member variables that store the testing instance of the DecimalFormatter
+	 * and the buffer it writes into
+	 */
+	DecimalFormatter test;
+	char[] buf;
+
+	/**
+	 * @Before method that instantiates a new, clean instance of the
+	 *         DecimalFormatter before each test
+	 */
+	@Before
+	public void setup() {
+		test = new DecimalFormatter();
+		buf = new char[DecimalFormatter.MAX_LENGTH];
+	}
+
+	/**
+	 * The original check_decimal(float f) conversion used as the reference
+	 * 
+	 * @param f - the float to convert
+	 * @return - the expected text
+	 */
+	private static String reference(float f) {
+		return f % 1 == 0 ? String.valueOf((int) f) : String.valueOf(f);
+	}
+
+	/**
+	 * Helper method that asserts that one float is formatted like the reference
+	 * 
+	 * @param f - the float to check
+	 */
+	private void check(float f) {
+		int n = test.format(f, buf, 0);
+		assertEquals("bits " + Integer.toHexString(Float.floatToRawIntBits(f)), reference(f), new String(buf, 0, n));
+	}
+
+	/**
+	 * Testing the values used by the Calculator tests
+	 */
+	@Test
+	public void calculator_values() {
+		for (float f : new float[] { 4, 5.13f, 165, 11.91f, 56, 526.47174f, 8, 246.875f, 256, 9283.322f,
+				8.037413f, 287.97064f }) {
+			check(f);
+		}
+	}
+
+	/**
+	 * Testing the special values: zeros, infinities, NaN and the int limits
+	 */
+	@Test
+	public void special() {
+		for (float f : new float[] { 0f, -0f, Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+				Float.MIN_VALUE, -Float.MIN_VALUE, Float.MIN_NORMAL, Float.MAX_VALUE, -Float.MAX_VALUE, 2147483647f,
+				-2147483648f, 1e-44f, 0.001f, 0.0001f, 1e7f, 0.1f, -0.5f }) {
+			check(f);
+		}
+	}
+
+	/**
+	 * Testing a range of consecutive floats around every power of ten
+	 */
+	@Test
+	public void powers_of_ten() {
+		for (int e = -45; e <= 38; e++) {
+			int bits = Float.floatToRawIntBits(Float.parseFloat("1e" + e));
+			for (int i = -2000; i <= 2000; i++) {
+				check(Float.intBitsToFloat(bits + i));
+				check(-Float.intBitsToFloat(bits + i));
+			}
+		}
+	}
+
+	/**
+	 * Testing random bit patterns, which covers every exponent
+	 */
+	@Test
+	public void random() {
+		Random r = new Random(42);
+		for (int i = 0; i < 2000000; i++) {
+			check(Float.intBitsToFloat(r.nextInt()));
+		}
+	}
+
+	/**
+	 * Testing that appending to a StringBuilder gives the same text
+	 */
+	@Test
+	public void string_builder() {
+		StringBuilder sb = new StringBuilder();
+		test.format(2.5f, sb).append(' ');
+		test.format(-7f, sb);
+		assertEquals("2.5 -7", sb.toString());
+	}
+
+	/**
+	 * Testing every float. Only runs when the "exhaustive" system property is set
+	 */
+	@Test
+	public void exhaustive() {
+		assumeTrue(Boolean.getBoolean("exhaustive"));
+		int bits = 0;
+		do {
+			check(Float.intBitsToFloat(bits));
+		} while (++bits != 0);
+	}
+}
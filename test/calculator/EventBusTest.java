@@ -0,0 +1,116 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the EventBus
+ * Class, and the events the Calculator publishes on it.
+ * 
+ * @author Andrew Sand
+ */
+public class EventBusTest {
+	/**
+	 * Member variable that stores the Calculator under test
+	 */
+	Calculator test;
+
+	/**
+	 * @Before method that instantiates a new, clean instance of the Calculator
+	 *         without a GUI before each test
+	 */
+	@Before
+	public void setup() {
+		test = new Calculator(new FloatBackend());
+	}
+
+	/**
+	 * Testing that a subscriber on the publishing thread is given every change,
+	 * including the selected operator
+	 */
+	@Test
+	public void synchronous() {
+		List<String> shown = new ArrayList<>();
+		List<Operator> selected = new ArrayList<>();
+		test.events().subscribe(e -> {
+			shown.add(e.text());
+			selected.add(e.selected());
+		});
+		for (Command c : new Command[] { Command.FOUR, Command.MULTIPLY, Command.TWO, Command.EQUALS }) {
+			test.press(c);
+		}
+		assertEquals(List.of("4", "4", "2", "8"), shown);
+		assertEquals(Operator.MULTIPLY, selected.get(1));
+		assertEquals(Operator.MULTIPLY, selected.get(2));
+		assertNull(selected.get(3));
+	}
+
+	/**
+	 * Testing that events waiting for the Executor are coalesced into the latest
+	 */
+	@Test
+	public void coalescing() {
+		ArrayDeque<Runnable> queue = new ArrayDeque<>();
+		List<String> shown = new ArrayList<>();
+		EventBus.Subscription s = test.events().subscribe(e -> shown.add(e.text()), queue::add);
+		test.press(Command.ONE);
+		test.press(Command.TWO);
+		test.press(Command.THREE);
+		assertEquals(1, queue.size());
+		queue.poll().run();
+		assertEquals(List.of("123"), shown);
+		test.press(Command.DELETE);
+		queue.poll().run();
+		assertEquals(List.of("123", "12"), shown);
+		assertEquals(4, s.published());
+		assertEquals(2, s.delivered());
+	}
+
+	/**
+	 * Testing that a cancelled subscriber is not given events, and that nothing is
+	 * published without subscribers
+	 */
+	@Test
+	public void cancel() {
+		String[] shown = { null };
+		EventBus.Subscription s = test.events().subscribe(e -> shown[0] = e.text());
+		test.press(Command.FIVE);
+		s.cancel();
+		assertFalse(test.events().has_subscribers());
+		test.press(Command.SIX);
+		assertEquals("5", shown[0]);
+		assertEquals("56", test.display());
+	}
+
+	/**
+	 * Testing that a subscriber on another thread ends up with the latest display
+	 */
+	@Test
+	public void background() throws Exception {
+		ExecutorService logger = Executors.newSingleThreadExecutor();
+		String[] shown = { null };
+		EventBus.Subscription s = test.events().subscribe(e -> shown[0] = e.text(), logger);
+		for (int i = 0; i < 10000; i++) {
+			test.press(Command.ONE);
+			test.press(Command.ADD);
+			test.press(Command.ONE);
+			test.press(Command.EQUALS);
+			test.press(Command.CLEAR);
+		}
+		test.press(Command.SEVEN);
+		logger.shutdown();
+		assertTrue(logger.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals("7", shown[0]);
+		assertEquals(50001, s.published());
+		assertTrue(s.delivered() >= 1 && s.delivered() <= s.published());
+	}
+}
@@ -0,0 +1,142 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * ExpressionCache Class.
+ * 
+ * @author Andrew Sand
+ */
+public class ExpressionCacheTest {
+	/**
+	 * Testing that whitespace is normalized without joining numbers or names
+	 */
+	@Test
+	public void normalize() {
+		assertEquals("2+3*x", ExpressionCache.normalize("  2 +  3\t* x "));
+		assertEquals("sqrt(a b)", ExpressionCache.normalize("sqrt( a  b )"));
+		assertEquals("1 2", ExpressionCache.normalize("1 2"));
+		assertEquals("1.5E -7", ExpressionCache.normalize("1.5E  -7"));
+		assertEquals("1.5e- 7", ExpressionCache.normalize("1.5e- 7"));
+		assertEquals("1.5E-7", ExpressionCache.normalize("1.5E-7 "));
+		String s = "1+1";
+		assertSame(s, ExpressionCache.normalize(s));
+	}
+
+	/**
+	 * Testing hits, misses and that equivalent texts share an entry
+	 */
+	@Test
+	public void hits_and_misses() {
+		ExpressionCache cache = new ExpressionCache(8);
+		Expression e = cache.get("2 + 3");
+		assertSame(e, cache.get("2+3"));
+		assertSame(e, cache.get(" 2 +3 "));
+		assertEquals(5f, e.evaluate(), 0f);
+		assertEquals(2, cache.hits());
+		assertEquals(1, cache.misses());
+		assertEquals(1, cache.size());
+	}
+
+	/**
+	 * Testing that the cache accepts exactly what Expression.compile accepts,
+	 * and compiles the text passed in rather than the normalized key
+	 */
+	@Test
+	public void faithful() {
+		ExpressionCache cache = new ExpressionCache(8);
+		for (String s : new String[] { "1.5E -7", "1.5e- 7", "2E +1" }) {
+			try {
+				cache.get(s);
+				fail("Accepted " + s);
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage().contains("\"" + s + "\""));
+			}
+		}
+		assertEquals(1.5e-7f, cache.get("1.5E-7").evaluate(), 0f);
+		assertEquals(" 2 *  x ", cache.get(" 2 *  x ").text());
+	}
+
+	/**
+	 * Testing that the least recently used expression is evicted
+	 */
+	@Test
+	public void eviction() {
+		ExpressionCache cache = new ExpressionCache(2, 1);
+		Expression a = cache.get("a");
+		cache.get("b");
+		cache.get("a");
+		cache.get("c");
+		assertEquals(1, cache.evictions());
+		assertEquals(2, cache.size());
+		assertSame(a, cache.get("a"));
+		cache.get("b");
+		assertEquals(4, cache.misses());
+	}
+
+	/**
+	 * Testing that the size stays bounded with many segments
+	 */
+	@Test
+	public void bounded() {
+		ExpressionCache cache = new ExpressionCache(100);
+		for (int i = 0; i < 1000; i++) {
+			cache.get(i + " * x");
+		}
+		assertTrue(cache.size() <= 100);
+		assertEquals(1000 - cache.size(), cache.evictions());
+	}
+
+	/**
+	 * Testing that invalid expressions are rejected and not cached
+	 */
+	@Test
+	public void invalid() {
+		ExpressionCache cache = new ExpressionCache(4);
+		try {
+			cache.get("1 +");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals(0, cache.size());
+		}
+	}
+
+	/**
+	 * Testing lookups from several threads at once
+	 */
+	@Test
+	public void concurrent() throws Exception {
+		ExpressionCache cache = new ExpressionCache(64);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<Long>> tasks = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				tasks.add(() -> {
+					long sum = 0;
+					for (int i = 0; i < 10000; i++) {
+						sum += (long) cache.get((i % 32) + " + 1").evaluate();
+					}
+					return sum;
+				});
+			}
+			for (Future<Long> f : pool.invokeAll(tasks)) {
+				// 312 rounds of 1 to 32, then 1 to 16
+				assertEquals(312 * 528 + 136, (long) f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(40000, cache.hits() + cache.misses());
+		assertEquals(32, cache.size());
+	}
+}
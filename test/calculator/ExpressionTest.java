@@ -0,0 +1,136 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * Expression Class. Results are compared with the Calculator's own Methods, as
+ * expressions must give the same answer as typing them one operation at a
+ * time.
+ * 
+ * @author Andrew Sand
+ */
+public class ExpressionTest {
+	/**
+	 * Member variable that stores the Calculator used for the expected results
+	 */
+	Calculator test;
+
+	/**
+	 * @Before method that instantiates a new, clean instance of the Calculator
+	 *         before each test
+	 */
+	@Before
+	public void setup() {
+		test = new Calculator();
+	}
+
+	/**
+	 * Testing that precedence and parentheses are respected
+	 */
+	@Test
+	public void precedence() {
+		assertEquals(14f, Expression.compile("2 + 3 * 4").evaluate(), 0f);
+		assertEquals(20f, Expression.compile("(2 + 3) * 4").evaluate(), 0f);
+		assertEquals(1f, Expression.compile("8 / 4 / 2").evaluate(), 0f);
+		assertEquals(-3f, Expression.compile("1 - 2 - 2").evaluate(), 0f);
+		assertEquals(-9f, Expression.compile("-3^").evaluate(), 0f);
+		assertEquals(5f, Expression.compile("sqrt(3^ + 4^)").evaluate(), 0f);
+	}
+
+	/**
+	 * Testing the scientific functions, which give the results of the
+	 * calculator's buttons
+	 */
+	@Test
+	public void scientific() {
+		DecimalFormatter formatter = new DecimalFormatter();
+		assertEquals(1024f, Expression.compile("pow(2, 5 * 2)").evaluate(), 0f);
+		assertEquals(720f, Expression.compile("fact(3)^ * 20").evaluate(), 0f);
+		assertEquals(test.function(Operator.LN, "7.5", null), formatter.format(Expression.compile("ln(x)").evaluate(7.5f)));
+		assertEquals(test.function(Operator.POWER, "1.5", "2.5"),
+				formatter.format(Expression.compile("pow(a, b)").evaluate(1.5f, 2.5f)));
+		float f = Expression.compile("sin(x)^ + cos(x)^ + exp(0) + log(100) + tan(0)").evaluate(0.3f);
+		assertEquals(4f, f, 1e-6f);
+	}
+
+	/**
+	 * Testing the calculator's multiple operation test as a single expression
+	 */
+	@Test
+	public void multi_op() {
+		float f = Expression.compile("sqr((8.4 + 5.6) * 4 / 3.3)").evaluate();
+		assertEquals(test.square(test.divide(test.multiply(test.add("8.4", "5.6"), "4"), "3.3")),
+				new DecimalFormatter().format(f));
+	}
+
+	/**
+	 * Testing variables, including evaluating over columns
+	 */
+	@Test
+	public void variables() {
+		Expression e = Expression.compile("x * x + y / 2 - x");
+		assertArrayEquals(new String[] { "x", "y" }, e.variables());
+		assertEquals(10f, e.evaluate(3, 8), 0f);
+		float[] out = new float[3];
+		e.evaluate(new float[][] { { 1, 2, 3 }, { 0, 2, 8 } }, out);
+		assertArrayEquals(new float[] { 0, 3, 10 }, out, 0f);
+	}
+
+	/**
+	 * Testing that the same float rounding as the Calculator is used
+	 */
+	@Test
+	public void rounding() {
+		Expression e = Expression.compile("a / b");
+		float f = e.evaluate(Float.parseFloat("987.5"), Float.parseFloat("4.1"));
+		assertEquals(test.divide("987.5", "4.1"), new DecimalFormatter().format(f));
+		assertEquals(Float.parseFloat(test.square_root("64.6")), Expression.compile("SR(64.6)").evaluate(), 0f);
+		assertEquals(1.5e-7f, Expression.compile("1.5E-7").evaluate(), 0f);
+	}
+
+	/**
+	 * Testing that invalid expressions are rejected
+	 */
+	@Test
+	public void invalid() {
+		for (String s : new String[] { "", "1 +", "(1", "1)", "2 ** 3", "foo(2)", "pow(2)", "sin(1, 2)", "1..2", "3 $ 4" }) {
+			try {
+				Expression.compile(s);
+				fail("Accepted " + s);
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	/**
+	 * Testing that expressions nested too deeply are rejected rather than
+	 * overflowing the stack
+	 */
+	@Test
+	public void nesting() {
+		int deepest = ExpressionParser.MAX_NESTING - 1;
+		assertEquals(1f, Expression.compile("(".repeat(deepest) + "1" + ")".repeat(deepest)).evaluate(), 0f);
+		for (String s : new String[] { "(".repeat(5000) + "1" + ")".repeat(5000), "-".repeat(5000) + "1",
+				"sqrt(".repeat(5000) + "1" + ")".repeat(5000), "(".repeat(100000) }) {
+			try {
+				Expression.compile(s);
+				fail("Nested too deeply: " + s.substring(0, 10));
+			} catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage().startsWith("Expression nested more than"));
+			}
+		}
+	}
+
+	/**
+	 * Testing that a missing variable value is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void missing_variable() {
+		Expression.compile("x + y").evaluate(1);
+	}
+}
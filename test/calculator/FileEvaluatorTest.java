@@ -0,0 +1,133 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * FileEvaluator Class against the Calculator's Methods.
+ * 
+ * @author Andrew Sand
+ */
+public class FileEvaluatorTest {
+	/**
+	 * Member variables that store the input and output files
+	 */
+	Path input, output;
+
+	/**
+	 * @Before method that creates the files
+	 */
+	@Before
+	public void setup() throws IOException {
+		input = Files.createTempFile("calculations", ".txt");
+		output = Files.createTempFile("answers", ".txt");
+	}
+
+	/**
+	 * @After method that deletes the files
+	 */
+	@After
+	public void teardown() throws IOException {
+		Files.deleteIfExists(input);
+		Files.deleteIfExists(output);
+	}
+
+	/**
+	 * Helper method that evaluates the passed in text and returns the answers
+	 * 
+	 * @param text   - the contents of the input file
+	 * @param window - the number of bytes mapped at once
+	 * @return - the lines of the output file
+	 */
+	private List<String> evaluate(String text, int window) throws IOException {
+		Files.write(input, text.getBytes(StandardCharsets.US_ASCII));
+		long lines = new FileEvaluator(window).evaluate(input, output);
+		List<String> answers = Files.readAllLines(output, StandardCharsets.US_ASCII);
+		assertEquals(answers.size(), lines);
+		return answers;
+	}
+
+	/**
+	 * Testing a few lines, including a carriage return, an error and a last line
+	 * without a line break
+	 */
+	@Test
+	public void lines() throws IOException {
+		List<String> answers = evaluate("3.5 * 7\n96.35 ^\r\nSR 64.6\n1 %% 2\n987.5 / 4", FileEvaluator.WINDOW);
+		assertEquals(List.of("24.5", "9283.322", "8.037413", "ERROR", "246.875"), answers);
+		assertEquals(List.of(), evaluate("", FileEvaluator.WINDOW));
+	}
+
+	/**
+	 * Testing that results too large to show, including division by zero, are
+	 * answered as the Calculator displays them
+	 */
+	@Test
+	public void overflow() throws IOException {
+		List<String> answers = evaluate("99999 * 99999\n-3000000000 + 1\n1 / 0\n30000 * 30000", FileEvaluator.WINDOW);
+		assertEquals(List.of("ERROR: OVERFLOW", "ERROR: OVERFLOW", "ERROR: OVERFLOW", "900000000"), answers);
+	}
+
+	/**
+	 * Testing many random lines with windows small enough for lines to cross
+	 * them, against the Calculator
+	 */
+	@Test
+	public void windows() throws IOException {
+		Random r = new Random(16);
+		Calculator calc = new Calculator(new FloatBackend());
+		StringBuilder text = new StringBuilder();
+		String[] expected = new String[5000];
+		for (int i = 0; i < expected.length; i++) {
+			String a = Float.toString(r.nextInt(100000) / 100f), b = Float.toString(r.nextInt(9999) / 10f + 1);
+			switch (r.nextInt(6)) {
+			case 0:
+				text.append(a).append(" + ").append(b);
+				expected[i] = calc.add(a, b);
+				break;
+			case 1:
+				text.append(a).append(" - ").append(b);
+				expected[i] = calc.subtract(a, b);
+				break;
+			case 2:
+				text.append(a).append(" * ").append(b);
+				expected[i] = calc.multiply(a, b);
+				break;
+			case 3:
+				text.append(a).append(" / ").append(b);
+				expected[i] = calc.divide(a, b);
+				break;
+			case 4:
+				text.append(b).append(" ^");
+				expected[i] = calc.square(b);
+				break;
+			default:
+				text.append("SR ").append(a);
+				expected[i] = calc.square_root(a);
+			}
+			text.append('\n');
+		}
+		for (int window : new int[] { 64, 1000, FileEvaluator.WINDOW }) {
+			assertArrayEquals(expected, evaluate(text.toString(), window).toArray());
+		}
+	}
+
+	/**
+	 * Testing that a line longer than the window is reported
+	 */
+	@Test(expected = IOException.class)
+	public void long_line() throws IOException {
+		evaluate("1 + 2\n" + "1".repeat(100) + " + 2\n", 64);
+	}
+}
@@ -0,0 +1,192 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the History
+ * Class, and the calculators that add to it.
+ * 
+ * @author Andrew Sand
+ */
+public class HistoryTest {
+	/**
+	 * Member variable that stores the history file
+	 */
+	Path file;
+
+	/**
+	 * @Before method that picks the history file
+	 */
+	@Before
+	public void setup() throws IOException {
+		file = Files.createTempDirectory("history").resolve("history");
+	}
+
+	/**
+	 * @After method that deletes the history file
+	 */
+	@After
+	public void teardown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.delete(file.getParent());
+	}
+
+	/**
+	 * Testing that calculations are read back by their number, and that the oldest
+	 * are replaced once the history is full
+	 */
+	@Test
+	public void ring() {
+		History h = new History(4);
+		for (int i = 0; i < 6; i++) {
+			assertEquals(i, h.append(Operator.ADD, i, 1, i + 1, 1000 + i));
+		}
+		h.append(Operator.SQUARE_ROOT, 16, Double.NaN, 4, 2000);
+		assertEquals(7, h.count());
+		assertEquals(4, h.size());
+		assertEquals(3, h.oldest());
+		assertEquals(Operator.ADD, h.operator(3));
+		assertEquals(3, h.first(3), 0);
+		assertEquals(1, h.second(3), 0);
+		assertEquals(4, h.result(3), 0);
+		assertEquals(1003, h.time(3));
+		assertEquals(Operator.SQUARE_ROOT, h.operator(6));
+		assertTrue(Double.isNaN(h.second(6)));
+		assertEquals(2000, h.time(6));
+		for (long n : new long[] { 2, 7, -1 }) {
+			try {
+				h.result(n);
+				fail("Calculation " + n + " is not kept");
+			} catch (IndexOutOfBoundsException e) {
+				// Expected
+			}
+		}
+		h.clear();
+		assertEquals(0, h.size());
+	}
+
+	/**
+	 * Testing that searches filter by operator and result, newest first, and page
+	 * through the matches
+	 */
+	@Test
+	public void search() {
+		History h = new History(100);
+		for (int i = 0; i < 250; i++) {
+			h.append(i % 2 == 0 ? Operator.MULTIPLY : Operator.DIVIDE, i, 2, i, i);
+		}
+		long[] found = new long[4];
+		assertEquals(4, h.search(Operator.MULTIPLY, 200, 220, h.count(), found));
+		assertArrayEquals(new long[] { 220, 218, 216, 214 }, found);
+		assertEquals(4, h.search(Operator.MULTIPLY, 200, 220, found[3], found));
+		assertArrayEquals(new long[] { 212, 210, 208, 206 }, found);
+		assertEquals(3, h.search(Operator.MULTIPLY, 200, 220, found[3], found));
+		assertEquals(200, found[2]);
+		assertEquals(0, h.search(Operator.MULTIPLY, 0, 100, h.count(), found));
+		assertEquals(2, h.search(null, 247.5, 1e9, h.count(), found));
+		assertEquals(11, h.count(Operator.MULTIPLY, 200, 220));
+		assertEquals(100, h.count(null, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+		assertEquals(0, h.count(Operator.SQUARE, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY));
+	}
+
+	/**
+	 * Testing that a history kept in a file is recovered after closing and
+	 * reopening, keeping the capacity it was created with
+	 */
+	@Test
+	public void reopen() throws IOException {
+		try (History h = History.open(file, 3)) {
+			h.append(Operator.ADD, 1, 2, 3);
+			h.append(Operator.SUBTRACT, 5, 2, 3);
+			h.append(Operator.MULTIPLY, 4, 2, 8);
+			h.append(Operator.DIVIDE, 9, 3, 3);
+		}
+		assertEquals(History.HEADER + 3 * History.RECORD, Files.size(file));
+		try (History h = History.open(file, 1000)) {
+			assertEquals(3, h.capacity());
+			assertEquals(4, h.count());
+			assertEquals(Operator.SUBTRACT, h.operator(1));
+			assertEquals(8, h.result(2), 0);
+			assertEquals(9, h.first(3), 0);
+			assertEquals(2, h.append(Operator.ADD, 1, 1, 2) - 2);
+		}
+	}
+
+	/**
+	 * Testing that a file that is not a history file is not opened or changed
+	 */
+	@Test
+	public void not_history() throws IOException {
+		byte[] bytes = "not a history file, but long enough to hold a header".getBytes();
+		Files.write(file, bytes);
+		try {
+			History.open(file, 10).close();
+			fail("The file is not a history file");
+		} catch (IOException e) {
+			assertArrayEquals(bytes, Files.readAllBytes(file));
+		}
+	}
+
+	/**
+	 * Testing that the calculator adds each calculation = carries out, but not
+	 * errors or overflows, and re-uses results from the history
+	 */
+	@Test
+	public void calculator() {
+		Calculator calc = new Calculator();
+		History h = new History(16);
+		calc.setHistory(h);
+		for (String s : "1 2 + 3 = C 1 6 SR = C 5 / 0 = C 9 9 9 9 9 9 9 * 9 9 9 9 9 9 9 =".split(" ")) {
+			calc.press(Command.of(s));
+		}
+		assertEquals(2, h.count());
+		assertEquals(Operator.ADD, h.operator(0));
+		assertEquals(12, h.first(0), 0);
+		assertEquals(3, h.second(0), 0);
+		assertEquals(15, h.result(0), 0);
+		assertEquals(Operator.SQUARE_ROOT, h.operator(1));
+		assertTrue(Double.isNaN(h.second(1)));
+		assertEquals(4, h.result(1), 0);
+
+		// Re-using the results as the first and second numbers
+		calc.press(Command.CLEAR);
+		calc.recall(0);
+		assertEquals("15", calc.display());
+		calc.press(Command.MULTIPLY);
+		calc.recall(1);
+		assertEquals("4", calc.display());
+		calc.press(Command.EQUALS);
+		assertEquals("60", calc.display());
+		assertEquals(60, h.result(2), 0);
+	}
+
+	/**
+	 * Testing that keeping a history does not change what any backend displays,
+	 * including results that are fractions
+	 */
+	@Test
+	public void backends() {
+		for (NumericBackend backend : new NumericBackend[] { new FloatBackend(), new DoubleBackend(),
+				new BigDecimalBackend(), new RationalBackend(), new PreciseBackend() }) {
+			Calculator plain = new Calculator(backend), kept = new Calculator(backend);
+			History h = new History(16);
+			kept.setHistory(h);
+			for (String s : "1 / 3 = C 2 ^ = C 1 / 0 =".split(" ")) {
+				plain.press(Command.of(s));
+				kept.press(Command.of(s));
+				assertEquals(plain.display(), kept.display());
+			}
+			assertEquals(2, h.count());
+			assertEquals(1.0 / 3, h.result(0), 1e-7);
+			assertEquals(4, h.result(1), 0);
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the Journal
+ * Class, and the calculators and sessions that persist their memory to it.
+ * 
+ * @author Andrew Sand
+ */
+public class JournalTest {
+	/**
+	 * Member variable that stores the directory of the journal
+	 */
+	Path dir;
+
+	/**
+	 * @Before method that creates the directory
+	 */
+	@Before
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("journal");
+	}
+
+	/**
+	 * @After method that deletes the directory
+	 */
+	@After
+	public void teardown() throws IOException {
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+		}
+	}
+
+	/**
+	 * Testing that changes are recovered after closing and reopening
+	 */
+	@Test
+	public void recover() throws IOException {
+		try (Journal j = Journal.open(dir)) {
+			j.memory(1, 0, 4.5);
+			j.memory(2, 0, 7);
+			j.memory(1, 0, 12.25);
+			j.memory(1, 2, -3);
+			j.memory(3, 0, 1);
+			j.remove(3);
+		}
+		try (Journal j = Journal.open(dir)) {
+			assertArrayEquals(new double[] { 12.25, 0, -3 }, j.memory(1), 0);
+			assertArrayEquals(new double[] { 7 }, j.memory(2), 0);
+			assertNull(j.memory(3));
+			assertEquals(2, j.memories().size());
+		}
+	}
+
+	/**
+	 * Testing that a frame torn by a crash is cut off, keeping the frames before
+	 * it
+	 */
+	@Test
+	public void torn() throws IOException {
+		Path file;
+		try (Journal j = Journal.open(dir)) {
+			j.memory(1, 0, 4.5);
+			j.sync();
+			j.memory(1, 0, 99);
+			j.sync();
+			file = dir.resolve("journal-0.log");
+		}
+		// Cutting the last frame short, as a crash while writing it would
+		long size = Files.size(file);
+		try (FileChannel c = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			c.truncate(size - 1);
+		}
+		try (Journal j = Journal.open(dir)) {
+			assertEquals(4.5, j.memory(1)[0], 0);
+			j.memory(2, 1, 3);
+		}
+		try (Journal j = Journal.open(dir)) {
+			assertEquals(4.5, j.memory(1)[0], 0);
+			assertEquals(3, j.memory(2)[1], 0);
+		}
+	}
+
+	/**
+	 * Testing that snapshots replace the older files and are recovered together
+	 * with the changes after them
+	 */
+	@Test
+	public void snapshots() throws IOException {
+		try (Journal j = Journal.open(dir, 100)) {
+			for (int i = 0; i < 1000; i++) {
+				j.memory(i % 10, i % 3, i);
+				if (i % 50 == 0) {
+					j.sync();
+				}
+			}
+			j.sync();
+			assertTrue(j.commits() <= 1000);
+		}
+		try (Stream<Path> files = Files.list(dir)) {
+			assertTrue(files.count() <= 2);
+		}
+		try (Journal j = Journal.open(dir, 100)) {
+			for (int i = 0; i < 10; i++) {
+				// The last change of each session was 990 + i, in slot (990 + i) % 3
+				assertEquals(990 + i, j.memory(i)[(990 + i) % 3], 0);
+			}
+		}
+	}
+
+	/**
+	 * Testing that a calculator's memory survives a restart, and that the
+	 * sessions of a registry can be resumed
+	 */
+	@Test
+	public void calculator() throws IOException {
+		try (Journal j = Journal.open(dir)) {
+			Calculator calc = new Calculator(new FloatBackend());
+			calc.setJournal(j, 0);
+			for (Command c : new Command[] { Command.SIX, Command.FOUR, Command.SQUARE_ROOT, Command.EQUALS,
+					Command.MEMORY_ADD }) {
+				calc.press(c);
+			}
+			SessionRegistry registry = new SessionRegistry(FloatBackend::new, j);
+			Session s = registry.open();
+			s.press(Command.THREE, Command.ADD, Command.FOUR, Command.EQUALS, Command.MEMORY_ADD);
+		}
+		try (Journal j = Journal.open(dir)) {
+			Calculator calc = new Calculator(new FloatBackend());
+			calc.setJournal(j, 0);
+			calc.press(Command.MEMORY_RECALL);
+			assertEquals("8", calc.display());
+
+			SessionRegistry registry = new SessionRegistry(FloatBackend::new, j);
+			assertEquals("7", registry.resume(1).press(Command.MEMORY_RECALL));
+			assertEquals(2, registry.open().id());
+			assertTrue(registry.close(1));
+		}
+		try (Journal j = Journal.open(dir)) {
+			assertNull(j.memory(1));
+		}
+	}
+}
@@ -0,0 +1,207 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * KeypressRecorder and KeypressReplayer Classes.
+ * 
+ * @author Andrew Sand
+ */
+public class KeypressReplayerTest {
+	/**
+	 * Member variable that stores the keypress log file
+	 */
+	Path log;
+
+	/**
+	 * @Before method that creates the log file
+	 */
+	@Before
+	public void setup() throws IOException {
+		log = Files.createTempFile("keypresses", ".log");
+	}
+
+	/**
+	 * @After method that deletes the log file
+	 */
+	@After
+	public void teardown() throws IOException {
+		Files.deleteIfExists(log);
+	}
+
+	/**
+	 * Testing that replaying a recorded session goes through the same displays
+	 */
+	@Test
+	public void record_replay() throws IOException {
+		// Recording random presses, with a display after each
+		Random r = new Random(18);
+		Calculator calc = new Calculator(new FloatBackend());
+		String[] displays = new String[200000];
+		try (KeypressRecorder recorder = new KeypressRecorder(log)) {
+			calc.setRecorder(recorder);
+			for (int i = 0; i < displays.length; i++) {
+				calc.press(Command.values()[r.nextInt(Command.values().length)]);
+				displays[i] = calc.display();
+			}
+			assertEquals(displays.length, recorder.presses());
+		}
+		assertEquals(KeypressRecorder.HEADER + displays.length, Files.size(log));
+
+		// Replaying them
+		KeypressReplayer replayer = KeypressReplayer.open(log);
+		assertEquals(displays.length, replayer.size());
+		Calculator replayed = new Calculator(new FloatBackend());
+		for (int i = 0; i < displays.length; i++) {
+			replayer.replay(replayed, i, i + 1);
+			assertEquals(displays[i], replayed.display());
+		}
+		assertEquals(-1, replayer.diverges(new Calculator(new FloatBackend()), new Calculator(new FloatBackend())));
+	}
+
+	/**
+	 * Testing that recalls from the History are recorded, measured and replayed
+	 */
+	@Test
+	public void history_recall() throws IOException {
+		// Recording a session that re-uses a result from the History
+		Calculator calc = new Calculator(new FloatBackend());
+		calc.setHistory(new History(16));
+		Metrics metrics = new Metrics();
+		calc.setMetrics(metrics);
+		Command[] before = { Command.ONE, Command.TWO, Command.MULTIPLY, Command.THREE, Command.EQUALS, Command.CLEAR };
+		Command[] after = { Command.ADD, Command.FOUR, Command.EQUALS };
+		try (KeypressRecorder recorder = new KeypressRecorder(log)) {
+			calc.setRecorder(recorder);
+			for (Command c : before) {
+				calc.press(c);
+			}
+			calc.recall(0);
+			for (Command c : after) {
+				calc.press(c);
+			}
+			assertEquals(before.length + 1 + after.length, recorder.presses());
+		}
+		assertEquals("40", calc.display());
+		assertEquals(1, metrics.recall().count());
+
+		// Replaying it on a calculator with a new History
+		KeypressReplayer replayer = KeypressReplayer.open(log);
+		assertEquals(before.length + 1 + after.length, replayer.size());
+		assertNull(replayer.get(before.length));
+		assertEquals(Command.ADD, replayer.get(before.length + 1));
+		Calculator replayed = new Calculator(new FloatBackend());
+		replayed.setHistory(new History(16));
+		replayer.replay(replayed);
+		assertEquals("40", replayed.display());
+	}
+
+	/**
+	 * Testing that the first press where two backends differ is found
+	 */
+	@Test
+	public void diverges() throws IOException {
+		Command[] presses = { Command.ONE, Command.ADD, Command.TWO, Command.EQUALS, Command.ONE, Command.DIVIDE,
+				Command.THREE, Command.EQUALS };
+		try (KeypressRecorder recorder = new KeypressRecorder(log)) {
+			for (Command c : presses) {
+				recorder.record(c);
+			}
+		}
+		assertEquals(7, KeypressReplayer.open(log).diverges(new Calculator(new FloatBackend()),
+				new Calculator(new DoubleBackend())));
+	}
+
+	/**
+	 * Testing that logs are checked when they are opened
+	 */
+	@Test
+	public void checks() {
+		try {
+			new KeypressReplayer(ByteBuffer.wrap(new byte[] { 'C', 'K', 'E', 'X', 1 }));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new KeypressReplayer(log(1, (byte) Command.values().length));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new KeypressReplayer(log(1, KeypressRecorder.RECALL, 0, 0));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new KeypressReplayer(ByteBuffer.wrap(new byte[] { 'C', 'K', 'E', 'Y', 0, 0, 0, 0 }));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new KeypressReplayer(ByteBuffer.wrap(new byte[] { 'C', 'K', 'E', 'Y', 9, 0, 0, 0, 0, 0, 0, 1 }));
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Testing that a log is replayed on a calculator with the backend and tier
+	 * it was recorded with
+	 */
+	@Test
+	public void calculator() throws IOException {
+		// Recording a precise calculation with the fast tier
+		Calculator calc = new Calculator(new PreciseBackend(new MathContext(40, RoundingMode.DOWN)));
+		calc.setTier(Scientific.Tier.FAST);
+		try (KeypressRecorder recorder = new KeypressRecorder(log, calc.getBackend(), calc.getTier())) {
+			calc.setRecorder(recorder);
+			for (String s : "2 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 0 / 3 =".split(" ")) {
+				calc.press(Command.of(s));
+			}
+		}
+		assertEquals("6666666666666666666.666666666666666666666", calc.display());
+
+		// Replaying it on the calculator the log describes
+		KeypressReplayer replayer = KeypressReplayer.open(log);
+		Calculator replayed = replayer.calculator();
+		assertEquals(PreciseBackend.class, replayed.getBackend().getClass());
+		assertEquals(new MathContext(40, RoundingMode.DOWN), ((PreciseBackend) replayed.getBackend()).context());
+		assertEquals(Scientific.Tier.FAST, replayed.getTier());
+		replayer.replay(replayed);
+		assertEquals(calc.display(), replayed.display());
+	}
+
+	/**
+	 * Helper Method that creates a log of a calculator with the FloatBackend
+	 * and the EXACT tier.
+	 * 
+	 * @param presses - the bytes after the header
+	 * @return - the log
+	 */
+	private static ByteBuffer log(int... presses) {
+		ByteBuffer b = ByteBuffer.allocate(KeypressRecorder.HEADER + presses.length);
+		b.put(KeypressRecorder.MAGIC).put(new byte[KeypressRecorder.HEADER - KeypressRecorder.MAGIC.length]);
+		for (int p : presses) {
+			b.put((byte) p);
+		}
+		return b.flip();
+	}
+}
@@ -0,0 +1,93 @@
+package calculator;
+
+import static calculator.CalculatorTest.press;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * MemoryRegisters Class and the memory buttons of the Calculator.
+ * 
+ * @author Andrew Sand
+ */
+public class MemoryRegistersTest {
+	/**
+	 * Testing that each slot keeps its own number
+	 */
+	@Test
+	public void slots() {
+		Calculator calc = new Calculator(new FloatBackend());
+		String[] memory = { null };
+		calc.events().subscribe(e -> memory[0] = e.memory());
+		press(calc, Command.SIX, Command.FOUR, Command.SQUARE_ROOT, Command.EQUALS, Command.MEMORY_ADD);
+		press(calc, Command.MEMORY_SLOT);
+		assertEquals("M2", memory[0]);
+		press(calc, Command.THREE, Command.MULTIPLY, Command.ONE, Command.DECIMAL, Command.FIVE, Command.EQUALS,
+				Command.MEMORY_SUBTRACT);
+		assertEquals("-4.5", press(calc, Command.MEMORY_RECALL));
+		press(calc, Command.CLEAR, Command.MEMORY_SLOT, Command.MEMORY_SLOT, Command.MEMORY_SLOT);
+		assertEquals("M1", memory[0]);
+		assertEquals("8", press(calc, Command.MEMORY_RECALL));
+
+		// Clearing only clears the active slot
+		press(calc, Command.MEMORY_CLEAR, Command.CLEAR);
+		assertEquals(0, calc.memory().get(0), 0);
+		assertEquals(0, calc.memory().get("M2"), 0);
+		assertEquals("0", press(calc, Command.MEMORY_RECALL));
+	}
+
+	/**
+	 * Testing direct access to the slots, as a batch job would
+	 */
+	@Test
+	public void direct() {
+		Calculator calc = new Calculator(new FloatBackend());
+		MemoryRegisters m = calc.memory();
+		assertEquals(MemoryRegisters.DEFAULT_SLOTS, m.size());
+		m.set("M3", 12.5);
+		m.select(m.index("M3"));
+		assertEquals("12.5", press(calc, Command.MEMORY_RECALL));
+
+		MemoryRegisters named = new MemoryRegisters("total", "tax");
+		named.set("tax", 0.2);
+		assertEquals(1, named.index("tax"));
+		assertEquals(0.2, named.get(1), 0);
+		try {
+			named.index("M1");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			new MemoryRegisters("a", "a");
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	/**
+	 * Testing that the float memory gives the same results as adding the Strings
+	 * with the FloatBackend, as the memory did before it had slots
+	 */
+	@Test
+	public void float_strings() {
+		Random r = new Random(19);
+		FloatBackend strings = new FloatBackend();
+		FloatBackend slots = new FloatBackend();
+		MemoryRegisters m = new MemoryRegisters(1);
+		Operand recalled = new Operand(16);
+		String mem = "0";
+		for (int i = 0; i < 10000; i++) {
+			String a = Integer.toString(r.nextInt(1000)), b = Integer.toString(r.nextInt(999) + 1);
+			String result = slots.divide(a, b);
+			mem = strings.add(mem, result);
+			m.set(0, slots.add(m.get(0), slots.value(result)));
+			slots.format(m.get(0), recalled);
+			assertEquals(mem, recalled.toString());
+		}
+	}
+}
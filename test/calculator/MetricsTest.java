@@ -0,0 +1,155 @@
+package calculator;
+
+import static calculator.CalculatorTest.press;
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * LatencyHistogram and Metrics Classes, and the measuring of the Calculator
+ * and GUI.
+ * 
+ * @author Andrew Sand
+ */
+public class MetricsTest {
+	/**
+	 * Testing that every value falls into a bucket that counts it to within 3%
+	 */
+	@Test
+	public void buckets() {
+		for (long v = 0; v < 1 << 20; v++) {
+			int i = LatencyHistogram.bucket(v);
+			assertTrue(v <= LatencyHistogram.highest(i));
+			assertTrue(i == 0 || v > LatencyHistogram.highest(i - 1));
+			assertTrue(LatencyHistogram.highest(i) - v <= v / 32);
+		}
+		int last = LatencyHistogram.bucket(LatencyHistogram.MAX_VALUE);
+		assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highest(last));
+	}
+
+	/**
+	 * Testing the count, mean, percentiles and maximum of a histogram
+	 */
+	@Test
+	public void percentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (long v = 1; v <= 100_000; v++) {
+			h.record(v * 1000);
+		}
+		assertEquals(100_000, h.count());
+		assertEquals(50_000_500, h.mean(), 1);
+		assertEquals(100_000_000, h.max());
+		assertEquals(50_000_000, h.percentile(50), 50_000_000 / 32);
+		assertEquals(99_000_000, h.percentile(99), 99_000_000 / 32);
+		assertEquals(100_000_000, h.percentile(100));
+
+		// Values too large for the buckets still count towards the maximum
+		h.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, h.max());
+		h.reset();
+		assertEquals(0, h.count());
+		assertEquals(0, h.percentile(99));
+	}
+
+	/**
+	 * Testing that presses and operations are counted, and that nothing is
+	 * counted once the metrics are turned off
+	 */
+	@Test
+	public void counts() {
+		Calculator calc = new Calculator(new FloatBackend());
+		Metrics metrics = new Metrics();
+		calc.setMetrics(metrics);
+		assertEquals("42", press(calc, Command.SIX, Command.MULTIPLY, Command.SEVEN, Command.EQUALS));
+		assertEquals("8", calc.square_root("64"));
+		assertEquals(1, metrics.press(Command.SIX).count());
+		assertEquals(1, metrics.press(Command.EQUALS).count());
+		assertEquals(1, metrics.operation(Operator.MULTIPLY).count());
+		assertEquals(1, metrics.operation(Operator.SQUARE_ROOT).count());
+		assertEquals(0, metrics.getErrors());
+		assertEquals(Long.valueOf(1), metrics.getCounts().get("press *"));
+		assertTrue(metrics.report().contains("op multiply"));
+
+		calc.setMetrics(null);
+		press(calc, Command.SIX);
+		assertEquals(1, metrics.press(Command.SIX).count());
+	}
+
+	/**
+	 * Testing that cached results are still measured
+	 */
+	@Test
+	public void cached() {
+		Calculator calc = new Calculator(new FloatBackend());
+		Metrics metrics = new Metrics();
+		calc.setMetrics(metrics);
+		calc.setResultCache(new ResultCache(1 << 16));
+		assertEquals("4", calc.add("1", "3"));
+		assertEquals("4", calc.add("1", "3"));
+		assertEquals(2, metrics.operation(Operator.ADD).count());
+	}
+
+	/**
+	 * Testing that overflows and errors are counted
+	 */
+	@Test
+	public void errors() {
+		Calculator calc = new Calculator(new FloatBackend());
+		Metrics metrics = new Metrics();
+		calc.setMetrics(metrics);
+		assertEquals("ERROR: OVERFLOW", press(calc, Command.NINE, Command.NINE, Command.NINE, Command.NINE,
+				Command.NINE, Command.NINE, Command.SQUARE, Command.EQUALS));
+		assertEquals(1, metrics.getOverflows());
+		assertEquals(0, metrics.getErrors());
+		assertEquals("ERROR", press(calc, Command.MULTIPLY));
+		assertEquals(1, metrics.getErrors());
+		metrics.reset();
+		assertEquals(0, metrics.getOverflows());
+		assertEquals(0, metrics.press(Command.NINE).count());
+	}
+
+	/**
+	 * Testing that the GUI's updates are measured
+	 */
+	@Test
+	public void gui() {
+		GUI gui = new GUI();
+		Calculator calc = new Calculator(new FloatBackend());
+		gui.create_panel(calc);
+		Metrics metrics = new Metrics();
+		gui.setMetrics(metrics);
+		gui.displayed(new DisplayEvent("3", Operator.ADD));
+		gui.displayed(new DisplayEvent("3", null));
+		assertEquals(2, metrics.update().count());
+		Map<String, Long> counts = metrics.getCounts();
+		assertEquals(Long.valueOf(1), counts.get("gui set_button"));
+		assertEquals(Long.valueOf(2), counts.get("gui reset_buttons"));
+	}
+
+	/**
+	 * Testing that the metrics can be read through JMX
+	 */
+	@Test
+	public void jmx() throws Exception {
+		Metrics metrics = new Metrics();
+		ObjectName name = metrics.register();
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			metrics.overflow();
+			metrics.press(Command.ONE, 1000);
+			assertEquals(1L, server.getAttribute(name, "Overflows"));
+			assertTrue(((String) server.getAttribute(name, "Report")).contains("press 1"));
+			server.invoke(name, "reset", null, null);
+			assertEquals(0L, server.getAttribute(name, "Overflows"));
+		} finally {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+		}
+	}
+}
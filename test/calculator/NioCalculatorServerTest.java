@@ -0,0 +1,130 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * NioCalculatorServer Class over localhost.
+ * 
+ * @author Andrew Sand
+ */
+public class NioCalculatorServerTest {
+	/**
+	 * Member variable that stores the server under test
+	 */
+	NioCalculatorServer server;
+
+	/**
+	 * @Before method that starts a server on a free port before each test
+	 */
+	@Before
+	public void setup() throws Exception {
+		server = new NioCalculatorServer(0).start();
+	}
+
+	/**
+	 * @After method that closes the server after each test
+	 */
+	@After
+	public void teardown() throws Exception {
+		server.close();
+	}
+
+	/**
+	 * Testing requests split across writes, and errors
+	 */
+	@Test
+	public void requests() throws Exception {
+		try (Socket s = new Socket("localhost", server.port());
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1))) {
+			OutputStream out = s.getOutputStream();
+			out.write("3.5 * 7\nSR 6".getBytes(StandardCharsets.ISO_8859_1));
+			out.flush();
+			assertEquals("24.5", in.readLine());
+			out.write("4.6\n9 ^\r\nbad\n".getBytes(StandardCharsets.ISO_8859_1));
+			out.flush();
+			assertEquals("8.037413", in.readLine());
+			assertEquals("81", in.readLine());
+			assertEquals("ERROR", in.readLine());
+		}
+	}
+
+	/**
+	 * Testing a pipelined burst with more answers than fit into the output
+	 * buffers at once, so the server has to stop reading until they are sent
+	 */
+	@Test
+	public void pipelined() throws Exception {
+		int n = 200000;
+		try (Socket s = new Socket("localhost", server.port());
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1))) {
+			// Writing on another thread, as the server stops reading while its
+			// answers are not being read
+			Thread writer = new Thread(() -> {
+				try {
+					OutputStream out = s.getOutputStream();
+					StringBuilder sb = new StringBuilder();
+					for (int i = 0; i < n; i++) {
+						sb.append(i).append(" + 0.5\n");
+						if (sb.length() > 8192) {
+							out.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+							sb.setLength(0);
+						}
+					}
+					out.write(sb.toString().getBytes(StandardCharsets.ISO_8859_1));
+					out.flush();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			});
+			writer.start();
+			FloatBackend backend = new FloatBackend();
+			for (int i = 0; i < n; i++) {
+				assertEquals(backend.add(Integer.toString(i), "0.5"), in.readLine());
+			}
+			writer.join();
+		}
+	}
+
+	/**
+	 * Testing that results too large to show are answered as the
+	 * CalculatorServer answers them
+	 */
+	@Test
+	public void overflow() throws Exception {
+		try (Socket s = new Socket("localhost", server.port());
+				BufferedReader in = new BufferedReader(
+						new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1))) {
+			OutputStream out = s.getOutputStream();
+			out.write("99999 * 99999\n1 / 0\n3 + 4\n".getBytes(StandardCharsets.ISO_8859_1));
+			out.flush();
+			assertEquals("ERROR: OVERFLOW", in.readLine());
+			assertEquals("ERROR: OVERFLOW", in.readLine());
+			assertEquals("7", in.readLine());
+		}
+	}
+
+	/**
+	 * Testing that a line longer than a buffer closes the connection
+	 */
+	@Test
+	public void too_long() throws Exception {
+		try (Socket s = new Socket("localhost", server.port());
+				BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream()))) {
+			s.getOutputStream().write(new byte[NioCalculatorServer.BUFFER_SIZE + 1]);
+			assertNull(in.readLine());
+		}
+	}
+}
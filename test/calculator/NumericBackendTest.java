@@ -0,0 +1,179 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * NumericBackend implementations and the Rational Class.
+ * 
+ * @author Andrew Sand
+ */
+public class NumericBackendTest {
+	/**
+	 * Testing that the float backend is the calculator's default behaviour
+	 */
+	@Test
+	public void float_default() {
+		Calculator calc = new Calculator();
+		NumericBackend b = new FloatBackend();
+		assertTrue(calc.getBackend() instanceof FloatBackend);
+		assertEquals(calc.multiply("63.354", "8.31"), b.multiply("63.354", "8.31"));
+		assertEquals("9283.322", b.square("96.35"));
+		assertEquals("8.037413", b.square_root("64.6"));
+		assertTrue(b.overflows("2147483647"));
+		assertFalse(b.overflows("2147483"));
+	}
+
+	/**
+	 * Testing that the double backend keeps more digits
+	 */
+	@Test
+	public void double_precision() {
+		NumericBackend b = new DoubleBackend();
+		assertEquals("123456789012345", b.add("123456789012340", "5"));
+		assertEquals("526.4717400000001", b.multiply("63.354", "8.31"));
+		assertEquals("0.30000000000000004", b.add("0.1", "0.2"));
+		assertFalse(b.overflows("2147483648"));
+	}
+
+	/**
+	 * Testing that the BigDecimal backend is exact for decimals
+	 */
+	@Test
+	public void big_decimal() {
+		NumericBackend b = new BigDecimalBackend();
+		assertEquals("0.3", b.add("0.1", "0.2"));
+		assertEquals("10", b.add("4.0", "6.0"));
+		assertEquals("0", b.subtract("1.5", "1.50"));
+		assertEquals("0.3333333333333333333333333333333333", b.divide("1", "3"));
+		assertEquals("0.3333333", new BigDecimalBackend(new MathContext(7)).divide("1", "3"));
+		assertEquals("8", b.square_root("64"));
+		assertFalse(b.overflows("1e100"));
+	}
+
+	/**
+	 * Testing that the BigDecimal backend reports impossible operations
+	 */
+	@Test(expected = ArithmeticException.class)
+	public void big_decimal_divide_zero() {
+		new BigDecimalBackend().divide("1", "0");
+	}
+
+	/**
+	 * Testing that the Rational backend is exact
+	 */
+	@Test
+	public void rational() {
+		NumericBackend b = new RationalBackend();
+		assertEquals("1/3", b.divide("1", "3"));
+		assertEquals("1", b.multiply("1/3", "3"));
+		assertEquals("0.3", b.add("0.1", "0.2"));
+		assertEquals("-2.5", b.subtract("1/2", "3"));
+		assertEquals("0.5", b.square_root("1/4"));
+		assertEquals("2/3", b.square_root("4/9"));
+		assertEquals("1/9", b.square("-1/3"));
+	}
+
+	/**
+	 * Testing that the precise backend is exact, and does not overflow
+	 */
+	@Test
+	public void precise() {
+		NumericBackend b = new PreciseBackend();
+		assertEquals("0.3", b.add("0.1", "0.2"));
+		assertEquals("10", b.add("4.0", "6.0"));
+		assertEquals("0", b.subtract("1.5", "1.50"));
+		assertEquals("-0.05", b.subtract("1.2", "1.25"));
+		assertEquals("526.47174", b.multiply("63.354", "8.31"));
+		assertEquals("12.5", b.divide("100", "8"));
+		assertEquals("50000", b.divide("5", "0.0001"));
+		assertEquals("0.3333333333333333333333333333333333", b.divide("1", "3"));
+		assertEquals("0.3333333", new PreciseBackend(new MathContext(7)).divide("1", "3"));
+		assertEquals("1.2", b.square_root("1.44"));
+		assertEquals("1.414213562373095048801688724209698", b.square_root("2"));
+		assertEquals("0.000000000000000001", b.multiply("0.000000001", "0.000000001"));
+
+		// Escalating past a long
+		assertEquals("9223372036854775808", b.add("9223372036854775807", "1"));
+		assertEquals("-18446744073709551616", b.multiply("-4294967296", "4294967296"));
+		assertEquals("123456789012345678901234567890.5", b.add("123456789012345678901234567890", "0.5"));
+		assertEquals("-9223372036854775808", b.subtract("-9223372036854775807", "1"));
+		assertFalse(b.overflows("2147483648"));
+		assertEquals(Integer.MAX_VALUE, b.input_limit(15));
+	}
+
+	/**
+	 * Testing that the precise backend gives what BigDecimal does, for random
+	 * numbers on either side of the fast path
+	 */
+	@Test
+	public void precise_matches_big_decimal() {
+		PreciseBackend b = new PreciseBackend();
+		Random random = new Random(24);
+		for (int i = 0; i < 100_000; i++) {
+			String s1 = random_decimal(random), s2 = random_decimal(random);
+			BigDecimal d1 = new BigDecimal(s1), d2 = new BigDecimal(s2);
+			assertEquals(BigDecimalBackend.format(d1.add(d2)), b.add(s1, s2));
+			assertEquals(BigDecimalBackend.format(d1.subtract(d2)), b.subtract(s1, s2));
+			assertEquals(BigDecimalBackend.format(d1.multiply(d2)), b.multiply(s1, s2));
+			assertEquals(BigDecimalBackend.format(d1.multiply(d1)), b.square(s1));
+			if (d2.signum() != 0) {
+				assertEquals(BigDecimalBackend.format(d1.divide(d2, MathContext.DECIMAL128)), b.divide(s1, s2));
+			}
+			if (d1.signum() >= 0) {
+				assertEquals(BigDecimalBackend.format(d1.sqrt(MathContext.DECIMAL128)), b.square_root(s1));
+			}
+		}
+	}
+
+	/**
+	 * Helper method that creates a random decimal of up to 22 digits, often a
+	 * short one or a perfect square.
+	 * 
+	 * @param random - the source of randomness
+	 * @return - the decimal
+	 */
+	private static String random_decimal(Random random) {
+		StringBuilder sb = new StringBuilder();
+		if (random.nextBoolean()) {
+			sb.append('-');
+		}
+		if (random.nextInt(4) == 0) {
+			long r = random.nextInt(100000);
+			sb.append(r * r);
+		} else {
+			int digits = 1 + random.nextInt(random.nextBoolean() ? 6 : 22);
+			for (int i = 0; i < digits; i++) {
+				sb.append((char) ('0' + random.nextInt(10)));
+			}
+		}
+		if (random.nextBoolean()) {
+			sb.insert(1 + random.nextInt(sb.length()), '.');
+			if (sb.charAt(sb.length() - 1) == '.' || sb.charAt(0) == '.' || sb.indexOf("-.") == 0) {
+				sb.append('5');
+			}
+		}
+		return sb.toString().replace("-.", "-0.").replaceFirst("^\\.", "0.");
+	}
+
+	/**
+	 * Testing the Rational Class itself
+	 */
+	@Test
+	public void rational_values() {
+		Rational r = Rational.parse("-0.75");
+		assertEquals("-3", r.numerator().toString());
+		assertEquals("4", r.denominator().toString());
+		assertEquals(Rational.parse("6/-8"), r);
+		assertTrue(r.compareTo(Rational.ZERO) < 0);
+		assertTrue(Rational.parse("1/3").add(Rational.parse("2/3")).equals(Rational.ONE));
+		assertEquals("1.4142135623730950488016887242097", Rational.parse("2").sqrt(MathContext.DECIMAL128)
+				.toBigDecimal(new MathContext(32)).toPlainString());
+	}
+}
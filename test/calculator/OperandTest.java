@@ -0,0 +1,142 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the Operand
+ * Class, which holds a number while it is being typed.
+ * 
+ * @author Andrew Sand
+ */
+public class OperandTest {
+	/**
+	 * Member variable that stores the testing instance of the Operand
+	 */
+	Operand test;
+
+	/**
+	 * @Before method that instantiates a new, clean instance of the Operand
+	 *         before each test
+	 */
+	@Before
+	public void setup() {
+		test = new Operand(4);
+	}
+
+	/**
+	 * Testing typing and deleting chars
+	 */
+	@Test
+	public void append_delete() {
+		test.append('1');
+		test.append('2');
+		assertEquals("12", test.toString());
+		test.delete_last();
+		assertEquals("1", test.toString());
+		test.delete_last();
+		test.delete_last();
+		assertTrue(test.isEmpty());
+	}
+
+	/**
+	 * Testing that the decimal point is tracked through deletes
+	 */
+	@Test
+	public void decimal() {
+		test.append('3');
+		assertFalse(test.has_decimal());
+		test.append('.');
+		test.append('5');
+		assertTrue(test.has_decimal());
+		test.delete_last();
+		assertTrue(test.has_decimal());
+		test.delete_last();
+		assertFalse(test.has_decimal());
+	}
+
+	/**
+	 * Testing the negative sign
+	 */
+	@Test
+	public void sign() {
+		test.append('-');
+		assertTrue(test.is_sign());
+		test.append('4');
+		assertFalse(test.is_sign());
+		assertEquals('-', test.charAt(0));
+	}
+
+	/**
+	 * Testing that setting a long number grows the buffer
+	 */
+	@Test
+	public void set() {
+		test.set("-123.456E-7");
+		assertEquals("-123.456E-7", test.toString());
+		assertEquals(11, test.length());
+		assertTrue(test.has_decimal());
+		assertEquals("123", test.subSequence(1, 4).toString());
+	}
+
+	/**
+	 * Testing that the value kept up to date while typing and deleting is what
+	 * parsing the chars gives
+	 */
+	@Test
+	public void values() {
+		Random random = new Random(22);
+		String chars = "0123456789.-E";
+		for (int i = 0; i < 200_000; i++) {
+			// Deleting a third of the time, and typing something otherwise
+			if (random.nextInt(3) == 0 || test.length() > 24) {
+				test.delete_last();
+			} else {
+				test.append(chars.charAt(random.nextInt(i % 3 == 0 ? chars.length() : 10)));
+			}
+			check(test);
+		}
+	}
+
+	/**
+	 * Testing the values of numbers that are set, such as recalled memories
+	 */
+	@Test
+	public void set_values() {
+		for (String s : new String[] { "0", "-0", "0.1", "8.037413", "-287.97064", "3.4028235E38", "1.4E-45",
+				"123456789012345678", "1234567890123456789", "0.000000000000000000000001", "NaN", "-Infinity",
+				"5.", "7f" }) {
+			test.set(s);
+			check(test);
+		}
+	}
+
+	/**
+	 * Testing that the values give what the JDK's parsers do, or throw like
+	 * them
+	 * 
+	 * @param o - the Operand
+	 */
+	private static void check(Operand o) {
+		String s = o.toString();
+		Float f;
+		Double d;
+		try {
+			f = Float.parseFloat(s);
+			d = Double.parseDouble(s);
+		} catch (NumberFormatException e) {
+			f = null;
+			d = null;
+		}
+		try {
+			assertEquals(s, f, (Float) o.float_value());
+			assertEquals(s, d, (Double) o.double_value());
+		} catch (NumberFormatException e) {
+			assertNull(s, f);
+		}
+	}
+}
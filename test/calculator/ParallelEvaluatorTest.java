@@ -0,0 +1,131 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * ParallelEvaluator Class against evaluating on one thread.
+ * 
+ * @author Andrew Sand
+ */
+public class ParallelEvaluatorTest {
+	/**
+	 * Member variables that store the pool and evaluator used by every test
+	 */
+	static ForkJoinPool pool;
+	static ParallelEvaluator parallel;
+
+	/**
+	 * Member variables that store the input columns, whose length is not a
+	 * multiple of the chunk size
+	 */
+	static final int N = 10 * ParallelEvaluator.CHUNK + 123;
+	static float[] a = new float[N], b = new float[N];
+
+	/**
+	 * @BeforeClass method that creates a pool of 4 threads and the columns
+	 */
+	@BeforeClass
+	public static void setup() {
+		pool = new ForkJoinPool(4);
+		parallel = new ParallelEvaluator(pool);
+		Random r = new Random(15);
+		for (int i = 0; i < N; i++) {
+			a[i] = r.nextFloat() * 2000 - 1000;
+			b[i] = r.nextFloat() * 100 - 50;
+		}
+	}
+
+	/**
+	 * @AfterClass method that shuts the pool down
+	 */
+	@AfterClass
+	public static void teardown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Testing every Operator against the BatchEvaluator
+	 */
+	@Test
+	public void operators() {
+		for (Operator o : Operator.values()) {
+			float[] expected = new float[N], actual = new float[N];
+			BatchEvaluator.evaluate(o, a, b, expected);
+			parallel.evaluate(o, a, b, actual);
+			assertArrayEquals(expected, actual, 0f);
+		}
+		double[] d = new double[N];
+		for (int i = 0; i < N; i++) {
+			d[i] = a[i] * 1.000001;
+		}
+		float[] expected = new float[N], actual = new float[N];
+		BatchEvaluator.evaluate(Operator.SQUARE_ROOT, d, null, expected);
+		parallel.evaluate(Operator.SQUARE_ROOT, d, null, actual);
+		assertArrayEquals(expected, actual, 0f);
+	}
+
+	/**
+	 * Testing a column of mixed Operators, and that repeated runs give the same
+	 * results
+	 */
+	@Test
+	public void mixed() {
+		Random r = new Random(51);
+		byte[] ops = new byte[N];
+		float[] expected = new float[N];
+		for (int i = 0; i < N; i++) {
+			ops[i] = (byte) r.nextInt(Operator.values().length);
+			expected[i] = Arithmetic.apply(Operator.values()[ops[i]], a[i], b[i]);
+		}
+		for (int run = 0; run < 3; run++) {
+			float[] actual = new float[N];
+			parallel.evaluate(ops, a, b, actual);
+			assertArrayEquals(expected, actual, 0f);
+		}
+	}
+
+	/**
+	 * Testing an Expression against evaluating it on one thread
+	 */
+	@Test
+	public void expression() {
+		Expression e = Expression.compile("sqrt(x^ + y^) / (x - y)");
+		float[] expected = new float[N], actual = new float[N];
+		e.evaluate(new float[][] { a, b }, expected);
+		parallel.evaluate(e, new float[][] { a, b }, actual);
+		assertArrayEquals(expected, actual, 0f);
+	}
+
+	/**
+	 * Testing that columns are checked before any work is done
+	 */
+	@Test
+	public void checks() {
+		try {
+			parallel.evaluate(Operator.ADD, a, null, new float[N]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			parallel.evaluate(new byte[] { (byte) Operator.values().length }, a, b, new float[N]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		try {
+			parallel.evaluate(Expression.compile("x + y"), new float[][] { a }, new float[N]);
+			fail();
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * ResultCache Class, on its own and when used by the Calculator.
+ * 
+ * @author Andrew Sand
+ */
+public class ResultCacheTest {
+	/**
+	 * Member variable that stores the Calculator under test
+	 */
+	Calculator test;
+
+	/**
+	 * @Before method that instantiates a new, clean instance of the Calculator
+	 *         with a cache before each test
+	 */
+	@Before
+	public void setup() {
+		test = new Calculator();
+		test.setResultCache(new ResultCache(1 << 16));
+	}
+
+	/**
+	 * Testing that results are stored and found, and the statistics
+	 */
+	@Test
+	public void get_and_put() {
+		ResultCache cache = new ResultCache(1 << 12);
+		assertNull(cache.get(Operator.ADD, 1, 2));
+		cache.put(Operator.ADD, 1, 2, "3");
+		assertEquals("3", cache.get(Operator.ADD, 1, 2));
+		assertNull(cache.get(Operator.SUBTRACT, 1, 2));
+		assertNull(cache.get(Operator.ADD, 2, 1));
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.hits());
+		assertEquals(3, cache.misses());
+		assertEquals(0.25, cache.hit_rate(), 0);
+		assertTrue(cache.footprint() <= 1 << 12);
+	}
+
+	/**
+	 * Testing that a full table evicts rather than grows, keeping referenced
+	 * results
+	 */
+	@Test
+	public void eviction() {
+		ResultCache cache = new ResultCache(ResultCache.PROBES * (ResultCache.SLOT_BYTES + ResultCache.RESULT_BYTES));
+		assertEquals(ResultCache.PROBES, cache.capacity());
+		for (int i = 0; i < ResultCache.PROBES; i++) {
+			cache.put(Operator.MULTIPLY, i, i, "r" + i);
+		}
+		assertEquals(0, cache.evictions());
+		// Referencing all but one result, which must be the one evicted
+		for (int i = 1; i < ResultCache.PROBES; i++) {
+			cache.get(Operator.MULTIPLY, i, i);
+		}
+		cache.put(Operator.MULTIPLY, 99, 99, "r99");
+		assertEquals(1, cache.evictions());
+		assertEquals(ResultCache.PROBES, cache.size());
+		assertNull(cache.get(Operator.MULTIPLY, 0, 0));
+		for (int i = 1; i < ResultCache.PROBES; i++) {
+			assertEquals("r" + i, cache.get(Operator.MULTIPLY, i, i));
+		}
+		assertEquals("r99", cache.get(Operator.MULTIPLY, 99, 99));
+	}
+
+	/**
+	 * Testing that a budget too small for the table is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void small_budget() {
+		new ResultCache(64);
+	}
+
+	/**
+	 * Testing that the Calculator gives the same results with the cache, and that
+	 * equal numbers share an entry
+	 */
+	@Test
+	public void calculator() {
+		for (int i = 0; i < 2; i++) {
+			assertEquals("5.13", test.add("1.5", "3.63"));
+			assertEquals("11.91", test.subtract("17.6", "5.69"));
+			assertEquals("526.47174", test.multiply("63.354", "8.31"));
+			assertEquals("246.875", test.divide("987.5", "4"));
+			assertEquals("9283.322", test.square("96.35"));
+			assertEquals("8.037413", test.square_root("64.6"));
+		}
+		ResultCache cache = test.getResultCache();
+		assertEquals(6, cache.hits());
+		assertEquals("246.875", test.divide("987.50", "4.0"));
+		assertEquals(7, cache.hits());
+		assertEquals(6, cache.size());
+	}
+
+	/**
+	 * Testing that other backends are not cached and caching can be turned off
+	 */
+	@Test
+	public void switchable() {
+		ResultCache cache = test.getResultCache();
+		test.setBackend(new BigDecimalBackend());
+		assertEquals("0.30000000001", test.add("0.1", "0.20000000001"));
+		assertEquals(0, cache.size());
+		test.setBackend(new FloatBackend());
+		test.setResultCache(null);
+		assertEquals("0.3", test.add("0.1", "0.2"));
+		assertEquals(0, cache.hits() + cache.misses());
+	}
+}
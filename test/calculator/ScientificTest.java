@@ -0,0 +1,202 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.Test;
+
+import calculator.Scientific.Tier;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * Scientific Class. The tiers are compared with StrictMath over random
+ * arguments, holding them to the errors in the table of the Scientific Class.
+ * 
+ * @author Andrew Sand
+ */
+public class ScientificTest {
+	/**
+	 * The number of random arguments each function is tested with
+	 */
+	private static final int ARGUMENTS = 200_000;
+
+	/**
+	 * Testing exp within 2 ulp, over the whole range that is approximated
+	 */
+	@Test
+	public void exp() {
+		Random random = new Random(1);
+		for (int i = 0; i < ARGUMENTS; i++) {
+			double x = (random.nextDouble() * 2 - 1) * 708;
+			assert_ulps(StrictMath.exp(x), Scientific.exp(x, Tier.APPROXIMATE), 2, x);
+			assert_ulps(StrictMath.exp(x), Scientific.exp(x, Tier.FAST), 1, x);
+		}
+	}
+
+	/**
+	 * Testing ln within 3 ulp and log10 within 4, over every exponent and close
+	 * to 1
+	 */
+	@Test
+	public void ln() {
+		Random random = new Random(2);
+		for (int i = 0; i < ARGUMENTS; i++) {
+			double x = i % 2 == 0 ? Math.scalb(1 + random.nextDouble(), random.nextInt(2046) - 1022)
+					: 1 + (random.nextDouble() * 2 - 1) / 32;
+			assert_ulps(StrictMath.log(x), Scientific.ln(x, Tier.APPROXIMATE), 3, x);
+			assert_ulps(StrictMath.log10(x), Scientific.log10(x, Tier.APPROXIMATE), 4, x);
+			assert_ulps(StrictMath.log(x), Scientific.ln(x, Tier.FAST), 1, x);
+		}
+	}
+
+	/**
+	 * Testing sin and cos within 1 ulp and tan within 3, over the range that is
+	 * approximated
+	 */
+	@Test
+	public void trig() {
+		Random random = new Random(3);
+		for (int i = 0; i < ARGUMENTS; i++) {
+			double x = i % 2 == 0 ? (random.nextDouble() * 2 - 1) * 1e5 : (random.nextDouble() * 2 - 1) * 4;
+			assert_ulps(StrictMath.sin(x), Scientific.sin(x, Tier.APPROXIMATE), 1, x);
+			assert_ulps(StrictMath.cos(x), Scientific.cos(x, Tier.APPROXIMATE), 1, x);
+			assert_ulps(StrictMath.tan(x), Scientific.tan(x, Tier.APPROXIMATE), 3, x);
+		}
+	}
+
+	/**
+	 * Testing sin, cos and tan within the same ulps at the doubles nearest to
+	 * each multiple of pi/2 below 1e5, where the reduced angle is tiny and only
+	 * keeps its digits if pi/2 is subtracted precisely enough
+	 */
+	@Test
+	public void trig_near_multiples() {
+		BigDecimal pio2 = new BigDecimal("1.5707963267948966192313216916397514420985846996875529104874722961539");
+		for (int k = 1; k * (Math.PI / 2) < 1e5; k++) {
+			double nearest = pio2.multiply(BigDecimal.valueOf(k)).doubleValue();
+			for (double x : new double[] { nearest, -nearest, Math.nextUp(nearest), Math.nextDown(nearest) }) {
+				assert_ulps(StrictMath.sin(x), Scientific.sin(x, Tier.APPROXIMATE), 1, x);
+				assert_ulps(StrictMath.cos(x), Scientific.cos(x, Tier.APPROXIMATE), 1, x);
+				assert_ulps(StrictMath.tan(x), Scientific.tan(x, Tier.APPROXIMATE), 3, x);
+			}
+		}
+		assert_ulps(StrictMath.sin(92133.48775182787), Scientific.sin(92133.48775182787, Tier.APPROXIMATE), 1, 0);
+	}
+
+	/**
+	 * Testing pow within 4 |y ln x| + 2 ulp
+	 */
+	@Test
+	public void pow() {
+		Random random = new Random(4);
+		for (int i = 0; i < ARGUMENTS; i++) {
+			double x = random.nextDouble() * 100, y = (random.nextDouble() * 2 - 1) * 100;
+			double expected = StrictMath.pow(x, y);
+			if (Math.abs(y * Math.log(x)) < 708) {
+				assert_ulps(expected, Scientific.pow(x, y, Tier.APPROXIMATE), 4 * Math.abs(y * Math.log(x)) + 2, x);
+			}
+		}
+	}
+
+	/**
+	 * Testing that the special cases are those of StrictMath in every tier
+	 */
+	@Test
+	public void special_cases() {
+		for (Tier tier : Tier.values()) {
+			for (double x : new double[] { 709.5, -745.5, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+					Double.NaN }) {
+				assertEquals(StrictMath.exp(x), Scientific.exp(x, tier), 0);
+				assertEquals(StrictMath.pow(-2, x), Scientific.pow(-2, x, tier), 0);
+			}
+			for (double x : new double[] { 0, -0.0, -1, Double.MIN_VALUE, 1e-310, Double.POSITIVE_INFINITY,
+					Double.NEGATIVE_INFINITY, Double.NaN }) {
+				assertEquals(StrictMath.log(x), Scientific.ln(x, tier), 0);
+				assertEquals(StrictMath.pow(x, 0.5), Scientific.pow(x, 0.5, tier), 0);
+			}
+			for (double x : new double[] { 0, -0.0, 1e300, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+					Double.NaN }) {
+				assertEquals(StrictMath.sin(x), Scientific.sin(x, tier), 0);
+				assertEquals(StrictMath.cos(x), Scientific.cos(x, tier), 0);
+				assertEquals(StrictMath.tan(x), Scientific.tan(x, tier), 0);
+			}
+		}
+	}
+
+	/**
+	 * Testing that the factorials of whole numbers are exact, and those that are
+	 * not defined are NaN
+	 */
+	@Test
+	public void factorial() {
+		BigInteger f = BigInteger.ONE;
+		for (int i = 0; i <= 170; i++) {
+			for (Tier tier : Tier.values()) {
+				assertEquals(f.doubleValue(), Scientific.factorial(i, tier), 0);
+			}
+			f = f.multiply(BigInteger.valueOf(i + 1));
+		}
+		assertEquals(Double.POSITIVE_INFINITY, Scientific.factorial(171, Tier.EXACT), 0);
+		assertTrue(Double.isNaN(Scientific.factorial(-3, Tier.EXACT)));
+		assertTrue(Double.isNaN(Scientific.factorial(Double.NaN, Tier.EXACT)));
+	}
+
+	/**
+	 * Testing the factorials of halves against the closed form of gamma(n + 1/2)
+	 * = (2n)! sqrt(pi) / (4^n n!)
+	 */
+	@Test
+	public void gamma() {
+		for (int n = 0; n < 20; n++) {
+			double expected = Scientific.factorial(2 * n, Tier.EXACT) * Math.sqrt(Math.PI)
+					/ (Math.pow(4, n) * Scientific.factorial(n, Tier.EXACT));
+			for (Tier tier : Tier.values()) {
+				assertEquals(expected, Scientific.factorial(n - 0.5, tier), expected * 1e-13);
+			}
+		}
+		// Reflected, (-1.5)! = gamma(-0.5) = -2 sqrt(pi)
+		assertEquals(-2 * Math.sqrt(Math.PI), Scientific.factorial(-1.5, Tier.EXACT), 1e-14);
+	}
+
+	/**
+	 * Testing that only the scientific functions are applied
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void not_function() {
+		Scientific.apply(Operator.ADD, Tier.EXACT, 1, 2);
+	}
+
+	/**
+	 * Testing that the bulk Method gives the same results as one function at a
+	 * time
+	 */
+	@Test
+	public void batch() {
+		double[] a = { 0.5, 1, 2, 3.75 }, b = { 2, 3, -1, 0.5 }, out = new double[4];
+		BatchEvaluator.evaluate(Operator.POWER, Tier.APPROXIMATE, a, b, out);
+		for (int i = 0; i < a.length; i++) {
+			assertEquals(Scientific.pow(a[i], b[i], Tier.APPROXIMATE), out[i], 0);
+		}
+		BatchEvaluator.evaluate(Operator.SIN, Tier.FAST, a, null, out);
+		for (int i = 0; i < a.length; i++) {
+			assertEquals(Math.sin(a[i]), out[i], 0);
+		}
+	}
+
+	/**
+	 * Helper method that asserts a result is within a number of ulps of the
+	 * expected one.
+	 * 
+	 * @param expected - the expected result
+	 * @param actual   - the result
+	 * @param ulps     - the most ulps the result may be off by
+	 * @param x        - the argument, for the message
+	 */
+	private static void assert_ulps(double expected, double actual, double ulps, double x) {
+		double error = Math.abs(actual - expected) / Math.ulp(expected);
+		assertTrue(error + " ulp error at " + x, error <= ulps);
+	}
+}
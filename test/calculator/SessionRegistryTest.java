@@ -0,0 +1,111 @@
+package calculator;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * This Class contains a series of JUnit test methods for testing the
+ * SessionRegistry and Session Classes.
+ * 
+ * @author Andrew Sand
+ */
+public class SessionRegistryTest {
+	/**
+	 * Member variable that stores the registry under test
+	 */
+	SessionRegistry registry;
+
+	/**
+	 * @Before method that instantiates a new, empty registry before each test
+	 */
+	@Before
+	public void setup() {
+		registry = new SessionRegistry();
+	}
+
+	/**
+	 * Testing that sessions do not share state
+	 */
+	@Test
+	public void independent() {
+		Session a = registry.open(), b = registry.open();
+		assertNotEquals(a.id(), b.id());
+		a.press(Command.ONE, Command.TWO, Command.ADD);
+		b.press(Command.NINE);
+		assertEquals("12", a.display());
+		assertEquals("9", b.display());
+		assertEquals("3", registry.press(a.id(), Command.THREE));
+		assertEquals("15", registry.press(a.id(), Command.EQUALS));
+		assertEquals("9", b.display());
+	}
+
+	/**
+	 * Testing opening, finding and closing sessions
+	 */
+	@Test
+	public void lifecycle() {
+		Session s = registry.open();
+		assertSame(s, registry.get(s.id()));
+		assertEquals(1, registry.size());
+		assertTrue(registry.close(s.id()));
+		assertFalse(registry.close(s.id()));
+		assertNull(registry.get(s.id()));
+		assertEquals(0, registry.size());
+	}
+
+	/**
+	 * Testing that pressing a button of a closed session is rejected
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void closed() {
+		Session s = registry.open();
+		registry.close(s.id());
+		registry.press(s.id(), Command.ONE);
+	}
+
+	/**
+	 * Testing that sessions used from several threads at once give the same
+	 * results as one used alone
+	 */
+	@Test
+	public void concurrent() throws Exception {
+		// Working out the expected result on its own
+		Random r = new Random(7);
+		Command[] log = new Command[5000];
+		for (int i = 0; i < log.length; i++) {
+			log[i] = Command.values()[r.nextInt(Command.values().length)];
+		}
+		String expected = new SessionRegistry().open().press(log);
+
+		// Replaying the log on many sessions at once
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<String>> tasks = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				tasks.add(() -> {
+					Session s = registry.open();
+					for (Command c : log) {
+						s.press(c);
+					}
+					return s.display();
+				});
+			}
+			for (Future<String> f : pool.invokeAll(tasks)) {
+				assertEquals(expected, f.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(8, registry.size());
+	}
+}
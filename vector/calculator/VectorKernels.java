@@ -0,0 +1,153 @@
+package calculator;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * This Class holds the SIMD ColumnKernels, written with the incubating Java
+ * Vector API. It lives in its own source folder because it can only be compiled
+ * and run with "--add-modules jdk.incubator.vector", and the ColumnarEvaluator
+ * only loads it when that module is present.
+ * 
+ * The lanewise add, subtract, multiply, divide and square root are IEEE 754
+ * operations rounded to nearest, exactly like the scalar Java operators, so the
+ * results are bit-identical to the BatchEvaluator's. Square root of a float is
+ * taken in float precision, which gives the same float as rounding the double
+ * square root the Calculator takes, as a double has more than twice the bits of
+ * a float. The elements left over after the last full vector are handed to the
+ * BatchEvaluator.
+ * 
+ * @author Andrew Sand
+ */
+final class VectorKernels implements ColumnKernels {
+	/**
+	 * The widest float vectors the hardware supports
+	 */
+	private static final VectorSpecies<Float> F = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * The widest double vectors, and the float vectors with the same number of
+	 * lanes that they are narrowed into
+	 */
+	private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> DF = VectorSpecies.of(float.class,
+			VectorShape.forBitSize(D.vectorBitSize() / 2));
+
+	@Override
+	public void evaluate(Operator o, float[] a, float[] b, float[] out, int from, int to) {
+		// Variable declaration
+		int i = from;
+		int bound = from + F.loopBound(to - from);
+
+		// Testing which operation needs to occur, running full vectors
+		switch (o) {
+		case ADD:
+			for (; i < bound; i += F.length()) {
+				FloatVector.fromArray(F, a, i).add(FloatVector.fromArray(F, b, i)).intoArray(out, i);
+			}
+			break;
+		case SUBTRACT:
+			for (; i < bound; i += F.length()) {
+				FloatVector.fromArray(F, a, i).sub(FloatVector.fromArray(F, b, i)).intoArray(out, i);
+			}
+			break;
+		case MULTIPLY:
+			for (; i < bound; i += F.length()) {
+				FloatVector.fromArray(F, a, i).mul(FloatVector.fromArray(F, b, i)).intoArray(out, i);
+			}
+			break;
+		case DIVIDE:
+			for (; i < bound; i += F.length()) {
+				FloatVector.fromArray(F, a, i).div(FloatVector.fromArray(F, b, i)).intoArray(out, i);
+			}
+			break;
+		case SQUARE:
+			for (; i < bound; i += F.length()) {
+				FloatVector v = FloatVector.fromArray(F, a, i);
+				v.mul(v).intoArray(out, i);
+			}
+			break;
+		case SQUARE_ROOT:
+			for (; i < bound; i += F.length()) {
+				FloatVector.fromArray(F, a, i).lanewise(VectorOperators.SQRT).intoArray(out, i);
+			}
+			break;
+		default:
+			// The scientific functions have no vector kernels, so they are all left
+			break;
+		}
+
+		// Finishing the elements left over
+		BatchEvaluator.evaluate(o, a, b, out, i, to);
+	}
+
+	@Override
+	public void evaluate(Operator o, double[] a, double[] b, float[] out, int from, int to) {
+		// Variable declaration
+		int i = from;
+		int bound = from + D.loopBound(to - from);
+
+		// Testing which operation needs to occur, running full vectors
+		switch (o) {
+		case ADD:
+			for (; i < bound; i += D.length()) {
+				narrow(a, i).add(narrow(b, i)).intoArray(out, i);
+			}
+			break;
+		case SUBTRACT:
+			for (; i < bound; i += D.length()) {
+				narrow(a, i).sub(narrow(b, i)).intoArray(out, i);
+			}
+			break;
+		case MULTIPLY:
+			for (; i < bound; i += D.length()) {
+				narrow(a, i).mul(narrow(b, i)).intoArray(out, i);
+			}
+			break;
+		case DIVIDE:
+			for (; i < bound; i += D.length()) {
+				narrow(a, i).div(narrow(b, i)).intoArray(out, i);
+			}
+			break;
+		case SQUARE:
+			for (; i < bound; i += D.length()) {
+				FloatVector v = narrow(a, i);
+				v.mul(v).intoArray(out, i);
+			}
+			break;
+		case SQUARE_ROOT:
+			// Taking the root of the full double, then narrowing it
+			for (; i < bound; i += D.length()) {
+				((FloatVector) DoubleVector.fromArray(D, a, i).lanewise(VectorOperators.SQRT)
+						.convertShape(VectorOperators.D2F, DF, 0)).intoArray(out, i);
+			}
+			break;
+		default:
+			// The scientific functions have no vector kernels, so they are all left
+			break;
+		}
+
+		// Finishing the elements left over
+		BatchEvaluator.evaluate(o, a, b, out, i, to);
+	}
+
+	/**
+	 * Helper Method that loads doubles and rounds them to floats, like casting
+	 * each one does.
+	 * 
+	 * @param a - the column of numbers
+	 * @param i - the index of the first number to load
+	 * @return - the rounded numbers
+	 */
+	private static FloatVector narrow(double[] a, int i) {
+		return (FloatVector) DoubleVector.fromArray(D, a, i).convertShape(VectorOperators.D2F, DF, 0);
+	}
+
+	@Override
+	public String name() {
+		return "Vector API, " + F.length() + " float lanes";
+	}
+}